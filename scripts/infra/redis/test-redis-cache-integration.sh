@@ -185,6 +185,7 @@ echo "   - Cache Patterns:"
 echo "     * order:entity:{orderId} - Full order objects"
 echo "     * order:status:{orderId} - Order status"
 echo "     * order:response:{orderId} - API responses"
+echo "     * order:cache-version:{orderId} - Version of the cached order (CDC compare-and-set)"
 echo "     * orders:status:{status} - Orders by status"
 echo "     * orders:customer:{customerId} - Orders by customer"
 echo ""
@@ -236,7 +237,7 @@ echo "# Get Redis info"
 echo "docker exec trackops-redis redis-cli INFO"
 echo ""
 echo "# Check Debezium consumer lag"
-echo "docker exec trackops-kafka kafka-consumer-groups --bootstrap-server localhost:9092 --describe --group debezium-cache-consumer"
+echo "docker exec trackops-kafka kafka-consumer-groups --bootstrap-server localhost:9092 --describe --group debezium-order-consumer"
 
 echo ""
 echo -e "${GREEN}🎉 Debezium Redis Cache Integration setup is complete!${NC}"
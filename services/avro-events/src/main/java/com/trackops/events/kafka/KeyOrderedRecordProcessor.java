@@ -0,0 +1,224 @@
+package com.trackops.events.kafka;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+/**
+ * Runs Kafka records on a fixed set of worker lanes, more than there are partitions, while keeping the order of
+ * records with the same key.
+ * <p>
+ * The lane is chosen by a hash of the record key (the order ID), so all records of an order run one after another
+ * on the same lane, in offset order; records of different orders run in parallel. The listener thread only hands
+ * records off, so one partition is processed by many workers. Listeners acknowledge each record when its work is
+ * done; their container factory must use async acks, so the container commits the highest contiguous acknowledged
+ * offset of each partition and a crash only replays records after that offset. In-flight records are bounded by
+ * {@code max-poll-records}: the container pauses until every record of a poll is acknowledged.
+ * <p>
+ * A failing record is retried on its lane (later records of the same order wait behind it) and, after the last
+ * attempt, logged, counted and acknowledged, as the container's default error handler does. When disabled the
+ * work runs on the listener thread and failures go to the container.
+ * <p>
+ * With a {@link RetryScheduler} enabled, a failing record is instead handed to it and acknowledged, in both modes;
+ * it is only retried in place if the scheduler cannot take it. Records read back from the scheduler always run on
+ * the listener thread.
+ * <p>
+ * Not a Spring component: each service declares it as a bean with its own properties, meters and scheduler, with
+ * {@link #start()} and {@link #stop()} as its init and destroy methods.
+ */
+@Slf4j
+public class KeyOrderedRecordProcessor {
+
+    /**
+     * Processing of one record; acknowledges it when done.
+     */
+    @FunctionalInterface
+    public interface RecordWork {
+        void run() throws Exception;
+    }
+
+    /**
+     * Meters of the processor; each service names them.
+     */
+    public interface Metrics {
+
+        void registerKeyOrderedPendingGauge(IntSupplier pending);
+
+        void recordKeyOrderedRetry(String topic);
+
+        void recordKeyOrderedFailure(String topic);
+    }
+
+    /**
+     * Takes failing records off the partition to be retried later (order-service's retry tier topics).
+     */
+    public interface RetryScheduler {
+
+        RetryScheduler NONE = new RetryScheduler() {
+            @Override
+            public boolean isEnabled() {
+                return false;
+            }
+
+            @Override
+            public boolean isScheduledRetry(ConsumerRecord<?, ?> record) {
+                return false;
+            }
+
+            @Override
+            public void scheduleRetry(ConsumerRecord<?, ?> record, Exception cause) {
+                throw new IllegalStateException("No retry scheduler", cause);
+            }
+        };
+
+        boolean isEnabled();
+
+        /** Whether the record was read back from a retry this scheduler published. */
+        boolean isScheduledRetry(ConsumerRecord<?, ?> record);
+
+        void scheduleRetry(ConsumerRecord<?, ?> record, Exception cause) throws Exception;
+    }
+
+    private final Metrics metrics;
+    private final RetryScheduler retryScheduler;
+    private final boolean enabled;
+    private final int workers;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+
+    private final List<ExecutorService> lanes = new ArrayList<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    public KeyOrderedRecordProcessor(Metrics metrics, RetryScheduler retryScheduler, boolean enabled, int workers,
+                                     int maxAttempts, long retryBackoffMs) {
+        this.metrics = metrics;
+        this.retryScheduler = retryScheduler;
+        this.enabled = enabled;
+        this.workers = workers;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMs = retryBackoffMs;
+    }
+
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < workers; i++) {
+            String name = "key-ordered-" + i;
+            lanes.add(Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            }));
+        }
+        metrics.registerKeyOrderedPendingGauge(pending::get);
+        log.info("Started {} key-ordered record workers", workers);
+    }
+
+    /**
+     * Lets the lanes finish what they hold; the listener containers are already stopped at this point. Records
+     * not acknowledged in time are redelivered after the restart.
+     */
+    public void stop() throws InterruptedException {
+        lanes.forEach(ExecutorService::shutdown);
+        for (ExecutorService lane : lanes) {
+            if (!lane.awaitTermination(10, TimeUnit.SECONDS)) {
+                lane.shutdownNow();
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Run {@code work} for {@code record}: on the record key's lane when enabled, otherwise right here.
+     */
+    public void process(ConsumerRecord<?, ?> record, Acknowledgment acknowledgment, RecordWork work) throws Exception {
+        if (!enabled || retryScheduler.isScheduledRetry(record)) {
+            runInline(record, acknowledgment, work);
+            return;
+        }
+        int hash = record.key() != null ? record.key().hashCode() : record.partition();
+        pending.incrementAndGet();
+        lanes.get(Math.floorMod(hash, lanes.size())).execute(() -> {
+            try {
+                runWithRetries(record, acknowledgment, work);
+            } finally {
+                pending.decrementAndGet();
+            }
+        });
+    }
+
+    private void runInline(ConsumerRecord<?, ?> record, Acknowledgment acknowledgment, RecordWork work)
+            throws Exception {
+        try {
+            work.run();
+        } catch (Exception e) {
+            if (!retryScheduler.isEnabled()) {
+                throw e;
+            }
+            retryScheduler.scheduleRetry(record, e);
+            acknowledgment.acknowledge();
+        }
+    }
+
+    private void runWithRetries(ConsumerRecord<?, ?> record, Acknowledgment acknowledgment, RecordWork work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                work.run();
+                return;
+            } catch (Exception e) {
+                if (retryScheduler.isEnabled() && scheduledRetry(record, e)) {
+                    acknowledgment.acknowledge();
+                    return;
+                }
+                if (attempt >= maxAttempts) {
+                    metrics.recordKeyOrderedFailure(record.topic());
+                    log.error("Giving up on {}-{}@{} (key {}) after {} attempts, skipping it",
+                        record.topic(), record.partition(), record.offset(), record.key(), attempt, e);
+                    acknowledgment.acknowledge();
+                    return;
+                }
+                metrics.recordKeyOrderedRetry(record.topic());
+                if (!backOff()) {
+                    // Shutting down: leave the record unacknowledged so it is redelivered
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean scheduledRetry(ConsumerRecord<?, ?> record, Exception cause) {
+        try {
+            retryScheduler.scheduleRetry(record, cause);
+            return true;
+        } catch (Exception e) {
+            log.warn("Could not move {}-{}@{} to a retry tier, retrying it in place: {}",
+                record.topic(), record.partition(), record.offset(), e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean backOff() {
+        if (retryBackoffMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(retryBackoffMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.trackops.events.schema;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.Schema;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The Avro schemas shipped with the services ({@code /schemas/avro}, packaged in this jar),
+ * keyed by subject name (e.g. {@code OrderCreatedEvent.avsc -> ORDER_CREATED-value}).
+ * <p>
+ * These are the schemas the code was written against, so records are built from them directly instead of
+ * fetching the latest version from the registry at runtime.
+ */
+@Slf4j
+public final class LocalSchemaBundle {
+
+    public static final String DEFAULT_LOCATION = "classpath*:schemas/avro/*.avsc";
+
+    // Map event class names to topic names
+    private static final Map<String, String> EVENT_TO_TOPIC = Map.of(
+        "OrderCreatedEvent", "ORDER_CREATED",
+        "OrderStatusUpdatedEvent", "ORDER_STATUS_UPDATED",
+        "OrderDeliveredEvent", "ORDER_DELIVERED",
+        "OrderCancelledEvent", "ORDER_CANCELLED",
+        "InventoryReservedEvent", "INVENTORY_RESERVED",
+        "InventoryReservationFailedEvent", "INVENTORY_RESERVATION_FAILED",
+        "InventoryReleasedEvent", "INVENTORY_RELEASED"
+    );
+
+    private final Map<String, Schema> schemasBySubject;
+
+    private LocalSchemaBundle(Map<String, Schema> schemasBySubject) {
+        this.schemasBySubject = Collections.unmodifiableMap(schemasBySubject);
+    }
+
+    /**
+     * Loads every {@code .avsc} file matching the given resource pattern. A file that does not parse fails
+     * startup, since the service would otherwise publish with a schema nobody reviewed.
+     */
+    public static LocalSchemaBundle load(String locationPattern) {
+        Map<String, Schema> schemas = new LinkedHashMap<>();
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver().getResources(locationPattern);
+            for (Resource resource : resources) {
+                String fileName = resource.getFilename();
+                if (fileName == null || !fileName.endsWith(".avsc")) {
+                    continue;
+                }
+                try (InputStream in = resource.getInputStream()) {
+                    Schema schema = new Schema.Parser().parse(in);
+                    schemas.put(subjectForEvent(fileName.substring(0, fileName.length() - ".avsc".length())), schema);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load Avro schemas from " + locationPattern, e);
+        }
+
+        if (schemas.isEmpty()) {
+            log.warn("No Avro schemas found at {}; schemas will be fetched from the registry", locationPattern);
+        } else {
+            log.info("Loaded {} bundled Avro schemas from {}: {}", schemas.size(), locationPattern, schemas.keySet());
+        }
+        return new LocalSchemaBundle(schemas);
+    }
+
+    public static LocalSchemaBundle of(Map<String, Schema> schemasBySubject) {
+        return new LocalSchemaBundle(new LinkedHashMap<>(schemasBySubject));
+    }
+
+    /**
+     * This bundle plus every schema under its subject on the consolidated order events topic
+     * ({@code <topic>-<record full name>}), so those subjects are resolved or verified at startup as well.
+     * They cover the retry tiers of the topic ({@code <topic>-retry-<delayMs>}) too, which
+     * {@link OrderEventsSubjectNameStrategy} maps to the same subjects.
+     */
+    public LocalSchemaBundle withRecordSubjects(String topic) {
+        Map<String, Schema> schemas = new LinkedHashMap<>(schemasBySubject);
+        schemasBySubject.values().forEach(schema ->
+            schemas.putIfAbsent(OrderEventsSubjectNameStrategy.subject(topic, schema.getFullName()), schema));
+        return new LocalSchemaBundle(schemas);
+    }
+
+    public Optional<Schema> getSchema(String subject) {
+        return Optional.ofNullable(schemasBySubject.get(subject));
+    }
+
+    public Map<String, Schema> getSchemas() {
+        return schemasBySubject;
+    }
+
+    static String subjectForEvent(String eventName) {
+        String topic = EVENT_TO_TOPIC.get(eventName);
+        return topic != null ? topic + "-value" : eventName + "-value";
+    }
+}
@@ -0,0 +1,62 @@
+package com.trackops.events.schema;
+
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.serializers.subject.strategy.SubjectNameStrategy;
+
+import java.util.Map;
+
+/**
+ * Value subject names for the Avro serializer.
+ * <p>
+ * When the consolidated order events topic is enabled it carries several record types, so each is registered
+ * under {@code <topic>-<record full name>} (Confluent's TopicRecordNameStrategy) and evolves on its own. Every
+ * other topic keeps {@code <topic>-value}, so the per-type topics and their registered subjects are unchanged.
+ * <p>
+ * A retry tier topic ({@code <topic>-retry-<delayMs>}) carries the records of its main topic unchanged, so it
+ * uses the main topic's subject: tier topics need no subjects of their own, and with
+ * {@code schema.registry.mode=verify} they serialize against the bundled subjects verified at startup.
+ */
+public class OrderEventsSubjectNameStrategy implements SubjectNameStrategy {
+
+    /** Serializer config entry holding the consolidated topic name. */
+    public static final String TOPIC_CONFIG = "trackops.order-events-topic";
+
+    private static final String RETRY_TIER_INFIX = "-retry-";
+
+    private String consolidatedTopic;
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+        Object topic = configs.get(TOPIC_CONFIG);
+        this.consolidatedTopic = topic != null ? topic.toString() : null;
+    }
+
+    @Override
+    public boolean usesSchema() {
+        return true;
+    }
+
+    @Override
+    public String subjectName(String topic, boolean isKey, ParsedSchema schema) {
+        if (isKey) {
+            return topic + "-key";
+        }
+        String mainTopic = mainTopic(topic);
+        return mainTopic.equals(consolidatedTopic) && schema != null
+            ? subject(mainTopic, schema.name()) : mainTopic + "-value";
+    }
+
+    /** The main topic of a retry tier topic, or {@code topic} itself if it is not one. */
+    static String mainTopic(String topic) {
+        int infix = topic.lastIndexOf(RETRY_TIER_INFIX);
+        if (infix <= 0) {
+            return topic;
+        }
+        String delay = topic.substring(infix + RETRY_TIER_INFIX.length());
+        return !delay.isEmpty() && delay.chars().allMatch(Character::isDigit) ? topic.substring(0, infix) : topic;
+    }
+
+    static String subject(String topic, String recordName) {
+        return topic + "-" + recordName;
+    }
+}
@@ -0,0 +1,20 @@
+package com.trackops.events.schema;
+
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+
+/**
+ * A failed Schema Registry operation of a service's {@code SchemaRegistryService}.
+ */
+public class SchemaRegistryException extends RuntimeException {
+
+    public SchemaRegistryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    /**
+     * True if the registry answered that the subject or schema does not exist.
+     */
+    public boolean isNotFound() {
+        return getCause() instanceof RestClientException e && e.getStatus() == 404;
+    }
+}
@@ -0,0 +1,147 @@
+package com.trackops.events.schema;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.Schema;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Resolves the schema ID of every bundled schema, in parallel and for at most the startup timeout.
+ * <p>
+ * In register mode a schema the registry does not know is registered (if auto-register is on). In verify
+ * mode it fails startup instead: the bundled schemas are the contract, and the registry only confirms it
+ * holds them. If the registry is unreachable startup continues; unresolved subjects are retried every
+ * {@code schema.registry.resolve-retry-ms} and in the meantime resolved on first use by the serializers.
+ * <p>
+ * Not a Spring component: each service's {@code SchemaRegistryConfig} declares it as a bean and calls
+ * {@link #resolveAll(Duration)}.
+ */
+@Slf4j
+public class SchemaRegistryInitializer {
+
+    /**
+     * Schema ID lookups and registrations, with the resolved IDs cached; each service's
+     * {@code SchemaRegistryService}.
+     */
+    public interface SchemaIds {
+
+        /** Registers the schema under the subject unless it is already there; throws {@link SchemaRegistryException}. */
+        int registerSchema(String subject, Schema schema);
+
+        /** Looks up the ID of a schema already registered under the subject; throws {@link SchemaRegistryException}. */
+        int lookupSchemaId(String subject, Schema schema);
+
+        /** The ID resolved for the subject's bundled schema, if resolution has succeeded. */
+        Optional<Integer> getResolvedSchemaId(String subject);
+    }
+
+    private final SchemaIds schemaIds;
+    private final LocalSchemaBundle schemaBundle;
+    private final boolean verifyOnly;
+    private final boolean autoRegister;
+
+    public SchemaRegistryInitializer(SchemaIds schemaIds, LocalSchemaBundle schemaBundle,
+                                     boolean verifyOnly, boolean autoRegister) {
+        this.schemaIds = schemaIds;
+        this.schemaBundle = schemaBundle;
+        this.verifyOnly = verifyOnly;
+        this.autoRegister = autoRegister;
+    }
+
+    /**
+     * True for {@code schema.registry.mode=verify}: the registry is only asked for the IDs of the bundled
+     * schemas and nothing is ever registered, by the service or by its serializers.
+     */
+    public static boolean isVerifyOnly(String mode) {
+        String value = mode.trim();
+        if (value.equalsIgnoreCase("verify")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("register")) {
+            return false;
+        }
+        throw new IllegalArgumentException("schema.registry.mode must be 'register' or 'verify', got: " + mode);
+    }
+
+    public void resolveAll(Duration timeout) {
+        Map<String, Schema> pending = unresolved();
+        if (pending.isEmpty()) {
+            return;
+        }
+        log.info("Resolving schema IDs for {} bundled subjects ({} mode)",
+            pending.size(), verifyOnly ? "verify" : "register");
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(pending.size(), 4), runnable -> {
+            Thread thread = new Thread(runnable, "schema-id-resolver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<CompletableFuture<Void>> lookups = pending.entrySet().stream()
+                .map(entry -> CompletableFuture.runAsync(() -> resolve(entry.getKey(), entry.getValue()), executor))
+                .toList();
+            CompletableFuture.allOf(lookups.toArray(CompletableFuture[]::new))
+                .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Schema Registry did not answer within {}ms; unresolved subjects will be retried: {}",
+                timeout.toMillis(), unresolved().keySet());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IllegalStateException verificationFailure) {
+                throw verificationFailure;
+            }
+            throw new IllegalStateException("Schema ID resolution failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${schema.registry.resolve-retry-ms:30000}",
+               initialDelayString = "${schema.registry.resolve-retry-ms:30000}")
+    public void retryUnresolved() {
+        unresolved().forEach((subject, schema) -> {
+            try {
+                resolve(subject, schema);
+            } catch (IllegalStateException e) {
+                log.error(e.getMessage());
+            }
+        });
+    }
+
+    private void resolve(String subject, Schema schema) {
+        try {
+            int schemaId = verifyOnly || !autoRegister
+                ? schemaIds.lookupSchemaId(subject, schema)
+                : schemaIds.registerSchema(subject, schema);
+            log.info("Schema for subject {} resolved to ID {}", subject, schemaId);
+        } catch (SchemaRegistryException e) {
+            if (e.isNotFound() && verifyOnly) {
+                throw new IllegalStateException("Bundled schema for subject " + subject
+                    + " is not registered in the Schema Registry (schema.registry.mode=verify)", e);
+            }
+            log.warn("Could not resolve schema ID for subject {}: {}", subject, e.getMessage());
+        }
+    }
+
+    private Map<String, Schema> unresolved() {
+        Map<String, Schema> pending = new LinkedHashMap<>();
+        schemaBundle.getSchemas().forEach((subject, schema) -> {
+            if (schemaIds.getResolvedSchemaId(subject).isEmpty()) {
+                pending.put(subject, schema);
+            }
+        });
+        return pending;
+    }
+}
@@ -19,6 +19,8 @@ public class OutboxEventResponse {
     private String aggregateId;
     private String eventType;
     private String payload;
+    private String payloadFormat;
+    private Integer schemaId;
     private Instant createdAt;
     private boolean processed;
     private Instant processedAt;
@@ -34,6 +36,8 @@ public class OutboxEventResponse {
             .aggregateId(event.getAggregateId())
             .eventType(event.getEventType())
             .payload(event.getPayload())
+            .payloadFormat(event.getPayloadFormat())
+            .schemaId(event.getSchemaId())
             .createdAt(event.getCreatedAt())
             .processed(event.isProcessed())
             .processedAt(event.getProcessedAt())
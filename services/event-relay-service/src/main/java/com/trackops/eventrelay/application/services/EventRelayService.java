@@ -11,16 +11,21 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
 public class EventRelayService {
     
+    private static final byte MAGIC_BYTE = 0x0;
+    
     private final OutboxEventRepository outboxEventRepository;
     private final KafkaTemplate<UUID, GenericRecord> kafkaTemplate;
+    private final KafkaTemplate<UUID, byte[]> preSerializedKafkaTemplate;
     private final AvroEventConverter avroEventConverter;
     
     @Value("${event-relay.batch-size:10}")
@@ -34,9 +39,11 @@ public class EventRelayService {
     
     public EventRelayService(OutboxEventRepository outboxEventRepository, 
                            KafkaTemplate<UUID, GenericRecord> kafkaTemplate,
+                           KafkaTemplate<UUID, byte[]> preSerializedKafkaTemplate,
                            AvroEventConverter avroEventConverter) {
         this.outboxEventRepository = outboxEventRepository;
         this.kafkaTemplate = kafkaTemplate;
+        this.preSerializedKafkaTemplate = preSerializedKafkaTemplate;
         this.avroEventConverter = avroEventConverter;
     }
     
@@ -101,25 +108,30 @@ public class EventRelayService {
             // Publish to Kafka
             String topic = event.getEventType();
             UUID key = UUID.fromString(event.getAggregateId());
-            String payload = event.getPayload();
-            
-            // Convert JSON payload to Avro GenericRecord
-            GenericRecord avroRecord = avroEventConverter.jsonToAvro(topic, payload);
-            
-            // Send message to Kafka
-            // The Confluent Avro serializer will automatically register the schema
-            // if it doesn't exist and validate compatibility
-            kafkaTemplate.send(topic, key, avroRecord)
-                .whenComplete((result, throwable) -> {
-                    if (throwable != null) {
-                        log.error("Failed to send event {} to Kafka: {}", event.getId(), throwable.getMessage());
-                        // Mark as failed for retry
-                        event.markAsFailed(throwable.getMessage());
-                        outboxEventRepository.save(event);
-                    } else {
-                        log.debug("Successfully sent event {} to Kafka topic {}", event.getId(), topic);
-                    }
-                });
+            
+            CompletableFuture<?> send;
+            if (hasWireFormatPayload(event)) {
+                // Serialized by the writer (value with schema ID): forwarded as is, no parsing or conversion
+                send = preSerializedKafkaTemplate.send(topic, key, event.getPayloadBytes());
+            } else {
+                // Convert JSON payload to the generated Avro record
+                GenericRecord avroRecord = avroEventConverter.jsonToAvro(topic, event.getPayload());
+                
+                // Send message to Kafka
+                // The Confluent Avro serializer will automatically register the schema
+                // if it doesn't exist and validate compatibility
+                send = kafkaTemplate.send(topic, key, avroRecord);
+            }
+            send.whenComplete((result, throwable) -> {
+                if (throwable != null) {
+                    log.error("Failed to send event {} to Kafka: {}", event.getId(), throwable.getMessage());
+                    // Mark as failed for retry
+                    event.markAsFailed(throwable.getMessage());
+                    outboxEventRepository.save(event);
+                } else {
+                    log.debug("Successfully sent event {} to Kafka topic {}", event.getId(), topic);
+                }
+            });
             
             // Mark as processed
             event.markAsProcessed();
@@ -138,6 +150,24 @@ public class EventRelayService {
         }
     }
     
+    /**
+     * Whether the event carries a usable pre-serialized value: Confluent wire format (magic byte 0, then the
+     * 4-byte schema ID) matching the recorded schema ID. Only the 5-byte header is checked. Anything else is
+     * sent through the JSON conversion instead, since the JSON payload is always written too.
+     */
+    private boolean hasWireFormatPayload(OutboxEvent event) {
+        if (!event.isPreSerialized()) {
+            return false;
+        }
+        byte[] value = event.getPayloadBytes();
+        if (value.length > 5 && value[0] == MAGIC_BYTE
+                && (event.getSchemaId() == null || ByteBuffer.wrap(value, 1, 4).getInt() == event.getSchemaId())) {
+            return true;
+        }
+        log.warn("Outbox event {} has an invalid pre-serialized payload, converting its JSON payload instead", event.getId());
+        return false;
+    }
+    
     /**
      * Clean up old processed events
      * Runs every hour by default
@@ -1,199 +1,322 @@
 package com.trackops.eventrelay.config;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trackops.events.inventory.FailedItem;
+import com.trackops.events.inventory.InventoryReleasedEvent;
+import com.trackops.events.inventory.InventoryReservationFailedEvent;
+import com.trackops.events.inventory.InventoryReservedEvent;
+import com.trackops.events.inventory.ReleasedItem;
+import com.trackops.events.inventory.ReservedItem;
+import com.trackops.events.orders.OrderCancelledEvent;
+import com.trackops.events.orders.OrderCreatedEvent;
+import com.trackops.events.orders.OrderDeliveredEvent;
+import com.trackops.events.orders.OrderStatusUpdatedEvent;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.avro.Schema;
-import org.apache.avro.generic.GenericData;
-import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.specific.SpecificRecordBase;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Utility class to convert JSON payloads from outbox events to Avro GenericRecord.
+ * Converts JSON payloads from outbox events to the Avro SpecificRecord classes generated from
+ * {@code /schemas/avro} (module {@code avro-events}).
  * This allows the event-relay-service to send validated Avro messages to Kafka.
+ * <p>
+ * The payload is read with a streaming parser straight into the generated records: no JSON tree is built and
+ * unknown fields are skipped. Missing string fields become {@code ""} and missing nullable fields
+ * {@code null}, as before.
  */
 @Slf4j
 @Component
 public class AvroEventConverter {
 
-    private final SchemaRegistryService schemaRegistryService;
-    private final ObjectMapper objectMapper;
-    private final Map<String, Schema> schemaCache = new ConcurrentHashMap<>();
-    private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private final JsonFactory jsonFactory;
 
-    public AvroEventConverter(SchemaRegistryService schemaRegistryService, ObjectMapper objectMapper) {
-        this.schemaRegistryService = schemaRegistryService;
-        this.objectMapper = objectMapper;
+    public AvroEventConverter(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
     }
 
     /**
-     * Converts a JSON payload to Avro GenericRecord based on event type.
-     * 
+     * Converts a JSON payload to an Avro record based on event type.
+     *
      * @param eventType The event type (e.g., "ORDER_CREATED")
      * @param jsonPayload The JSON payload string
-     * @return Avro GenericRecord
+     * @return the generated Avro record for the event type
      */
-    public GenericRecord jsonToAvro(String eventType, String jsonPayload) {
-        try {
-            JsonNode jsonNode = objectMapper.readTree(jsonPayload);
-            String subject = eventType + "-value";
-            Schema schema = getSchema(subject);
-            
-            GenericRecord record = new GenericData.Record(schema);
-            
-            // Convert based on event type
-            switch (eventType) {
-                case "ORDER_CREATED":
-                    convertOrderCreated(jsonNode, record);
-                    break;
-                case "ORDER_STATUS_UPDATED":
-                    convertOrderStatusUpdated(jsonNode, record);
-                    break;
-                case "ORDER_DELIVERED":
-                    convertOrderDelivered(jsonNode, record);
-                    break;
-                case "ORDER_CANCELLED":
-                    convertOrderCancelled(jsonNode, record);
-                    break;
-                case "INVENTORY_RESERVED":
-                    convertInventoryReserved(jsonNode, record);
-                    break;
-                case "INVENTORY_RESERVATION_FAILED":
-                    convertInventoryReservationFailed(jsonNode, record);
-                    break;
-                case "INVENTORY_RELEASED":
-                    convertInventoryReleased(jsonNode, record);
-                    break;
-                default:
-                    throw new IllegalArgumentException("Unknown event type: " + eventType);
+    public SpecificRecordBase jsonToAvro(String eventType, String jsonPayload) {
+        try (JsonParser parser = jsonFactory.createParser(jsonPayload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Payload is not a JSON object");
             }
-            
-            return record;
+            return switch (eventType) {
+                case "ORDER_CREATED" -> convertOrderCreated(parser);
+                case "ORDER_STATUS_UPDATED" -> convertOrderStatusUpdated(parser);
+                case "ORDER_DELIVERED" -> convertOrderDelivered(parser);
+                case "ORDER_CANCELLED" -> convertOrderCancelled(parser);
+                case "INVENTORY_RESERVED" -> convertInventoryReserved(parser);
+                case "INVENTORY_RESERVATION_FAILED" -> convertInventoryReservationFailed(parser);
+                case "INVENTORY_RELEASED" -> convertInventoryReleased(parser);
+                default -> throw new IllegalArgumentException("Unknown event type: " + eventType);
+            };
         } catch (Exception e) {
             log.error("Failed to convert JSON to Avro for event type {}: {}", eventType, e.getMessage(), e);
             throw new RuntimeException("Failed to convert JSON to Avro: " + e.getMessage(), e);
         }
     }
 
-    private void convertOrderCreated(JsonNode json, GenericRecord record) {
-        record.put("orderId", json.get("orderId").asText());
-        record.put("eventType", "ORDER_CREATED");
-        record.put("createdBy", json.has("createdBy") ? json.get("createdBy").asText() : "");
-    }
-
-    private void convertOrderStatusUpdated(JsonNode json, GenericRecord record) {
-        record.put("orderId", json.get("orderId").asText());
-        record.put("eventType", "ORDER_STATUS_UPDATED");
-        record.put("previousStatus", json.has("previousStatus") ? json.get("previousStatus").asText() : "");
-        record.put("newStatus", json.has("newStatus") ? json.get("newStatus").asText() : "");
-        record.put("expectedVersion", json.has("expectedVersion") && !json.get("expectedVersion").isNull() 
-            ? json.get("expectedVersion").asLong() : null);
-    }
-
-    private void convertOrderDelivered(JsonNode json, GenericRecord record) {
-        record.put("orderId", json.get("orderId").asText());
-        record.put("eventType", "ORDER_DELIVERED");
-        record.put("deliveredAt", json.has("deliveredAt") && !json.get("deliveredAt").isNull() 
-            ? json.get("deliveredAt").asText() : null);
-    }
-
-    private void convertOrderCancelled(JsonNode json, GenericRecord record) {
-        record.put("orderId", json.get("orderId").asText());
-        record.put("eventType", "ORDER_CANCELLED");
-        record.put("cancelledBy", json.has("cancelledBy") ? json.get("cancelledBy").asText() : "");
-        record.put("cancellationReason", json.has("cancellationReason") ? json.get("cancellationReason").asText() : "");
-        record.put("cancelledAt", json.has("cancelledAt") && !json.get("cancelledAt").isNull() 
-            ? json.get("cancelledAt").asText() : null);
-    }
-
-    private void convertInventoryReserved(JsonNode json, GenericRecord record) {
-        record.put("eventId", json.has("eventId") ? json.get("eventId").asText() : "");
-        record.put("eventType", "INVENTORY_RESERVED");
-        record.put("orderId", json.get("orderId").asText());
-        record.put("timestamp", json.has("timestamp") && !json.get("timestamp").isNull() 
-            ? json.get("timestamp").asText() : null);
-        record.put("reservationId", json.has("reservationId") ? json.get("reservationId").asText() : "");
-        
-        if (json.has("reservedItems")) {
-            List<GenericRecord> items = new ArrayList<>();
-            Schema itemSchema = record.getSchema().getField("reservedItems").schema().getElementType();
-            for (JsonNode item : json.get("reservedItems")) {
-                GenericRecord itemRecord = new GenericData.Record(itemSchema);
-                itemRecord.put("productId", item.get("productId").asText());
-                itemRecord.put("productName", item.get("productName").asText());
-                itemRecord.put("quantity", item.get("quantity").asInt());
-                itemRecord.put("unitPrice", item.get("unitPrice").asText());
-                items.add(itemRecord);
+    private OrderCreatedEvent convertOrderCreated(JsonParser parser) throws IOException {
+        String orderId = null;
+        String createdBy = "";
+        while (nextField(parser)) {
+            switch (parser.currentName()) {
+                case "orderId" -> orderId = text(parser, null);
+                case "createdBy" -> createdBy = text(parser, "");
+                default -> parser.skipChildren();
             }
-            record.put("reservedItems", items);
-        }
-    }
-
-    private void convertInventoryReservationFailed(JsonNode json, GenericRecord record) {
-        record.put("eventId", json.has("eventId") ? json.get("eventId").asText() : "");
-        record.put("eventType", "INVENTORY_RESERVATION_FAILED");
-        record.put("orderId", json.get("orderId").asText());
-        record.put("timestamp", json.has("timestamp") && !json.get("timestamp").isNull() 
-            ? json.get("timestamp").asText() : null);
-        record.put("reason", json.has("reason") ? json.get("reason").asText() : "");
-        
-        if (json.has("failedItems")) {
-            List<GenericRecord> items = new ArrayList<>();
-            Schema itemSchema = record.getSchema().getField("failedItems").schema().getElementType();
-            for (JsonNode item : json.get("failedItems")) {
-                GenericRecord itemRecord = new GenericData.Record(itemSchema);
-                itemRecord.put("productId", item.get("productId").asText());
-                itemRecord.put("productName", item.get("productName").asText());
-                itemRecord.put("requestedQuantity", item.get("requestedQuantity").asInt());
-                itemRecord.put("availableQuantity", item.get("availableQuantity").asInt());
-                itemRecord.put("failureReason", item.get("failureReason").asText());
-                items.add(itemRecord);
+        }
+        return OrderCreatedEvent.newBuilder()
+            .setOrderId(required(orderId, "orderId"))
+            .setEventType("ORDER_CREATED")
+            .setCreatedBy(createdBy)
+            .build();
+    }
+
+    private OrderStatusUpdatedEvent convertOrderStatusUpdated(JsonParser parser) throws IOException {
+        String orderId = null;
+        String previousStatus = "";
+        String newStatus = "";
+        Long expectedVersion = null;
+        while (nextField(parser)) {
+            switch (parser.currentName()) {
+                case "orderId" -> orderId = text(parser, null);
+                case "previousStatus" -> previousStatus = text(parser, "");
+                case "newStatus" -> newStatus = text(parser, "");
+                case "expectedVersion" -> expectedVersion =
+                    parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getValueAsLong();
+                default -> parser.skipChildren();
+            }
+        }
+        return OrderStatusUpdatedEvent.newBuilder()
+            .setOrderId(required(orderId, "orderId"))
+            .setEventType("ORDER_STATUS_UPDATED")
+            .setPreviousStatus(previousStatus)
+            .setNewStatus(newStatus)
+            .setExpectedVersion(expectedVersion)
+            .build();
+    }
+
+    private OrderDeliveredEvent convertOrderDelivered(JsonParser parser) throws IOException {
+        String orderId = null;
+        String deliveredAt = null;
+        while (nextField(parser)) {
+            switch (parser.currentName()) {
+                case "orderId" -> orderId = text(parser, null);
+                case "deliveredAt" -> deliveredAt = text(parser, null);
+                default -> parser.skipChildren();
+            }
+        }
+        return OrderDeliveredEvent.newBuilder()
+            .setOrderId(required(orderId, "orderId"))
+            .setEventType("ORDER_DELIVERED")
+            .setDeliveredAt(deliveredAt)
+            .build();
+    }
+
+    private OrderCancelledEvent convertOrderCancelled(JsonParser parser) throws IOException {
+        String orderId = null;
+        String cancelledBy = "";
+        String cancellationReason = "";
+        String cancelledAt = null;
+        while (nextField(parser)) {
+            switch (parser.currentName()) {
+                case "orderId" -> orderId = text(parser, null);
+                case "cancelledBy" -> cancelledBy = text(parser, "");
+                case "cancellationReason" -> cancellationReason = text(parser, "");
+                case "cancelledAt" -> cancelledAt = text(parser, null);
+                default -> parser.skipChildren();
+            }
+        }
+        return OrderCancelledEvent.newBuilder()
+            .setOrderId(required(orderId, "orderId"))
+            .setEventType("ORDER_CANCELLED")
+            .setCancelledBy(cancelledBy)
+            .setCancellationReason(cancellationReason)
+            .setCancelledAt(cancelledAt)
+            .build();
+    }
+
+    private InventoryReservedEvent convertInventoryReserved(JsonParser parser) throws IOException {
+        InventoryReservedEvent.Builder event = InventoryReservedEvent.newBuilder()
+            .setEventId("")
+            .setEventType("INVENTORY_RESERVED")
+            .setTimestamp(null)
+            .setReservationId("");
+        List<ReservedItem> items = new ArrayList<>();
+        while (nextField(parser)) {
+            switch (parser.currentName()) {
+                case "eventId" -> event.setEventId(text(parser, ""));
+                case "orderId" -> event.setOrderId(text(parser, null));
+                case "timestamp" -> event.setTimestamp(text(parser, null));
+                case "reservationId" -> event.setReservationId(text(parser, ""));
+                case "reservedItems" -> {
+                    while (nextArrayObject(parser)) {
+                        items.add(reservedItem(parser));
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        required(event.getOrderId(), "orderId");
+        return event.setReservedItems(items).build();
+    }
+
+    private ReservedItem reservedItem(JsonParser parser) throws IOException {
+        ReservedItem item = new ReservedItem();
+        while (nextField(parser)) {
+            switch (parser.currentName()) {
+                case "productId" -> item.setProductId(text(parser, null));
+                case "productName" -> item.setProductName(text(parser, null));
+                case "quantity" -> item.setQuantity(parser.getValueAsInt());
+                case "unitPrice" -> item.setUnitPrice(text(parser, null));
+                default -> parser.skipChildren();
+            }
+        }
+        return item;
+    }
+
+    private InventoryReservationFailedEvent convertInventoryReservationFailed(JsonParser parser) throws IOException {
+        InventoryReservationFailedEvent.Builder event = InventoryReservationFailedEvent.newBuilder()
+            .setEventId("")
+            .setEventType("INVENTORY_RESERVATION_FAILED")
+            .setTimestamp(null)
+            .setReason("");
+        List<FailedItem> items = new ArrayList<>();
+        while (nextField(parser)) {
+            switch (parser.currentName()) {
+                case "eventId" -> event.setEventId(text(parser, ""));
+                case "orderId" -> event.setOrderId(text(parser, null));
+                case "timestamp" -> event.setTimestamp(text(parser, null));
+                case "reason" -> event.setReason(text(parser, ""));
+                case "failedItems" -> {
+                    while (nextArrayObject(parser)) {
+                        items.add(failedItem(parser));
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        required(event.getOrderId(), "orderId");
+        return event.setFailedItems(items).build();
+    }
+
+    private FailedItem failedItem(JsonParser parser) throws IOException {
+        FailedItem item = new FailedItem();
+        while (nextField(parser)) {
+            switch (parser.currentName()) {
+                case "productId" -> item.setProductId(text(parser, null));
+                case "productName" -> item.setProductName(text(parser, null));
+                case "requestedQuantity" -> item.setRequestedQuantity(parser.getValueAsInt());
+                case "availableQuantity" -> item.setAvailableQuantity(parser.getValueAsInt());
+                case "failureReason" -> item.setFailureReason(text(parser, null));
+                default -> parser.skipChildren();
             }
-            record.put("failedItems", items);
-        }
-    }
-
-    private void convertInventoryReleased(JsonNode json, GenericRecord record) {
-        record.put("eventId", json.has("eventId") ? json.get("eventId").asText() : "");
-        record.put("eventType", "INVENTORY_RELEASED");
-        record.put("orderId", json.get("orderId").asText());
-        record.put("timestamp", json.has("timestamp") && !json.get("timestamp").isNull() 
-            ? json.get("timestamp").asText() : null);
-        record.put("reservationId", json.has("reservationId") ? json.get("reservationId").asText() : "");
-        record.put("reason", json.has("reason") ? json.get("reason").asText() : "");
-        
-        if (json.has("releasedItems")) {
-            List<GenericRecord> items = new ArrayList<>();
-            Schema itemSchema = record.getSchema().getField("releasedItems").schema().getElementType();
-            for (JsonNode item : json.get("releasedItems")) {
-                GenericRecord itemRecord = new GenericData.Record(itemSchema);
-                itemRecord.put("productId", item.get("productId").asText());
-                itemRecord.put("productName", item.get("productName").asText());
-                itemRecord.put("quantity", item.get("quantity").asInt());
-                items.add(itemRecord);
+        }
+        return item;
+    }
+
+    private InventoryReleasedEvent convertInventoryReleased(JsonParser parser) throws IOException {
+        InventoryReleasedEvent.Builder event = InventoryReleasedEvent.newBuilder()
+            .setEventId("")
+            .setEventType("INVENTORY_RELEASED")
+            .setTimestamp(null)
+            .setReservationId("")
+            .setReason("");
+        List<ReleasedItem> items = new ArrayList<>();
+        while (nextField(parser)) {
+            switch (parser.currentName()) {
+                case "eventId" -> event.setEventId(text(parser, ""));
+                case "orderId" -> event.setOrderId(text(parser, null));
+                case "timestamp" -> event.setTimestamp(text(parser, null));
+                case "reservationId" -> event.setReservationId(text(parser, ""));
+                case "reason" -> event.setReason(text(parser, ""));
+                case "releasedItems" -> {
+                    while (nextArrayObject(parser)) {
+                        items.add(releasedItem(parser));
+                    }
+                }
+                default -> parser.skipChildren();
             }
-            record.put("releasedItems", items);
         }
+        required(event.getOrderId(), "orderId");
+        return event.setReleasedItems(items).build();
+    }
+
+    private ReleasedItem releasedItem(JsonParser parser) throws IOException {
+        ReleasedItem item = new ReleasedItem();
+        while (nextField(parser)) {
+            switch (parser.currentName()) {
+                case "productId" -> item.setProductId(text(parser, null));
+                case "productName" -> item.setProductName(text(parser, null));
+                case "quantity" -> item.setQuantity(parser.getValueAsInt());
+                default -> parser.skipChildren();
+            }
+        }
+        return item;
     }
 
     /**
-     * Gets the schema for a subject, with caching.
+     * Advances to the value of the next field of the current object; false at the end of the object.
      */
-    private Schema getSchema(String subject) {
-        return schemaCache.computeIfAbsent(subject, s -> {
-            try {
-                return schemaRegistryService.getLatestSchema(s);
-            } catch (Exception e) {
-                log.error("Failed to get schema for subject: {}", subject, e);
-                throw new RuntimeException("Failed to get schema for subject: " + subject, e);
+    private static boolean nextField(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.FIELD_NAME) {
+            return false;
+        }
+        parser.nextToken();
+        return true;
+    }
+
+    /**
+     * Advances to the next object of the array the parser is on; false at the end of the array
+     * (or if the value is not an array, e.g. {@code null}).
+     */
+    private static boolean nextArrayObject(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.START_ARRAY || parser.currentToken() == JsonToken.END_OBJECT) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                return true;
+            }
+            if (token != JsonToken.END_ARRAY) {
+                throw new IllegalArgumentException("Expected an array of objects but got " + token);
             }
-        });
+        }
+        return false;
+    }
+
+    /**
+     * The current value as text, {@code ifNull} for JSON null. Objects and arrays are skipped and read as
+     * {@code ""}, like {@code JsonNode.asText()} did.
+     */
+    private static String text(JsonParser parser, String ifNull) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return ifNull;
+        }
+        if (token.isStructStart()) {
+            parser.skipChildren();
+            return "";
+        }
+        return parser.getText();
+    }
+
+    private static <T> T required(T value, String field) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing required field: " + field);
+        }
+        return value;
     }
 }
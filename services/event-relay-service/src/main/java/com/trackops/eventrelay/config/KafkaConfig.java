@@ -1,8 +1,13 @@
 package com.trackops.eventrelay.config;
 
+import com.trackops.events.schema.SchemaRegistryInitializer;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.AbstractKafkaSchemaSerDeConfig;
 import io.confluent.kafka.serializers.KafkaAvroSerializer;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.UUIDSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -27,6 +32,16 @@ public class KafkaConfig {
     @Value("${schema.registry.basic.auth.user.info:}")
     private String basicAuthUserInfo;
 
+    @Value("${schema.registry.mode:register}")
+    private String schemaRegistryMode;
+
+    // Shared with SchemaRegistryService: its cache already holds the IDs resolved at startup
+    private final SchemaRegistryClient schemaRegistryClient;
+
+    public KafkaConfig(SchemaRegistryClient schemaRegistryClient) {
+        this.schemaRegistryClient = schemaRegistryClient;
+    }
+
     // Producer Configuration with Avro Serializer
     @Bean
     public ProducerFactory<UUID, GenericRecord> producerFactory() {
@@ -44,12 +59,39 @@ public class KafkaConfig {
             configProps.put("basic.auth.credentials.source", "USER_INFO");
             configProps.put("basic.auth.user.info", basicAuthUserInfo);
         }
+        if (SchemaRegistryInitializer.isVerifyOnly(schemaRegistryMode)) {
+            configProps.put(AbstractKafkaSchemaSerDeConfig.AUTO_REGISTER_SCHEMAS, false);
+        }
         
-        return new DefaultKafkaProducerFactory<>(configProps);
+        return new DefaultKafkaProducerFactory<>(configProps, new UUIDSerializer(), avroSerializer(configProps));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Serializer<GenericRecord> avroSerializer(Map<String, Object> configProps) {
+        return (Serializer<GenericRecord>) (Serializer<?>) new KafkaAvroSerializer(schemaRegistryClient, configProps);
     }
 
     @Bean
     public KafkaTemplate<UUID, GenericRecord> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
+
+    // Producer for pre-serialized outbox payloads: the value already is the Avro wire format, sent as is
+    @Bean
+    public ProducerFactory<UUID, byte[]> preSerializedProducerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, UUIDSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+
+    @Bean
+    public KafkaTemplate<UUID, byte[]> preSerializedKafkaTemplate() {
+        return new KafkaTemplate<>(preSerializedProducerFactory());
+    }
 }
\ No newline at end of file
@@ -1,5 +1,8 @@
 package com.trackops.eventrelay.config;
 
+import com.trackops.events.schema.LocalSchemaBundle;
+import com.trackops.events.schema.SchemaRegistryException;
+import com.trackops.events.schema.SchemaRegistryInitializer;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
 import lombok.extern.slf4j.Slf4j;
@@ -9,23 +12,30 @@ import org.springframework.stereotype.Service;
 import java.io.IOException;
 
 import java.io.IOException;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 /**
  * Service for managing Schema Registry operations with local caching.
  * Provides methods to register and retrieve schemas with error handling.
+ * <p>
+ * Schemas present in the {@link LocalSchemaBundle} are served from the bundle and never fetched from the
+ * registry. Their IDs are resolved once at startup by {@link SchemaRegistryInitializer}
+ * and kept in the caches below, so the serializers do not wait on the registry at runtime.
  */
 @Slf4j
 @Service
-public class SchemaRegistryService {
+public class SchemaRegistryService implements SchemaRegistryInitializer.SchemaIds {
 
     private final SchemaRegistryClient schemaRegistryClient;
     private final ConcurrentMap<String, Schema> localSchemaCache = new ConcurrentHashMap<>();
     private final ConcurrentMap<String, Integer> subjectToSchemaIdCache = new ConcurrentHashMap<>();
+    private final LocalSchemaBundle schemaBundle;
 
-    public SchemaRegistryService(SchemaRegistryClient schemaRegistryClient) {
+    public SchemaRegistryService(SchemaRegistryClient schemaRegistryClient, LocalSchemaBundle schemaBundle) {
         this.schemaRegistryClient = schemaRegistryClient;
+        this.schemaBundle = schemaBundle;
     }
 
     /**
@@ -52,8 +62,7 @@ public class SchemaRegistryService {
                 log.debug("Schema already exists for subject {} with ID: {}", subject, existingId);
                 
                 // Cache the result
-                localSchemaCache.put(subject, schema);
-                subjectToSchemaIdCache.put(subject, existingId);
+                cacheSchemaId(subject, schema, existingId);
                 
                 return existingId;
             } catch (RestClientException e) {
@@ -63,8 +72,7 @@ public class SchemaRegistryService {
                     log.info("Registered new schema for subject {} with ID: {}", subject, schemaId);
                     
                     // Cache the result
-                    localSchemaCache.put(subject, schema);
-                    subjectToSchemaIdCache.put(subject, schemaId);
+                    cacheSchemaId(subject, schema, schemaId);
                     
                     return schemaId;
                 } else {
@@ -79,9 +87,50 @@ public class SchemaRegistryService {
     }
 
     /**
-     * Retrieves the latest schema for a subject.
+     * Looks up the ID of a schema that must already be registered under the subject; never registers.
+     *
+     * @throws SchemaRegistryException if the lookup fails; {@link SchemaRegistryException#isNotFound()}
+     *         tells a schema the registry does not know from an unreachable registry
+     */
+    public int lookupSchemaId(String subject, Schema schema) {
+        Integer cachedId = getCachedSchemaId(subject, schema);
+        if (cachedId != null) {
+            return cachedId;
+        }
+        try {
+            int schemaId = schemaRegistryClient.getId(subject, schema);
+            cacheSchemaId(subject, schema, schemaId);
+            return schemaId;
+        } catch (RestClientException | IOException e) {
+            throw new SchemaRegistryException("Failed to look up schema ID for subject: " + subject, e);
+        }
+    }
+
+    /**
+     * The schema ID resolved for the subject's bundled schema, if resolution has succeeded.
+     */
+    public Optional<Integer> getResolvedSchemaId(String subject) {
+        return Optional.ofNullable(subjectToSchemaIdCache.get(subject));
+    }
+
+    private Integer getCachedSchemaId(String subject, Schema schema) {
+        Schema cachedSchema = localSchemaCache.get(subject);
+        return cachedSchema != null && cachedSchema.equals(schema) ? subjectToSchemaIdCache.get(subject) : null;
+    }
+
+    private void cacheSchemaId(String subject, Schema schema, int schemaId) {
+        localSchemaCache.put(subject, schema);
+        subjectToSchemaIdCache.put(subject, schemaId);
+    }
+
+    /**
+     * Retrieves the latest schema for a subject: the bundled schema if there is one, else the registry's.
      */
     public Schema getLatestSchema(String subject) {
+        return schemaBundle.getSchema(subject).orElseGet(() -> fetchLatestSchema(subject));
+    }
+
+    private Schema fetchLatestSchema(String subject) {
         try {
             String cacheKey = subject + "-latest";
             
@@ -103,13 +152,4 @@ public class SchemaRegistryService {
                 "Failed to retrieve schema for subject: " + subject, e);
         }
     }
-
-    /**
-     * Custom exception for Schema Registry operations.
-     */
-    public static class SchemaRegistryException extends RuntimeException {
-        public SchemaRegistryException(String message, Throwable cause) {
-            super(message, cause);
-        }
-    }
 }
@@ -10,6 +10,9 @@ import java.util.UUID;
 @Table(name = "outbox_events")
 public class OutboxEvent {
     
+    public static final String FORMAT_JSON = "JSON";
+    public static final String FORMAT_AVRO = "AVRO";
+    
     @Id
     @GeneratedValue(generator = "uuid2")
     @GenericGenerator(name = "uuid2", strategy = "uuid2")
@@ -25,6 +28,15 @@ public class OutboxEvent {
     @Column(name = "payload", columnDefinition = "TEXT", nullable = false)
     private String payload; // JSON serialized event
     
+    @Column(name = "payload_format", nullable = false, length = 16)
+    private String payloadFormat = FORMAT_JSON; // JSON, or AVRO when payloadBytes holds the serialized value
+    
+    @Column(name = "payload_bytes", columnDefinition = "BYTEA")
+    private byte[] payloadBytes; // Kafka record value in Confluent wire format (magic byte, schema ID, Avro)
+    
+    @Column(name = "schema_id")
+    private Integer schemaId;
+    
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
     
@@ -88,6 +100,13 @@ public class OutboxEvent {
         return !this.processed && this.retryCount >= this.maxRetries;
     }
 
+    /**
+     * Whether the writer stored the serialized Kafka value, so it can be sent without conversion.
+     */
+    public boolean isPreSerialized() {
+        return FORMAT_AVRO.equals(this.payloadFormat) && this.payloadBytes != null;
+    }
+
     // Getters and Setters
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
@@ -101,6 +120,15 @@ public class OutboxEvent {
     public String getPayload() { return payload; }
     public void setPayload(String payload) { this.payload = payload; }
     
+    public String getPayloadFormat() { return payloadFormat; }
+    public void setPayloadFormat(String payloadFormat) { this.payloadFormat = payloadFormat; }
+    
+    public byte[] getPayloadBytes() { return payloadBytes; }
+    public void setPayloadBytes(byte[] payloadBytes) { this.payloadBytes = payloadBytes; }
+    
+    public Integer getSchemaId() { return schemaId; }
+    public void setSchemaId(Integer schemaId) { this.schemaId = schemaId; }
+    
     public Instant getCreatedAt() { return createdAt; }
     public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
     
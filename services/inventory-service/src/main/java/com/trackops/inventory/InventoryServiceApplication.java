@@ -15,6 +15,9 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 public class InventoryServiceApplication {
 
     public static void main(String[] args) {
+        // Let the generated Avro classes (avro-events) encode and decode themselves instead of going through
+        // reflection; must be set before Avro's SpecificData is loaded
+        System.setProperty("org.apache.avro.specific.use_custom_coders", "true");
         SpringApplication.run(InventoryServiceApplication.class, args);
     }
 }
@@ -0,0 +1,128 @@
+package com.trackops.inventory.adapters.input.messaging;
+
+import com.trackops.inventory.domain.events.OrderEvent;
+import com.trackops.inventory.ports.input.events.OrderEventProcessorPort;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Batch order event consumer: each poll is deduplicated, applied in one transaction and acknowledged once.
+ * <p>
+ * If the batch fails its transaction rolls back, processed-event markers included, and the poll is run again one
+ * record at a time, each in its own transaction. The first record that fails there is reported to the container
+ * as a {@link BatchListenerFailedException} with its index: the records before it are committed, and only it is
+ * retried (and finally skipped) by the batch error handler, so one poison record cannot drop a whole poll.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.kafka.batch.enabled", havingValue = "true")
+public class KafkaOrderEventBatchConsumer {
+
+    private final OrderEventProcessorPort orderEventProcessor;
+
+    public KafkaOrderEventBatchConsumer(OrderEventProcessorPort orderEventProcessor) {
+        this.orderEventProcessor = orderEventProcessor;
+    }
+
+    @KafkaListener(
+        topics = "ORDER_CREATED",
+        groupId = "inventory-service",
+        containerFactory = "batchKafkaListenerContainerFactory",
+        autoStartup = "${inventory.kafka.order-events-topic.per-type-listeners:true}"
+    )
+    public void handleOrderCreatedBatch(List<ConsumerRecord<UUID, GenericRecord>> records, Acknowledgment acknowledgment) {
+        processBatch("ORDER_CREATED", records, acknowledgment);
+    }
+
+    @KafkaListener(
+        topics = "ORDER_CANCELLED",
+        groupId = "inventory-service",
+        containerFactory = "batchKafkaListenerContainerFactory",
+        autoStartup = "${inventory.kafka.order-events-topic.per-type-listeners:true}"
+    )
+    public void handleOrderCancelledBatch(List<ConsumerRecord<UUID, GenericRecord>> records, Acknowledgment acknowledgment) {
+        processBatch("ORDER_CANCELLED", records, acknowledgment);
+    }
+
+    /**
+     * Order-service's consolidated order events topic ({@code inventory.kafka.order-events-topic.enabled}): a batch
+     * may mix created and cancelled orders, typed by the event-type header. Other event types on the topic,
+     * including this service's own responses, are skipped.
+     */
+    @KafkaListener(
+        topics = "${inventory.kafka.order-events-topic.name:ORDER_EVENTS}",
+        groupId = "inventory-service",
+        containerFactory = "batchKafkaListenerContainerFactory",
+        autoStartup = "${inventory.kafka.order-events-topic.enabled:false}"
+    )
+    public void handleOrderEventsBatch(List<ConsumerRecord<UUID, GenericRecord>> records, Acknowledgment acknowledgment) {
+        processBatch(null, records, acknowledgment);
+    }
+
+    /**
+     * @param eventType type of every record (per-type topics), or null to read it from each record's header
+     */
+    private void processBatch(String eventType, List<ConsumerRecord<UUID, GenericRecord>> records,
+                              Acknowledgment acknowledgment) {
+        try {
+            List<OrderEvent> events = new ArrayList<>(records.size());
+            for (ConsumerRecord<UUID, GenericRecord> record : records) {
+                OrderEvent event = toOrderEvent(eventType, record);
+                if (event != null) {
+                    events.add(event);
+                }
+            }
+            if (!events.isEmpty()) {
+                orderEventProcessor.processOrderEventBatch(events);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to process batch of {} {} events, processing its records one at a time",
+                    records.size(), eventType != null ? eventType : "order", e);
+            processOneByOne(eventType, records);
+        }
+        acknowledgment.acknowledge();
+    }
+
+    /**
+     * @throws BatchListenerFailedException for the first record that fails, with its index in the poll
+     */
+    private void processOneByOne(String eventType, List<ConsumerRecord<UUID, GenericRecord>> records) {
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<UUID, GenericRecord> record = records.get(i);
+            try {
+                OrderEvent event = toOrderEvent(eventType, record);
+                if (event != null) {
+                    orderEventProcessor.processOrderEventBatch(List.of(event));
+                }
+            } catch (Exception e) {
+                // Don't acknowledge - the records before this one are committed, this one and the rest redelivered
+                throw new BatchListenerFailedException("Failed to process order event " + record.topic() + "-"
+                        + record.partition() + "@" + record.offset(), e, i);
+            }
+        }
+    }
+
+    /** The order event of a record, or null if this service does not act on it. */
+    private static OrderEvent toOrderEvent(String eventType, ConsumerRecord<UUID, GenericRecord> record) {
+        String type = eventType != null ? eventType : OrderEventRecordMapper.eventTypeOf(record);
+        if (!OrderEventRecordMapper.CONSUMED_EVENT_TYPES.contains(type)) {
+            return null;
+        }
+        if (record.key() == null) {
+            log.warn("Skipping {} record without order id at {}-{}@{}",
+                    type, record.topic(), record.partition(), record.offset());
+            return null;
+        }
+        return OrderEventRecordMapper.toOrderEvent(type, record);
+    }
+}
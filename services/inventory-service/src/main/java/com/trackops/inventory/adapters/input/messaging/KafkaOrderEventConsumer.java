@@ -1,81 +1,96 @@
 package com.trackops.inventory.adapters.input.messaging;
 
+import com.trackops.events.kafka.KeyOrderedRecordProcessor;
 import com.trackops.inventory.domain.events.OrderEvent;
 import com.trackops.inventory.ports.input.events.OrderEventProcessorPort;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
 import java.util.UUID;
 
+/**
+ * Record-at-a-time order event consumer. Used when batch consumption is disabled
+ * ({@code inventory.kafka.batch.enabled=false}); see {@link KafkaOrderEventBatchConsumer}.
+ * With {@code inventory.kafka.key-ordered.enabled=true} records run in parallel per order ID on the
+ * {@link KeyOrderedRecordProcessor} workers.
+ */
 @Slf4j
 @Component
+@ConditionalOnProperty(name = "inventory.kafka.batch.enabled", havingValue = "false", matchIfMissing = true)
 public class KafkaOrderEventConsumer {
 
     private final OrderEventProcessorPort orderEventProcessor;
+    private final KeyOrderedRecordProcessor keyOrderedRecordProcessor;
 
-    public KafkaOrderEventConsumer(OrderEventProcessorPort orderEventProcessor) {
+    public KafkaOrderEventConsumer(OrderEventProcessorPort orderEventProcessor,
+                                   KeyOrderedRecordProcessor keyOrderedRecordProcessor) {
         this.orderEventProcessor = orderEventProcessor;
+        this.keyOrderedRecordProcessor = keyOrderedRecordProcessor;
     }
 
     @KafkaListener(
         topics = "ORDER_CREATED",
         groupId = "inventory-service",
-        containerFactory = "kafkaListenerContainerFactory"
+        containerFactory = "kafkaListenerContainerFactory",
+        autoStartup = "${inventory.kafka.order-events-topic.per-type-listeners:true}"
     )
-    public void handleOrderCreated(ConsumerRecord<UUID, GenericRecord> record, Acknowledgment acknowledgment) {
-        try {
-            GenericRecord avroRecord = record.value();
-            UUID orderId = record.key();
-            String topic = record.topic();
-            
-            log.info("Received ORDER_CREATED event for order: {} from topic: {}", orderId, topic);
-            log.debug("Avro record: {}", avroRecord);
-
-            // Create a simple OrderEvent for processing
-            // The Avro record is validated by Schema Registry, so we can trust the data
-            OrderEvent event = new OrderEvent("ORDER_CREATED", orderId) {};
-            orderEventProcessor.processOrderEvent(event);
-
-            log.info("Successfully processed ORDER_CREATED event for order: {}", orderId);
-            acknowledgment.acknowledge();
-
-        } catch (Exception e) {
-            log.error("Failed to process ORDER_CREATED event for order: {}", record.key(), e);
-            // Don't acknowledge - let Kafka retry the message
-            throw e; // Re-throw to trigger retry mechanism
-        }
+    public void handleOrderCreated(ConsumerRecord<UUID, GenericRecord> record, Acknowledgment acknowledgment) throws Exception {
+        process("ORDER_CREATED", record, acknowledgment);
     }
 
     @KafkaListener(
         topics = "ORDER_CANCELLED",
         groupId = "inventory-service",
-        containerFactory = "kafkaListenerContainerFactory"
+        containerFactory = "kafkaListenerContainerFactory",
+        autoStartup = "${inventory.kafka.order-events-topic.per-type-listeners:true}"
     )
-    public void handleOrderCancelled(ConsumerRecord<UUID, GenericRecord> record, Acknowledgment acknowledgment) {
-        try {
-            GenericRecord avroRecord = record.value();
-            UUID orderId = record.key();
-            String topic = record.topic();
-            
-            log.info("Received ORDER_CANCELLED event for order: {} from topic: {}", orderId, topic);
-            log.debug("Avro record: {}", avroRecord);
-
-            // Create a simple OrderEvent for processing
-            // The Avro record is validated by Schema Registry, so we can trust the data
-            OrderEvent event = new OrderEvent("ORDER_CANCELLED", orderId) {};
-            orderEventProcessor.processOrderEvent(event);
+    public void handleOrderCancelled(ConsumerRecord<UUID, GenericRecord> record, Acknowledgment acknowledgment) throws Exception {
+        process("ORDER_CANCELLED", record, acknowledgment);
+    }
 
-            log.info("Successfully processed ORDER_CANCELLED event for order: {}", orderId);
+    /**
+     * Order-service's consolidated order events topic ({@code inventory.kafka.order-events-topic.enabled}), typed
+     * by the event-type header. Other event types on the topic, including this service's own responses, are
+     * acknowledged and skipped.
+     */
+    @KafkaListener(
+        topics = "${inventory.kafka.order-events-topic.name:ORDER_EVENTS}",
+        groupId = "inventory-service",
+        containerFactory = "kafkaListenerContainerFactory",
+        autoStartup = "${inventory.kafka.order-events-topic.enabled:false}"
+    )
+    public void handleOrderEvent(ConsumerRecord<UUID, GenericRecord> record, Acknowledgment acknowledgment) throws Exception {
+        String eventType = OrderEventRecordMapper.eventTypeOf(record);
+        if (!OrderEventRecordMapper.CONSUMED_EVENT_TYPES.contains(eventType)) {
             acknowledgment.acknowledge();
-
-        } catch (Exception e) {
-            log.error("Failed to process ORDER_CANCELLED event for order: {}", record.key(), e);
-            // Don't acknowledge - let Kafka retry the message
-            throw e; // Re-throw to trigger retry mechanism
+            return;
         }
+        process(eventType, record, acknowledgment);
+    }
+
+    private void process(String eventType, ConsumerRecord<UUID, GenericRecord> record, Acknowledgment acknowledgment)
+            throws Exception {
+        keyOrderedRecordProcessor.process(record, acknowledgment, () -> {
+            try {
+                UUID orderId = record.key();
+                log.debug("Received {} event for order: {} from topic: {}", eventType, orderId, record.topic());
+
+                OrderEvent event = OrderEventRecordMapper.toOrderEvent(eventType, record);
+                orderEventProcessor.processOrderEvent(event);
+
+                log.debug("Successfully processed {} event for order: {}", eventType, orderId);
+                acknowledgment.acknowledge();
+
+            } catch (Exception e) {
+                log.error("Failed to process {} event for order: {}", eventType, record.key(), e);
+                // Don't acknowledge - let Kafka retry the message
+                throw e; // Re-throw to trigger retry mechanism
+            }
+        });
     }
 }
@@ -0,0 +1,44 @@
+package com.trackops.inventory.adapters.input.messaging;
+
+import com.trackops.events.kafka.KeyOrderedRecordProcessor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Meters of the {@link KeyOrderedRecordProcessor} workers of {@link KafkaOrderEventConsumer}.
+ */
+public class KeyOrderedRecordMetrics implements KeyOrderedRecordProcessor.Metrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public KeyOrderedRecordMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void registerKeyOrderedPendingGauge(IntSupplier pending) {
+        Gauge.builder("inventory_key_ordered_pending_records", pending, IntSupplier::getAsInt)
+            .description("Order event records handed to the key-ordered workers and not finished yet")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void recordKeyOrderedRetry(String topic) {
+        counter("inventory_key_ordered_retries_total", topic).increment();
+    }
+
+    @Override
+    public void recordKeyOrderedFailure(String topic) {
+        counter("inventory_key_ordered_failures_total", topic).increment();
+    }
+
+    private Counter counter(String name, String topic) {
+        return Counter.builder(name)
+            .description("Key-ordered order event records retried or skipped after the last attempt")
+            .tag("topic", topic)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,50 @@
+package com.trackops.inventory.adapters.input.messaging;
+
+import com.trackops.inventory.domain.events.OrderEvent;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Maps consumed order-event records to {@link OrderEvent}s with a stable event ID.
+ * The ID is the record's {@code eventId} field when the schema has one, otherwise
+ * {@code <eventType>:<orderId>} (each order is created and cancelled at most once).
+ */
+final class OrderEventRecordMapper {
+
+    /** Header carrying the event type on order-service's consolidated order events topic. */
+    static final String EVENT_TYPE_HEADER = "event-type";
+
+    /** Order event types this service acts on; the consolidated topic also carries the others. */
+    static final Set<String> CONSUMED_EVENT_TYPES = Set.of("ORDER_CREATED", "ORDER_CANCELLED");
+
+    private OrderEventRecordMapper() {
+    }
+
+    static OrderEvent toOrderEvent(String eventType, ConsumerRecord<UUID, GenericRecord> record) {
+        UUID orderId = record.key();
+        String eventId = eventIdOf(eventType, orderId, record.value());
+        // The Avro record is validated by Schema Registry, so we can trust the data
+        return new OrderEvent(eventId, eventType, orderId) {};
+    }
+
+    /** Event type of a record from the consolidated topic; null when the header is missing. */
+    static String eventTypeOf(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(EVENT_TYPE_HEADER);
+        return header != null && header.value() != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+
+    private static String eventIdOf(String eventType, UUID orderId, GenericRecord value) {
+        if (value != null && value.getSchema().getField("eventId") != null) {
+            Object eventId = value.get("eventId");
+            if (eventId != null) {
+                return eventId.toString();
+            }
+        }
+        return eventType + ":" + orderId;
+    }
+}
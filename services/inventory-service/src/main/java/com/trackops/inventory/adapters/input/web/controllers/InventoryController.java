@@ -19,6 +19,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.Instant;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -126,6 +127,46 @@ public class InventoryController {
         }
     }
     
+    /**
+     * Check availability of many items in one call (cart validation).
+     * Duplicate product IDs are merged by summing their quantities.
+     */
+    @PostMapping("/availability")
+    public ResponseEntity<?> checkAvailability(@Valid @RequestBody BatchAvailabilityRequest request) {
+        try {
+            Map<String, Integer> requested = new LinkedHashMap<>();
+            for (BatchAvailabilityRequest.Item item : request.getItems()) {
+                requested.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            }
+            
+            List<BatchAvailabilityResponse.ItemAvailability> items = inventoryService.checkAvailability(requested).stream()
+                .map(check -> BatchAvailabilityResponse.ItemAvailability.builder()
+                    .productId(check.getProductId())
+                    .requested(check.getRequested())
+                    .availableQuantity(check.getAvailableQuantity())
+                    .available(check.isAvailable())
+                    .reason(check.getReason())
+                    .build())
+                .collect(Collectors.toList());
+            
+            BatchAvailabilityResponse response = BatchAvailabilityResponse.builder()
+                .available(items.stream().allMatch(BatchAvailabilityResponse.ItemAvailability::isAvailable))
+                .items(items)
+                .build();
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            log.error("Error checking availability for {} items: {}", request.getItems().size(), e.getMessage(), e);
+            ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(Instant.now())
+                .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
+                .error("Internal Server Error")
+                .message("Failed to check availability: " + e.getMessage())
+                .build();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+    
     /**
      * Create new inventory item
      */
@@ -0,0 +1,34 @@
+package com.trackops.inventory.adapters.input.web.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAvailabilityRequest {
+    
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 500, message = "At most 500 items can be checked per request")
+    private List<@Valid Item> items;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        
+        @NotBlank(message = "Product ID is required")
+        private String productId;
+        
+        @NotNull(message = "Quantity is required")
+        @Min(value = 1, message = "Quantity must be positive")
+        private Integer quantity;
+    }
+}
@@ -0,0 +1,37 @@
+package com.trackops.inventory.adapters.input.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Availability of every requested SKU in one response.
+ * {@code available} is true only when every item can be reserved in the requested quantity.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAvailabilityResponse {
+    
+    private boolean available;
+    private List<ItemAvailability> items;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ItemAvailability {
+        private String productId;
+        private int requested;
+        private int availableQuantity;
+        private boolean available;
+        /** Only set when the item is not available: NOT_FOUND, INACTIVE, DISCONTINUED or INSUFFICIENT. */
+        private String reason;
+    }
+}
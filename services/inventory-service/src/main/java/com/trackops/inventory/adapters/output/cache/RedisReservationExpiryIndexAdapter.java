@@ -0,0 +1,100 @@
+package com.trackops.inventory.adapters.output.cache;
+
+import com.trackops.inventory.ports.output.cache.ReservationExpiryIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Redis sorted-set implementation of {@link ReservationExpiryIndex}.
+ * Member = reservation id, score = expiry deadline in epoch millis.
+ */
+@Slf4j
+@Component
+public class RedisReservationExpiryIndexAdapter implements ReservationExpiryIndex {
+
+    /**
+     * Pops due members in one round trip. ZRANGEBYSCORE + ZREM run atomically on the server,
+     * so concurrent pollers never receive the same reservation.
+     */
+    private static final RedisScript<List> POP_DUE_SCRIPT = new DefaultRedisScript<>(
+        "local due = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2])) " +
+        "if #due > 0 then redis.call('ZREM', KEYS[1], unpack(due)) end " +
+        "return due",
+        List.class
+    );
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final String key;
+
+    public RedisReservationExpiryIndexAdapter(
+            RedisTemplate<String, String> redisTemplate,
+            @Value("${inventory.reservation.expiry.redis-key:inventory:reservation-expiry}") String key) {
+        this.redisTemplate = redisTemplate;
+        this.key = key;
+    }
+
+    @Override
+    public void schedule(UUID reservationId, Instant expiresAt) {
+        redisTemplate.opsForZSet().add(key, reservationId.toString(), expiresAt.toEpochMilli());
+    }
+
+    @Override
+    public void scheduleAll(Map<UUID, Instant> deadlines) {
+        if (deadlines.isEmpty()) {
+            return;
+        }
+        Set<ZSetOperations.TypedTuple<String>> tuples = new HashSet<>(deadlines.size());
+        deadlines.forEach((id, expiresAt) ->
+            tuples.add(new DefaultTypedTuple<>(id.toString(), (double) expiresAt.toEpochMilli())));
+        redisTemplate.opsForZSet().add(key, tuples);
+    }
+
+    @Override
+    public void cancel(UUID reservationId) {
+        redisTemplate.opsForZSet().remove(key, reservationId.toString());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<UUID> pollDue(Instant now, int limit) {
+        List<String> due = redisTemplate.execute(
+            POP_DUE_SCRIPT,
+            Collections.singletonList(key),
+            String.valueOf(now.toEpochMilli()),
+            String.valueOf(limit)
+        );
+        if (due == null || due.isEmpty()) {
+            return List.of();
+        }
+        List<UUID> ids = new ArrayList<>(due.size());
+        for (String member : due) {
+            try {
+                ids.add(UUID.fromString(member));
+            } catch (IllegalArgumentException e) {
+                log.warn("Dropping malformed reservation id from expiry index: {}", member);
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public long size() {
+        Long size = redisTemplate.opsForZSet().zCard(key);
+        return size != null ? size : 0L;
+    }
+}
@@ -7,23 +7,39 @@ import com.trackops.inventory.domain.events.InventoryReleasedEvent;
 import com.trackops.inventory.ports.output.events.InventoryEventProducer;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
+/**
+ * Publishes inventory responses to the topic of their event type, or with
+ * inventory.kafka.order-events-topic.enabled to the consolidated order events topic of order-service, keyed by
+ * order ID with the event type in the {@value #EVENT_TYPE_HEADER} header.
+ */
 @Slf4j
 @Service
 public class KafkaInventoryEventProducer implements InventoryEventProducer {
 
+    static final String EVENT_TYPE_HEADER = "event-type";
+
     private final KafkaTemplate<UUID, GenericRecord> kafkaTemplate;
     private final AvroEventConverter avroEventConverter;
+    private final boolean orderEventsTopicEnabled;
+    private final String orderEventsTopicName;
 
     public KafkaInventoryEventProducer(
             KafkaTemplate<UUID, GenericRecord> kafkaTemplate,
-            AvroEventConverter avroEventConverter) {
+            AvroEventConverter avroEventConverter,
+            @Value("${inventory.kafka.order-events-topic.enabled:false}") boolean orderEventsTopicEnabled,
+            @Value("${inventory.kafka.order-events-topic.name:ORDER_EVENTS}") String orderEventsTopicName) {
         this.kafkaTemplate = kafkaTemplate;
         this.avroEventConverter = avroEventConverter;
+        this.orderEventsTopicEnabled = orderEventsTopicEnabled;
+        this.orderEventsTopicName = orderEventsTopicName;
     }
 
     @Override
@@ -51,7 +67,7 @@ public class KafkaInventoryEventProducer implements InventoryEventProducer {
             
             // The Confluent Avro serializer will automatically register the schema
             // if it doesn't exist and validate compatibility
-            kafkaTemplate.send(topic, key, avroRecord);
+            kafkaTemplate.send(record(topic, key, avroRecord));
             log.debug("Successfully published Avro event {} for order {}", topic, key);
 
         } catch (Exception err) {
@@ -59,6 +75,15 @@ public class KafkaInventoryEventProducer implements InventoryEventProducer {
         }
     }
 
+    private ProducerRecord<UUID, GenericRecord> record(String eventType, UUID key, GenericRecord value) {
+        if (!orderEventsTopicEnabled) {
+            return new ProducerRecord<>(eventType, key, value);
+        }
+        ProducerRecord<UUID, GenericRecord> record = new ProducerRecord<>(orderEventsTopicName, key, value);
+        record.headers().add(EVENT_TYPE_HEADER, eventType.getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+
     private GenericRecord convertToAvro(Object event) {
         if (event instanceof InventoryReservedEvent) {
             return avroEventConverter.toAvro((InventoryReservedEvent) event);
@@ -3,22 +3,37 @@ package com.trackops.inventory.application.services;
 import com.trackops.inventory.domain.events.InventoryReservedEvent;
 import com.trackops.inventory.domain.events.InventoryReservationFailedEvent;
 import com.trackops.inventory.domain.events.InventoryReleasedEvent;
+import com.trackops.inventory.domain.events.OrderEvent;
 import com.trackops.inventory.domain.model.InventoryItem;
 import com.trackops.inventory.domain.model.InventoryReservation;
+import com.trackops.inventory.domain.model.ProcessedEvent;
 import com.trackops.inventory.domain.model.ReservationStatus;
 import com.trackops.inventory.ports.input.events.OrderEventProcessorPort;
+import com.trackops.inventory.ports.output.cache.ReservationExpiryIndex;
 import com.trackops.inventory.ports.output.events.InventoryEventProducer;
 import com.trackops.inventory.ports.output.persistence.InventoryItemRepository;
 import com.trackops.inventory.ports.output.persistence.InventoryReservationRepository;
+import com.trackops.inventory.ports.output.persistence.ProcessedEventRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -27,124 +42,257 @@ public class InventoryService implements OrderEventProcessorPort {
     private final InventoryItemRepository inventoryItemRepository;
     private final InventoryReservationRepository reservationRepository;
     private final InventoryEventProducer eventProducer;
+    private final ReservationExpiryIndex expiryIndex;
+    private final ProcessedEventRepository processedEventRepository;
+    private final SkuReservationLanes reservationLanes;
+    private final Duration processedEventsRetention;
     
     public InventoryService(InventoryItemRepository inventoryItemRepository,
                           InventoryReservationRepository reservationRepository,
-                          InventoryEventProducer eventProducer) {
+                          InventoryEventProducer eventProducer,
+                          ReservationExpiryIndex expiryIndex,
+                          ProcessedEventRepository processedEventRepository,
+                          SkuReservationLanes reservationLanes,
+                          @Value("${inventory.processed-events.retention-hours:168}") long processedEventsRetentionHours) {
         this.inventoryItemRepository = inventoryItemRepository;
         this.reservationRepository = reservationRepository;
         this.eventProducer = eventProducer;
+        this.expiryIndex = expiryIndex;
+        this.processedEventRepository = processedEventRepository;
+        this.reservationLanes = reservationLanes;
+        this.processedEventsRetention = Duration.ofHours(processedEventsRetentionHours);
     }
     
     @Override
     @Transactional
-    public void processOrderEvent(com.trackops.inventory.domain.events.OrderEvent event) {
-        log.info("Processing order event: {} for order: {}", event.getEventType(), event.getOrderId());
+    public void processOrderEvent(OrderEvent event) {
+        log.debug("Processing order event: {} for order: {}", event.getEventType(), event.getOrderId());
         
-        switch (event.getEventType()) {
-            case "ORDER_CREATED":
-                handleOrderCreated(event);
-                break;
-            case "ORDER_CANCELLED":
-                handleOrderCancelled(event);
-                break;
-            default:
+        if (findUnprocessed(List.of(event)).isEmpty()) {
+            log.debug("Skipping already processed event {} for order {}", event.getEventId(), event.getOrderId());
+            return;
+        }
+        
+        boolean applied = switch (event.getEventType()) {
+            case "ORDER_CREATED" -> handleOrderCreated(event);
+            case "ORDER_CANCELLED" -> handleOrderCancelled(event);
+            default -> {
                 log.debug("No inventory processing needed for event type: {}", event.getEventType());
+                yield true;
+            }
+        };
+        // A failed event gets no marker, so a redelivery processes it again
+        if (applied) {
+            markProcessed(List.of(event));
         }
     }
     
+    @Override
     @Transactional
-    public void handleOrderCreated(com.trackops.inventory.domain.events.OrderEvent event) {
+    public void processOrderEventBatch(List<OrderEvent> events) {
+        List<OrderEvent> fresh = findUnprocessed(events);
+        if (fresh.size() < events.size()) {
+            log.debug("Skipping {} already processed events in batch of {}", events.size() - fresh.size(), events.size());
+        }
+        
+        List<UUID> createdOrders = new ArrayList<>();
+        List<UUID> cancelledOrders = new ArrayList<>();
+        for (OrderEvent event : fresh) {
+            switch (event.getEventType()) {
+                case "ORDER_CREATED" -> createdOrders.add(event.getOrderId());
+                case "ORDER_CANCELLED" -> cancelledOrders.add(event.getOrderId());
+                default -> log.debug("No inventory processing needed for event type: {}", event.getEventType());
+            }
+        }
+        
+        // Failures here propagate so the whole batch rolls back and is redelivered before any marker is written
+        if (!createdOrders.isEmpty()) {
+            reserveForOrders(createdOrders);
+        }
+        if (!cancelledOrders.isEmpty()) {
+            releaseForOrders(cancelledOrders, "Order cancelled");
+        }
+        markProcessed(fresh);
+        log.info("Processed order event batch: {} events ({} created, {} cancelled, {} duplicates)",
+                events.size(), createdOrders.size(), cancelledOrders.size(), events.size() - fresh.size());
+    }
+    
+    /**
+     * @return true if the stock was reserved or a reservation failure was published for a business reason,
+     *         false if processing failed
+     */
+    @Transactional
+    public boolean handleOrderCreated(OrderEvent event) {
         try {
-            UUID orderId = event.getOrderId();
-            log.info("Handling order created event for order: {}", orderId);
-            
-            // For demo purposes, we'll create a simple order with some default items
-            // In a real system, the order would contain the actual items
-            List<ReservationRequest> reservationRequests = createDefaultReservationRequests();
+            reserveForOrders(List.of(event.getOrderId()));
+            return true;
+        } catch (Exception e) {
+            log.error("Error processing order created event for order {}: {}", 
+                    event.getOrderId(), e.getMessage(), e);
             
-            List<InventoryReservation> reservations = new ArrayList<>();
+            // Publish failure event
+            InventoryReservationFailedEvent failedEvent = new InventoryReservationFailedEvent(
+                event.getOrderId(),
+                "System error: " + e.getMessage(),
+                List.of()
+            );
+            eventProducer.publishInventoryReservationFailed(failedEvent);
+            return false;
+        }
+    }
+    
+    /**
+     * @return false if releasing the order's reservations failed
+     */
+    @Transactional
+    public boolean handleOrderCancelled(OrderEvent event) {
+        try {
+            releaseForOrders(List.of(event.getOrderId()), "Order cancelled");
+            return true;
+        } catch (Exception e) {
+            log.error("Error processing order cancelled event for order {}: {}", 
+                    event.getOrderId(), e.getMessage(), e);
+            return false;
+        }
+    }
+    
+    /**
+     * Filter out events that were already processed or repeated within the list, with one IN lookup.
+     */
+    private List<OrderEvent> findUnprocessed(List<OrderEvent> events) {
+        Map<String, OrderEvent> byEventId = new LinkedHashMap<>();
+        for (OrderEvent event : events) {
+            byEventId.putIfAbsent(event.getEventId(), event);
+        }
+        processedEventRepository.findExistingEventIds(byEventId.keySet()).forEach(byEventId::remove);
+        return new ArrayList<>(byEventId.values());
+    }
+    
+    /**
+     * Record the given events as processed with one batched insert, in the transaction that applied them.
+     */
+    private void markProcessed(List<OrderEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        processedEventRepository.saveAll(events.stream()
+            .map(e -> new ProcessedEvent(e.getEventId(), e.getEventType(), e.getOrderId()))
+            .toList());
+    }
+    
+    /**
+     * Reserve stock for the given orders. Items are loaded once for all orders and each SKU is updated
+     * once, however many orders reserve it; allocation is still done order by order so results match
+     * sequential processing. When SKU lanes are enabled the stock itself is taken through
+     * {@link SkuReservationLanes}, which merges concurrent requests for the same SKU into one row update.
+     */
+    private void reserveForOrders(List<UUID> orderIds) {
+        // For demo purposes, every order requests the same default items
+        // In a real system, the order would contain the actual items
+        Map<UUID, List<ReservationRequest>> requestsByOrder = new LinkedHashMap<>();
+        for (UUID orderId : orderIds) {
+            requestsByOrder.put(orderId, createDefaultReservationRequests());
+        }
+        
+        List<String> productIds = requestsByOrder.values().stream()
+            .flatMap(List::stream)
+            .map(ReservationRequest::getProductId)
+            .distinct()
+            .toList();
+        Map<String, InventoryItem> itemsByProductId = inventoryItemRepository.findByProductIds(productIds).stream()
+            .collect(Collectors.toMap(InventoryItem::getProductId, Function.identity()));
+        
+        Map<UUID, List<InventoryReservation>> reservationsByOrder = new LinkedHashMap<>();
+        Map<UUID, List<InventoryReservationFailedEvent.FailedItem>> failuresByOrder = new LinkedHashMap<>();
+        Map<ReservationRequest, UUID> reservable = new LinkedHashMap<>();
+        
+        // Check business rules before reservation
+        requestsByOrder.forEach((orderId, requests) -> {
             List<InventoryReservationFailedEvent.FailedItem> failedItems = new ArrayList<>();
-            
-            // Try to reserve inventory for each item
-            for (ReservationRequest request : reservationRequests) {
-                try {
-                    InventoryItem item = inventoryItemRepository.findByProductId(request.getProductId())
-                        .orElseThrow(() -> new RuntimeException("Product not found: " + request.getProductId()));
-                    
-                    // Check business rules before reservation
-                    if (!item.isAvailableForReservation()) {
-                        failedItems.add(new InventoryReservationFailedEvent.FailedItem(
-                            request.getProductId(),
-                            item.getProductName(),
-                            request.getQuantity(),
-                            item.getAvailableQuantity(),
-                            item.getIsDiscontinued() ? "Product is discontinued" : "Product is inactive"
-                        ));
-                        continue;
-                    }
-                    
-                    if (item.hasAvailableQuantity(request.getQuantity())) {
-                        // Reserve the inventory
-                        item.reserveQuantity(request.getQuantity());
-                        inventoryItemRepository.save(item);
-                        
-                        // Create reservation record
-                        InventoryReservation reservation = InventoryReservation.builder()
-                            .orderId(orderId)
-                            .productId(request.getProductId())
-                            .quantity(request.getQuantity())
-                            .status(ReservationStatus.RESERVED)
-                            .reservedAt(Instant.now())
-                            .expiresAt(Instant.now().plusSeconds(1800)) // 30 minutes
-                            .build();
-                        
-                        reservations.add(reservationRepository.save(reservation));
-                        
-                        log.info("Successfully reserved {} units of product {} for order {}", 
-                                request.getQuantity(), request.getProductId(), orderId);
-                    } else {
-                        failedItems.add(new InventoryReservationFailedEvent.FailedItem(
-                            request.getProductId(),
-                            item.getProductName(),
-                            request.getQuantity(),
-                            item.getAvailableQuantity(),
-                            "Insufficient inventory"
-                        ));
-                    }
-                } catch (Exception e) {
-                    log.error("Failed to reserve inventory for product {}: {}", 
-                            request.getProductId(), e.getMessage());
+            for (ReservationRequest request : requests) {
+                InventoryItem item = itemsByProductId.get(request.getProductId());
+                if (item == null) {
+                    log.error("Failed to reserve inventory for product {}: Product not found", request.getProductId());
                     failedItems.add(new InventoryReservationFailedEvent.FailedItem(
                         request.getProductId(),
                         "Unknown Product",
                         request.getQuantity(),
                         0,
-                        e.getMessage()
+                        "Product not found: " + request.getProductId()
+                    ));
+                } else if (!item.isAvailableForReservation()) {
+                    failedItems.add(new InventoryReservationFailedEvent.FailedItem(
+                        request.getProductId(),
+                        item.getProductName(),
+                        request.getQuantity(),
+                        item.getAvailableQuantity(),
+                        item.getIsDiscontinued() ? "Product is discontinued" : "Product is inactive"
                     ));
+                } else {
+                    reservable.put(request, orderId);
                 }
             }
-            
-            // Publish appropriate event based on results
+            reservationsByOrder.put(orderId, new ArrayList<>());
+            failuresByOrder.put(orderId, failedItems);
+        });
+        
+        // Take the stock, in request order
+        Map<ReservationRequest, Boolean> granted = reservationLanes.isEnabled()
+            ? reserveThroughLanes(reservable.keySet(), itemsByProductId)
+            : reserveInMemory(reservable.keySet(), itemsByProductId);
+        
+        List<InventoryReservation> newReservations = new ArrayList<>();
+        reservable.forEach((request, orderId) -> {
+            InventoryItem item = itemsByProductId.get(request.getProductId());
+            if (granted.get(request)) {
+                // Create reservation record
+                Instant now = Instant.now();
+                InventoryReservation reservation = InventoryReservation.builder()
+                    .orderId(orderId)
+                    .productId(request.getProductId())
+                    .quantity(request.getQuantity())
+                    .status(ReservationStatus.RESERVED)
+                    .reservedAt(now)
+                    .expiresAt(now.plusSeconds(1800)) // 30 minutes
+                    .build();
+                newReservations.add(reservation);
+                reservationsByOrder.get(orderId).add(reservation);
+                
+                log.debug("Reserved {} units of product {} for order {}", 
+                        request.getQuantity(), request.getProductId(), orderId);
+            } else {
+                failuresByOrder.get(orderId).add(new InventoryReservationFailedEvent.FailedItem(
+                    request.getProductId(),
+                    item.getProductName(),
+                    request.getQuantity(),
+                    item.getAvailableQuantity(),
+                    "Insufficient inventory"
+                ));
+            }
+        });
+        
+        reservationRepository.saveAll(newReservations);
+        afterCommit(() -> newReservations.forEach(this::trackExpiry));
+        
+        // Publish appropriate event based on results
+        reservationsByOrder.forEach((orderId, reservations) -> {
+            List<InventoryReservationFailedEvent.FailedItem> failedItems = failuresByOrder.get(orderId);
             if (failedItems.isEmpty()) {
                 // All reservations successful
                 String reservationId = UUID.randomUUID().toString();
                 List<InventoryReservedEvent.ReservedItem> reservedItems = reservations.stream()
-                    .map(r -> new InventoryReservedEvent.ReservedItem(
-                        r.getProductId(),
-                        inventoryItemRepository.findByProductId(r.getProductId())
-                            .map(InventoryItem::getProductName)
-                            .orElse("Unknown"),
-                        r.getQuantity(),
-                        inventoryItemRepository.findByProductId(r.getProductId())
-                            .map(item -> item.getUnitPrice().toString())
-                            .orElse("0.00")
-                    ))
+                    .map(r -> {
+                        InventoryItem item = itemsByProductId.get(r.getProductId());
+                        return new InventoryReservedEvent.ReservedItem(
+                            r.getProductId(),
+                            item.getProductName(),
+                            r.getQuantity(),
+                            item.getUnitPrice().toString()
+                        );
+                    })
                     .toList();
                 
-                InventoryReservedEvent reservedEvent = new InventoryReservedEvent(orderId, reservationId, reservedItems);
-                eventProducer.publishInventoryReserved(reservedEvent);
-                
+                eventProducer.publishInventoryReserved(new InventoryReservedEvent(orderId, reservationId, reservedItems));
                 log.info("Successfully reserved inventory for order: {}", orderId);
             } else {
                 // Some or all reservations failed
@@ -158,80 +306,150 @@ public class InventoryService implements OrderEventProcessorPort {
                 log.warn("Inventory reservation failed for order: {} with {} failed items", 
                         orderId, failedItems.size());
             }
-            
-        } catch (Exception e) {
-            log.error("Error processing order created event for order {}: {}", 
-                    event.getOrderId(), e.getMessage(), e);
-            
-            // Publish failure event
-            InventoryReservationFailedEvent failedEvent = new InventoryReservationFailedEvent(
-                event.getOrderId(),
-                "System error: " + e.getMessage(),
-                List.of()
-            );
-            eventProducer.publishInventoryReservationFailed(failedEvent);
+        });
+    }
+    
+    /**
+     * Allocate against the loaded entities; the changed items are written back (one UPDATE per SKU)
+     * with optimistic locking.
+     */
+    private Map<ReservationRequest, Boolean> reserveInMemory(Collection<ReservationRequest> requests,
+                                                             Map<String, InventoryItem> itemsByProductId) {
+        Map<ReservationRequest, Boolean> granted = new LinkedHashMap<>();
+        Map<String, InventoryItem> touchedItems = new LinkedHashMap<>();
+        for (ReservationRequest request : requests) {
+            InventoryItem item = itemsByProductId.get(request.getProductId());
+            boolean ok = item.hasAvailableQuantity(request.getQuantity());
+            if (ok) {
+                item.reserveQuantity(request.getQuantity());
+                touchedItems.put(item.getProductId(), item);
+            }
+            granted.put(request, ok);
         }
+        inventoryItemRepository.saveAll(touchedItems.values());
+        return granted;
     }
     
-    @Transactional
-    public void handleOrderCancelled(com.trackops.inventory.domain.events.OrderEvent event) {
-        try {
-            UUID orderId = event.getOrderId();
-            log.info("Handling order cancelled event for order: {}", orderId);
-            
-            List<InventoryReservation> reservations = reservationRepository.findByOrderIdAndStatus(
-                orderId, ReservationStatus.RESERVED);
-            
-            if (reservations.isEmpty()) {
-                log.info("No active reservations found for cancelled order: {}", orderId);
-                return;
+    /**
+     * Allocate through the SKU lanes. Lane updates commit on their own, so the stock is handed back
+     * if this transaction rolls back. The lanes change the rows behind this persistence context, so the
+     * loaded items are refreshed afterwards; saving the stale copies later in this transaction would fail
+     * the optimistic lock (and report stale stock in failure events).
+     */
+    private Map<ReservationRequest, Boolean> reserveThroughLanes(Collection<ReservationRequest> requests,
+                                                                 Map<String, InventoryItem> itemsByProductId) {
+        Map<ReservationRequest, CompletableFuture<Boolean>> futures = new LinkedHashMap<>();
+        for (ReservationRequest request : requests) {
+            futures.put(request, reservationLanes.reserve(request.getProductId(), request.getQuantity()));
+        }
+        
+        // Join every future, even after a failure, so nothing a lane takes afterwards is missed
+        Map<ReservationRequest, Boolean> granted = new LinkedHashMap<>();
+        List<ReservationRequest> taken = new ArrayList<>();
+        CompletionException failure = null;
+        for (Map.Entry<ReservationRequest, CompletableFuture<Boolean>> entry : futures.entrySet()) {
+            try {
+                boolean ok = entry.getValue().join();
+                granted.put(entry.getKey(), ok);
+                if (ok) {
+                    taken.add(entry.getKey());
+                }
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
             }
-            
-            List<InventoryReleasedEvent.ReleasedItem> releasedItems = new ArrayList<>();
-            
-            for (InventoryReservation reservation : reservations) {
-                try {
-                    // Release the inventory
-                    InventoryItem item = inventoryItemRepository.findByProductId(reservation.getProductId())
-                        .orElseThrow(() -> new RuntimeException("Product not found: " + reservation.getProductId()));
-                    
-                    item.releaseQuantity(reservation.getQuantity());
-                    inventoryItemRepository.save(item);
-                    
-                    // Mark reservation as released
-                    reservation.markAsReleased();
-                    reservationRepository.save(reservation);
-                    
-                    releasedItems.add(new InventoryReleasedEvent.ReleasedItem(
+        }
+        if (failure != null) {
+            taken.forEach(r -> reservationLanes.release(r.getProductId(), r.getQuantity()));
+            throw failure;
+        }
+        
+        inventoryItemRepository.refresh(requests.stream()
+            .map(r -> itemsByProductId.get(r.getProductId()))
+            .distinct()
+            .toList());
+        
+        if (!taken.isEmpty() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        log.warn("Transaction rolled back, returning {} lane reservations", taken.size());
+                        taken.forEach(r -> reservationLanes.release(r.getProductId(), r.getQuantity()));
+                    }
+                }
+            });
+        }
+        return granted;
+    }
+    
+    /**
+     * Release all active reservations of the given orders with one reservation query and one item query.
+     */
+    private void releaseForOrders(List<UUID> orderIds, String reason) {
+        List<InventoryReservation> reservations = reservationRepository.findByOrderIdInAndStatus(
+            orderIds, ReservationStatus.RESERVED);
+        
+        if (reservations.isEmpty()) {
+            log.info("No active reservations found for {} cancelled order(s)", orderIds.size());
+            return;
+        }
+        
+        List<String> productIds = reservations.stream()
+            .map(InventoryReservation::getProductId)
+            .distinct()
+            .toList();
+        Map<String, InventoryItem> itemsByProductId = inventoryItemRepository.findByProductIds(productIds).stream()
+            .collect(Collectors.toMap(InventoryItem::getProductId, Function.identity()));
+        
+        Map<UUID, List<InventoryReleasedEvent.ReleasedItem>> releasedByOrder = new LinkedHashMap<>();
+        List<InventoryReservation> released = new ArrayList<>();
+        for (InventoryReservation reservation : reservations) {
+            try {
+                // Release the inventory
+                InventoryItem item = itemsByProductId.get(reservation.getProductId());
+                if (item == null) {
+                    throw new RuntimeException("Product not found: " + reservation.getProductId());
+                }
+                item.releaseQuantity(reservation.getQuantity());
+                
+                // Mark reservation as released
+                reservation.markAsReleased();
+                released.add(reservation);
+                
+                releasedByOrder.computeIfAbsent(reservation.getOrderId(), id -> new ArrayList<>())
+                    .add(new InventoryReleasedEvent.ReleasedItem(
                         reservation.getProductId(),
                         item.getProductName(),
                         reservation.getQuantity()
                     ));
-                    
-                    log.info("Released {} units of product {} for cancelled order {}", 
-                            reservation.getQuantity(), reservation.getProductId(), orderId);
-                } catch (Exception e) {
-                    log.error("Failed to release inventory for product {}: {}", 
-                            reservation.getProductId(), e.getMessage());
-                }
+                
+                log.debug("Released {} units of product {} for cancelled order {}", 
+                        reservation.getQuantity(), reservation.getProductId(), reservation.getOrderId());
+            } catch (Exception e) {
+                log.error("Failed to release inventory for product {}: {}", 
+                        reservation.getProductId(), e.getMessage());
             }
-            
-            // Publish inventory released event
+        }
+        
+        inventoryItemRepository.saveAll(itemsByProductId.values());
+        reservationRepository.saveAll(released);
+        afterCommit(() -> released.forEach(this::untrackExpiry));
+        
+        // Publish inventory released event
+        releasedByOrder.forEach((orderId, releasedItems) -> {
             String reservationId = UUID.randomUUID().toString();
-            InventoryReleasedEvent releasedEvent = new InventoryReleasedEvent(
+            eventProducer.publishInventoryReleased(new InventoryReleasedEvent(
                 orderId, 
                 reservationId, 
                 releasedItems, 
-                "Order cancelled"
-            );
-            eventProducer.publishInventoryReleased(releasedEvent);
-            
+                reason
+            ));
             log.info("Successfully released inventory for cancelled order: {}", orderId);
-            
-        } catch (Exception e) {
-            log.error("Error processing order cancelled event for order {}: {}", 
-                    event.getOrderId(), e.getMessage(), e);
-        }
+        });
     }
     
     private List<ReservationRequest> createDefaultReservationRequests() {
@@ -258,44 +476,19 @@ public class InventoryService implements OrderEventProcessorPort {
     }
     
     /**
-     * Scheduled task to clean up expired reservations
-     * Runs every 5 minutes
+     * Safety-net sweep for expired reservations the expiry index missed (e.g. Redis was unavailable
+     * when the reservation was made). Normal expiry is driven by {@link ReservationExpiryService}.
      */
-    @Scheduled(fixedDelay = 300000) // 5 minutes
+    @Scheduled(fixedDelayString = "${inventory.reservation.expiry.sweep-interval-ms:900000}")
     @Transactional
     public void cleanupExpiredReservations() {
         try {
-            Instant now = Instant.now();
-            List<InventoryReservation> expiredReservations = reservationRepository.findExpiredReservations(now);
+            List<InventoryReservation> expiredReservations = reservationRepository.findExpiredReservations(Instant.now());
             
             if (!expiredReservations.isEmpty()) {
-                log.info("Found {} expired reservations to clean up", expiredReservations.size());
-                
-                for (InventoryReservation reservation : expiredReservations) {
-                    try {
-                        // Release the inventory
-                        InventoryItem item = inventoryItemRepository.findByProductId(reservation.getProductId())
-                            .orElse(null);
-                        
-                        if (item != null) {
-                            item.releaseQuantity(reservation.getQuantity());
-                            inventoryItemRepository.save(item);
-                            
-                            log.info("Released {} units of product {} from expired reservation {}", 
-                                    reservation.getQuantity(), reservation.getProductId(), reservation.getId());
-                        }
-                        
-                        // Mark reservation as expired
-                        reservation.markAsExpired();
-                        reservationRepository.save(reservation);
-                        
-                    } catch (Exception e) {
-                        log.error("Failed to cleanup expired reservation {}: {}", 
-                                reservation.getId(), e.getMessage(), e);
-                    }
-                }
-                
-                log.info("Successfully cleaned up {} expired reservations", expiredReservations.size());
+                log.info("Sweep found {} expired reservations to clean up", expiredReservations.size());
+                int released = releaseExpired(expiredReservations);
+                log.info("Successfully cleaned up {} expired reservations", released);
             }
             
         } catch (Exception e) {
@@ -303,6 +496,125 @@ public class InventoryService implements OrderEventProcessorPort {
         }
     }
     
+    /**
+     * Expire the given reservations if they are still RESERVED and past their deadline.
+     * Reservations whose deadline moved into the future are put back into the expiry index.
+     *
+     * @return number of reservations expired
+     */
+    @Transactional
+    public int expireReservations(Collection<UUID> reservationIds) {
+        if (reservationIds.isEmpty()) {
+            return 0;
+        }
+        List<InventoryReservation> active = reservationRepository.findReservedByIds(reservationIds);
+        List<InventoryReservation> due = new ArrayList<>(active.size());
+        for (InventoryReservation reservation : active) {
+            if (reservation.isExpired()) {
+                due.add(reservation);
+            } else {
+                afterCommit(() -> trackExpiry(reservation));
+            }
+        }
+        return releaseExpired(due);
+    }
+    
+    /**
+     * Return the stock held by expired reservations and mark them EXPIRED.
+     * Items are loaded with one query and each item is updated once, however many reservations it has.
+     */
+    private int releaseExpired(List<InventoryReservation> expiredReservations) {
+        if (expiredReservations.isEmpty()) {
+            return 0;
+        }
+        
+        List<String> productIds = expiredReservations.stream()
+            .map(InventoryReservation::getProductId)
+            .distinct()
+            .toList();
+        Map<String, InventoryItem> itemsByProductId = inventoryItemRepository.findByProductIds(productIds).stream()
+            .collect(Collectors.toMap(InventoryItem::getProductId, Function.identity()));
+        
+        int expired = 0;
+        for (InventoryReservation reservation : expiredReservations) {
+            try {
+                InventoryItem item = itemsByProductId.get(reservation.getProductId());
+                if (item != null) {
+                    item.releaseQuantity(reservation.getQuantity());
+                    log.debug("Released {} units of product {} from expired reservation {}", 
+                            reservation.getQuantity(), reservation.getProductId(), reservation.getId());
+                }
+                
+                // Mark reservation as expired
+                reservation.markAsExpired();
+                expired++;
+                
+            } catch (Exception e) {
+                log.error("Failed to cleanup expired reservation {}: {}", 
+                        reservation.getId(), e.getMessage(), e);
+            }
+        }
+        
+        inventoryItemRepository.saveAll(itemsByProductId.values());
+        reservationRepository.saveAll(expiredReservations);
+        return expired;
+    }
+    
+    /**
+     * Run {@code action} once the surrounding transaction commits, so the expiry index never points at
+     * reservation changes that were rolled back. Runs immediately when there is no transaction.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    private void trackExpiry(InventoryReservation reservation) {
+        if (reservation.getExpiresAt() == null) {
+            return;
+        }
+        try {
+            expiryIndex.schedule(reservation.getId(), reservation.getExpiresAt());
+        } catch (Exception e) {
+            // The sweep still picks the reservation up, just later
+            log.warn("Could not add reservation {} to expiry index: {}", reservation.getId(), e.getMessage());
+        }
+    }
+    
+    private void untrackExpiry(InventoryReservation reservation) {
+        try {
+            expiryIndex.cancel(reservation.getId());
+        } catch (Exception e) {
+            log.warn("Could not remove reservation {} from expiry index: {}", reservation.getId(), e.getMessage());
+        }
+    }
+    
+    /**
+     * Delete processed-event markers older than the retention window. Redeliveries only happen within the
+     * topic retention, so the window must stay longer than that (Kafka's default is 7 days).
+     */
+    @Scheduled(fixedDelayString = "${inventory.processed-events.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void cleanupProcessedEvents() {
+        try {
+            Instant cutoff = Instant.now().minus(processedEventsRetention);
+            int deleted = processedEventRepository.deleteProcessedBefore(cutoff);
+            if (deleted > 0) {
+                log.info("Cleaned up {} processed event markers older than {}", deleted, processedEventsRetention);
+            }
+        } catch (Exception e) {
+            log.error("Error cleaning up processed events: {}", e.getMessage(), e);
+        }
+    }
+    
     /**
      * Scheduled task to check for low stock items
      * Runs every hour
@@ -337,6 +649,60 @@ public class InventoryService implements OrderEventProcessorPort {
         }
     }
     
+    /**
+     * Check availability of many SKUs at once with a single indexed IN lookup.
+     *
+     * @param requestedQuantities productId to requested quantity, in the order results should be returned
+     */
+    public List<AvailabilityCheck> checkAvailability(Map<String, Integer> requestedQuantities) {
+        Map<String, InventoryItemRepository.ItemAvailability> found = inventoryItemRepository
+            .findAvailabilityByProductIds(requestedQuantities.keySet()).stream()
+            .collect(Collectors.toMap(InventoryItemRepository.ItemAvailability::getProductId, Function.identity()));
+        
+        List<AvailabilityCheck> checks = new ArrayList<>(requestedQuantities.size());
+        requestedQuantities.forEach((productId, requested) -> {
+            InventoryItemRepository.ItemAvailability item = found.get(productId);
+            if (item == null) {
+                checks.add(new AvailabilityCheck(productId, requested, 0, "NOT_FOUND"));
+                return;
+            }
+            int availableQuantity = item.getAvailableQuantity();
+            String reason = null;
+            if (Boolean.TRUE.equals(item.getIsDiscontinued())) {
+                reason = "DISCONTINUED";
+            } else if (!Boolean.TRUE.equals(item.getIsActive())) {
+                reason = "INACTIVE";
+            } else if (availableQuantity < requested) {
+                reason = "INSUFFICIENT";
+            }
+            checks.add(new AvailabilityCheck(productId, requested, availableQuantity, reason));
+        });
+        return checks;
+    }
+    
+    /**
+     * Result of checking one SKU; {@code reason} is null when the requested quantity can be reserved.
+     */
+    public static class AvailabilityCheck {
+        private final String productId;
+        private final int requested;
+        private final int availableQuantity;
+        private final String reason;
+        
+        public AvailabilityCheck(String productId, int requested, int availableQuantity, String reason) {
+            this.productId = productId;
+            this.requested = requested;
+            this.availableQuantity = availableQuantity;
+            this.reason = reason;
+        }
+        
+        public String getProductId() { return productId; }
+        public int getRequested() { return requested; }
+        public int getAvailableQuantity() { return availableQuantity; }
+        public String getReason() { return reason; }
+        public boolean isAvailable() { return reason == null; }
+    }
+    
     /**
      * Get inventory health summary
      */
@@ -0,0 +1,113 @@
+package com.trackops.inventory.application.services;
+
+import com.trackops.inventory.ports.output.cache.ReservationExpiryIndex;
+import com.trackops.inventory.ports.output.persistence.InventoryReservationRepository;
+import com.trackops.inventory.ports.output.persistence.InventoryReservationRepository.ReservationDeadline;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Releases reservations within about a second of their deadline.
+ * Deadlines live in a {@link ReservationExpiryIndex}; each tick pops only the reservations that are due,
+ * so the work done is proportional to the number of reservations actually expiring.
+ * The index is rebuilt from inventory_reservations on startup.
+ */
+@Slf4j
+@Service
+public class ReservationExpiryService {
+
+    private final ReservationExpiryIndex expiryIndex;
+    private final InventoryReservationRepository reservationRepository;
+    private final InventoryService inventoryService;
+
+    @Value("${inventory.reservation.expiry.batch-size:500}")
+    private int batchSize;
+
+    @Value("${inventory.reservation.expiry.rebuild-page-size:1000}")
+    private int rebuildPageSize;
+
+    public ReservationExpiryService(ReservationExpiryIndex expiryIndex,
+                                    InventoryReservationRepository reservationRepository,
+                                    InventoryService inventoryService) {
+        this.expiryIndex = expiryIndex;
+        this.reservationRepository = reservationRepository;
+        this.inventoryService = inventoryService;
+    }
+
+    /**
+     * Rebuild the expiry index from the active reservations in the database.
+     * Adding a deadline is idempotent, so every replica can run this safely.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIndex() {
+        try {
+            UUID afterId = new UUID(0L, 0L);
+            long indexed = 0;
+            Slice<ReservationDeadline> page;
+            do {
+                page = reservationRepository.findActiveDeadlinesAfter(afterId, PageRequest.of(0, rebuildPageSize));
+                List<ReservationDeadline> deadlines = page.getContent();
+                if (deadlines.isEmpty()) {
+                    break;
+                }
+                Map<UUID, Instant> batch = new HashMap<>(deadlines.size() * 2);
+                for (ReservationDeadline deadline : deadlines) {
+                    batch.put(deadline.getId(), deadline.getExpiresAt());
+                }
+                expiryIndex.scheduleAll(batch);
+                indexed += deadlines.size();
+                afterId = deadlines.get(deadlines.size() - 1).getId();
+            } while (page.hasNext());
+            log.info("Reservation expiry index rebuilt: {} active reservations tracked", indexed);
+        } catch (Exception e) {
+            log.error("Failed to rebuild reservation expiry index; falling back to periodic sweep", e);
+        }
+    }
+
+    /**
+     * Pop due reservations from the index and expire them, draining in batches until nothing is due.
+     */
+    @Scheduled(fixedDelayString = "${inventory.reservation.expiry.poll-interval-ms:1000}")
+    public void expireDueReservations() {
+        try {
+            List<UUID> due;
+            do {
+                due = expiryIndex.pollDue(Instant.now(), batchSize);
+                if (due.isEmpty()) {
+                    return;
+                }
+                expireBatch(due);
+            } while (due.size() == batchSize);
+        } catch (Exception e) {
+            log.error("Error polling reservation expiry index: {}", e.getMessage(), e);
+        }
+    }
+
+    private void expireBatch(List<UUID> due) {
+        try {
+            int expired = inventoryService.expireReservations(due);
+            if (expired > 0) {
+                log.info("Expired {} reservations", expired);
+            }
+        } catch (Exception e) {
+            // Put the batch back so the next tick retries it; the transaction rolled back
+            log.error("Failed to expire {} reservations, re-queueing: {}", due.size(), e.getMessage(), e);
+            Map<UUID, Instant> retry = new HashMap<>(due.size() * 2);
+            Instant now = Instant.now();
+            due.forEach(id -> retry.put(id, now));
+            expiryIndex.scheduleAll(retry);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.trackops.inventory.application.services;
+
+import com.trackops.inventory.ports.output.persistence.InventoryItemRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Serializes stock reservations per SKU within this replica.
+ * <p>
+ * Requests are routed to one of a fixed number of lanes by a hash of the product ID, so all requests for a
+ * SKU land on the same lane thread. Each lane drains everything queued since its last update, merges the
+ * requests for the same SKU and applies them with a single conditional UPDATE. N concurrent requests for a
+ * hot item therefore become one row update instead of N optimistic-lock races on the same row.
+ * <p>
+ * If the merged quantity does not fit, requests are granted first-come-first-served up to the stock that is
+ * left. Updates run in their own transaction on the lane thread.
+ * <p>
+ * Once {@link #stop()} has run, requests still queued and new requests fail with an exception rather than
+ * completing with false: they were not short of stock, so the caller rolls back and the event is redelivered.
+ */
+@Slf4j
+@Component
+public class SkuReservationLanes {
+
+    private static final int MAX_CONFLICT_RETRIES = 3;
+
+    private final InventoryItemRepository inventoryItemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int laneCount;
+    private final int maxBatchSize;
+
+    private final Counter requestsCounter;
+    private final Counter updatesCounter;
+    private final Counter conflictsCounter;
+
+    private final List<Lane> lanes = new ArrayList<>();
+    private volatile boolean stopped;
+
+    public SkuReservationLanes(InventoryItemRepository inventoryItemRepository,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${inventory.reservation.lanes.enabled:false}") boolean enabled,
+                               @Value("${inventory.reservation.lanes.count:8}") int laneCount,
+                               @Value("${inventory.reservation.lanes.max-batch-size:256}") int maxBatchSize) {
+        this.inventoryItemRepository = inventoryItemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.laneCount = laneCount;
+        this.maxBatchSize = maxBatchSize;
+        this.requestsCounter = Counter.builder("inventory_reservation_lane_requests_total")
+            .description("Reservation requests submitted to the SKU lanes")
+            .register(meterRegistry);
+        this.updatesCounter = Counter.builder("inventory_reservation_lane_updates_total")
+            .description("Row updates issued by the SKU lanes (merged requests)")
+            .register(meterRegistry);
+        this.conflictsCounter = Counter.builder("inventory_reservation_lane_conflicts_total")
+            .description("Conditional updates that lost a race with another writer and were retried")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < laneCount; i++) {
+            Lane lane = new Lane(i);
+            lanes.add(lane);
+            lane.thread.start();
+        }
+        log.info("Started {} SKU reservation lanes", laneCount);
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        lanes.forEach(lane -> lane.thread.interrupt());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reserve {@code quantity} units of a product.
+     *
+     * @return future completing with true if the stock was reserved (already committed), false if the item is
+     *         missing, not reservable or short of stock; failing if the lanes are stopped
+     */
+    public CompletableFuture<Boolean> reserve(String productId, int quantity) {
+        if (!enabled) {
+            throw new IllegalStateException("SKU reservation lanes are disabled");
+        }
+        if (stopped) {
+            return CompletableFuture.failedFuture(lanesStopped());
+        }
+        PendingReservation pending = new PendingReservation(productId, quantity);
+        requestsCounter.increment();
+        BlockingQueue<PendingReservation> queue = lanes.get(Math.floorMod(productId.hashCode(), lanes.size())).queue;
+        queue.add(pending);
+        // stop() may have run since the check and the lane may have exited: take the request back so it cannot hang
+        if (stopped && queue.remove(pending)) {
+            pending.result.completeExceptionally(lanesStopped());
+        }
+        return pending.result;
+    }
+
+    /**
+     * Give back stock reserved through {@link #reserve}, e.g. when the caller's transaction rolled back.
+     */
+    public void release(String productId, int quantity) {
+        transactionTemplate.executeWithoutResult(status ->
+            inventoryItemRepository.releaseIfReserved(productId, quantity, Instant.now()));
+    }
+
+    private void applyBatch(List<PendingReservation> batch) {
+        Map<String, List<PendingReservation>> bySku = new LinkedHashMap<>();
+        for (PendingReservation pending : batch) {
+            bySku.computeIfAbsent(pending.productId, id -> new ArrayList<>()).add(pending);
+        }
+        bySku.forEach(this::applySku);
+    }
+
+    private void applySku(String productId, List<PendingReservation> requests) {
+        try {
+            int total = requests.stream().mapToInt(r -> r.quantity).sum();
+            if (tryReserve(productId, total)) {
+                requests.forEach(r -> r.result.complete(true));
+                return;
+            }
+
+            // Not everything fits: grant the longest FIFO prefix that does, based on a fresh read
+            for (int attempt = 0; attempt < MAX_CONFLICT_RETRIES; attempt++) {
+                int available = currentlyAvailable(productId);
+                int granted = 0;
+                int grantedQuantity = 0;
+                while (granted < requests.size() && grantedQuantity + requests.get(granted).quantity <= available) {
+                    grantedQuantity += requests.get(granted).quantity;
+                    granted++;
+                }
+                if (granted == 0) {
+                    break;
+                }
+                if (tryReserve(productId, grantedQuantity)) {
+                    for (int i = 0; i < requests.size(); i++) {
+                        requests.get(i).result.complete(i < granted);
+                    }
+                    return;
+                }
+                // Another writer (e.g. another replica) changed the row between read and update
+                conflictsCounter.increment();
+            }
+            requests.forEach(r -> r.result.complete(false));
+        } catch (Exception e) {
+            log.error("SKU lane update failed for product {}: {}", productId, e.getMessage(), e);
+            requests.forEach(r -> r.result.completeExceptionally(e));
+        }
+    }
+
+    private boolean tryReserve(String productId, int quantity) {
+        updatesCounter.increment();
+        Integer updated = transactionTemplate.execute(status ->
+            inventoryItemRepository.reserveIfAvailable(productId, quantity, Instant.now()));
+        return updated != null && updated == 1;
+    }
+
+    private int currentlyAvailable(String productId) {
+        List<InventoryItemRepository.ItemAvailability> rows =
+            inventoryItemRepository.findAvailabilityByProductIds(List.of(productId));
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        InventoryItemRepository.ItemAvailability item = rows.get(0);
+        boolean reservable = Boolean.TRUE.equals(item.getIsActive()) && !Boolean.TRUE.equals(item.getIsDiscontinued());
+        return reservable ? item.getAvailableQuantity() : 0;
+    }
+
+    private final class Lane implements Runnable {
+        private final BlockingQueue<PendingReservation> queue = new LinkedBlockingQueue<>();
+        private final Thread thread;
+
+        private Lane(int index) {
+            this.thread = new Thread(this, "sku-lane-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<PendingReservation> batch = new ArrayList<>(maxBatchSize);
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    // Block for the first request, then take whatever queued up behind it (one tick)
+                    batch.add(queue.take());
+                    queue.drainTo(batch, maxBatchSize - 1);
+                    applyBatch(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    batch.clear();
+                }
+            }
+            PendingReservation pending;
+            while ((pending = queue.poll()) != null) {
+                pending.result.completeExceptionally(lanesStopped());
+            }
+        }
+    }
+
+    private static IllegalStateException lanesStopped() {
+        return new IllegalStateException("SKU reservation lanes stopped");
+    }
+
+    private static final class PendingReservation {
+        private final String productId;
+        private final int quantity;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        private PendingReservation(String productId, int quantity) {
+            this.productId = productId;
+            this.quantity = quantity;
+        }
+    }
+}
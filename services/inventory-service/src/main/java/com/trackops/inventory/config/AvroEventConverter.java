@@ -1,207 +1,142 @@
 package com.trackops.inventory.config;
 
+import com.trackops.events.inventory.FailedItem;
+import com.trackops.events.inventory.ReleasedItem;
+import com.trackops.events.inventory.ReservedItem;
 import com.trackops.inventory.domain.events.*;
-import lombok.extern.slf4j.Slf4j;
-import org.apache.avro.Schema;
-import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.specific.SpecificRecord;
 import org.springframework.stereotype.Component;
 
-import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Utility class to convert domain event POJOs to Avro GenericRecord for inventory events.
- * This allows us to use Avro serialization with Schema Registry while keeping
- * our domain models as simple POJOs.
+ * Converts inventory domain event POJOs to and from the Avro SpecificRecord classes generated from
+ * {@code /schemas/avro} (module {@code avro-events}, package {@code com.trackops.events.inventory}).
+ * Field access is through generated accessors, so a schema change that breaks a converter fails the build
+ * instead of a record at runtime.
  */
-@Slf4j
 @Component
 public class AvroEventConverter {
 
-    private final SchemaRegistryService schemaRegistryService;
-    private final Map<String, Schema> schemaCache = new ConcurrentHashMap<>();
-
-    public AvroEventConverter(SchemaRegistryService schemaRegistryService) {
-        this.schemaRegistryService = schemaRegistryService;
-    }
-
     /**
-     * Converts an InventoryReservedEvent to Avro GenericRecord.
+     * Converts an InventoryReservedEvent to its Avro record.
      */
-    public GenericRecord toAvro(InventoryReservedEvent event) {
-        String subject = "INVENTORY_RESERVED-value";
-        Schema schema = getSchema(subject);
-        
-        GenericRecord record = new GenericData.Record(schema);
-        record.put("eventId", event.getEventId());
-        record.put("eventType", "INVENTORY_RESERVED");
-        record.put("orderId", event.getOrderId().toString());
-        record.put("timestamp", event.getTimestamp() != null ? event.getTimestamp().toString() : null);
-        record.put("reservationId", event.getReservationId());
-        
-        // Convert reservedItems list
-        List<GenericRecord> reservedItemsList = new ArrayList<>();
-        Schema reservedItemSchema = schema.getField("reservedItems").schema().getElementType();
+    public com.trackops.events.inventory.InventoryReservedEvent toAvro(InventoryReservedEvent event) {
+        List<ReservedItem> reservedItems = new ArrayList<>(event.getReservedItems().size());
         for (InventoryReservedEvent.ReservedItem item : event.getReservedItems()) {
-            GenericRecord itemRecord = new GenericData.Record(reservedItemSchema);
-            itemRecord.put("productId", item.getProductId());
-            itemRecord.put("productName", item.getProductName());
-            itemRecord.put("quantity", item.getQuantity());
-            itemRecord.put("unitPrice", item.getUnitPrice());
-            reservedItemsList.add(itemRecord);
+            reservedItems.add(new ReservedItem(
+                item.getProductId(), item.getProductName(), item.getQuantity(), item.getUnitPrice()));
         }
-        record.put("reservedItems", reservedItemsList);
-        
-        return record;
+        return com.trackops.events.inventory.InventoryReservedEvent.newBuilder()
+            .setEventId(event.getEventId())
+            .setEventType("INVENTORY_RESERVED")
+            .setOrderId(event.getOrderId().toString())
+            .setTimestamp(event.getTimestamp() != null ? event.getTimestamp().toString() : null)
+            .setReservationId(event.getReservationId())
+            .setReservedItems(reservedItems)
+            .build();
     }
 
     /**
-     * Converts an InventoryReservationFailedEvent to Avro GenericRecord.
+     * Converts an InventoryReservationFailedEvent to its Avro record.
      */
-    public GenericRecord toAvro(InventoryReservationFailedEvent event) {
-        String subject = "INVENTORY_RESERVATION_FAILED-value";
-        Schema schema = getSchema(subject);
-        
-        GenericRecord record = new GenericData.Record(schema);
-        record.put("eventId", event.getEventId());
-        record.put("eventType", "INVENTORY_RESERVATION_FAILED");
-        record.put("orderId", event.getOrderId().toString());
-        record.put("timestamp", event.getTimestamp() != null ? event.getTimestamp().toString() : null);
-        record.put("reason", event.getReason());
-        
-        // Convert failedItems list
-        List<GenericRecord> failedItemsList = new ArrayList<>();
-        Schema failedItemSchema = schema.getField("failedItems").schema().getElementType();
+    public com.trackops.events.inventory.InventoryReservationFailedEvent toAvro(InventoryReservationFailedEvent event) {
+        List<FailedItem> failedItems = new ArrayList<>(event.getFailedItems().size());
         for (InventoryReservationFailedEvent.FailedItem item : event.getFailedItems()) {
-            GenericRecord itemRecord = new GenericData.Record(failedItemSchema);
-            itemRecord.put("productId", item.getProductId());
-            itemRecord.put("productName", item.getProductName());
-            itemRecord.put("requestedQuantity", item.getRequestedQuantity());
-            itemRecord.put("availableQuantity", item.getAvailableQuantity());
-            itemRecord.put("failureReason", item.getFailureReason());
-            failedItemsList.add(itemRecord);
+            failedItems.add(new FailedItem(item.getProductId(), item.getProductName(), item.getRequestedQuantity(),
+                item.getAvailableQuantity(), item.getFailureReason()));
         }
-        record.put("failedItems", failedItemsList);
-        
-        return record;
+        return com.trackops.events.inventory.InventoryReservationFailedEvent.newBuilder()
+            .setEventId(event.getEventId())
+            .setEventType("INVENTORY_RESERVATION_FAILED")
+            .setOrderId(event.getOrderId().toString())
+            .setTimestamp(event.getTimestamp() != null ? event.getTimestamp().toString() : null)
+            .setReason(event.getReason())
+            .setFailedItems(failedItems)
+            .build();
     }
 
     /**
-     * Converts an InventoryReleasedEvent to Avro GenericRecord.
+     * Converts an InventoryReleasedEvent to its Avro record.
      */
-    public GenericRecord toAvro(InventoryReleasedEvent event) {
-        String subject = "INVENTORY_RELEASED-value";
-        Schema schema = getSchema(subject);
-        
-        GenericRecord record = new GenericData.Record(schema);
-        record.put("eventId", event.getEventId());
-        record.put("eventType", "INVENTORY_RELEASED");
-        record.put("orderId", event.getOrderId().toString());
-        record.put("timestamp", event.getTimestamp() != null ? event.getTimestamp().toString() : null);
-        record.put("reservationId", event.getReservationId());
-        record.put("reason", event.getReason());
-        
-        // Convert releasedItems list
-        List<GenericRecord> releasedItemsList = new ArrayList<>();
-        Schema releasedItemSchema = schema.getField("releasedItems").schema().getElementType();
+    public com.trackops.events.inventory.InventoryReleasedEvent toAvro(InventoryReleasedEvent event) {
+        List<ReleasedItem> releasedItems = new ArrayList<>(event.getReleasedItems().size());
         for (InventoryReleasedEvent.ReleasedItem item : event.getReleasedItems()) {
-            GenericRecord itemRecord = new GenericData.Record(releasedItemSchema);
-            itemRecord.put("productId", item.getProductId());
-            itemRecord.put("productName", item.getProductName());
-            itemRecord.put("quantity", item.getQuantity());
-            releasedItemsList.add(itemRecord);
+            releasedItems.add(new ReleasedItem(item.getProductId(), item.getProductName(), item.getQuantity()));
         }
-        record.put("releasedItems", releasedItemsList);
-        
-        return record;
+        return com.trackops.events.inventory.InventoryReleasedEvent.newBuilder()
+            .setEventId(event.getEventId())
+            .setEventType("INVENTORY_RELEASED")
+            .setOrderId(event.getOrderId().toString())
+            .setTimestamp(event.getTimestamp() != null ? event.getTimestamp().toString() : null)
+            .setReservationId(event.getReservationId())
+            .setReason(event.getReason())
+            .setReleasedItems(releasedItems)
+            .build();
     }
 
     /**
-     * Converts an Avro GenericRecord to InventoryReservedEvent.
+     * Converts an Avro record to InventoryReservedEvent.
      */
     public InventoryReservedEvent fromAvroReserved(GenericRecord record) {
-        UUID orderId = UUID.fromString(record.get("orderId").toString());
-        String reservationId = record.get("reservationId").toString();
-        
-        // Convert reservedItems list
-        @SuppressWarnings("unchecked")
-        List<GenericRecord> reservedItemsList = (List<GenericRecord>) record.get("reservedItems");
-        List<InventoryReservedEvent.ReservedItem> items = new ArrayList<>();
-        for (GenericRecord itemRecord : reservedItemsList) {
+        var avro = specific(record, com.trackops.events.inventory.InventoryReservedEvent.class);
+        List<InventoryReservedEvent.ReservedItem> items = new ArrayList<>(avro.getReservedItems().size());
+        for (ReservedItem item : avro.getReservedItems()) {
             items.add(new InventoryReservedEvent.ReservedItem(
-                itemRecord.get("productId").toString(),
-                itemRecord.get("productName").toString(),
-                (Integer) itemRecord.get("quantity"),
-                itemRecord.get("unitPrice").toString()
+                item.getProductId().toString(),
+                item.getProductName().toString(),
+                item.getQuantity(),
+                item.getUnitPrice().toString()
             ));
         }
-        
-        return new InventoryReservedEvent(orderId, reservationId, items);
+        return new InventoryReservedEvent(
+            UUID.fromString(avro.getOrderId().toString()), avro.getReservationId().toString(), items);
     }
 
     /**
-     * Converts an Avro GenericRecord to InventoryReservationFailedEvent.
+     * Converts an Avro record to InventoryReservationFailedEvent.
      */
     public InventoryReservationFailedEvent fromAvroReservationFailed(GenericRecord record) {
-        UUID orderId = UUID.fromString(record.get("orderId").toString());
-        String reason = record.get("reason").toString();
-        
-        // Convert failedItems list
-        @SuppressWarnings("unchecked")
-        List<GenericRecord> failedItemsList = (List<GenericRecord>) record.get("failedItems");
-        List<InventoryReservationFailedEvent.FailedItem> items = new ArrayList<>();
-        for (GenericRecord itemRecord : failedItemsList) {
+        var avro = specific(record, com.trackops.events.inventory.InventoryReservationFailedEvent.class);
+        List<InventoryReservationFailedEvent.FailedItem> items = new ArrayList<>(avro.getFailedItems().size());
+        for (FailedItem item : avro.getFailedItems()) {
             items.add(new InventoryReservationFailedEvent.FailedItem(
-                itemRecord.get("productId").toString(),
-                itemRecord.get("productName").toString(),
-                (Integer) itemRecord.get("requestedQuantity"),
-                (Integer) itemRecord.get("availableQuantity"),
-                itemRecord.get("failureReason").toString()
+                item.getProductId().toString(),
+                item.getProductName().toString(),
+                item.getRequestedQuantity(),
+                item.getAvailableQuantity(),
+                item.getFailureReason().toString()
             ));
         }
-        
-        return new InventoryReservationFailedEvent(orderId, reason, items);
+        return new InventoryReservationFailedEvent(
+            UUID.fromString(avro.getOrderId().toString()), avro.getReason().toString(), items);
     }
 
     /**
-     * Converts an Avro GenericRecord to InventoryReleasedEvent.
+     * Converts an Avro record to InventoryReleasedEvent.
      */
     public InventoryReleasedEvent fromAvroReleased(GenericRecord record) {
-        UUID orderId = UUID.fromString(record.get("orderId").toString());
-        String reservationId = record.get("reservationId").toString();
-        String reason = record.get("reason").toString();
-        
-        // Convert releasedItems list
-        @SuppressWarnings("unchecked")
-        List<GenericRecord> releasedItemsList = (List<GenericRecord>) record.get("releasedItems");
-        List<InventoryReleasedEvent.ReleasedItem> items = new ArrayList<>();
-        for (GenericRecord itemRecord : releasedItemsList) {
+        var avro = specific(record, com.trackops.events.inventory.InventoryReleasedEvent.class);
+        List<InventoryReleasedEvent.ReleasedItem> items = new ArrayList<>(avro.getReleasedItems().size());
+        for (ReleasedItem item : avro.getReleasedItems()) {
             items.add(new InventoryReleasedEvent.ReleasedItem(
-                itemRecord.get("productId").toString(),
-                itemRecord.get("productName").toString(),
-                (Integer) itemRecord.get("quantity")
+                item.getProductId().toString(),
+                item.getProductName().toString(),
+                item.getQuantity()
             ));
         }
-        
-        return new InventoryReleasedEvent(orderId, reservationId, items, reason);
+        return new InventoryReleasedEvent(UUID.fromString(avro.getOrderId().toString()),
+            avro.getReservationId().toString(), items, avro.getReason().toString());
     }
 
-    /**
-     * Gets the schema for a subject, with caching.
-     */
-    private Schema getSchema(String subject) {
-        return schemaCache.computeIfAbsent(subject, s -> {
-            try {
-                return schemaRegistryService.getLatestSchema(s);
-            } catch (Exception e) {
-                log.error("Failed to get schema for subject: {}", subject, e);
-                throw new RuntimeException("Failed to get schema for subject: " + subject, e);
-            }
-        });
+    private static <T extends SpecificRecord> T specific(GenericRecord record, Class<T> type) {
+        if (!type.isInstance(record)) {
+            throw new IllegalArgumentException("Expected " + type.getName() + " but got "
+                + (record == null ? "null" : record.getClass().getName()) + " (is specific.avro.reader enabled?)");
+        }
+        return type.cast(record);
     }
 }
@@ -1,12 +1,22 @@
 package com.trackops.inventory.config;
 
+import com.trackops.events.kafka.KeyOrderedRecordProcessor;
+import com.trackops.events.schema.OrderEventsSubjectNameStrategy;
+import com.trackops.events.schema.SchemaRegistryInitializer;
+import com.trackops.inventory.adapters.input.messaging.KeyOrderedRecordMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.AbstractKafkaSchemaSerDeConfig;
 import io.confluent.kafka.serializers.KafkaAvroDeserializer;
 import io.confluent.kafka.serializers.KafkaAvroDeserializerConfig;
 import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.UUIDDeserializer;
 import org.apache.kafka.common.serialization.UUIDSerializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,11 +24,14 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
+@Slf4j
 @Configuration
 public class KafkaConfig {
 
@@ -34,6 +47,55 @@ public class KafkaConfig {
     @Value("${schema.registry.basic.auth.user.info:}")
     private String basicAuthUserInfo;
 
+    @Value("${inventory.kafka.batch.max-poll-records:500}")
+    private int batchMaxPollRecords;
+
+    @Value("${inventory.kafka.batch.fetch-max-wait-ms:100}")
+    private int batchFetchMaxWaitMs;
+
+    @Value("${inventory.kafka.batch.fetch-min-bytes:1}")
+    private int batchFetchMinBytes;
+
+    @Value("${inventory.kafka.batch.retry.max-attempts:5}")
+    private int batchRetryMaxAttempts;
+
+    @Value("${inventory.kafka.batch.retry.initial-interval-ms:1000}")
+    private long batchRetryInitialIntervalMs;
+
+    @Value("${inventory.kafka.batch.retry.max-interval-ms:30000}")
+    private long batchRetryMaxIntervalMs;
+
+    @Value("${inventory.kafka.key-ordered.enabled:false}")
+    private boolean keyOrderedEnabled;
+
+    @Value("${inventory.kafka.key-ordered.max-poll-records:500}")
+    private int keyOrderedMaxPollRecords;
+
+    @Value("${inventory.kafka.key-ordered.workers:16}")
+    private int keyOrderedWorkers;
+
+    @Value("${inventory.kafka.key-ordered.max-attempts:10}")
+    private int keyOrderedMaxAttempts;
+
+    @Value("${inventory.kafka.key-ordered.retry-backoff-ms:100}")
+    private long keyOrderedRetryBackoffMs;
+
+    @Value("${schema.registry.mode:register}")
+    private String schemaRegistryMode;
+
+    @Value("${inventory.kafka.order-events-topic.enabled:false}")
+    private boolean orderEventsTopicEnabled;
+
+    @Value("${inventory.kafka.order-events-topic.name:ORDER_EVENTS}")
+    private String orderEventsTopicName;
+
+    // Shared with SchemaRegistryService: its cache already holds the IDs resolved at startup
+    private final SchemaRegistryClient schemaRegistryClient;
+
+    public KafkaConfig(SchemaRegistryClient schemaRegistryClient) {
+        this.schemaRegistryClient = schemaRegistryClient;
+    }
+
     // Producer Configuration with Avro Serializer
     @Bean
     public ProducerFactory<UUID, GenericRecord> producerFactory() {
@@ -51,8 +113,25 @@ public class KafkaConfig {
             configProps.put("basic.auth.credentials.source", "USER_INFO");
             configProps.put("basic.auth.user.info", basicAuthUserInfo);
         }
+        if (SchemaRegistryInitializer.isVerifyOnly(schemaRegistryMode)) {
+            configProps.put(AbstractKafkaSchemaSerDeConfig.AUTO_REGISTER_SCHEMAS, false);
+        }
+        if (orderEventsTopicEnabled) {
+            configProps.put(AbstractKafkaSchemaSerDeConfig.VALUE_SUBJECT_NAME_STRATEGY, OrderEventsSubjectNameStrategy.class);
+            configProps.put(OrderEventsSubjectNameStrategy.TOPIC_CONFIG, orderEventsTopicName);
+        }
         
-        return new DefaultKafkaProducerFactory<>(configProps);
+        return new DefaultKafkaProducerFactory<>(configProps, new UUIDSerializer(), avroSerializer(configProps));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Serializer<GenericRecord> avroSerializer(Map<String, Object> configProps) {
+        return (Serializer<GenericRecord>) (Serializer<?>) new KafkaAvroSerializer(schemaRegistryClient, configProps);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Deserializer<GenericRecord> avroDeserializer(Map<String, Object> configProps) {
+        return (Deserializer<GenericRecord>) (Deserializer<?>) new KafkaAvroDeserializer(schemaRegistryClient, configProps);
     }
 
     @Bean
@@ -63,6 +142,11 @@ public class KafkaConfig {
     // Consumer Configuration with Avro Deserializer
     @Bean
     public ConsumerFactory<UUID, GenericRecord> consumerFactory() {
+        Map<String, Object> configProps = consumerConfigs();
+        return new DefaultKafkaConsumerFactory<>(configProps, UUIDDeserializer::new, () -> avroDeserializer(configProps));
+    }
+
+    private Map<String, Object> consumerConfigs() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ConsumerConfig.GROUP_ID_CONFIG, consumerGroupId);
@@ -74,26 +158,89 @@ public class KafkaConfig {
         
         // Schema Registry configuration
         configProps.put("schema.registry.url", schemaRegistryUrl);
-        configProps.put(KafkaAvroDeserializerConfig.SPECIFIC_AVRO_READER_CONFIG, false); // Use GenericRecord
+        configProps.put(KafkaAvroDeserializerConfig.SPECIFIC_AVRO_READER_CONFIG, true); // Generated classes from avro-events
         if (basicAuthUserInfo != null && !basicAuthUserInfo.isEmpty()) {
             configProps.put("basic.auth.credentials.source", "USER_INFO");
             configProps.put("basic.auth.user.info", basicAuthUserInfo);
         }
         
-        return new DefaultKafkaConsumerFactory<>(configProps);
+        return configProps;
     }
 
+    /**
+     * Record listener container. In key-ordered mode records are acknowledged out of order from the
+     * {@code KeyOrderedRecordProcessor} workers: async acks commit the highest contiguous acknowledged offset,
+     * and the container pauses until a whole poll ({@code max-poll-records}) is acknowledged.
+     */
     @Bean
     public ConcurrentKafkaListenerContainerFactory<UUID, GenericRecord> kafkaListenerContainerFactory() {
         ConcurrentKafkaListenerContainerFactory<UUID, GenericRecord> factory = 
             new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
         factory.setConcurrency(3); // Number of consumer threads
+        if (keyOrderedEnabled) {
+            factory.getContainerProperties().setAckMode(
+                org.springframework.kafka.listener.ContainerProperties.AckMode.MANUAL);
+            factory.getContainerProperties().setAsyncAcks(true);
+            factory.getContainerProperties().getKafkaConsumerProperties().setProperty(
+                ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(keyOrderedMaxPollRecords));
+        } else {
+            factory.getContainerProperties().setAckMode(
+                org.springframework.kafka.listener.ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        }
+        return factory;
+    }
+
+    /** Workers of the record-at-a-time order event listeners (inventory.kafka.key-ordered.*). */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public KeyOrderedRecordProcessor keyOrderedRecordProcessor(MeterRegistry meterRegistry) {
+        return new KeyOrderedRecordProcessor(new KeyOrderedRecordMetrics(meterRegistry),
+            KeyOrderedRecordProcessor.RetryScheduler.NONE, keyOrderedEnabled, keyOrderedWorkers,
+            keyOrderedMaxAttempts, keyOrderedRetryBackoffMs);
+    }
+
+    /**
+     * Batch consumer: large polls so order-created bursts are deduplicated and applied per poll
+     * rather than per record. Listeners acknowledge once per batch.
+     */
+    @Bean
+    public ConsumerFactory<UUID, GenericRecord> batchConsumerFactory() {
+        Map<String, Object> configProps = consumerConfigs();
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchMaxPollRecords);
+        configProps.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, batchFetchMinBytes);
+        configProps.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, batchFetchMaxWaitMs);
+        return new DefaultKafkaConsumerFactory<>(configProps, UUIDDeserializer::new, () -> avroDeserializer(configProps));
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<UUID, GenericRecord> batchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<UUID, GenericRecord> factory = 
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(batchConsumerFactory());
+        factory.setConcurrency(3); // Number of consumer threads
+        factory.setBatchListener(true);
         factory.getContainerProperties().setAckMode(
-            org.springframework.kafka.listener.ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+            org.springframework.kafka.listener.ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(batchErrorHandler());
         return factory;
     }
 
+    /**
+     * The batch listener reports the record that failed ({@code BatchListenerFailedException}): the records before
+     * it are committed and the poll is redelivered from it with exponential backoff (the consumer is paused between
+     * attempts, not spinning on the broker). Once the attempts are used up that record alone is logged with its
+     * coordinates and skipped, so it cannot stall the partition; nothing was marked processed for it.
+     */
+    private DefaultErrorHandler batchErrorHandler() {
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(Math.max(0, batchRetryMaxAttempts - 1));
+        backOff.setInitialInterval(batchRetryInitialIntervalMs);
+        backOff.setMultiplier(2.0);
+        backOff.setMaxInterval(batchRetryMaxIntervalMs);
+        return new DefaultErrorHandler((record, e) -> log.error(
+            "Giving up on order event {}-{}@{} (key {}) after {} attempts",
+            record.topic(), record.partition(), record.offset(), record.key(), batchRetryMaxAttempts, e), backOff);
+    }
+
     // Topic Definitions
     @Bean
     public NewTopic inventoryReservedTopic() {
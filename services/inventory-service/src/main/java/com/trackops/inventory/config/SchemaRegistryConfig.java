@@ -1,18 +1,17 @@
 package com.trackops.inventory.config;
 
+import com.trackops.events.schema.LocalSchemaBundle;
+import com.trackops.events.schema.SchemaRegistryInitializer;
 import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.avro.Schema;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -20,6 +19,9 @@ import java.util.Map;
 /**
  * Configuration for Confluent Schema Registry integration.
  * Provides schema registry client with caching and error handling.
+ * <p>
+ * {@code schema.registry.mode} selects how the registry is used: {@code register} (default) registers bundled
+ * schemas that are missing; {@code verify} treats the registry as a verification step only.
  */
 @Slf4j
 @Configuration
@@ -40,6 +42,21 @@ public class SchemaRegistryConfig {
     @Value("${schema.registry.compatibility.level:BACKWARD}")
     private String compatibilityLevel;
 
+    @Value("${schema.registry.mode:register}")
+    private String mode;
+
+    @Value("${schema.registry.bundle.location:" + LocalSchemaBundle.DEFAULT_LOCATION + "}")
+    private String bundleLocation;
+
+    @Value("${schema.registry.startup-timeout-ms:10000}")
+    private long startupTimeoutMs;
+
+    @Value("${inventory.kafka.order-events-topic.enabled:false}")
+    private boolean orderEventsTopicEnabled;
+
+    @Value("${inventory.kafka.order-events-topic.name:ORDER_EVENTS}")
+    private String orderEventsTopicName;
+
     /**
      * Creates a SchemaRegistryClient with caching and authentication support.
      * The client caches schemas locally to reduce latency.
@@ -66,8 +83,8 @@ public class SchemaRegistryConfig {
         
         log.info("Schema Registry client initialized with URL: {}", schemaRegistryUrl);
         
-        // Set compatibility level if auto-register is enabled
-        if (autoRegisterSchemas) {
+        // Set compatibility level if auto-register is enabled (never in verify mode)
+        if (autoRegisterSchemas && !SchemaRegistryInitializer.isVerifyOnly(mode)) {
             try {
                 setCompatibilityLevel(client);
             } catch (Exception e) {
@@ -92,89 +109,24 @@ public class SchemaRegistryConfig {
     }
 
     /**
-     * Registers schemas from the schemas directory if auto-register is enabled.
-     * This is useful for development environments.
+     * The Avro schemas bundled with the service, used instead of fetching schemas from the registry. With the
+     * consolidated order events topic they are also listed under their subjects on that topic.
      */
     @Bean
-    public SchemaRegistryInitializer schemaRegistryInitializer(SchemaRegistryClient schemaRegistryClient) {
-        return new SchemaRegistryInitializer(schemaRegistryClient, autoRegisterSchemas);
+    public LocalSchemaBundle localSchemaBundle() {
+        LocalSchemaBundle bundle = LocalSchemaBundle.load(bundleLocation);
+        return orderEventsTopicEnabled ? bundle.withRecordSubjects(orderEventsTopicName) : bundle;
     }
 
     /**
-     * Helper class to initialize schemas on startup.
+     * Resolves the IDs of the bundled schemas at startup, registering missing ones unless in verify mode.
      */
-    public static class SchemaRegistryInitializer {
-        private final SchemaRegistryClient client;
-        private final boolean autoRegister;
-
-        public SchemaRegistryInitializer(SchemaRegistryClient client, boolean autoRegister) {
-            this.client = client;
-            this.autoRegister = autoRegister;
-            
-            if (autoRegister) {
-                initializeSchemas();
-            }
-        }
-
-        private void initializeSchemas() {
-            try {
-                Path schemasDir = Paths.get("schemas/avro");
-                if (!Files.exists(schemasDir)) {
-                    log.warn("Schemas directory not found: {}. Skipping auto-registration.", schemasDir);
-                    return;
-                }
-
-                log.info("Auto-registering schemas from: {}", schemasDir);
-                Files.list(schemasDir)
-                    .filter(path -> path.toString().endsWith(".avsc"))
-                    .forEach(this::registerSchema);
-            } catch (IOException e) {
-                log.error("Error reading schemas directory", e);
-            }
-        }
-
-        private void registerSchema(Path schemaPath) {
-            try {
-                String schemaContent = Files.readString(schemaPath);
-                Schema schema = new Schema.Parser().parse(schemaContent);
-                
-                // Extract subject name from filename (e.g., InventoryReservedEvent.avsc -> INVENTORY_RESERVED-value)
-                String fileName = schemaPath.getFileName().toString();
-                String eventName = fileName.replace(".avsc", "");
-                String subject = getSubjectForEvent(eventName);
-                
-                try {
-                    // Check if schema already exists
-                    int existingSchemaId = client.getId(subject, schema);
-                    log.debug("Schema already registered for subject {} with ID: {}", subject, existingSchemaId);
-                } catch (RestClientException e) {
-                    if (e.getStatus() == 404) {
-                        // Schema doesn't exist, register it
-                        int schemaId = client.register(subject, schema);
-                        log.info("Registered schema for subject {} with ID: {}", subject, schemaId);
-                    } else {
-                        log.error("Error checking/registering schema for subject {}: {}", subject, e.getMessage());
-                    }
-                }
-            } catch (IOException | RestClientException e) {
-                log.error("Error registering schema from file {}: {}", schemaPath, e.getMessage());
-            }
-        }
-
-        private String getSubjectForEvent(String eventName) {
-            // Map event class names to topic names
-            Map<String, String> eventToTopic = Map.of(
-                "OrderCreatedEvent", "ORDER_CREATED",
-                "OrderStatusUpdatedEvent", "ORDER_STATUS_UPDATED",
-                "OrderDeliveredEvent", "ORDER_DELIVERED",
-                "OrderCancelledEvent", "ORDER_CANCELLED",
-                "InventoryReservedEvent", "INVENTORY_RESERVED",
-                "InventoryReservationFailedEvent", "INVENTORY_RESERVATION_FAILED",
-                "InventoryReleasedEvent", "INVENTORY_RELEASED"
-            );
-            
-            String topic = eventToTopic.get(eventName);
-            return topic != null ? topic + "-value" : eventName + "-value";
-        }
+    @Bean
+    public SchemaRegistryInitializer schemaRegistryInitializer(SchemaRegistryService schemaRegistryService,
+                                                               LocalSchemaBundle localSchemaBundle) {
+        SchemaRegistryInitializer initializer = new SchemaRegistryInitializer(
+            schemaRegistryService, localSchemaBundle, SchemaRegistryInitializer.isVerifyOnly(mode), autoRegisterSchemas);
+        initializer.resolveAll(Duration.ofMillis(startupTimeoutMs));
+        return initializer;
     }
 }
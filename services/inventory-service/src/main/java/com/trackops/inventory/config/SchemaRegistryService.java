@@ -1,5 +1,8 @@
 package com.trackops.inventory.config;
 
+import com.trackops.events.schema.LocalSchemaBundle;
+import com.trackops.events.schema.SchemaRegistryException;
+import com.trackops.events.schema.SchemaRegistryInitializer;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
 import lombok.extern.slf4j.Slf4j;
@@ -7,23 +10,31 @@ import org.apache.avro.Schema;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 /**
  * Service for managing Schema Registry operations with local caching.
  * Provides methods to register and retrieve schemas with error handling.
+ * <p>
+ * Schemas present in the {@link LocalSchemaBundle} are served from the bundle and never fetched from the
+ * registry. Their IDs are resolved once at startup by {@link SchemaRegistryInitializer}
+ * and kept in the caches below, so the serializers and deserializers do not wait on the registry at runtime.
  */
 @Slf4j
 @Service
-public class SchemaRegistryService {
+public class SchemaRegistryService implements SchemaRegistryInitializer.SchemaIds {
 
     private final SchemaRegistryClient schemaRegistryClient;
     private final ConcurrentMap<String, Schema> localSchemaCache = new ConcurrentHashMap<>();
     private final ConcurrentMap<String, Integer> subjectToSchemaIdCache = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Schema> idToSchemaCache = new ConcurrentHashMap<>();
+    private final LocalSchemaBundle schemaBundle;
 
-    public SchemaRegistryService(SchemaRegistryClient schemaRegistryClient) {
+    public SchemaRegistryService(SchemaRegistryClient schemaRegistryClient, LocalSchemaBundle schemaBundle) {
         this.schemaRegistryClient = schemaRegistryClient;
+        this.schemaBundle = schemaBundle;
     }
 
     /**
@@ -55,8 +66,7 @@ public class SchemaRegistryService {
                 log.debug("Schema already exists for subject {} with ID: {}", subject, existingId);
                 
                 // Cache the result
-                localSchemaCache.put(subject, schema);
-                subjectToSchemaIdCache.put(subject, existingId);
+                cacheSchemaId(subject, schema, existingId);
                 
                 return existingId;
             } catch (RestClientException e) {
@@ -66,8 +76,7 @@ public class SchemaRegistryService {
                     log.info("Registered new schema for subject {} with ID: {}", subject, schemaId);
                     
                     // Cache the result
-                    localSchemaCache.put(subject, schema);
-                    subjectToSchemaIdCache.put(subject, schemaId);
+                    cacheSchemaId(subject, schema, schemaId);
                     
                     return schemaId;
                 } else {
@@ -81,6 +90,44 @@ public class SchemaRegistryService {
         }
     }
 
+    /**
+     * Looks up the ID of a schema that must already be registered under the subject; never registers.
+     *
+     * @throws SchemaRegistryException if the lookup fails; {@link SchemaRegistryException#isNotFound()}
+     *         tells a schema the registry does not know from an unreachable registry
+     */
+    public int lookupSchemaId(String subject, Schema schema) {
+        Integer cachedId = getCachedSchemaId(subject, schema);
+        if (cachedId != null) {
+            return cachedId;
+        }
+        try {
+            int schemaId = schemaRegistryClient.getId(subject, schema);
+            cacheSchemaId(subject, schema, schemaId);
+            return schemaId;
+        } catch (RestClientException | IOException e) {
+            throw new SchemaRegistryException("Failed to look up schema ID for subject: " + subject, e);
+        }
+    }
+
+    /**
+     * The schema ID resolved for the subject's bundled schema, if resolution has succeeded.
+     */
+    public Optional<Integer> getResolvedSchemaId(String subject) {
+        return Optional.ofNullable(subjectToSchemaIdCache.get(subject));
+    }
+
+    private Integer getCachedSchemaId(String subject, Schema schema) {
+        Schema cachedSchema = localSchemaCache.get(subject);
+        return cachedSchema != null && cachedSchema.equals(schema) ? subjectToSchemaIdCache.get(subject) : null;
+    }
+
+    private void cacheSchemaId(String subject, Schema schema, int schemaId) {
+        localSchemaCache.put(subject, schema);
+        subjectToSchemaIdCache.put(subject, schemaId);
+        idToSchemaCache.put(schemaId, schema);
+    }
+
     /**
      * Retrieves a schema by subject and version.
      * 
@@ -119,16 +166,20 @@ public class SchemaRegistryService {
     }
 
     /**
-     * Retrieves the latest schema for a subject.
+     * Retrieves the latest schema for a subject: the bundled schema if there is one, else the registry's.
      */
     public Schema getLatestSchema(String subject) {
-        return getSchema(subject, null);
+        return schemaBundle.getSchema(subject).orElseGet(() -> getSchema(subject, null));
     }
 
     /**
      * Retrieves a schema by its ID.
      */
     public Schema getSchemaById(int schemaId) {
+        Schema cached = idToSchemaCache.get(schemaId);
+        if (cached != null) {
+            return cached;
+        }
         try {
             return schemaRegistryClient.getById(schemaId);
         } catch (RestClientException | IOException e) {
@@ -136,13 +187,4 @@ public class SchemaRegistryService {
             throw new SchemaRegistryException("Failed to retrieve schema by ID: " + schemaId, e);
         }
     }
-
-    /**
-     * Custom exception for Schema Registry operations.
-     */
-    public static class SchemaRegistryException extends RuntimeException {
-        public SchemaRegistryException(String message, Throwable cause) {
-            super(message, cause);
-        }
-    }
 }
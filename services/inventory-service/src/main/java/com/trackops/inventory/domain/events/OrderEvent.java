@@ -22,6 +22,16 @@ public abstract class OrderEvent {
         this.timestamp = Instant.now();
     }
     
+    /**
+     * Create an event with a stable ID taken from the consumed record, so redeliveries can be detected.
+     */
+    protected OrderEvent(String eventId, String eventType, UUID orderId) {
+        this.eventId = eventId;
+        this.eventType = eventType;
+        this.orderId = orderId;
+        this.timestamp = Instant.now();
+    }
+    
     public String getEventId() {
         return eventId;
     }
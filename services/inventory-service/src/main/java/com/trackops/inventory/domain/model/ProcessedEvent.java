@@ -0,0 +1,59 @@
+package com.trackops.inventory.domain.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Marker row for an order event that has already been applied, so redelivered events are skipped.
+ * Implements {@link Persistable} so saving a new marker is a plain INSERT (no select-before-merge).
+ */
+@Entity
+@Table(name = "processed_events")
+@Getter
+@NoArgsConstructor
+public class ProcessedEvent implements Persistable<String> {
+    
+    @Id
+    @Column(name = "event_id", nullable = false)
+    private String eventId;
+    
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+    
+    @Column(name = "order_id")
+    private UUID orderId;
+    
+    @Column(name = "processed_at", nullable = false)
+    private Instant processedAt;
+    
+    @Transient
+    private boolean newEntity = true;
+    
+    public ProcessedEvent(String eventId, String eventType, UUID orderId) {
+        this.eventId = eventId;
+        this.eventType = eventType;
+        this.orderId = orderId;
+        this.processedAt = Instant.now();
+    }
+    
+    @Override
+    public String getId() {
+        return eventId;
+    }
+    
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+    
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        this.newEntity = false;
+    }
+}
@@ -2,6 +2,14 @@ package com.trackops.inventory.ports.input.events;
 
 import com.trackops.inventory.domain.events.OrderEvent;
 
+import java.util.List;
+
 public interface OrderEventProcessorPort {
     void processOrderEvent(OrderEvent event);
+
+    /**
+     * Process a batch of order events in one transaction: already-processed events are skipped,
+     * and stock changes are grouped by SKU across the batch.
+     */
+    void processOrderEventBatch(List<OrderEvent> events);
 }
@@ -0,0 +1,40 @@
+package com.trackops.inventory.ports.output.cache;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Index of reservation expiry deadlines, ordered by deadline.
+ * Lets the expiry worker find only the reservations that are actually due instead of
+ * range-scanning inventory_reservations on every tick.
+ */
+public interface ReservationExpiryIndex {
+
+    /**
+     * Track (or move) the deadline of a reservation.
+     */
+    void schedule(UUID reservationId, Instant expiresAt);
+
+    /**
+     * Track many deadlines in one round trip (used when rebuilding the index).
+     */
+    void scheduleAll(Map<UUID, Instant> deadlines);
+
+    /**
+     * Stop tracking a reservation (released or confirmed before it expired).
+     */
+    void cancel(UUID reservationId);
+
+    /**
+     * Atomically remove and return up to {@code limit} reservations whose deadline is at or before {@code now}.
+     * A reservation is returned to exactly one caller, so several replicas can poll the same index.
+     */
+    List<UUID> pollDue(Instant now, int limit);
+
+    /**
+     * Number of deadlines currently tracked.
+     */
+    long size();
+}
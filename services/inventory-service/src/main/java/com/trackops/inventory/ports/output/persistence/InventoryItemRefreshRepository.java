@@ -0,0 +1,14 @@
+package com.trackops.inventory.ports.output.persistence;
+
+import com.trackops.inventory.domain.model.InventoryItem;
+
+import java.util.Collection;
+
+/**
+ * Re-reads managed items from the database, for rows changed by bulk UPDATEs that bypassed the persistence context
+ * (e.g. the SKU reservation lanes, which commit on their own threads).
+ */
+public interface InventoryItemRefreshRepository {
+    
+    void refresh(Collection<InventoryItem> items);
+}
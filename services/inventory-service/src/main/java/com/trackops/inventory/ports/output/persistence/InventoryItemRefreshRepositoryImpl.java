@@ -0,0 +1,26 @@
+package com.trackops.inventory.ports.output.persistence;
+
+import com.trackops.inventory.domain.model.InventoryItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.Collection;
+
+/**
+ * Spring Data fragment implementation of {@link InventoryItemRefreshRepository}, mixed into
+ * {@link InventoryItemRepository}.
+ */
+public class InventoryItemRefreshRepositoryImpl implements InventoryItemRefreshRepository {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public void refresh(Collection<InventoryItem> items) {
+        for (InventoryItem item : items) {
+            if (entityManager.contains(item)) {
+                entityManager.refresh(item);
+            }
+        }
+    }
+}
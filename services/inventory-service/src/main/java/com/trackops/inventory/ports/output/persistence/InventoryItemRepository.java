@@ -4,16 +4,19 @@ import com.trackops.inventory.domain.model.InventoryItem;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface InventoryItemRepository extends JpaRepository<InventoryItem, UUID> {
+public interface InventoryItemRepository extends JpaRepository<InventoryItem, UUID>, InventoryItemRefreshRepository {
     
     Optional<InventoryItem> findByProductId(String productId);
     
@@ -26,8 +29,50 @@ public interface InventoryItemRepository extends JpaRepository<InventoryItem, UU
     @Query("SELECT i FROM InventoryItem i WHERE i.productId IN :productIds")
     List<InventoryItem> findByProductIds(@Param("productIds") List<String> productIds);
     
+    /**
+     * Availability columns only, for batch availability checks; one indexed IN lookup for the whole cart.
+     */
+    @Query("SELECT i.productId AS productId, i.availableQuantity AS availableQuantity, " +
+           "i.isActive AS isActive, i.isDiscontinued AS isDiscontinued " +
+           "FROM InventoryItem i WHERE i.productId IN :productIds")
+    List<ItemAvailability> findAvailabilityByProductIds(@Param("productIds") Collection<String> productIds);
+    
     @Query("SELECT i FROM InventoryItem i WHERE i.availableQuantity > 0")
     List<InventoryItem> findAvailableItems();
     
     boolean existsByProductId(String productId);
+    
+    /**
+     * Conditional single-row reservation: succeeds only if the item is reservable and has enough stock.
+     * Bumps the version so JPA writers holding a stale copy fail their optimistic lock.
+     *
+     * @return 1 if reserved, 0 if the item is missing, not reservable or short of stock
+     */
+    @Modifying
+    @Query("UPDATE InventoryItem i SET i.availableQuantity = i.availableQuantity - :quantity, " +
+           "i.reservedQuantity = i.reservedQuantity + :quantity, i.version = i.version + 1, i.updatedAt = :now " +
+           "WHERE i.productId = :productId AND i.availableQuantity >= :quantity " +
+           "AND i.isActive = true AND i.isDiscontinued = false")
+    int reserveIfAvailable(@Param("productId") String productId, @Param("quantity") int quantity, @Param("now") Instant now);
+    
+    /**
+     * Conditional single-row release of previously reserved stock.
+     *
+     * @return 1 if released, 0 if less than {@code quantity} is reserved
+     */
+    @Modifying
+    @Query("UPDATE InventoryItem i SET i.availableQuantity = i.availableQuantity + :quantity, " +
+           "i.reservedQuantity = i.reservedQuantity - :quantity, i.version = i.version + 1, i.updatedAt = :now " +
+           "WHERE i.productId = :productId AND i.reservedQuantity >= :quantity")
+    int releaseIfReserved(@Param("productId") String productId, @Param("quantity") int quantity, @Param("now") Instant now);
+    
+    /**
+     * Projection of the columns needed to decide whether an item can be reserved.
+     */
+    interface ItemAvailability {
+        String getProductId();
+        Integer getAvailableQuantity();
+        Boolean getIsActive();
+        Boolean getIsDiscontinued();
+    }
 }
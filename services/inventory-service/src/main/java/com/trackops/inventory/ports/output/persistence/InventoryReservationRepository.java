@@ -4,12 +4,14 @@ import com.trackops.inventory.domain.model.InventoryReservation;
 import com.trackops.inventory.domain.model.ReservationStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -25,9 +27,22 @@ public interface InventoryReservationRepository extends JpaRepository<InventoryR
     @Query("SELECT r FROM InventoryReservation r WHERE r.orderId = :orderId AND r.status = :status")
     List<InventoryReservation> findByOrderIdAndStatus(@Param("orderId") UUID orderId, @Param("status") ReservationStatus status);
     
+    List<InventoryReservation> findByOrderIdInAndStatus(Collection<UUID> orderIds, ReservationStatus status);
+    
     @Query("SELECT r FROM InventoryReservation r WHERE r.expiresAt < :now AND r.status = 'RESERVED'")
     List<InventoryReservation> findExpiredReservations(@Param("now") Instant now);
     
+    @Query("SELECT r FROM InventoryReservation r WHERE r.id IN :ids AND r.status = 'RESERVED'")
+    List<InventoryReservation> findReservedByIds(@Param("ids") Collection<UUID> ids);
+    
+    /**
+     * Keyset page of (id, expiresAt) for active reservations, used to rebuild the expiry index.
+     * Start with {@code afterId = new UUID(0, 0)} and pass the last id of each page to get the next.
+     */
+    @Query("SELECT r.id AS id, r.expiresAt AS expiresAt FROM InventoryReservation r " +
+           "WHERE r.status = 'RESERVED' AND r.expiresAt IS NOT NULL AND r.id > :afterId ORDER BY r.id")
+    Slice<ReservationDeadline> findActiveDeadlinesAfter(@Param("afterId") UUID afterId, Pageable pageable);
+    
     @Query("SELECT r FROM InventoryReservation r WHERE r.productId = :productId AND r.status = 'RESERVED'")
     List<InventoryReservation> findActiveReservationsByProductId(@Param("productId") String productId);
     
@@ -35,4 +50,12 @@ public interface InventoryReservationRepository extends JpaRepository<InventoryR
     
     @Query("SELECT COUNT(r) FROM InventoryReservation r WHERE r.orderId = :orderId AND r.status = 'RESERVED'")
     long countActiveReservationsByOrderId(@Param("orderId") UUID orderId);
+    
+    /**
+     * Projection of a reservation's expiry deadline.
+     */
+    interface ReservationDeadline {
+        UUID getId();
+        Instant getExpiresAt();
+    }
 }
@@ -0,0 +1,12 @@
+-- Idempotency markers for consumed order events (redelivered events are skipped)
+CREATE TABLE processed_events (
+    event_id VARCHAR(255) PRIMARY KEY,
+    event_type VARCHAR(50) NOT NULL,
+    order_id UUID,
+    processed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_processed_events_processed_at ON processed_events(processed_at);
+
+COMMENT ON TABLE processed_events IS 'Order events already applied by inventory-service (deduplication)';
+COMMENT ON COLUMN processed_events.event_id IS 'Event ID from the record, or <eventType>:<orderId> when the record has none';
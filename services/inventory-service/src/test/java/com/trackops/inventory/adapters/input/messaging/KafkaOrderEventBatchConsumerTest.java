@@ -0,0 +1,110 @@
+package com.trackops.inventory.adapters.input.messaging;
+
+import com.trackops.inventory.domain.events.OrderEvent;
+import com.trackops.inventory.ports.input.events.OrderEventProcessorPort;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("KafkaOrderEventBatchConsumer")
+class KafkaOrderEventBatchConsumerTest {
+
+    private final OrderEventProcessorPort processor = mock(OrderEventProcessorPort.class);
+    private final KafkaOrderEventBatchConsumer consumer = new KafkaOrderEventBatchConsumer(processor);
+    private final Acknowledgment acknowledgment = mock(Acknowledgment.class);
+    private final List<List<UUID>> calls = new ArrayList<>();
+
+    @Test
+    @DisplayName("applies a healthy poll in one call and acknowledges it")
+    void processesWholeBatch() {
+        recordCalls(null);
+        List<ConsumerRecord<UUID, GenericRecord>> records = records(3);
+
+        consumer.handleOrderCreatedBatch(records, acknowledgment);
+
+        assertThat(calls).containsExactly(keys(records));
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    @DisplayName("reruns a failed poll record by record and reports only the failing record to the container")
+    void reportsFailingRecordIndex() {
+        List<ConsumerRecord<UUID, GenericRecord>> records = records(4);
+        UUID poison = records.get(2).key();
+        recordCalls(poison);
+
+        assertThatThrownBy(() -> consumer.handleOrderCreatedBatch(records, acknowledgment))
+            .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                e -> assertThat(e.getIndex()).isEqualTo(2));
+
+        assertThat(calls).containsExactly(
+            keys(records),
+            List.of(records.get(0).key()),
+            List.of(records.get(1).key()),
+            List.of(poison));
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    @Test
+    @DisplayName("acknowledges the poll when the record-by-record rerun succeeds")
+    void acknowledgesAfterSuccessfulRerun() {
+        List<ConsumerRecord<UUID, GenericRecord>> records = records(2);
+        List<UUID> batch = keys(records);
+        doAnswer(invocation -> {
+            List<UUID> orderIds = orderIds(invocation.getArgument(0));
+            calls.add(orderIds);
+            if (orderIds.equals(batch)) {
+                throw new IllegalStateException("deadlock detected");
+            }
+            return null;
+        }).when(processor).processOrderEventBatch(anyList());
+
+        consumer.handleOrderCreatedBatch(records, acknowledgment);
+
+        assertThat(calls).hasSize(3);
+        verify(acknowledgment).acknowledge();
+    }
+
+    /** Records the order IDs of every call; calls containing {@code poison} fail. */
+    private void recordCalls(UUID poison) {
+        doAnswer(invocation -> {
+            List<UUID> orderIds = orderIds(invocation.getArgument(0));
+            calls.add(orderIds);
+            if (orderIds.contains(poison)) {
+                throw new IllegalStateException("constraint violation");
+            }
+            return null;
+        }).when(processor).processOrderEventBatch(anyList());
+    }
+
+    private static List<UUID> orderIds(List<OrderEvent> events) {
+        return events.stream().map(OrderEvent::getOrderId).toList();
+    }
+
+    private static List<UUID> keys(List<ConsumerRecord<UUID, GenericRecord>> records) {
+        return records.stream().map(ConsumerRecord::key).toList();
+    }
+
+    private static List<ConsumerRecord<UUID, GenericRecord>> records(int count) {
+        List<ConsumerRecord<UUID, GenericRecord>> records = new ArrayList<>();
+        for (int offset = 0; offset < count; offset++) {
+            records.add(new ConsumerRecord<>("ORDER_CREATED", 0, offset, UUID.randomUUID(), null));
+        }
+        return records;
+    }
+}
@@ -0,0 +1,170 @@
+package com.trackops.inventory.application.services;
+
+import com.trackops.inventory.domain.model.InventoryItem;
+import com.trackops.inventory.ports.output.persistence.InventoryItemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Contention benchmark: many threads reserving the same SKU, once with the JPA read-modify-write path
+ * (optimistic locking, retry on conflict) and once through {@link SkuReservationLanes}.
+ * Reports throughput, optimistic-lock failures and row updates. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@Testcontainers
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("SKU reservation lanes contention benchmark")
+class SkuReservationLanesContentionBenchmark {
+
+    private static final String HOT_SKU = "BENCH-HOT";
+    private static final int THREADS = 32;
+    private static final int RESERVATIONS_PER_THREAD = 100;
+    private static final int TOTAL = THREADS * RESERVATIONS_PER_THREAD;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> THREADS + 4);
+    }
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void seedHotItem() {
+        inventoryItemRepository.deleteAll();
+        inventoryItemRepository.save(InventoryItem.builder()
+            .productId(HOT_SKU)
+            .productName("Benchmark item")
+            .availableQuantity(1_000_000)
+            .reservedQuantity(0)
+            .unitPrice(BigDecimal.ONE)
+            .isActive(true)
+            .isDiscontinued(false)
+            .build());
+    }
+
+    @Test
+    @DisplayName("optimistic read-modify-write vs SKU lanes on one hot row")
+    void compareContention() throws Exception {
+        Result optimistic = runOptimistic();
+        assertThat(reservedQuantity()).isEqualTo(TOTAL);
+
+        seedHotItem();
+        Result lanes = runLanes();
+        assertThat(reservedQuantity()).isEqualTo(TOTAL);
+
+        System.out.printf("%n%-22s %12s %14s %14s %12s%n", "mode", "reservations", "throughput/s", "lock failures", "row updates");
+        optimistic.print("optimistic (JPA)");
+        lanes.print("sku lanes");
+    }
+
+    private Result runOptimistic() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        AtomicLong failures = new AtomicLong();
+        AtomicLong updates = new AtomicLong();
+
+        long elapsedNanos = runConcurrently(() -> {
+            for (int i = 0; i < RESERVATIONS_PER_THREAD; i++) {
+                while (true) {
+                    try {
+                        updates.incrementAndGet();
+                        tx.executeWithoutResult(status -> {
+                            InventoryItem item = inventoryItemRepository.findByProductId(HOT_SKU).orElseThrow();
+                            item.reserveQuantity(1);
+                            inventoryItemRepository.save(item);
+                        });
+                        break;
+                    } catch (ObjectOptimisticLockingFailureException e) {
+                        failures.incrementAndGet();
+                    }
+                }
+            }
+        });
+        return new Result(elapsedNanos, failures.get(), updates.get());
+    }
+
+    private Result runLanes() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SkuReservationLanes lanes = new SkuReservationLanes(
+            inventoryItemRepository, transactionManager, registry, true, 8, 256);
+        lanes.start();
+        try {
+            long elapsedNanos = runConcurrently(() -> {
+                for (int i = 0; i < RESERVATIONS_PER_THREAD; i++) {
+                    assertThat(lanes.reserve(HOT_SKU, 1).join()).isTrue();
+                }
+            });
+            long conflicts = (long) registry.get("inventory_reservation_lane_conflicts_total").counter().count();
+            long updates = (long) registry.get("inventory_reservation_lane_updates_total").counter().count();
+            return new Result(elapsedNanos, conflicts, updates);
+        } finally {
+            lanes.stop();
+        }
+    }
+
+    private long runConcurrently(Runnable worker) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(CompletableFuture.runAsync(worker, pool));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get();
+            return System.nanoTime() - start;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private int reservedQuantity() {
+        return inventoryItemRepository.findByProductId(HOT_SKU).orElseThrow().getReservedQuantity();
+    }
+
+    private record Result(long elapsedNanos, long lockFailures, long rowUpdates) {
+        void print(String mode) {
+            double seconds = elapsedNanos / 1_000_000_000.0;
+            System.out.printf("%-22s %12d %14.0f %14d %12d%n", mode, TOTAL, TOTAL / seconds, lockFailures, rowUpdates);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.trackops.inventory.application.services;
+
+import com.trackops.inventory.ports.output.persistence.InventoryItemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("SkuReservationLanes")
+class SkuReservationLanesTest {
+
+    private final InventoryItemRepository repository = mock(InventoryItemRepository.class);
+    private final SkuReservationLanes lanes = new SkuReservationLanes(repository, mock(PlatformTransactionManager.class),
+        new SimpleMeterRegistry(), true, 1, 256);
+
+    @AfterEach
+    void tearDown() {
+        lanes.stop();
+    }
+
+    @Test
+    @DisplayName("fails requests made after stop instead of leaving them pending")
+    void rejectsRequestsAfterStop() {
+        lanes.start();
+        lanes.stop();
+
+        CompletableFuture<Boolean> result = lanes.reserve("SKU-1", 1);
+
+        assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("fails requests still queued at stop instead of reporting them short of stock")
+    void failsQueuedRequestsOnStop() throws Exception {
+        CountDownLatch updating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.reserveIfAvailable(eq("SKU-1"), anyInt(), any(Instant.class))).thenAnswer(invocation -> {
+            updating.countDown();
+            awaitUninterruptibly(release);
+            return 1;
+        });
+        lanes.start();
+
+        CompletableFuture<Boolean> first = lanes.reserve("SKU-1", 1);
+        assertThat(updating.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Boolean> queued = lanes.reserve("SKU-1", 1);
+        lanes.stop();
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThatThrownBy(() -> queued.get(5, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    // Keeps the lane busy across stop(), then restores the interrupt so the lane exits after this update
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.trackops.server.adapters.input.messaging;
+
+import com.trackops.server.domain.model.orders.Address;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One Debezium change event on the orders table, parsed once by {@link DebeziumOrderPayloadMapper} and handed to
+ * every {@link DebeziumOrderChangeHandler}. {@code before} is null for creates, {@code after} for deletes.
+ * The topic and raw payload are kept for handlers that divert the event to the DLQ.
+ */
+public record DebeziumOrderChange(String topic, Operation operation, Row before, Row after, String rawPayload) {
+
+    public enum Operation {
+        CREATE, UPDATE, DELETE, READ, UNKNOWN;
+
+        static Operation fromCode(String op) {
+            if (op == null) {
+                return UNKNOWN;
+            }
+            return switch (op) {
+                case "c" -> CREATE;
+                case "u" -> UPDATE;
+                case "d" -> DELETE;
+                case "r" -> READ;
+                default -> UNKNOWN;
+            };
+        }
+    }
+
+    /**
+     * Columns of an orders row as Debezium sends them (snake_case in the payload). Values that are missing or
+     * do not parse are null; {@code status} and {@code customerId} are kept as sent.
+     */
+    public record Row(
+            UUID id,
+            String customerId,
+            String status,
+            BigDecimal totalAmount,
+            Address address,
+            String deliveryInstructions,
+            Instant createdAt,
+            Instant updatedAt,
+            Long version,
+            String createdBy,
+            String updatedBy,
+            String cancellationReason) {
+    }
+}
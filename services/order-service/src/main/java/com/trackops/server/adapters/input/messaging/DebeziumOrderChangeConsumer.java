@@ -0,0 +1,111 @@
+package com.trackops.server.adapters.input.messaging;
+
+import com.trackops.server.adapters.output.monitoring.MetricsService;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The single consumer of Debezium CDC events from the orders table.
+ * Each record is fetched and parsed once into a {@link DebeziumOrderChange}, then handed in process to every
+ * {@link DebeziumOrderChangeHandler} (order events, cache invalidation, cache warming), in {@code @Order} order.
+ * A failing handler is logged and counted under its name and does not stop the others.
+ * <p>
+ * Keeps the listener id and consumer group of the former order-event consumer, so committed offsets carry over
+ * and {@code DlqThrottleMonitor} still finds the container.
+ * Only active when app.event-publishing.strategy=debezium
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.event-publishing.strategy", havingValue = "debezium")
+public class DebeziumOrderChangeConsumer {
+
+    static final String LISTENER_ID = "debezium-order-event-consumer";
+
+    private final DebeziumOrderPayloadMapper payloadMapper;
+    private final MetricsService metricsService;
+    private final List<RegisteredHandler> handlers;
+
+    @Value("${app.event-publishing.strategy:outbox}")
+    private String eventPublishingStrategy;
+
+    public DebeziumOrderChangeConsumer(DebeziumOrderPayloadMapper payloadMapper,
+                                       List<DebeziumOrderChangeHandler> handlers,
+                                       MetricsService metricsService) {
+        this.payloadMapper = payloadMapper;
+        this.metricsService = metricsService;
+        this.handlers = handlers.stream()
+                .map(handler -> new RegisteredHandler(handler,
+                        metricsService.cdcHandlerTimer(handler.name(), "success"),
+                        metricsService.cdcHandlerTimer(handler.name(), "error")))
+                .toList();
+        log.info("Debezium orders CDC consumer dispatching to handlers: {}",
+                handlers.stream().map(DebeziumOrderChangeHandler::name).toList());
+    }
+
+    /**
+     * Consume Debezium events from the orders table
+     */
+    @KafkaListener(
+        id = LISTENER_ID,
+        topics = "trackops_orders.public.orders",
+        groupId = "debezium-order-consumer",
+        containerFactory = "kafkaListenerContainerFactory",
+        errorHandler = "debeziumErrorHandler"
+    )
+    public void handleOrderChange(
+            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+            @Header(KafkaHeaders.OFFSET) long offset,
+            String payload) {
+
+        // Only process if Debezium strategy is enabled
+        if (!"debezium".equalsIgnoreCase(eventPublishingStrategy)) {
+            log.debug("Debezium strategy disabled, ignoring Debezium event");
+            return;
+        }
+
+        DebeziumOrderChange change;
+        try {
+            change = payloadMapper.parse(topic, payload);
+        } catch (IllegalArgumentException e) {
+            metricsService.recordCdcParseFailure();
+            log.error("Unparseable Debezium event from topic: {}, partition: {}, offset: {}: {}",
+                    topic, partition, offset, e.getMessage());
+            return;
+        }
+
+        log.debug("Received Debezium event: operation={}, topic={}, partition={}, offset={}",
+                change.operation(), topic, partition, offset);
+
+        dispatch(change);
+    }
+
+    /**
+     * Hands the change to every handler, isolating and timing each one.
+     */
+    void dispatch(DebeziumOrderChange change) {
+        for (RegisteredHandler registered : handlers) {
+            long start = System.nanoTime();
+            try {
+                registered.handler().handle(change);
+                registered.success().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            } catch (Exception e) {
+                registered.error().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                log.error("Debezium handler {} failed on {} change from topic {}",
+                        registered.handler().name(), change.operation(), change.topic(), e);
+            }
+        }
+    }
+
+    private record RegisteredHandler(DebeziumOrderChangeHandler handler, Timer success, Timer error) {
+    }
+}
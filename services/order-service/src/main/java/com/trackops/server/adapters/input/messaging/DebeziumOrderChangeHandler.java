@@ -0,0 +1,13 @@
+package com.trackops.server.adapters.input.messaging;
+
+/**
+ * Receives every orders change from {@link DebeziumOrderChangeConsumer}, in {@code @Order} order.
+ * A handler that throws does not affect the others; the failure is logged and counted under its {@link #name()}.
+ */
+public interface DebeziumOrderChangeHandler {
+
+    /** Name used in logs and as the {@code handler} metric tag. */
+    String name();
+
+    void handle(DebeziumOrderChange change) throws Exception;
+}
@@ -1,6 +1,9 @@
 package com.trackops.server.adapters.input.messaging;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.trackops.server.adapters.input.web.dto.AddressDTO;
 import com.trackops.server.adapters.input.web.dto.OrderResponse;
 import com.trackops.server.domain.model.enums.OrderStatus;
@@ -9,65 +12,93 @@ import com.trackops.server.domain.model.orders.Order;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
 
 /**
- * Maps Debezium CDC "after" payload (JSON) to Order and OrderResponse for cache updates.
+ * Parses Debezium CDC change events on the orders table into {@link DebeziumOrderChange}, and maps the rows to
+ * Order and OrderResponse for cache updates.
  * Debezium column names are snake_case (e.g. customer_id, total_amount).
  */
 @Slf4j
 @Component
 public class DebeziumOrderPayloadMapper {
 
+    private final JsonFactory jsonFactory;
+
+    public DebeziumOrderPayloadMapper(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
     /**
-     * Build an Order domain entity from Debezium "after" node.
-     * Returns null if payload is invalid.
+     * Parses a change event once, for all handlers, with a streaming parser: only the operation and the orders
+     * columns are read; the schema section, the source block and unknown fields are skipped without being built.
+     * Accepts the change event envelope ({@code before}, {@code after}, {@code op}) and the flat record written by
+     * {@code ExtractNewRecordState} (row columns plus {@code __op}/{@code __deleted}, snake_case or renamed to
+     * camelCase), each with or without the {@code schema}/{@code payload} wrapper of the JSON converter.
+     * A flat record has no before image: it is the {@code after} row, or the {@code before} row when it is a
+     * delete ({@code __op=d} or {@code __deleted=true}).
+     *
+     * @throws IllegalArgumentException if the payload is empty or not JSON, or has neither an operation nor a row
      */
-    public Order orderFromAfter(JsonNode after) {
-        if (after == null || after.isMissingNode()) {
+    public DebeziumOrderChange parse(String topic, String rawPayload) {
+        if (rawPayload == null || rawPayload.isEmpty()) {
+            throw new IllegalArgumentException("Debezium payload is empty (tombstone)");
+        }
+        ChangeFields fields = new ChangeFields();
+        try (JsonParser parser = jsonFactory.createParser(rawPayload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Debezium payload is not a JSON object");
+            }
+            readChange(parser, fields);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Debezium payload is not valid JSON: " + e.getMessage(), e);
+        }
+        return fields.toChange(topic, rawPayload);
+    }
+
+    /**
+     * Build an Order domain entity from a change row.
+     * Returns null if the row is missing or lacks a required column.
+     */
+    public Order orderFromRow(DebeziumOrderChange.Row row) {
+        if (row == null) {
             return null;
         }
         try {
-            UUID id = uuid(after, "id");
-            UUID customerId = uuid(after, "customer_id");
-            OrderStatus status = status(after, "status");
-            BigDecimal totalAmount = decimal(after, "total_amount");
-            Address address = addressFromAfter(after);
-            String deliveryInstructions = text(after, "delivery_instructions");
-            Instant createdAt = instant(after, "created_at");
-            Instant updatedAt = instant(after, "updated_at");
-            if (id == null || customerId == null || status == null || totalAmount == null || updatedAt == null) {
+            UUID customerId = uuid(row.customerId());
+            OrderStatus status = status(row.status());
+            if (row.id() == null || customerId == null || status == null || row.totalAmount() == null
+                    || row.updatedAt() == null) {
                 return null;
             }
-            if (createdAt == null) {
-                createdAt = updatedAt;
-            }
-            Order order = new Order(id, customerId, status, totalAmount, address, deliveryInstructions, createdAt, updatedAt);
-            Long version = after.has("version") && !after.get("version").isNull() ? after.get("version").asLong() : null;
-            if (version != null) {
-                order.setVersion(version);
+            Instant createdAt = row.createdAt() != null ? row.createdAt() : row.updatedAt();
+            Order order = new Order(row.id(), customerId, status, row.totalAmount(), row.address(),
+                    row.deliveryInstructions(), createdAt, row.updatedAt());
+            if (row.version() != null) {
+                order.setVersion(row.version());
             }
             return order;
         } catch (Exception e) {
-            log.warn("Failed to map Debezium after to Order: {}", e.getMessage());
+            log.warn("Failed to map Debezium row to Order: {}", e.getMessage());
             return null;
         }
     }
 
     /**
-     * Build an OrderResponse from Debezium "after" node (for cache).
-     * Returns null if payload is invalid.
+     * Build an OrderResponse from a change row (for cache).
+     * Returns null if the row is missing or lacks a required column.
      */
-    public OrderResponse orderResponseFromAfter(JsonNode after) {
-        Order order = orderFromAfter(after);
+    public OrderResponse orderResponseFromRow(DebeziumOrderChange.Row row) {
+        Order order = orderFromRow(row);
         if (order == null) {
             return null;
         }
-        AddressDTO addressDto = addressDtoFromAfter(after);
-        Instant createdAt = order.getCreatedAt();
-        Instant updatedAt = order.getUpdatedAt();
+        Address address = row.address();
+        AddressDTO addressDto = new AddressDTO(address.getStreetAddress(), address.getCity(), address.getState(),
+                address.getPostalCode(), address.getCountry(), address.getPhoneNumber());
         return new OrderResponse(
                 order.getId(),
                 order.getCustomerId(),
@@ -75,14 +106,74 @@ public class DebeziumOrderPayloadMapper {
                 order.getTotalAmount(),
                 addressDto,
                 order.getDeliveryInstructions(),
-                createdAt != null ? createdAt : updatedAt,
-                updatedAt
+                order.getCreatedAt(),
+                order.getUpdatedAt()
         );
     }
 
-    private static UUID uuid(JsonNode n, String field) {
-        if (!n.has(field) || n.get(field).isNull()) return null;
-        String s = n.get(field).asText();
+    /**
+     * Reads the fields of an envelope or flat record object; the parser is on its START_OBJECT.
+     * The JSON converter's {@code payload} object is read into the same fields and its {@code schema} skipped.
+     */
+    private static void readChange(JsonParser parser, ChangeFields fields) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (name) {
+                case "payload" -> {
+                    if (token == JsonToken.START_OBJECT) {
+                        readChange(parser, fields);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                case "schema", "source", "transaction", "ts_ms" -> parser.skipChildren();
+                case "op", "__op" -> fields.op = scalarText(parser, token);
+                case "__deleted" -> fields.deleted = "true".equalsIgnoreCase(scalarText(parser, token));
+                case "before" -> fields.before = row(parser, token);
+                case "after" -> fields.after = row(parser, token);
+                default -> {
+                    if (fields.flat == null) {
+                        fields.flat = new RowFields();
+                    }
+                    if (!fields.flat.read(name, parser, token)) {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+    }
+
+    private static DebeziumOrderChange.Row row(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        RowFields row = new RowFields();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (!row.read(name, parser, value)) {
+                parser.skipChildren();
+            }
+        }
+        return row.toRow();
+    }
+
+    /** Text of a scalar value (numbers and booleans as written); null for null, objects and arrays. */
+    private static String scalarText(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isStructStart()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getText();
+    }
+
+    private static UUID uuid(String s) {
+        if (s == null) return null;
         try {
             return UUID.fromString(s);
         } catch (IllegalArgumentException e) {
@@ -90,41 +181,47 @@ public class DebeziumOrderPayloadMapper {
         }
     }
 
-    private static OrderStatus status(JsonNode n, String field) {
-        if (!n.has(field) || n.get(field).isNull()) return null;
-        String s = n.get(field).asText().toUpperCase();
+    private static OrderStatus status(String s) {
+        if (s == null) return null;
         try {
-            return OrderStatus.valueOf(s);
+            return OrderStatus.valueOf(s.toUpperCase());
         } catch (IllegalArgumentException e) {
             return null;
         }
     }
 
-    private static BigDecimal decimal(JsonNode n, String field) {
-        if (!n.has(field) || n.get(field).isNull()) return null;
-        JsonNode v = n.get(field);
-        if (v.isNumber()) {
-            return BigDecimal.valueOf(v.asDouble());
+    private static BigDecimal decimal(JsonParser parser, JsonToken token) throws IOException {
+        if (token.isNumeric()) {
+            return BigDecimal.valueOf(parser.getDoubleValue());
         }
+        String s = scalarText(parser, token);
+        if (s == null) return null;
         try {
-            return new BigDecimal(v.asText());
+            return new BigDecimal(s);
         } catch (NumberFormatException e) {
             return null;
         }
     }
 
-    private static String text(JsonNode n, String field) {
-        if (!n.has(field) || n.get(field).isNull()) return null;
-        return n.get(field).asText();
+    private static Long longValue(JsonParser parser, JsonToken token) throws IOException {
+        if (token.isNumeric()) {
+            return parser.getLongValue();
+        }
+        String s = scalarText(parser, token);
+        if (s == null) return null;
+        try {
+            return Long.parseLong(s);
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 
-    private static Instant instant(JsonNode n, String field) {
-        if (!n.has(field) || n.get(field).isNull()) return null;
-        JsonNode v = n.get(field);
-        if (v.isNumber()) {
-            return Instant.ofEpochMilli(v.asLong());
+    private static Instant instant(JsonParser parser, JsonToken token) throws IOException {
+        if (token.isNumeric()) {
+            return Instant.ofEpochMilli(parser.getLongValue());
         }
-        String s = v.asText();
+        String s = scalarText(parser, token);
+        if (s == null) return null;
         try {
             return Instant.parse(s);
         } catch (Exception e) {
@@ -136,23 +233,94 @@ public class DebeziumOrderPayloadMapper {
         }
     }
 
-    private static Address addressFromAfter(JsonNode after) {
-        String street = text(after, "street_address");
-        String city = text(after, "city");
-        String state = text(after, "state");
-        String postalCode = text(after, "postal_code");
-        String country = text(after, "country");
-        String phone = text(after, "phone_number");
-        return new Address(street, city, state, postalCode, country, phone);
+    /**
+     * Operation and rows of one change while it is read. Envelope fields win; the flat row columns are only used
+     * when the record has no {@code before}/{@code after}.
+     */
+    private static final class ChangeFields {
+        private String op;
+        private boolean deleted;
+        private DebeziumOrderChange.Row before;
+        private DebeziumOrderChange.Row after;
+        private RowFields flat;
+
+        DebeziumOrderChange toChange(String topic, String rawPayload) {
+            if (before == null && after == null && flat != null && flat.hasColumns()) {
+                DebeziumOrderChange.Row row = flat.toRow();
+                DebeziumOrderChange.Operation operation = deleted
+                        ? DebeziumOrderChange.Operation.DELETE
+                        : DebeziumOrderChange.Operation.fromCode(op);
+                return operation == DebeziumOrderChange.Operation.DELETE
+                        ? new DebeziumOrderChange(topic, operation, row, null, rawPayload)
+                        : new DebeziumOrderChange(topic, operation, null, row, rawPayload);
+            }
+            if (op == null && before == null && after == null) {
+                throw new IllegalArgumentException("Debezium payload has neither an operation nor an orders row");
+            }
+            return new DebeziumOrderChange(topic, DebeziumOrderChange.Operation.fromCode(op), before, after,
+                    rawPayload);
+        }
     }
 
-    private static AddressDTO addressDtoFromAfter(JsonNode after) {
-        String street = text(after, "street_address");
-        String city = text(after, "city");
-        String state = text(after, "state");
-        String postalCode = text(after, "postal_code");
-        String country = text(after, "country");
-        String phone = text(after, "phone_number");
-        return new AddressDTO(street, city, state, postalCode, country, phone);
+    /**
+     * Orders columns of one row, under their Debezium (snake_case) or renamed (camelCase) names.
+     */
+    private static final class RowFields {
+        private boolean columns;
+        private UUID id;
+        private String customerId;
+        private String status;
+        private BigDecimal totalAmount;
+        private String streetAddress;
+        private String city;
+        private String state;
+        private String postalCode;
+        private String country;
+        private String phoneNumber;
+        private String deliveryInstructions;
+        private Instant createdAt;
+        private Instant updatedAt;
+        private Long version;
+        private String createdBy;
+        private String updatedBy;
+        private String cancellationReason;
+
+        /** Reads the value of {@code name} if it is an orders column; returns false (value not consumed) otherwise. */
+        boolean read(String name, JsonParser parser, JsonToken token) throws IOException {
+            switch (name) {
+                case "id" -> id = uuid(scalarText(parser, token));
+                case "customer_id", "customerId" -> customerId = scalarText(parser, token);
+                case "status" -> status = scalarText(parser, token);
+                case "total_amount", "totalAmount" -> totalAmount = decimal(parser, token);
+                case "street_address", "streetAddress" -> streetAddress = scalarText(parser, token);
+                case "city" -> city = scalarText(parser, token);
+                case "state" -> state = scalarText(parser, token);
+                case "postal_code", "postalCode" -> postalCode = scalarText(parser, token);
+                case "country" -> country = scalarText(parser, token);
+                case "phone_number", "phoneNumber" -> phoneNumber = scalarText(parser, token);
+                case "delivery_instructions", "deliveryInstructions" -> deliveryInstructions = scalarText(parser, token);
+                case "created_at", "createdAt" -> createdAt = instant(parser, token);
+                case "updated_at", "updatedAt" -> updatedAt = instant(parser, token);
+                case "version" -> version = longValue(parser, token);
+                case "created_by", "createdBy" -> createdBy = scalarText(parser, token);
+                case "updated_by", "updatedBy" -> updatedBy = scalarText(parser, token);
+                case "cancellation_reason", "cancellationReason" -> cancellationReason = scalarText(parser, token);
+                default -> {
+                    return false;
+                }
+            }
+            columns = true;
+            return true;
+        }
+
+        boolean hasColumns() {
+            return columns;
+        }
+
+        DebeziumOrderChange.Row toRow() {
+            return new DebeziumOrderChange.Row(id, customerId, status, totalAmount,
+                    new Address(streetAddress, city, state, postalCode, country, phoneNumber),
+                    deliveryInstructions, createdAt, updatedAt, version, createdBy, updatedBy, cancellationReason);
+        }
     }
 }
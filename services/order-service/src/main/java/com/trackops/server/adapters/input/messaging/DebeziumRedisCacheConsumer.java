@@ -1,178 +1,122 @@
 package com.trackops.server.adapters.input.messaging;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.trackops.server.adapters.output.cache.RedisOrderCacheAdapter;
 import com.trackops.server.adapters.output.cache.RedisOrderStatusCacheAdapter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import java.util.UUID;
 
 /**
- * Consumer for Debezium CDC events that handles Redis cache invalidation.
- * This consumer processes database change events captured by Debezium
- * and invalidates/updates related Redis cache entries to keep them fresh.
+ * Handles Debezium CDC changes on the orders table (dispatched by {@link DebeziumOrderChangeConsumer})
+ * by invalidating related Redis cache entries to keep them fresh.
+ * Only the list caches (by status, by customer) are invalidated for creates and updates; the order's own
+ * entries are replaced by the version-guarded write of {@link DebeziumRedisCacheWarmer}, which runs next, so
+ * a replayed older change no longer deletes a newer cached order.
  * 
  * Only active when app.event-publishing.strategy=debezium
  */
 @Slf4j
 @Component
+@Order(2)
 @ConditionalOnProperty(name = "app.event-publishing.strategy", havingValue = "debezium")
 @RequiredArgsConstructor
-public class DebeziumRedisCacheConsumer {
+public class DebeziumRedisCacheConsumer implements DebeziumOrderChangeHandler {
     
-    private final ObjectMapper objectMapper;
     private final RedisOrderCacheAdapter orderCacheAdapter;
     private final RedisOrderStatusCacheAdapter orderStatusCacheAdapter;
     
-    @Value("${app.event-publishing.strategy:outbox}")
-    private String eventPublishingStrategy;
+    @Override
+    public String name() {
+        return "cache-invalidation";
+    }
     
-    /**
-     * Consume Debezium events from the orders table for cache invalidation
-     */
-    @KafkaListener(
-        topics = "trackops_orders.public.orders",
-        groupId = "debezium-cache-consumer",
-        containerFactory = "kafkaListenerContainerFactory",
-        errorHandler = "debeziumErrorHandler"
-    )
-    public void handleOrderChangeForCache(
-            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset,
-            String payload) {
-        
-        // Only process if Debezium strategy is enabled
-        if (!"debezium".equalsIgnoreCase(eventPublishingStrategy)) {
-            log.debug("Debezium strategy disabled, ignoring Debezium cache event");
-            return;
-        }
-        
-        try {
-            JsonNode event = objectMapper.readTree(payload);
-            String operation = event.get("payload").get("op").asText();
-            
-            log.debug("Received Debezium cache event: operation={}, topic={}, partition={}, offset={}", 
-                     operation, topic, partition, offset);
-            
-            switch (operation) {
-                case "c": // Create
-                    handleOrderCreatedForCache(event);
-                    break;
-                case "u": // Update
-                    handleOrderUpdatedForCache(event);
-                    break;
-                case "d": // Delete
-                    handleOrderDeletedForCache(event);
-                    break;
-                default:
-                    log.warn("Unknown Debezium operation for cache: {}", operation);
-            }
-            
-        } catch (Exception e) {
-            log.error("Error processing Debezium cache event from topic: {}, partition: {}, offset: {}", 
-                     topic, partition, offset, e);
+    @Override
+    public void handle(DebeziumOrderChange change) {
+        switch (change.operation()) {
+            case CREATE:
+                handleOrderCreatedForCache(change);
+                break;
+            case UPDATE:
+                handleOrderUpdatedForCache(change);
+                break;
+            case DELETE:
+                handleOrderDeletedForCache(change);
+                break;
+            default:
+                log.warn("Unknown Debezium operation for cache: {}", change.operation());
         }
     }
     
     /**
      * Handle order created events for cache invalidation
      */
-    private void handleOrderCreatedForCache(JsonNode event) {
-        try {
-            JsonNode after = event.get("payload").get("after");
-            String orderIdStr = after.get("id").asText();
-            String status = after.get("status").asText();
-            String customerId = after.has("customer_id") ? after.get("customer_id").asText() : null;
-            
-            UUID orderId = UUID.fromString(orderIdStr);
-            
-            log.info("Order created via Debezium - invalidating cache: orderId={}, status={}", orderId, status);
-            
-            // Invalidate related caches since a new order was created
-            invalidateOrderRelatedCaches(orderId, customerId, status);
-            
-            log.info("Successfully invalidated caches for new order: {}", orderId);
-            
-        } catch (Exception e) {
-            log.error("Error handling order created event for cache", e);
-        }
+    private void handleOrderCreatedForCache(DebeziumOrderChange change) {
+        DebeziumOrderChange.Row after = change.after();
+        UUID orderId = requireId(after);
+        String status = after.status();
+        String customerId = after.customerId();
+        
+        log.info("Order created via Debezium - invalidating cache: orderId={}, status={}", orderId, status);
+        
+        // A new order changes the list caches; its own entries are written by the cache warmer
+        invalidateListCaches(customerId, status);
+        
+        log.info("Successfully invalidated caches for new order: {}", orderId);
     }
     
     /**
      * Handle order updated events for cache invalidation
      */
-    private void handleOrderUpdatedForCache(JsonNode event) {
-        try {
-            JsonNode before = event.get("payload").get("before");
-            JsonNode after = event.get("payload").get("after");
-            
-            String orderIdStr = after.get("id").asText();
-            String newStatus = after.get("status").asText();
-            String previousStatus = before.get("status").asText();
-            String customerId = after.has("customer_id") ? after.get("customer_id").asText() : null;
-            
-            UUID orderId = UUID.fromString(orderIdStr);
-            
-            log.info("Order updated via Debezium - invalidating cache: orderId={}, status: {} -> {}", 
-                    orderId, previousStatus, newStatus);
-            
-            // Always invalidate order-specific caches
-            invalidateOrderSpecificCaches(orderId);
-            
-            // If status changed, invalidate status-related caches
-            if (!newStatus.equals(previousStatus)) {
-                invalidateStatusRelatedCaches(previousStatus, newStatus);
+    private void handleOrderUpdatedForCache(DebeziumOrderChange change) {
+        DebeziumOrderChange.Row before = change.before();
+        DebeziumOrderChange.Row after = change.after();
+        
+        UUID orderId = requireId(after);
+        String newStatus = after.status();
+        String previousStatus = before != null ? before.status() : null;
+        String customerId = after.customerId();
+        
+        log.info("Order updated via Debezium - invalidating cache: orderId={}, status: {} -> {}", 
+                orderId, previousStatus, newStatus);
+        
+        // If status changed, invalidate status-related caches
+        if (newStatus != null && !newStatus.equals(previousStatus)) {
+            invalidateStatusRelatedCaches(previousStatus, newStatus);
+        }
+        
+        // If customer changed, invalidate customer-related caches
+        String previousCustomerId = before != null ? before.customerId() : null;
+        if (customerId != null && !customerId.equals(previousCustomerId)) {
+            if (previousCustomerId != null) {
+                invalidateCustomerRelatedCaches(UUID.fromString(previousCustomerId));
             }
-            
-            // If customer changed, invalidate customer-related caches
-            String previousCustomerId = before.has("customer_id") ? before.get("customer_id").asText() : null;
-            if (customerId != null && !customerId.equals(previousCustomerId)) {
-                if (previousCustomerId != null) {
-                    invalidateCustomerRelatedCaches(UUID.fromString(previousCustomerId));
-                }
-                if (customerId != null) {
-                    invalidateCustomerRelatedCaches(UUID.fromString(customerId));
-                }
+            if (customerId != null) {
+                invalidateCustomerRelatedCaches(UUID.fromString(customerId));
             }
-            
-            log.info("Successfully invalidated caches for updated order: {}", orderId);
-            
-        } catch (Exception e) {
-            log.error("Error handling order updated event for cache", e);
         }
+        
+        log.info("Successfully invalidated caches for updated order: {}", orderId);
     }
     
     /**
      * Handle order deleted events for cache invalidation
      */
-    private void handleOrderDeletedForCache(JsonNode event) {
-        try {
-            JsonNode before = event.get("payload").get("before");
-            String orderIdStr = before.get("id").asText();
-            String status = before.get("status").asText();
-            String customerId = before.has("customer_id") ? before.get("customer_id").asText() : null;
-            
-            UUID orderId = UUID.fromString(orderIdStr);
-            
-            log.info("Order deleted via Debezium - invalidating cache: orderId={}, status={}", orderId, status);
-            
-            // Invalidate all related caches since order was deleted
-            invalidateOrderRelatedCaches(orderId, customerId, status);
-            
-            log.info("Successfully invalidated caches for deleted order: {}", orderId);
-            
-        } catch (Exception e) {
-            log.error("Error handling order deleted event for cache", e);
-        }
+    private void handleOrderDeletedForCache(DebeziumOrderChange change) {
+        DebeziumOrderChange.Row before = change.before();
+        UUID orderId = requireId(before);
+        String status = before.status();
+        String customerId = before.customerId();
+        
+        log.info("Order deleted via Debezium - invalidating cache: orderId={}, status={}", orderId, status);
+        
+        // Invalidate all related caches since order was deleted
+        invalidateOrderRelatedCaches(orderId, customerId, status);
+        
+        log.info("Successfully invalidated caches for deleted order: {}", orderId);
     }
     
     /**
@@ -182,6 +126,13 @@ public class DebeziumRedisCacheConsumer {
         // Invalidate order-specific caches
         invalidateOrderSpecificCaches(orderId);
         
+        invalidateListCaches(customerId, status);
+    }
+    
+    /**
+     * Invalidate the status and customer list caches an order appears in
+     */
+    private void invalidateListCaches(String customerId, String status) {
         // Invalidate status-related caches
         if (status != null) {
             invalidateStatusRelatedCaches(status, null);
@@ -249,4 +200,11 @@ public class DebeziumRedisCacheConsumer {
             log.error("Failed to invalidate customer-related caches for customer: {}", customerId, e);
         }
     }
+    
+    private static UUID requireId(DebeziumOrderChange.Row row) {
+        if (row == null || row.id() == null) {
+            throw new IllegalArgumentException("Debezium change has no valid order id");
+        }
+        return row.id();
+    }
 }
@@ -1,6 +1,7 @@
 package com.trackops.server.adapters.input.messaging.inventory;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.trackops.server.domain.model.outbox.InventoryReserveOutboxEntry;
 import com.trackops.server.ports.output.persistence.outbox.InventoryReserveOutboxRepository;
@@ -15,6 +16,7 @@ import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
@@ -48,17 +50,14 @@ public class InventoryReserveOutboxCdcRelayConsumer {
     @Transactional(rollbackFor = Exception.class)
     public void handleCdcEvent(String payload, Acknowledgment ack) {
         try {
-            JsonNode root = objectMapper.readTree(payload);
-            // Debezium with ExtractNewRecordState: value is the flat "after" (no envelope)
-            // Without ExtractNewRecordState: root has "after", "before", "source", "op"
-            JsonNode row = root.has("after") ? root.get("after") : root;
-            if (root.has("op") && !"c".equals(root.get("op").asText()) && !"r".equals(root.get("op").asText())) {
-                log.debug("Ignoring CDC event op={}", root.get("op").asText());
+            OutboxChange change = readChange(payload);
+            if (change.op() != null && !"c".equals(change.op()) && !"r".equals(change.op())) {
+                log.debug("Ignoring CDC event op={}", change.op());
                 ack.acknowledge();
                 return;
             }
 
-            String orderIdStr = row.has("order_id") ? row.get("order_id").asText() : null;
+            String orderIdStr = change.orderId();
             if (orderIdStr == null || orderIdStr.isBlank()) {
                 log.warn("CDC outbox event missing order_id");
                 ack.acknowledge();
@@ -85,4 +84,50 @@ public class InventoryReserveOutboxCdcRelayConsumer {
             throw e; // no ack, Kafka will redeliver
         }
     }
+
+    /**
+     * Reads only {@code op} and the row's {@code order_id} with a streaming parser; the schema section, the
+     * source block and the other columns are skipped without being built.
+     * Accepts the envelope ({@code op}, {@code after}) and the flat record of ExtractNewRecordState
+     * ({@code order_id}, optional {@code __op}), with or without the JSON converter's {@code schema}/{@code payload}.
+     */
+    private OutboxChange readChange(String payload) throws IOException {
+        String[] fields = new String[2];
+        try (JsonParser parser = objectMapper.getFactory().createParser(payload)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                readFields(parser, fields);
+            }
+        }
+        return new OutboxChange(fields[0], fields[1]);
+    }
+
+    private static void readFields(JsonParser parser, String[] fields) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (name) {
+                case "payload", "after" -> {
+                    if (token == JsonToken.START_OBJECT) {
+                        readFields(parser, fields);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                case "op", "__op" -> fields[0] = scalarText(parser, token);
+                case "order_id" -> fields[1] = scalarText(parser, token);
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private static String scalarText(JsonParser parser, JsonToken token) throws IOException {
+        if (token.isScalarValue() && token != JsonToken.VALUE_NULL) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private record OutboxChange(String op, String orderId) {
+    }
 }
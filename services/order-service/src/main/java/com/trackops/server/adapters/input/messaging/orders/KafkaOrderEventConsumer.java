@@ -2,7 +2,9 @@ package com.trackops.server.adapters.input.messaging.orders;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trackops.events.kafka.KeyOrderedRecordProcessor;
 import com.trackops.server.config.AvroEventConverter;
+import com.trackops.server.config.OrderEventsTopic;
 import com.trackops.server.ports.input.events.OrderEventProcessorPort;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.avro.generic.GenericRecord;
@@ -25,6 +27,13 @@ import java.util.UUID;
  * Consumes order events from Kafka. Processing is transactional; Kafka ACK is sent only
  * after the transaction commits, so a crash after DB write but before ACK results in
  * redelivery. Idempotency is enforced via processed_events INSERT ON CONFLICT (event_id) DO NOTHING.
+ * With app.kafka.key-ordered.enabled, records are processed by {@link KeyOrderedRecordProcessor} workers, in
+ * order per order ID but in parallel across orders, beyond the partition count.
+ * With app.kafka.retry-topics.enabled, a failing record is moved to the {@link OrderEventRetryTopics} tiers instead
+ * of being retried in place, so the rest of its partition keeps flowing.
+ * With app.kafka.order-events-topic.enabled, {@link #handleOrderEvent} consumes every event type from the
+ * consolidated {@link OrderEventsTopic}; the per-type listeners can then be switched off with
+ * app.kafka.order-events-topic.per-type-listeners=false once their topics are drained.
  */
 @Slf4j
 @Component
@@ -33,11 +42,14 @@ public class KafkaOrderEventConsumer {
     private final OrderEventProcessorPort orderEventProcessor;
     private final AvroEventConverter avroEventConverter;
     private final ObjectMapper objectMapper;
+    private final KeyOrderedRecordProcessor keyOrderedRecordProcessor;
 
-    public KafkaOrderEventConsumer(OrderEventProcessorPort orderEventProcessor, AvroEventConverter avroEventConverter, ObjectMapper objectMapper) {
+    public KafkaOrderEventConsumer(OrderEventProcessorPort orderEventProcessor, AvroEventConverter avroEventConverter, ObjectMapper objectMapper,
+                                   KeyOrderedRecordProcessor keyOrderedRecordProcessor) {
         this.orderEventProcessor = orderEventProcessor;
         this.avroEventConverter = avroEventConverter;
         this.objectMapper = objectMapper;
+        this.keyOrderedRecordProcessor = keyOrderedRecordProcessor;
     }
 
     // Your @KafkaListener methods will go here
@@ -46,202 +58,264 @@ public class KafkaOrderEventConsumer {
     @KafkaListener(
         topics = "ORDER_CREATED",
         groupId = "trackops-orders",
-        containerFactory = "kafkaListenerContainerFactory"
+        containerFactory = "keyOrderedListenerContainerFactory",
+        autoStartup = "${app.kafka.order-events-topic.per-type-listeners:true}"
     )
-    public void handleOrderCreated(ConsumerRecord<UUID, GenericRecord> record, Acknowledgment acknowledgment) {
-
-        try {
-            GenericRecord avroRecord = record.value();
-            UUID orderId = record.key();
-            String topic = record.topic();
+    public void handleOrderCreated(ConsumerRecord<UUID, GenericRecord> record, Acknowledgment acknowledgment) throws Exception {
+        keyOrderedRecordProcessor.process(record, acknowledgment, () -> {
+            try {
+                GenericRecord avroRecord = record.value();
+                UUID orderId = record.key();
+                String topic = record.topic();
             
-            log.info("Received ORDER_CREATED event for order: {} from topic: {}", orderId, topic);
-            log.debug("Avro record: {}", avroRecord);
+                log.info("Received ORDER_CREATED event for order: {} from topic: {}", orderId, topic);
+                log.debug("Avro record: {}", avroRecord);
 
-            OrderCreatedEvent event = avroEventConverter.fromAvro(avroRecord);
-            orderEventProcessor.processOrderEvent(event);
-            log.info("Successfully processed ORDER_CREATED event for order: {}", orderId);
-            // ACK only after transactional processing has committed (processOrderEvent is @Transactional)
-            acknowledgment.acknowledge();
-        } catch (Exception e) {
-            log.error("Failed to process ORDER_CREATED event for order: {}", record.key(), e);
-            // Don't acknowledge - let Kafka retry the message
-            throw e; // Re-throw to trigger retry mechanism
-        }
+                OrderCreatedEvent event = avroEventConverter.fromAvro(avroRecord);
+                orderEventProcessor.processOrderEvent(event);
+                log.info("Successfully processed ORDER_CREATED event for order: {}", orderId);
+                // ACK only after transactional processing has committed (processOrderEvent is @Transactional)
+                acknowledgment.acknowledge();
+            } catch (Exception e) {
+                log.error("Failed to process ORDER_CREATED event for order: {}", record.key(), e);
+                // Don't acknowledge - let Kafka retry the message
+                throw e; // Re-throw to trigger retry mechanism
+            }
+        });
     }
 
     // Step 3: Add ORDER_STATUS_UPDATED listener  
     @KafkaListener(
         topics = "ORDER_STATUS_UPDATED",
         groupId = "trackops-orders",
-        containerFactory = "kafkaListenerContainerFactory"
+        containerFactory = "keyOrderedListenerContainerFactory",
+        autoStartup = "${app.kafka.order-events-topic.per-type-listeners:true}"
     )
-    public void handleOrderStatusUpdated(ConsumerRecord<UUID, GenericRecord> record, Acknowledgment acknowledgment) {
-        try {
-            GenericRecord avroRecord = record.value();
-            UUID orderId = record.key();
-            String topic = record.topic();
+    public void handleOrderStatusUpdated(ConsumerRecord<UUID, GenericRecord> record, Acknowledgment acknowledgment) throws Exception {
+        keyOrderedRecordProcessor.process(record, acknowledgment, () -> {
+            try {
+                GenericRecord avroRecord = record.value();
+                UUID orderId = record.key();
+                String topic = record.topic();
             
-            log.info("Received ORDER_STATUS_UPDATED event for order: {} from topic: {}", orderId, topic);
-            log.debug("Avro record: {}", avroRecord);
+                log.info("Received ORDER_STATUS_UPDATED event for order: {} from topic: {}", orderId, topic);
+                log.debug("Avro record: {}", avroRecord);
             
-            OrderStatusUpdatedEvent event = avroEventConverter.fromAvroStatusUpdated(avroRecord);
-            orderEventProcessor.processOrderEvent(event);
+                OrderStatusUpdatedEvent event = avroEventConverter.fromAvroStatusUpdated(avroRecord);
+                orderEventProcessor.processOrderEvent(event);
 
-            log.info("Successfully processed ORDER_STATUS_UPDATED event for order: {}", orderId);
-            acknowledgment.acknowledge();
+                log.info("Successfully processed ORDER_STATUS_UPDATED event for order: {}", orderId);
+                acknowledgment.acknowledge();
             
-        } catch (Exception e) {
-            log.error("Failed to process ORDER_STATUS_UPDATED event for order: {}", record.key(), e);
-            // Don't acknowledge - let Kafka retry the message
-            throw e; // Re-throw to trigger retry mechanism
-        }
+            } catch (Exception e) {
+                log.error("Failed to process ORDER_STATUS_UPDATED event for order: {}", record.key(), e);
+                // Don't acknowledge - let Kafka retry the message
+                throw e; // Re-throw to trigger retry mechanism
+            }
+        });
     }
 
     @KafkaListener(
         topics = "ORDER_DELIVERED",
         groupId = "trackops-orders",
-        containerFactory = "kafkaListenerContainerFactory"
+        containerFactory = "keyOrderedListenerContainerFactory",
+        autoStartup = "${app.kafka.order-events-topic.per-type-listeners:true}"
     )
-    public void handleOrderDelivered(ConsumerRecord<UUID, GenericRecord> record, Acknowledgment acknowledgment) {
-        
-        try {
-            GenericRecord avroRecord = record.value();
-            UUID orderId = record.key();
-            String topic = record.topic();
+    public void handleOrderDelivered(ConsumerRecord<UUID, GenericRecord> record, Acknowledgment acknowledgment) throws Exception {
+        keyOrderedRecordProcessor.process(record, acknowledgment, () -> {
+            try {
+                GenericRecord avroRecord = record.value();
+                UUID orderId = record.key();
+                String topic = record.topic();
             
-            log.info("Received ORDER_DELIVERED event for order: {} from topic: {}", orderId, topic);
-            log.debug("Avro record: {}", avroRecord);
+                log.info("Received ORDER_DELIVERED event for order: {} from topic: {}", orderId, topic);
+                log.debug("Avro record: {}", avroRecord);
             
-            OrderDeliveredEvent event = avroEventConverter.fromAvroDelivered(avroRecord);
-            orderEventProcessor.processOrderEvent(event);
+                OrderDeliveredEvent event = avroEventConverter.fromAvroDelivered(avroRecord);
+                orderEventProcessor.processOrderEvent(event);
 
-            log.info("Successfully processed ORDER_DELIVERED event for order: {}", orderId);
-            acknowledgment.acknowledge();
+                log.info("Successfully processed ORDER_DELIVERED event for order: {}", orderId);
+                acknowledgment.acknowledge();
             
-        } catch (Exception e) {
-            log.error("Failed to process ORDER_DELIVERED event for order: {}", record.key(), e);
-            // Don't acknowledge - let Kafka retry the message
-            throw e; // Re-throw to trigger retry mechanism
-        }
+            } catch (Exception e) {
+                log.error("Failed to process ORDER_DELIVERED event for order: {}", record.key(), e);
+                // Don't acknowledge - let Kafka retry the message
+                throw e; // Re-throw to trigger retry mechanism
+            }
+        });
     }
 
     @KafkaListener(
         topics = "ORDER_CANCELLED",
         groupId = "trackops-orders",
-        containerFactory = "kafkaListenerContainerFactory"
+        containerFactory = "keyOrderedListenerContainerFactory",
+        autoStartup = "${app.kafka.order-events-topic.per-type-listeners:true}"
     )
-    public void handleOrderCancelled(ConsumerRecord<UUID, GenericRecord> record, Acknowledgment acknowledgment) {
-        
-        try {
-            GenericRecord avroRecord = record.value();
-            UUID orderId = record.key();
-            String topic = record.topic();
+    public void handleOrderCancelled(ConsumerRecord<UUID, GenericRecord> record, Acknowledgment acknowledgment) throws Exception {
+        keyOrderedRecordProcessor.process(record, acknowledgment, () -> {
+            try {
+                GenericRecord avroRecord = record.value();
+                UUID orderId = record.key();
+                String topic = record.topic();
             
-            log.info("Received ORDER_CANCELLED event for order: {} from topic: {}", orderId, topic);
-            log.debug("Avro record: {}", avroRecord);
+                log.info("Received ORDER_CANCELLED event for order: {} from topic: {}", orderId, topic);
+                log.debug("Avro record: {}", avroRecord);
             
-            OrderCancelledEvent event = avroEventConverter.fromAvroCancelled(avroRecord);
-            orderEventProcessor.processOrderEvent(event);
+                OrderCancelledEvent event = avroEventConverter.fromAvroCancelled(avroRecord);
+                orderEventProcessor.processOrderEvent(event);
             
-            log.info("Successfully processed ORDER_CANCELLED event for order: {}", orderId);
-            acknowledgment.acknowledge();
+                log.info("Successfully processed ORDER_CANCELLED event for order: {}", orderId);
+                acknowledgment.acknowledge();
             
-        } catch (Exception e) {
-            log.error("Failed to process ORDER_CANCELLED event for order: {}", record.key(), e);
-            // Don't acknowledge - let Kafka retry the message
-            throw e; // Re-throw to trigger retry mechanism
-        }
+            } catch (Exception e) {
+                log.error("Failed to process ORDER_CANCELLED event for order: {}", record.key(), e);
+                // Don't acknowledge - let Kafka retry the message
+                throw e; // Re-throw to trigger retry mechanism
+            }
+        });
     }
 
     // Inventory Service Response Event Handlers
     @KafkaListener(
         topics = "INVENTORY_RESERVED",
         groupId = "trackops-orders",
-        containerFactory = "kafkaListenerContainerFactory"
+        containerFactory = "keyOrderedListenerContainerFactory",
+        autoStartup = "${app.kafka.order-events-topic.per-type-listeners:true}"
     )
-    public void handleInventoryReserved(ConsumerRecord<String, String> record, Acknowledgment acknowledgment) {
-        try {
-            String message = record.value();
-            UUID orderId = UUID.fromString(record.key());
-            String topic = record.topic();
+    public void handleInventoryReserved(ConsumerRecord<String, String> record, Acknowledgment acknowledgment) throws Exception {
+        keyOrderedRecordProcessor.process(record, acknowledgment, () -> {
+            try {
+                String message = record.value();
+                UUID orderId = UUID.fromString(record.key());
+                String topic = record.topic();
             
-            log.info("Received INVENTORY_RESERVED event for order: {} from topic: {}", orderId, topic);
-            log.debug("Message content: {}", message);
+                log.info("Received INVENTORY_RESERVED event for order: {} from topic: {}", orderId, topic);
+                log.debug("Message content: {}", message);
 
-            InventoryReservedEvent event = objectMapper.readValue(message, InventoryReservedEvent.class);
-            orderEventProcessor.processOrderEvent(event);
+                InventoryReservedEvent event = objectMapper.readValue(message, InventoryReservedEvent.class);
+                orderEventProcessor.processOrderEvent(event);
 
-            log.info("Successfully processed INVENTORY_RESERVED event for order: {}", orderId);
-            acknowledgment.acknowledge();
+                log.info("Successfully processed INVENTORY_RESERVED event for order: {}", orderId);
+                acknowledgment.acknowledge();
 
-        } catch (JsonProcessingException e) {
-            log.error("Failed to deserialize INVENTORY_RESERVED event for order: {} - Invalid JSON format", record.key(), e);
-            acknowledgment.acknowledge(); // Acknowledge malformed messages to avoid infinite retry
-        } catch (Exception e) {
-            log.error("Failed to process INVENTORY_RESERVED event for order: {}", record.key(), e);
-            // Don't acknowledge - let Kafka retry the message
-            throw e; // Re-throw to trigger retry mechanism
-        }
+            } catch (JsonProcessingException e) {
+                log.error("Failed to deserialize INVENTORY_RESERVED event for order: {} - Invalid JSON format", record.key(), e);
+                acknowledgment.acknowledge(); // Acknowledge malformed messages to avoid infinite retry
+            } catch (Exception e) {
+                log.error("Failed to process INVENTORY_RESERVED event for order: {}", record.key(), e);
+                // Don't acknowledge - let Kafka retry the message
+                throw e; // Re-throw to trigger retry mechanism
+            }
+        });
     }
 
     @KafkaListener(
         topics = "INVENTORY_RESERVATION_FAILED",
         groupId = "trackops-orders",
-        containerFactory = "kafkaListenerContainerFactory"
+        containerFactory = "keyOrderedListenerContainerFactory",
+        autoStartup = "${app.kafka.order-events-topic.per-type-listeners:true}"
     )
-    public void handleInventoryReservationFailed(ConsumerRecord<String, String> record, Acknowledgment acknowledgment) {
-        try {
-            String message = record.value();
-            UUID orderId = UUID.fromString(record.key());
-            String topic = record.topic();
+    public void handleInventoryReservationFailed(ConsumerRecord<String, String> record, Acknowledgment acknowledgment) throws Exception {
+        keyOrderedRecordProcessor.process(record, acknowledgment, () -> {
+            try {
+                String message = record.value();
+                UUID orderId = UUID.fromString(record.key());
+                String topic = record.topic();
             
-            log.info("Received INVENTORY_RESERVATION_FAILED event for order: {} from topic: {}", orderId, topic);
-            log.debug("Message content: {}", message);
+                log.info("Received INVENTORY_RESERVATION_FAILED event for order: {} from topic: {}", orderId, topic);
+                log.debug("Message content: {}", message);
 
-            InventoryReservationFailedEvent event = objectMapper.readValue(message, InventoryReservationFailedEvent.class);
-            orderEventProcessor.processOrderEvent(event);
+                InventoryReservationFailedEvent event = objectMapper.readValue(message, InventoryReservationFailedEvent.class);
+                orderEventProcessor.processOrderEvent(event);
 
-            log.info("Successfully processed INVENTORY_RESERVATION_FAILED event for order: {}", orderId);
-            acknowledgment.acknowledge();
+                log.info("Successfully processed INVENTORY_RESERVATION_FAILED event for order: {}", orderId);
+                acknowledgment.acknowledge();
 
-        } catch (JsonProcessingException e) {
-            log.error("Failed to deserialize INVENTORY_RESERVATION_FAILED event for order: {} - Invalid JSON format", record.key(), e);
-            acknowledgment.acknowledge(); // Acknowledge malformed messages to avoid infinite retry
-        } catch (Exception e) {
-            log.error("Failed to process INVENTORY_RESERVATION_FAILED event for order: {}", record.key(), e);
-            // Don't acknowledge - let Kafka retry the message
-            throw e; // Re-throw to trigger retry mechanism
-        }
+            } catch (JsonProcessingException e) {
+                log.error("Failed to deserialize INVENTORY_RESERVATION_FAILED event for order: {} - Invalid JSON format", record.key(), e);
+                acknowledgment.acknowledge(); // Acknowledge malformed messages to avoid infinite retry
+            } catch (Exception e) {
+                log.error("Failed to process INVENTORY_RESERVATION_FAILED event for order: {}", record.key(), e);
+                // Don't acknowledge - let Kafka retry the message
+                throw e; // Re-throw to trigger retry mechanism
+            }
+        });
     }
 
     @KafkaListener(
         topics = "INVENTORY_RELEASED",
         groupId = "trackops-orders",
-        containerFactory = "kafkaListenerContainerFactory"
+        containerFactory = "keyOrderedListenerContainerFactory",
+        autoStartup = "${app.kafka.order-events-topic.per-type-listeners:true}"
     )
-    public void handleInventoryReleased(ConsumerRecord<String, String> record, Acknowledgment acknowledgment) {
-        try {
-            String message = record.value();
-            UUID orderId = UUID.fromString(record.key());
-            String topic = record.topic();
+    public void handleInventoryReleased(ConsumerRecord<String, String> record, Acknowledgment acknowledgment) throws Exception {
+        keyOrderedRecordProcessor.process(record, acknowledgment, () -> {
+            try {
+                String message = record.value();
+                UUID orderId = UUID.fromString(record.key());
+                String topic = record.topic();
             
-            log.info("Received INVENTORY_RELEASED event for order: {} from topic: {}", orderId, topic);
-            log.debug("Message content: {}", message);
+                log.info("Received INVENTORY_RELEASED event for order: {} from topic: {}", orderId, topic);
+                log.debug("Message content: {}", message);
+
+                InventoryReleasedEvent event = objectMapper.readValue(message, InventoryReleasedEvent.class);
+                orderEventProcessor.processOrderEvent(event);
+
+                log.info("Successfully processed INVENTORY_RELEASED event for order: {}", orderId);
+                acknowledgment.acknowledge();
 
-            InventoryReleasedEvent event = objectMapper.readValue(message, InventoryReleasedEvent.class);
-            orderEventProcessor.processOrderEvent(event);
+            } catch (JsonProcessingException e) {
+                log.error("Failed to deserialize INVENTORY_RELEASED event for order: {} - Invalid JSON format", record.key(), e);
+                acknowledgment.acknowledge(); // Acknowledge malformed messages to avoid infinite retry
+            } catch (Exception e) {
+                log.error("Failed to process INVENTORY_RELEASED event for order: {}", record.key(), e);
+                // Don't acknowledge - let Kafka retry the message
+                throw e; // Re-throw to trigger retry mechanism
+            }
+        });
+    }
 
-            log.info("Successfully processed INVENTORY_RELEASED event for order: {}", orderId);
+    /**
+     * Single listener of the consolidated order events topic (app.kafka.order-events-topic.enabled): dispatches
+     * each record to the listener of the type in its event-type header. Since all events of an order share the
+     * key, they are processed in order across types. Only started when the topic is enabled.
+     */
+    @KafkaListener(
+        topics = "${app.kafka.order-events-topic.name:ORDER_EVENTS}",
+        groupId = "trackops-orders",
+        containerFactory = "keyOrderedListenerContainerFactory",
+        autoStartup = "${app.kafka.order-events-topic.enabled:false}"
+    )
+    public void handleOrderEvent(ConsumerRecord<?, ?> record, Acknowledgment acknowledgment) throws Exception {
+        String eventType = OrderEventsTopic.eventType(record);
+        if (eventType == null || !OrderEventRetryTopics.ORDER_EVENT_TOPICS.contains(eventType)) {
+            log.warn("Skipping record for order {} on {} with unknown event type {}", record.key(), record.topic(), eventType);
             acknowledgment.acknowledge();
+            return;
+        }
+        dispatch(eventType, record, acknowledgment);
+    }
+
+    /**
+     * Runs a record taken from a retry tier through the listener of its event type: the event-type header for
+     * records of the consolidated topic, otherwise the original topic.
+     */
+    void redeliver(ConsumerRecord<?, ?> record, Acknowledgment acknowledgment) throws Exception {
+        String eventType = OrderEventsTopic.eventType(record);
+        dispatch(eventType != null ? eventType : OrderEventRetryTopics.originalTopic(record), record, acknowledgment);
+    }
 
-        } catch (JsonProcessingException e) {
-            log.error("Failed to deserialize INVENTORY_RELEASED event for order: {} - Invalid JSON format", record.key(), e);
-            acknowledgment.acknowledge(); // Acknowledge malformed messages to avoid infinite retry
-        } catch (Exception e) {
-            log.error("Failed to process INVENTORY_RELEASED event for order: {}", record.key(), e);
-            // Don't acknowledge - let Kafka retry the message
-            throw e; // Re-throw to trigger retry mechanism
+    @SuppressWarnings("unchecked")
+    private void dispatch(String eventType, ConsumerRecord<?, ?> record, Acknowledgment acknowledgment) throws Exception {
+        switch (eventType) {
+            case "ORDER_CREATED" -> handleOrderCreated((ConsumerRecord<UUID, GenericRecord>) record, acknowledgment);
+            case "ORDER_STATUS_UPDATED" -> handleOrderStatusUpdated((ConsumerRecord<UUID, GenericRecord>) record, acknowledgment);
+            case "ORDER_DELIVERED" -> handleOrderDelivered((ConsumerRecord<UUID, GenericRecord>) record, acknowledgment);
+            case "ORDER_CANCELLED" -> handleOrderCancelled((ConsumerRecord<UUID, GenericRecord>) record, acknowledgment);
+            case "INVENTORY_RESERVED" -> handleInventoryReserved((ConsumerRecord<String, String>) record, acknowledgment);
+            case "INVENTORY_RESERVATION_FAILED" -> handleInventoryReservationFailed((ConsumerRecord<String, String>) record, acknowledgment);
+            case "INVENTORY_RELEASED" -> handleInventoryReleased((ConsumerRecord<String, String>) record, acknowledgment);
+            default -> throw new IllegalArgumentException("No order event listener for event type " + eventType);
         }
     }
-}
\ No newline at end of file
+}
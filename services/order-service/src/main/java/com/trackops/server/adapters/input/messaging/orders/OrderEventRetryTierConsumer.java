@@ -0,0 +1,104 @@
+package com.trackops.server.adapters.input.messaging.orders;
+
+import com.trackops.server.adapters.output.monitoring.MetricsService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Consumes the retry tiers of {@link OrderEventRetryTopics}, one listener container per tier so a long delay
+ * never holds up a short one.
+ * <p>
+ * A record that is not due yet is nacked for the remaining delay: the container pauses and seeks back, so the
+ * record (and the ones behind it, due later) are read again when it is due, without blocking the consumer
+ * thread. A due record runs through the listener of its original topic in {@link KafkaOrderEventConsumer};
+ * if it fails again it is moved to the next tier or to dlq_orders and acknowledged.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.kafka.retry-topics.enabled", havingValue = "true")
+public class OrderEventRetryTierConsumer {
+
+    private final OrderEventRetryTopics retryTopics;
+    private final KafkaOrderEventConsumer orderEventConsumer;
+    private final ConsumerFactory<UUID, GenericRecord> consumerFactory;
+    private final MetricsService metricsService;
+    private final String groupId;
+
+    private final List<ConcurrentMessageListenerContainer<UUID, GenericRecord>> containers = new ArrayList<>();
+
+    public OrderEventRetryTierConsumer(OrderEventRetryTopics retryTopics,
+                                       KafkaOrderEventConsumer orderEventConsumer,
+                                       ConsumerFactory<UUID, GenericRecord> consumerFactory,
+                                       MetricsService metricsService,
+                                       @Value("${app.kafka.retry-topics.group-id:trackops-orders-retry}") String groupId) {
+        this.retryTopics = retryTopics;
+        this.orderEventConsumer = orderEventConsumer;
+        this.consumerFactory = consumerFactory;
+        this.metricsService = metricsService;
+        this.groupId = groupId;
+    }
+
+    @PostConstruct
+    public void start() {
+        for (int tier = 1; tier <= retryTopics.tierCount(); tier++) {
+            ContainerProperties properties = new ContainerProperties(retryTopics.tierTopics(tier).toArray(String[]::new));
+            properties.setGroupId(groupId);
+            properties.setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+            properties.setMessageListener(listener(tier));
+            ConcurrentMessageListenerContainer<UUID, GenericRecord> container =
+                new ConcurrentMessageListenerContainer<>(consumerFactory, properties);
+            container.setBeanName("order-event-retry-tier-" + tier);
+            container.start();
+            containers.add(container);
+        }
+        log.info("Started {} order event retry tiers with delays {} ms", retryTopics.tierCount(),
+            IntStream.rangeClosed(1, retryTopics.tierCount()).mapToObj(retryTopics::delayMs).toList());
+    }
+
+    @PreDestroy
+    public void stop() {
+        containers.forEach(ConcurrentMessageListenerContainer::stop);
+    }
+
+    private AcknowledgingMessageListener<UUID, GenericRecord> listener(int tier) {
+        return (record, acknowledgment) -> {
+            long now = System.currentTimeMillis();
+            long dueAt = OrderEventRetryTopics.dueAt(record);
+            if (dueAt > now) {
+                acknowledgment.nack(Duration.ofMillis(Math.min(dueAt - now, retryTopics.delayMs(tier))));
+                return;
+            }
+            metricsService.recordRetryTierRecord(tier, "consumed");
+            metricsService.recordRetryTierLag(tier, now - dueAt);
+            redeliver(record, acknowledgment);
+        };
+    }
+
+    private void redeliver(ConsumerRecord<UUID, GenericRecord> record, Acknowledgment acknowledgment) {
+        try {
+            orderEventConsumer.redeliver(record, acknowledgment);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            // Neither the next tier nor dlq_orders took the record: let the container retry it on this tier
+            throw new IllegalStateException("Could not move order event " + record.key() + " past retry tier", e);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.trackops.server.adapters.input.messaging.orders;
+
+import com.trackops.events.kafka.KeyOrderedRecordProcessor;
+import com.trackops.server.adapters.output.monitoring.MetricsService;
+import com.trackops.server.application.services.dlq.DlqOrderService;
+import com.trackops.server.config.OrderEventsTopic;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.io.JsonEncoder;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiered delay retry topics for order event consumption.
+ * <p>
+ * A record that fails on its main topic is not retried in place (which holds up every later record of the
+ * partition) but published to the first retry tier, {@code <topic>-retry-<delayMs>}, and acknowledged. Tier
+ * {@code n} delays {@code initial-delay-ms * multiplier^(n-1)}; a record failing on a tier moves to the next one,
+ * and after the last tier it is written to dlq_orders. Every tier topic holds records of a single delay, so they
+ * become due in offset order and {@link OrderEventRetryTierConsumer} only waits for the head of each partition.
+ * <p>
+ * The original topic, the tier and the due time travel as headers. Retried events are no longer ordered with
+ * later events of the same order; processing is idempotent (processed_events), so a late redelivery is harmless.
+ */
+@Slf4j
+@Component
+public class OrderEventRetryTopics implements KeyOrderedRecordProcessor.RetryScheduler {
+
+    static final String ORIGINAL_TOPIC_HEADER = "x-retry-original-topic";
+    static final String TIER_HEADER = "x-retry-tier";
+    static final String DUE_AT_HEADER = "x-retry-due-at";
+    static final String EXCEPTION_HEADER = "x-retry-exception";
+
+    /** Main topics of {@link KafkaOrderEventConsumer} that get retry tiers. */
+    static final List<String> ORDER_EVENT_TOPICS = List.of(
+        "ORDER_CREATED", "ORDER_STATUS_UPDATED", "ORDER_DELIVERED", "ORDER_CANCELLED",
+        "INVENTORY_RESERVED", "INVENTORY_RESERVATION_FAILED", "INVENTORY_RELEASED");
+
+    private static final int MAX_EXCEPTION_HEADER_LENGTH = 500;
+
+    private final KafkaTemplate<UUID, GenericRecord> kafkaTemplate;
+    private final DlqOrderService dlqOrderService;
+    private final MetricsService metricsService;
+    private final OrderEventsTopic orderEventsTopic;
+    private final boolean enabled;
+    private final long[] delaysMs;
+
+    public OrderEventRetryTopics(KafkaTemplate<UUID, GenericRecord> kafkaTemplate,
+                                 DlqOrderService dlqOrderService,
+                                 MetricsService metricsService,
+                                 OrderEventsTopic orderEventsTopic,
+                                 @Value("${app.kafka.retry-topics.enabled:false}") boolean enabled,
+                                 @Value("${app.kafka.retry-topics.tiers:3}") int tiers,
+                                 @Value("${app.kafka.retry-topics.initial-delay-ms:1000}") long initialDelayMs,
+                                 @Value("${app.kafka.retry-topics.multiplier:10}") double multiplier) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.dlqOrderService = dlqOrderService;
+        this.metricsService = metricsService;
+        this.orderEventsTopic = orderEventsTopic;
+        this.enabled = enabled;
+        this.delaysMs = new long[Math.max(1, tiers)];
+        double delay = initialDelayMs;
+        for (int i = 0; i < delaysMs.length; i++) {
+            delaysMs[i] = Math.round(delay);
+            delay *= multiplier;
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Number of retry tiers; tiers are numbered from 1. */
+    public int tierCount() {
+        return delaysMs.length;
+    }
+
+    public long delayMs(int tier) {
+        return delaysMs[tier - 1];
+    }
+
+    public static String tierTopic(String topic, long delayMs) {
+        return topic + "-retry-" + delayMs;
+    }
+
+    /** Retry topics of one tier, one per order event topic and one for the consolidated topic if enabled. */
+    public List<String> tierTopics(int tier) {
+        List<String> topics = new ArrayList<>(ORDER_EVENT_TOPICS.size() + 1);
+        for (String topic : ORDER_EVENT_TOPICS) {
+            topics.add(tierTopic(topic, delayMs(tier)));
+        }
+        if (orderEventsTopic.isEnabled()) {
+            topics.add(tierTopic(orderEventsTopic.name(), delayMs(tier)));
+        }
+        return topics;
+    }
+
+    /** Whether the record was read from a retry tier rather than its main topic. */
+    public static boolean isRetryRecord(ConsumerRecord<?, ?> record) {
+        return record.headers().lastHeader(TIER_HEADER) != null;
+    }
+
+    @Override
+    public boolean isScheduledRetry(ConsumerRecord<?, ?> record) {
+        return isRetryRecord(record);
+    }
+
+    /** Tier the record was read from; 0 for the main topic. */
+    public static int tierOf(ConsumerRecord<?, ?> record) {
+        String tier = header(record.headers(), TIER_HEADER);
+        return tier != null ? Integer.parseInt(tier) : 0;
+    }
+
+    /** Main topic the record was first published to. */
+    public static String originalTopic(ConsumerRecord<?, ?> record) {
+        String topic = header(record.headers(), ORIGINAL_TOPIC_HEADER);
+        return topic != null ? topic : record.topic();
+    }
+
+    /** Epoch millis at which a retried record may run; 0 for main topic records. */
+    public static long dueAt(ConsumerRecord<?, ?> record) {
+        String dueAt = header(record.headers(), DUE_AT_HEADER);
+        return dueAt != null ? Long.parseLong(dueAt) : 0L;
+    }
+
+    /**
+     * Send a failed record to the next tier, or to dlq_orders after the last one. Returns once the record is
+     * durably stored there, so the caller can acknowledge it.
+     *
+     * @throws Exception if neither the tier topic nor the DLQ table took the record; the caller must not
+     *                   acknowledge it
+     */
+    @Override
+    public void scheduleRetry(ConsumerRecord<?, ?> record, Exception cause) throws Exception {
+        int nextTier = tierOf(record) + 1;
+        String originalTopic = originalTopic(record);
+        if (nextTier > delaysMs.length) {
+            Object key = record.key();
+            String eventType = OrderEventsTopic.eventType(record);
+            dlqOrderService.saveFailedOrderEvent(originalTopic, key != null ? key.toString() : null,
+                payloadJson(record.value()), eventType != null ? eventType : originalTopic, cause);
+            metricsService.recordRetryTierRecord(nextTier - 1, "exhausted");
+            log.error("Order event {} for order {} failed on every retry tier, written to dlq_orders",
+                originalTopic, record.key(), cause);
+            return;
+        }
+
+        long delayMs = delaysMs[nextTier - 1];
+        ProducerRecord<UUID, GenericRecord> retry = new ProducerRecord<>(tierTopic(originalTopic, delayMs),
+            (UUID) record.key(), (GenericRecord) record.value());
+        for (Header header : record.headers()) {
+            if (!header.key().startsWith("x-retry-")) {
+                retry.headers().add(header);
+            }
+        }
+        retry.headers()
+            .add(ORIGINAL_TOPIC_HEADER, bytes(originalTopic))
+            .add(TIER_HEADER, bytes(String.valueOf(nextTier)))
+            .add(DUE_AT_HEADER, bytes(String.valueOf(System.currentTimeMillis() + delayMs)))
+            .add(EXCEPTION_HEADER, bytes(describe(cause)));
+        kafkaTemplate.send(retry).get(10, TimeUnit.SECONDS);
+        metricsService.recordRetryTierRecord(nextTier, "scheduled");
+        log.warn("Order event {} for order {} failed, retrying on tier {} in {} ms: {}",
+            originalTopic, record.key(), nextTier, delayMs, cause.getMessage());
+    }
+
+    /**
+     * DLQ payload of a record value: Avro values in Avro's JSON encoding (readable, and decodable with the
+     * topic's schema by the DLQ redrive), anything else as its string form.
+     */
+    static String payloadJson(Object value) throws IOException {
+        if (!(value instanceof GenericRecord avroRecord)) {
+            return String.valueOf(value);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonEncoder encoder = EncoderFactory.get().jsonEncoder(avroRecord.getSchema(), out);
+        new SpecificDatumWriter<GenericRecord>(avroRecord.getSchema()).write(avroRecord, encoder);
+        encoder.flush();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static String describe(Exception cause) {
+        String description = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        return description.length() <= MAX_EXCEPTION_HEADER_LENGTH
+            ? description : description.substring(0, MAX_EXCEPTION_HEADER_LENGTH);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String header(Headers headers, String key) {
+        Header header = headers.lastHeader(key);
+        return header != null && header.value() != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+}
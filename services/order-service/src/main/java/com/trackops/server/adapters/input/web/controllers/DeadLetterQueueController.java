@@ -2,6 +2,8 @@ package com.trackops.server.adapters.input.web.controllers;
 
 import com.trackops.server.adapters.output.messaging.DlqThrottleMonitor;
 import com.trackops.server.application.services.dlq.DlqOrderService;
+import com.trackops.server.application.services.dlq.DlqRedriveProgress;
+import com.trackops.server.application.services.dlq.DlqRedriveService;
 import com.trackops.server.domain.model.dlq.DlqOrder;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -26,6 +28,7 @@ public class DeadLetterQueueController {
 
     private final DlqOrderService dlqOrderService;
     private final Optional<DlqThrottleMonitor> throttleMonitor;
+    private final Optional<DlqRedriveService> redriveService;
 
     /**
      * Get DLQ metrics from PostgreSQL dlq_orders. Includes throttle status when throttling is enabled.
@@ -42,6 +45,8 @@ public class DeadLetterQueueController {
         ));
         throttleMonitor.ifPresent(m -> {
             response.put("consumerPausedByThrottle", m.isConsumerPausedByThrottle());
+            response.put("pausedPartitions", m.getPausedPartitionCount());
+            response.put("dlqInflowRatePerSecond", m.getInflowRatePerSecond());
         });
 
         return ResponseEntity.ok(response);
@@ -82,6 +87,16 @@ public class DeadLetterQueueController {
         return ResponseEntity.ok(list);
     }
 
+    /**
+     * Progress of the current or last DLQ redrive pass on this replica (404 when redrive is disabled).
+     */
+    @GetMapping("/redrive")
+    public ResponseEntity<DlqRedriveProgress> getRedriveProgress() {
+        return redriveService
+                .map(service -> ResponseEntity.ok(service.progress()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     /**
      * Get a single DLQ order entry by id.
      */
@@ -23,6 +23,10 @@ import java.util.ArrayList;
  * Provides simplified health checks and status information for load balancers
  * and monitoring systems that need lightweight health endpoints.
  * 
+ * Database, Redis and Kafka health come from snapshots refreshed in the background
+ * (see SnapshotHealthIndicator), so these endpoints never call the dependencies themselves.
+ * Each request reads every snapshot once.
+ * 
  * Note: For production, prefer Spring Boot Actuator endpoints:
  * - /actuator/health (main health endpoint)
  * - /actuator/health/readiness (Kubernetes readiness probe)
@@ -53,24 +57,19 @@ public class HealthController {
      * Critical services: Database, Redis, Kafka (if available)
      */
     private boolean areCriticalServicesHealthy() {
-        boolean dbHealthy = isHealthy(databaseHealthIndicator);
-        boolean redisHealthy = isHealthy(redisHealthIndicator);
-        boolean kafkaHealthy = (kafkaHealthIndicator == null) || isHealthy(kafkaHealthIndicator);
-        
-        return dbHealthy && redisHealthy && kafkaHealthy;
+        Health kafkaHealth = (kafkaHealthIndicator != null) ? getHealthSafely(kafkaHealthIndicator) : null;
+        return areCriticalServicesHealthy(getHealthSafely(databaseHealthIndicator),
+            getHealthSafely(redisHealthIndicator), kafkaHealth);
     }
     
     /**
-     * Helper method to check if a health indicator is UP.
-     * Uses Status.UP.equals() for type safety and future-proofing.
+     * Critical services are healthy when Database and Redis are UP and Kafka is UP or not configured
+     * ({@code kafkaHealth == null}). Uses Status.UP.equals() for type safety and future-proofing.
      */
-    private boolean isHealthy(HealthIndicator indicator) {
-        try {
-            Health health = indicator.health();
-            return Status.UP.equals(health.getStatus());
-        } catch (Exception e) {
-            return false;
-        }
+    private boolean areCriticalServicesHealthy(Health dbHealth, Health redisHealth, Health kafkaHealth) {
+        return Status.UP.equals(dbHealth.getStatus())
+            && Status.UP.equals(redisHealth.getStatus())
+            && (kafkaHealth == null || Status.UP.equals(kafkaHealth.getStatus()));
     }
     
     /**
@@ -118,7 +117,8 @@ public class HealthController {
         // Get health status safely for all components
         Health dbHealth = getHealthSafely(databaseHealthIndicator);
         Health redisHealth = getHealthSafely(redisHealthIndicator);
-        Health kafkaHealth = (kafkaHealthIndicator != null) ? getHealthSafely(kafkaHealthIndicator) : 
+        Health configuredKafkaHealth = (kafkaHealthIndicator != null) ? getHealthSafely(kafkaHealthIndicator) : null;
+        Health kafkaHealth = (configuredKafkaHealth != null) ? configuredKafkaHealth :
             Health.down().withDetail("error", "Kafka not configured").build();
         Health appHealth = getHealthSafely(applicationHealthIndicator);
         
@@ -145,8 +145,8 @@ public class HealthController {
         appComponent.put("details", appHealth.getDetails());
         components.put("application", appComponent);
         
-        // Determine overall status
-        boolean criticalServicesHealthy = areCriticalServicesHealthy();
+        // Determine overall status from the same snapshots
+        boolean criticalServicesHealthy = areCriticalServicesHealthy(dbHealth, redisHealth, configuredKafkaHealth);
         String overallStatus = criticalServicesHealthy ? "UP" : "DOWN";
         
         response.put("status", overallStatus);
@@ -0,0 +1,81 @@
+package com.trackops.server.adapters.input.web.filters;
+
+import com.trackops.server.application.services.loadshedding.AdaptiveConcurrencyLimiter;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Filter that sheds load once the service is saturated.
+ * Each request holds a slot of the {@link AdaptiveConcurrencyLimiter} while it is processed; when no slot is
+ * free the request is rejected immediately with 503 and a Retry-After header instead of queueing for a Tomcat
+ * thread or a database connection.
+ *
+ * Health and actuator endpoints are priority requests: they may use reserved slots above the limit, so
+ * probes and metrics scrapes keep working while regular traffic is shed.
+ */
+@Component
+@Order(2) // After CorrelationIdFilter, before rate limiting so shed requests never reach Redis
+public class ConcurrencyLimitFilter implements Filter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private static final String RETRY_AFTER_HEADER = "Retry-After";
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        if (!limiter.isEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        String requestPath = httpRequest.getRequestURI();
+
+        Optional<AdaptiveConcurrencyLimiter.Permit> permit = limiter.tryAcquire(isPriority(requestPath));
+        if (permit.isEmpty()) {
+            logger.debug("Shedding request {} {}: concurrency limit {} reached",
+                httpRequest.getMethod(), requestPath, limiter.getLimit());
+            httpResponse.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            httpResponse.setHeader(RETRY_AFTER_HEADER, RETRY_AFTER_SECONDS);
+            httpResponse.setContentType("application/json");
+            httpResponse.getWriter().write(
+                "{\"error\":\"Service overloaded\",\"message\":\"Too many concurrent requests, retry shortly\"}");
+            return;
+        }
+
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = httpResponse.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            permit.get().release(failed);
+        }
+    }
+
+    private static boolean isPriority(String path) {
+        return path.startsWith("/actuator") || path.startsWith("/api/health");
+    }
+}
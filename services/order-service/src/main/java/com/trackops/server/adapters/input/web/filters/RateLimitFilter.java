@@ -25,9 +25,10 @@ import java.io.IOException;
  * - X-RateLimit-Limit: Maximum number of requests allowed
  * - X-RateLimit-Remaining: Number of requests remaining in the current window
  * - X-RateLimit-Reset: Unix timestamp when the rate limit resets
+ * - X-RateLimit-Cost: Tokens this request consumed (per-route cost, see RateLimitService)
  */
 @Component
-@Order(2) // Execute after CorrelationIdFilter but before security
+@Order(3) // Execute after CorrelationIdFilter and ConcurrencyLimitFilter but before security
 public class RateLimitFilter implements Filter {
 
     private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
@@ -35,6 +36,7 @@ public class RateLimitFilter implements Filter {
     private static final String RATE_LIMIT_LIMIT_HEADER = "X-RateLimit-Limit";
     private static final String RATE_LIMIT_REMAINING_HEADER = "X-RateLimit-Remaining";
     private static final String RATE_LIMIT_RESET_HEADER = "X-RateLimit-Reset";
+    private static final String RATE_LIMIT_COST_HEADER = "X-RateLimit-Cost";
     private static final String API_KEY_HEADER = "X-API-Key";
     
     private final RateLimitService rateLimitService;
@@ -60,13 +62,15 @@ public class RateLimitFilter implements Filter {
         // Extract client identifier (API key or IP address)
         String clientId = extractClientId(httpRequest);
         
-        // Check rate limit
-        RateLimitService.RateLimitResult result = rateLimitService.checkRateLimit(clientId);
+        // Check rate limit, charging the route's token cost against its bucket family
+        RateLimitService.RateLimitResult result =
+            rateLimitService.checkRateLimit(clientId, httpRequest.getMethod(), requestPath);
         
         // Add rate limit headers to response
         httpResponse.setHeader(RATE_LIMIT_LIMIT_HEADER, String.valueOf(result.getLimit()));
         httpResponse.setHeader(RATE_LIMIT_REMAINING_HEADER, String.valueOf(result.getRemaining()));
         httpResponse.setHeader(RATE_LIMIT_RESET_HEADER, String.valueOf(result.getResetTime()));
+        httpResponse.setHeader(RATE_LIMIT_COST_HEADER, String.valueOf(result.getCost()));
         
         // If rate limit exceeded, return 429 Too Many Requests
         if (!result.isAllowed()) {
@@ -75,8 +79,9 @@ public class RateLimitFilter implements Filter {
             httpResponse.setContentType("application/json");
             httpResponse.getWriter().write(
                 String.format(
-                    "{\"error\":\"Rate limit exceeded\",\"message\":\"Too many requests. Limit: %d requests per hour. Reset at: %d\"}",
+                    "{\"error\":\"Rate limit exceeded\",\"message\":\"Too many requests. Limit: %d tokens per hour, this request costs %d. Reset at: %d\"}",
                     result.getLimit(),
+                    result.getCost(),
                     result.getResetTime()
                 )
             );
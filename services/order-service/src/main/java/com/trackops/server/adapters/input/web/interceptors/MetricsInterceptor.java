@@ -3,8 +3,10 @@ package com.trackops.server.adapters.input.web.interceptors;
 import com.trackops.server.adapters.output.monitoring.MetricsService;
 import com.trackops.server.adapters.output.logging.StructuredLoggingService;
 import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,101 +14,102 @@ import org.slf4j.LoggerFactory;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Interceptor to automatically record API metrics for all HTTP requests.
  * Records request counts, response times, and error rates.
+ * <p>
+ * The endpoint tag is the route pattern Spring matched (e.g. {@code /api/orders/{id}}), so metric cardinality
+ * is bounded by the number of routes. Successful requests are access-logged for a sample of
+ * {@code app.logging.access.sample-rate} of requests; errors are always logged. Nothing is collected for the
+ * access log when its logger is disabled.
  */
 @Component
 public class MetricsInterceptor implements HandlerInterceptor {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(MetricsInterceptor.class);
     private final MetricsService metricsService;
     private final StructuredLoggingService loggingService;
-    private static final String TIMER_ATTRIBUTE = "metrics.timer.sample";
-    private static final String START_TIME_ATTRIBUTE = "metrics.start.time";
-    
+    private final double accessLogSampleRate;
+    private static final String TIMING_ATTRIBUTE = "metrics.timing";
+    static final String UNMATCHED_ENDPOINT = "UNMATCHED";
+
     @Autowired
-    public MetricsInterceptor(MetricsService metricsService, StructuredLoggingService loggingService) {
+    public MetricsInterceptor(MetricsService metricsService, StructuredLoggingService loggingService,
+                              @Value("${app.logging.access.sample-rate:1.0}") double accessLogSampleRate) {
         this.metricsService = metricsService;
         this.loggingService = loggingService;
+        this.accessLogSampleRate = accessLogSampleRate;
     }
-    
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
         // Start timer for this request
-        Timer.Sample sample = metricsService.startApiResponseTimer();
-        request.setAttribute(TIMER_ATTRIBUTE, sample);
-        request.setAttribute(START_TIME_ATTRIBUTE, System.currentTimeMillis());
-        
+        request.setAttribute(TIMING_ATTRIBUTE, new RequestTiming(metricsService.startApiResponseTimer(), System.nanoTime()));
+
         // Record API request
         String method = request.getMethod();
         String endpoint = getEndpointFromRequest(request);
         metricsService.recordApiRequest(method, endpoint);
-        
-        logger.debug("API request started: {} {}", method, endpoint);
-        
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("API request started: {} {}", method, endpoint);
+        }
+
         return true;
     }
-    
+
     @Override
-    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, 
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
                                Object handler, Exception ex) {
-        // Get timer sample and start time from request
-        Timer.Sample sample = (Timer.Sample) request.getAttribute(TIMER_ATTRIBUTE);
-        Long startTime = (Long) request.getAttribute(START_TIME_ATTRIBUTE);
-        
+        RequestTiming timing = (RequestTiming) request.getAttribute(TIMING_ATTRIBUTE);
+
         String method = request.getMethod();
         String endpoint = getEndpointFromRequest(request);
         int statusCode = response.getStatus();
-        long durationMs = startTime != null ? System.currentTimeMillis() - startTime : 0;
-        
+        long durationMs = timing != null ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - timing.startNanos()) : 0;
+
         // Record response time
-        if (sample != null) {
-            metricsService.recordApiResponseTime(sample, method, endpoint);
+        if (timing != null) {
+            metricsService.recordApiResponseTime(timing.sample(), method, endpoint);
         }
-        
+
         // Record API error if status indicates error
         if (statusCode >= 400) {
             String error = "HTTP_" + statusCode;
             metricsService.recordApiError(method, endpoint, error);
-            
+
             // Log API error
-            String userAgent = request.getHeader("User-Agent");
-            String clientIp = getClientIpAddress(request);
-            loggingService.logApiError(method, endpoint, statusCode, 
-                ex != null ? ex.getMessage() : "HTTP " + statusCode, userAgent, clientIp);
-        } else {
+            loggingService.logApiError(method, endpoint, statusCode,
+                ex != null ? ex.getMessage() : "HTTP " + statusCode, request.getHeader("User-Agent"),
+                getClientIpAddress(request));
+        } else if (sampleAccessLog() && loggingService.isAccessLogEnabled()) {
             // Log successful API access
-            String userAgent = request.getHeader("User-Agent");
-            String clientIp = getClientIpAddress(request);
-            loggingService.logApiAccess(method, endpoint, statusCode, durationMs, userAgent, clientIp);
+            loggingService.logApiAccess(method, endpoint, statusCode, durationMs, request.getHeader("User-Agent"),
+                getClientIpAddress(request));
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("API request completed: {} {} -> {} ({}ms)", method, endpoint, statusCode, durationMs);
         }
-        
-        logger.debug("API request completed: {} {} -> {} ({}ms)", method, endpoint, statusCode, durationMs);
     }
-    
+
     /**
-     * Extract a clean endpoint name from the request.
-     * Converts path parameters to placeholders for better metric grouping.
+     * The route pattern of the handler that matched the request, as set by Spring MVC's handler mapping.
+     * Requests no handler mapping matched share a single tag instead of exposing their raw URI.
      */
     private String getEndpointFromRequest(HttpServletRequest request) {
-        String path = request.getRequestURI();
-        
-        // Remove query parameters
-        if (path.contains("?")) {
-            path = path.substring(0, path.indexOf("?"));
-        }
-        
-        // Convert UUIDs and IDs to placeholders
-        path = path.replaceAll("/[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}", "/{id}");
-        path = path.replaceAll("/[0-9]+", "/{id}");
-        
-        // Convert other common path parameters
-        path = path.replaceAll("/[A-Z_]+", "/{status}");
-        
-        return path;
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : UNMATCHED_ENDPOINT;
     }
-    
+
+    private boolean sampleAccessLog() {
+        return accessLogSampleRate >= 1.0
+            || (accessLogSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < accessLogSampleRate);
+    }
+
     /**
      * Extract client IP address from request, considering proxy headers.
      */
@@ -114,14 +117,17 @@ public class MetricsInterceptor implements HandlerInterceptor {
         String xForwardedFor = request.getHeader("X-Forwarded-For");
         if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
             // X-Forwarded-For can contain multiple IPs, take the first one
-            return xForwardedFor.split(",")[0].trim();
+            int comma = xForwardedFor.indexOf(',');
+            return (comma < 0 ? xForwardedFor : xForwardedFor.substring(0, comma)).trim();
         }
-        
+
         String xRealIp = request.getHeader("X-Real-IP");
         if (xRealIp != null && !xRealIp.isEmpty()) {
             return xRealIp;
         }
-        
+
         return request.getRemoteAddr();
     }
+
+    private record RequestTiming(Timer.Sample sample, long startNanos) {}
 }
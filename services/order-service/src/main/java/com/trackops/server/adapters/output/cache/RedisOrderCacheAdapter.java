@@ -456,11 +456,11 @@ public class RedisOrderCacheAdapter implements OrderCachePort {
     }
 
     // Key generation methods
-    private String getOrderKey(UUID orderId) {
+    String getOrderKey(UUID orderId) {
         return "order:entity:" + orderId.toString();
     }
 
-    private String getOrderResponseKey(UUID orderId) {
+    String getOrderResponseKey(UUID orderId) {
         return "order:response:" + orderId.toString();
     }
 
@@ -0,0 +1,163 @@
+package com.trackops.server.adapters.output.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trackops.server.adapters.input.web.dto.OrderResponse;
+import com.trackops.server.domain.model.orders.Order;
+import com.trackops.server.ports.output.cache.OrderVersionedCachePort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Redis implementation of {@link OrderVersionedCachePort}. The comparison and the writes run in one Lua script,
+ * so a concurrent or replayed older state can never land between the check and the write.
+ * Version key value: {@code <version>:<updatedAt epoch millis>} ({@code -1} if the version is unknown), or
+ * {@code deleted}. The cached state is the newer of the version key and the {@code version} in the cached entity,
+ * which also covers entities written by the application without the version key.
+ * The keys of one order are not hash-tagged; the script needs standalone Redis (as configured in RedisConfig).
+ */
+@Component
+public class RedisOrderVersionedCacheAdapter implements OrderVersionedCachePort {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisOrderVersionedCacheAdapter.class);
+
+    static final String DELETED = "deleted";
+
+    /**
+     * KEYS: version, entity, response, status.
+     * ARGV: version (-1 if unknown), updatedAt millis, entity JSON, response JSON, status, entity/response TTL ms,
+     * status TTL ms, version key TTL ms (0 = no expiry).
+     * Returns 1 if written, 0 if the cached state is equal or newer.
+     */
+    private static final RedisScript<Long> CACHE_IF_NEWER_SCRIPT = new DefaultRedisScript<>(
+        "local function put(key, value, ttl) " +
+        "  if tonumber(ttl) > 0 then redis.call('SET', key, value, 'PX', ttl) else redis.call('SET', key, value) end " +
+        "end " +
+        "local version = tonumber(ARGV[1]) " +
+        "local updated = tonumber(ARGV[2]) " +
+        "local current = redis.call('GET', KEYS[1]) " +
+        "if current == '" + DELETED + "' then return 0 end " +
+        "local curVersion, curUpdated = -1, -1 " +
+        "if current then " +
+        "  local sep = string.find(current, ':', 1, true) " +
+        "  curVersion = tonumber(string.sub(current, 1, sep - 1)) " +
+        "  curUpdated = tonumber(string.sub(current, sep + 1)) " +
+        "end " +
+        "local entity = redis.call('GET', KEYS[2]) " +
+        "if entity then " +
+        "  local ok, decoded = pcall(cjson.decode, entity) " +
+        "  if ok and type(decoded) == 'table' and type(decoded['version']) == 'number' " +
+        "      and decoded['version'] > curVersion then " +
+        "    curVersion, curUpdated = decoded['version'], -1 " +
+        "  end " +
+        "end " +
+        "if version >= 0 and curVersion >= 0 and version ~= curVersion then " +
+        "  if version < curVersion then return 0 end " +
+        "elseif current or curVersion >= 0 then " +
+        "  if updated <= curUpdated then return 0 end " +
+        "end " +
+        "put(KEYS[2], ARGV[3], ARGV[6]) " +
+        "put(KEYS[3], ARGV[4], ARGV[6]) " +
+        "put(KEYS[4], ARGV[5], ARGV[7]) " +
+        "put(KEYS[1], ARGV[1] .. ':' .. ARGV[2], ARGV[8]) " +
+        "return 1",
+        Long.class
+    );
+
+    /**
+     * KEYS: version, entity, response, status. ARGV: tombstone TTL ms (0 = no expiry).
+     */
+    private static final RedisScript<Long> REMOVE_DELETED_SCRIPT = new DefaultRedisScript<>(
+        "redis.call('DEL', KEYS[2], KEYS[3], KEYS[4]) " +
+        "if tonumber(ARGV[1]) > 0 then redis.call('SET', KEYS[1], '" + DELETED + "', 'PX', ARGV[1]) " +
+        "else redis.call('SET', KEYS[1], '" + DELETED + "') end " +
+        "return 1",
+        Long.class
+    );
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final RedisOrderCacheAdapter orderCacheAdapter;
+    private final RedisOrderStatusCacheAdapter orderStatusCacheAdapter;
+
+    @Value("${app.cache.ttl.jitter-seconds:0}")
+    private long ttlJitterSeconds;
+
+    public RedisOrderVersionedCacheAdapter(RedisTemplate<String, String> redisTemplate, ObjectMapper objectMapper,
+                                           RedisOrderCacheAdapter orderCacheAdapter,
+                                           RedisOrderStatusCacheAdapter orderStatusCacheAdapter) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.orderCacheAdapter = orderCacheAdapter;
+        this.orderStatusCacheAdapter = orderStatusCacheAdapter;
+    }
+
+    @Override
+    public boolean cacheOrderIfNewer(Order order, OrderResponse response, Duration orderTtl, Duration statusTtl) {
+        if (order.getUpdatedAt() == null) {
+            throw new IllegalArgumentException("Order " + order.getId() + " has no updatedAt to compare");
+        }
+        String entityJson;
+        String responseJson;
+        try {
+            entityJson = objectMapper.writeValueAsString(order);
+            responseJson = objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize order " + order.getId(), e);
+        }
+        long orderTtlMillis = ttlMillis(orderTtl);
+        long statusTtlMillis = ttlMillis(statusTtl);
+        // Keep the version at least as long as the entries it guards; 0 (no expiry) wins
+        long versionTtlMillis = orderTtlMillis == 0 || statusTtlMillis == 0 ? 0 : Math.max(orderTtlMillis, statusTtlMillis);
+
+        Long written = redisTemplate.execute(
+            CACHE_IF_NEWER_SCRIPT,
+            keys(order.getId()),
+            String.valueOf(order.getVersion() != null ? order.getVersion() : -1L),
+            String.valueOf(order.getUpdatedAt().toEpochMilli()),
+            entityJson,
+            responseJson,
+            order.getStatus().name(),
+            String.valueOf(orderTtlMillis),
+            String.valueOf(statusTtlMillis),
+            String.valueOf(versionTtlMillis)
+        );
+        boolean result = written != null && written == 1L;
+        logger.debug("Versioned cache write for order {} (version {}): {}", order.getId(), order.getVersion(),
+            result ? "written" : "stale, skipped");
+        return result;
+    }
+
+    @Override
+    public void removeDeletedOrder(UUID orderId, Duration ttl) {
+        redisTemplate.execute(REMOVE_DELETED_SCRIPT, keys(orderId), String.valueOf(ttlMillis(ttl)));
+        logger.debug("Removed deleted order {} from cache", orderId);
+    }
+
+    private List<String> keys(UUID orderId) {
+        return List.of(
+            VERSION_KEY_PREFIX + orderId,
+            orderCacheAdapter.getOrderKey(orderId),
+            orderCacheAdapter.getOrderResponseKey(orderId),
+            orderStatusCacheAdapter.getOrderStatusKey(orderId));
+    }
+
+    /** TTL in milliseconds with the configured jitter added, or 0 for no expiry. */
+    private long ttlMillis(Duration ttl) {
+        if (ttl == null || ttl.isZero() || ttl.isNegative()) {
+            return 0;
+        }
+        long jitter = ttlJitterSeconds > 0 ? ThreadLocalRandom.current().nextLong(0, ttlJitterSeconds + 1) : 0;
+        return ttl.plusSeconds(jitter).toMillis();
+    }
+}
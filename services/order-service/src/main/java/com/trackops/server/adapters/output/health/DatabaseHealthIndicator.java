@@ -1,7 +1,6 @@
 package com.trackops.server.adapters.output.health;
 
 import org.springframework.boot.actuate.health.Health;
-import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.stereotype.Component;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -16,7 +15,7 @@ import java.util.Map;
  * query performance, and basic database statistics.
  */
 @Component
-public class DatabaseHealthIndicator implements HealthIndicator {
+public class DatabaseHealthIndicator extends SnapshotHealthIndicator {
     
     private static final Logger logger = LoggerFactory.getLogger(DatabaseHealthIndicator.class);
     
@@ -28,7 +27,7 @@ public class DatabaseHealthIndicator implements HealthIndicator {
     }
     
     @Override
-    public Health health() {
+    protected Health check() {
         try {
             // Test basic connectivity
             String version = jdbcTemplate.queryForObject("SELECT version()", String.class);
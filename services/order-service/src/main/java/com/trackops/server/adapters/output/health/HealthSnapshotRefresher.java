@@ -0,0 +1,95 @@
+package com.trackops.server.adapters.output.health;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Refreshes the snapshots of all {@link SnapshotHealthIndicator}s every {@code app.health.refresh-interval-ms}.
+ * Checks run in parallel on the {@code healthCheckExecutor} pool. A check that has not returned after
+ * {@code app.health.check-timeout-ms} is recorded DOWN; if it returns later, its result replaces the timeout.
+ * While a check is still running, the next refresh skips it instead of starting another one.
+ */
+@Component
+public class HealthSnapshotRefresher {
+
+    private static final Logger logger = LoggerFactory.getLogger(HealthSnapshotRefresher.class);
+
+    private final List<SnapshotHealthIndicator> indicators;
+    private final TaskExecutor executor;
+    private final long checkTimeoutMs;
+
+    public HealthSnapshotRefresher(List<SnapshotHealthIndicator> indicators,
+                                   @Qualifier("healthCheckExecutor") TaskExecutor executor,
+                                   @Value("${app.health.check-timeout-ms:3000}") long checkTimeoutMs) {
+        this.indicators = indicators;
+        this.executor = executor;
+        this.checkTimeoutMs = checkTimeoutMs;
+    }
+
+    @Scheduled(fixedDelayString = "${app.health.refresh-interval-ms:5000}")
+    public void refresh() {
+        for (SnapshotHealthIndicator indicator : indicators) {
+            if (!indicator.tryStartCheck()) {
+                logger.debug("Skipping {}: previous check still running", name(indicator));
+                continue;
+            }
+            CompletableFuture<Health> check;
+            try {
+                check = CompletableFuture.supplyAsync(() -> runCheck(indicator), executor);
+            } catch (TaskRejectedException e) {
+                indicator.checkFinished();
+                logger.warn("Health check pool rejected {}", name(indicator));
+                continue;
+            }
+            // Both callbacks record under the indicator's lock, so a timeout can never overwrite a result
+            // that arrived before it
+            check.whenComplete((health, error) -> {
+                synchronized (indicator) {
+                    indicator.checkFinished();
+                    if (health != null) {
+                        indicator.record(health);
+                    }
+                }
+            });
+            check.copy()
+                .orTimeout(checkTimeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionally(error -> {
+                    synchronized (indicator) {
+                        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                        if (cause instanceof TimeoutException && !check.isDone()) {
+                            logger.warn("Health check {} timed out after {}ms", name(indicator), checkTimeoutMs);
+                            indicator.record(Health.down()
+                                .withDetail("error", "Health check timed out after " + checkTimeoutMs + "ms")
+                                .build());
+                        }
+                    }
+                    return null;
+                });
+        }
+    }
+
+    private static Health runCheck(SnapshotHealthIndicator indicator) {
+        try {
+            return indicator.check();
+        } catch (Exception e) {
+            return Health.down().withDetail("error", "Health check failed: " + e.getMessage()).build();
+        }
+    }
+
+    private static String name(SnapshotHealthIndicator indicator) {
+        return indicator.getClass().getSimpleName();
+    }
+}
@@ -1,7 +1,6 @@
 package com.trackops.server.adapters.output.health;
 
 import org.springframework.boot.actuate.health.Health;
-import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.stereotype.Component;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -19,7 +18,7 @@ import java.util.Map;
  */
 @Component
 @ConditionalOnBean(KafkaTemplate.class)
-public class KafkaHealthIndicator implements HealthIndicator {
+public class KafkaHealthIndicator extends SnapshotHealthIndicator {
     
     private static final Logger logger = LoggerFactory.getLogger(KafkaHealthIndicator.class);
     
@@ -33,7 +32,7 @@ public class KafkaHealthIndicator implements HealthIndicator {
     }
     
     @Override
-    public Health health() {
+    protected Health check() {
         try {
             // Test Kafka connectivity by getting admin client
             Map<String, Object> adminProperties = kafkaAdmin.getConfigurationProperties();
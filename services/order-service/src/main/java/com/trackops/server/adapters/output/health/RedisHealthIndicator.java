@@ -1,7 +1,6 @@
 package com.trackops.server.adapters.output.health;
 
 import org.springframework.boot.actuate.health.Health;
-import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.stereotype.Component;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.RedisTemplate;
@@ -16,7 +15,7 @@ import java.util.Properties;
  * memory usage, and cache statistics.
  */
 @Component
-public class RedisHealthIndicator implements HealthIndicator {
+public class RedisHealthIndicator extends SnapshotHealthIndicator {
     
     private static final Logger logger = LoggerFactory.getLogger(RedisHealthIndicator.class);
     
@@ -28,7 +27,7 @@ public class RedisHealthIndicator implements HealthIndicator {
     }
     
     @Override
-    public Health health() {
+    protected Health check() {
         try {
             // Test basic connectivity with ping
             String pong = redisTemplate.getConnectionFactory()
@@ -0,0 +1,72 @@
+package com.trackops.server.adapters.output.health;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Base class for health indicators whose check talks to an external dependency.
+ * <p>
+ * {@link #health()} never runs the check: it returns the last result recorded by {@link HealthSnapshotRefresher},
+ * which runs {@link #check()} in the background. Probes and actuator calls therefore cost no broker or database
+ * round trips and do not slow down when a dependency does. A snapshot older than
+ * {@code app.health.max-staleness-ms} is reported DOWN, so a stuck refresher cannot hide an outage; before the
+ * first check completes the indicator reports UNKNOWN.
+ */
+public abstract class SnapshotHealthIndicator implements HealthIndicator {
+
+    private final AtomicBoolean checkRunning = new AtomicBoolean();
+    private volatile Snapshot snapshot;
+    private Duration maxStaleness = Duration.ofSeconds(30);
+
+    /**
+     * Runs the real check against the dependency. Called by {@link HealthSnapshotRefresher} only.
+     */
+    protected abstract Health check();
+
+    @Value("${app.health.max-staleness-ms:30000}")
+    void setMaxStalenessMs(long maxStalenessMs) {
+        this.maxStaleness = Duration.ofMillis(maxStalenessMs);
+    }
+
+    @Override
+    public final Health health() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return Health.unknown().withDetail("status", "Not checked yet").build();
+        }
+        if (current.checkedAt().plus(maxStaleness).isBefore(Instant.now())) {
+            return Health.down()
+                .withDetail("error", "Health snapshot is stale")
+                .withDetail("lastStatus", current.health().getStatus().getCode())
+                .withDetail("checkedAt", current.checkedAt().toString())
+                .build();
+        }
+        return Health.status(current.health().getStatus())
+            .withDetails(current.health().getDetails())
+            .withDetail("checkedAt", current.checkedAt().toString())
+            .build();
+    }
+
+    /**
+     * Marks a check as started; false if the previous one has not returned yet, so a hanging dependency
+     * ties up at most one thread per indicator.
+     */
+    boolean tryStartCheck() {
+        return checkRunning.compareAndSet(false, true);
+    }
+
+    void checkFinished() {
+        checkRunning.set(false);
+    }
+
+    void record(Health health) {
+        snapshot = new Snapshot(health, Instant.now());
+    }
+
+    private record Snapshot(Health health, Instant checkedAt) {}
+}
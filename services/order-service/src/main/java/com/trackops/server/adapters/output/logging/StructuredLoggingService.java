@@ -117,12 +117,24 @@ public class StructuredLoggingService {
     }
     
     // ==================== ACCESS LOGGING ====================
+    // Called for every request: MDC work is skipped when the access logger is disabled, and the event time
+    // comes from the encoder's timestamp provider instead of a formatted MDC field.
+    
+    /**
+     * Whether API access lines are logged at all; lets callers skip collecting request details.
+     */
+    public boolean isAccessLogEnabled() {
+        return accessLogger.isInfoEnabled();
+    }
     
     /**
      * Log API access with structured data.
      */
     public void logApiAccess(String method, String endpoint, int statusCode, long durationMs, 
                            String userAgent, String clientIp) {
+        if (!accessLogger.isInfoEnabled()) {
+            return;
+        }
         try {
             MDC.put("httpMethod", method);
             MDC.put("endpoint", endpoint);
@@ -130,7 +142,6 @@ public class StructuredLoggingService {
             MDC.put("durationMs", String.valueOf(durationMs));
             MDC.put("userAgent", userAgent);
             MDC.put("clientIp", clientIp);
-            MDC.put("timestamp", LocalDateTime.now().format(TIMESTAMP_FORMATTER));
             
             accessLogger.info("API access: {} {} -> {} ({}ms)", method, endpoint, statusCode, durationMs);
             
@@ -142,7 +153,6 @@ public class StructuredLoggingService {
             MDC.remove("durationMs");
             MDC.remove("userAgent");
             MDC.remove("clientIp");
-            MDC.remove("timestamp");
         }
     }
     
@@ -151,6 +161,9 @@ public class StructuredLoggingService {
      */
     public void logApiError(String method, String endpoint, int statusCode, String errorMessage, 
                           String userAgent, String clientIp) {
+        if (!accessLogger.isErrorEnabled()) {
+            return;
+        }
         try {
             MDC.put("httpMethod", method);
             MDC.put("endpoint", endpoint);
@@ -158,7 +171,6 @@ public class StructuredLoggingService {
             MDC.put("errorMessage", errorMessage);
             MDC.put("userAgent", userAgent);
             MDC.put("clientIp", clientIp);
-            MDC.put("timestamp", LocalDateTime.now().format(TIMESTAMP_FORMATTER));
             
             accessLogger.error("API error: {} {} -> {} - {}", method, endpoint, statusCode, errorMessage);
             
@@ -170,7 +182,6 @@ public class StructuredLoggingService {
             MDC.remove("errorMessage");
             MDC.remove("userAgent");
             MDC.remove("clientIp");
-            MDC.remove("timestamp");
         }
     }
     
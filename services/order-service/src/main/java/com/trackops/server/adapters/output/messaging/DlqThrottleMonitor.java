@@ -1,72 +1,129 @@
 package com.trackops.server.adapters.output.messaging;
 
-import com.trackops.server.application.services.dlq.DlqOrderService;
-import lombok.RequiredArgsConstructor;
+import com.trackops.server.adapters.output.monitoring.MetricsService;
+import com.trackops.server.application.services.dlq.DlqInflowRate;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
 import org.springframework.kafka.listener.MessageListenerContainer;
 import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 /**
- * Monitors dlq_orders table size and pauses the Debezium order-event consumer when
- * the high watermark is exceeded; resumes when the count falls back to the low watermark.
- * Prevents disk exhaustion from unbounded DLQ growth during downstream outages.
+ * Slows the Debezium orders CDC consumer down while it is filling dlq_orders, to protect the database during
+ * downstream outages. The consumer also drives cache invalidation and warming, which catch up on resume as well.
+ * <p>
+ * Throttling follows the DLQ inflow rate ({@link DlqInflowRate}), not the size of the table, so no query runs.
+ * Every {@code check-interval-ms} the share of assigned partitions to pause is
+ * <pre>
+ *   clamp((rate - start-rate-per-second) / (full-pause-rate-per-second - start-rate-per-second), 0, 1)
+ * </pre>
+ * and partitions are paused or resumed one by one with {@code pausePartition}/{@code resumePartition}. Pausing
+ * stops fetching but keeps the consumer polling and in the group, so unlike stopping the container it never
+ * triggers a rebalance. The paused partitions rotate on every check, so no partition is starved while the others
+ * run; as the inflow drops the rate decays and partitions are resumed gradually.
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 @ConditionalOnExpression("'${app.event-publishing.strategy:outbox}' == 'debezium' && ${app.dlq.throttle.enabled:false}")
 public class DlqThrottleMonitor {
 
     static final String DEBEZIUM_ORDER_CONSUMER_ID = "debezium-order-event-consumer";
 
-    private final DlqOrderService dlqOrderService;
-    private final KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+    private static final Comparator<TopicPartition> PARTITION_ORDER =
+            Comparator.comparing(TopicPartition::topic).thenComparingInt(TopicPartition::partition);
 
-    private volatile boolean consumerPausedByThrottle = false;
+    private final DlqInflowRate inflowRate;
+    private final KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+    private final double startRate;
+    private final double fullPauseRate;
 
-    @Value("${app.dlq.throttle.high-watermark:50000}")
-    private long highWatermark;
+    // Only touched by the scheduled check; volatile for the gauges and the DLQ metrics endpoint
+    private final Set<TopicPartition> pausedPartitions = new HashSet<>();
+    private volatile int pausedCount;
+    private volatile double pauseRatio;
+    private int rotation;
 
-    @Value("${app.dlq.throttle.low-watermark:10000}")
-    private long lowWatermark;
+    public DlqThrottleMonitor(DlqInflowRate inflowRate,
+                              KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry,
+                              MetricsService metricsService,
+                              @Value("${app.dlq.throttle.start-rate-per-second:5}") double startRate,
+                              @Value("${app.dlq.throttle.full-pause-rate-per-second:50}") double fullPauseRate) {
+        if (fullPauseRate <= startRate) {
+            throw new IllegalArgumentException("app.dlq.throttle.full-pause-rate-per-second must be above "
+                    + "start-rate-per-second, got " + startRate + ".." + fullPauseRate);
+        }
+        this.inflowRate = inflowRate;
+        this.kafkaListenerEndpointRegistry = kafkaListenerEndpointRegistry;
+        this.startRate = startRate;
+        this.fullPauseRate = fullPauseRate;
+        metricsService.registerDlqThrottleGauges(inflowRate::ratePerSecond, () -> pausedCount, () -> pauseRatio);
+    }
 
     /**
-     * Check DLQ depth and pause/resume the order-event consumer accordingly.
-     * Runs on a fixed delay (default 60s) to avoid over-querying the DB.
+     * Sample the DLQ inflow rate and pause or resume partitions of the order-event consumer to match it.
      */
-    @Scheduled(fixedDelayString = "${app.dlq.throttle.check-interval-ms:60000}")
-    public void checkDlqDepthAndThrottle() {
+    @Scheduled(fixedDelayString = "${app.dlq.throttle.check-interval-ms:5000}")
+    public void adjustThrottle() {
+        double rate = inflowRate.sample();
         MessageListenerContainer container = getOrderEventContainer();
         if (container == null) {
             return;
         }
+        Collection<TopicPartition> assigned = container.getAssignedPartitions();
+        List<TopicPartition> partitions = assigned != null ? new ArrayList<>(assigned) : new ArrayList<>();
+        partitions.sort(PARTITION_ORDER);
 
-        long count = dlqOrderService.countTotal();
+        double ratio = Math.min(1.0, Math.max(0.0, (rate - startRate) / (fullPauseRate - startRate)));
+        int target = (int) Math.ceil(ratio * partitions.size());
+        Set<TopicPartition> toPause = new HashSet<>();
+        for (int i = 0; i < target; i++) {
+            toPause.add(partitions.get((rotation + i) % partitions.size()));
+        }
+        rotation = partitions.isEmpty() ? 0 : (rotation + target) % partitions.size();
 
-        if (count >= highWatermark) {
-            if (container.isRunning()) {
-                log.warn("DLQ throttle: count {} >= high watermark {}. Pausing Debezium order-event consumer to protect DB.",
-                        count, highWatermark);
-                container.stop();
-                consumerPausedByThrottle = true;
+        // Partitions revoked since the last check are dropped; their new owner starts unpaused
+        pausedPartitions.retainAll(partitions);
+        for (TopicPartition partition : List.copyOf(pausedPartitions)) {
+            if (!toPause.contains(partition)) {
+                container.resumePartition(partition);
+                pausedPartitions.remove(partition);
             }
-        } else if (count <= lowWatermark && consumerPausedByThrottle) {
-            if (!container.isRunning()) {
-                log.info("DLQ throttle: count {} <= low watermark {}. Resuming Debezium order-event consumer.",
-                        count, lowWatermark);
-                container.start();
-                consumerPausedByThrottle = false;
+        }
+        for (TopicPartition partition : toPause) {
+            if (pausedPartitions.add(partition)) {
+                container.pausePartition(partition);
             }
         }
+
+        if (target != pausedCount) {
+            log.info("DLQ throttle: inflow {} rows/s, pausing {} of {} partitions of the Debezium order-event consumer",
+                    String.format("%.2f", rate), target, partitions.size());
+        }
+        pausedCount = target;
+        pauseRatio = ratio;
     }
 
-    /** Expose whether the consumer is currently paused due to throttle (for metrics/health). */
+    /** Whether any partition of the consumer is currently paused by the throttle (for metrics/health). */
     public boolean isConsumerPausedByThrottle() {
-        return consumerPausedByThrottle;
+        return pausedCount > 0;
+    }
+
+    public int getPausedPartitionCount() {
+        return pausedCount;
+    }
+
+    public double getInflowRatePerSecond() {
+        return inflowRate.ratePerSecond();
     }
 
     private MessageListenerContainer getOrderEventContainer() {
@@ -0,0 +1,107 @@
+package com.trackops.server.adapters.output.messaging.dlq;
+
+import com.trackops.events.inventory.InventoryReleasedEvent;
+import com.trackops.events.inventory.InventoryReservationFailedEvent;
+import com.trackops.events.inventory.InventoryReservedEvent;
+import com.trackops.events.orders.OrderCancelledEvent;
+import com.trackops.events.orders.OrderCreatedEvent;
+import com.trackops.events.orders.OrderDeliveredEvent;
+import com.trackops.events.orders.OrderStatusUpdatedEvent;
+import com.trackops.server.adapters.input.messaging.DebeziumOrderEventConsumer;
+import com.trackops.server.adapters.input.messaging.DebeziumOrderPayloadMapper;
+import com.trackops.server.config.OrderEventsTopic;
+import com.trackops.server.domain.model.dlq.DlqOrder;
+import com.trackops.server.ports.output.events.dlq.DlqEventRepublisher;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Republishes DLQ rows to Kafka, by the message type they were stored under:
+ * <ul>
+ *   <li>an order or inventory event type (rows from the last retry tier): the Avro JSON payload is decoded with
+ *       the type's schema and sent as Avro, to the consolidated {@link OrderEventsTopic} with the event type
+ *       header when it is enabled, otherwise to the topic of the type;</li>
+ *   <li>anything else (rows from the Debezium consumers): the raw change event is handed to the order-events
+ *       CDC handler ({@link DebeziumOrderEventConsumer}) again, which publishes the order event.</li>
+ * </ul>
+ * CDC rows are not written back to the orders CDC topic: that topic belongs to Debezium, which keys it with its
+ * own JSON key struct, so a record keyed by the order UUID could land on another partition and be consumed
+ * after newer changes of the same order, by the cache handlers as well.
+ */
+@Component
+public class KafkaDlqEventRepublisher implements DlqEventRepublisher {
+
+    static final String ORDERS_CDC_TOPIC = "trackops_orders.public.orders";
+
+    private static final Map<String, Schema> AVRO_TOPICS = Map.of(
+        "ORDER_CREATED", OrderCreatedEvent.getClassSchema(),
+        "ORDER_STATUS_UPDATED", OrderStatusUpdatedEvent.getClassSchema(),
+        "ORDER_DELIVERED", OrderDeliveredEvent.getClassSchema(),
+        "ORDER_CANCELLED", OrderCancelledEvent.getClassSchema(),
+        "INVENTORY_RESERVED", InventoryReservedEvent.getClassSchema(),
+        "INVENTORY_RESERVATION_FAILED", InventoryReservationFailedEvent.getClassSchema(),
+        "INVENTORY_RELEASED", InventoryReleasedEvent.getClassSchema());
+
+    private final KafkaTemplate<UUID, GenericRecord> kafkaTemplate;
+    private final OrderEventsTopic orderEventsTopic;
+    private final DebeziumOrderPayloadMapper payloadMapper;
+    private final ObjectProvider<DebeziumOrderEventConsumer> cdcOrderEventHandler;
+
+    public KafkaDlqEventRepublisher(KafkaTemplate<UUID, GenericRecord> kafkaTemplate,
+                                    OrderEventsTopic orderEventsTopic,
+                                    DebeziumOrderPayloadMapper payloadMapper,
+                                    ObjectProvider<DebeziumOrderEventConsumer> cdcOrderEventHandler) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.orderEventsTopic = orderEventsTopic;
+        this.payloadMapper = payloadMapper;
+        this.cdcOrderEventHandler = cdcOrderEventHandler;
+    }
+
+    @Override
+    public CompletableFuture<Void> republish(DlqOrder dlqOrder) {
+        String messageType = dlqOrder.getMessageType();
+        UUID key = orderKey(dlqOrder.getOrderId());
+        try {
+            Schema schema = AVRO_TOPICS.get(messageType);
+            if (schema != null) {
+                return kafkaTemplate.send(orderEventsTopic.record(messageType, key, decode(schema, dlqOrder.getPayload())))
+                    .thenApply(result -> null);
+            }
+            replayCdcChange(dlqOrder.getPayload());
+            return CompletableFuture.completedFuture(null);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void replayCdcChange(String payload) {
+        DebeziumOrderEventConsumer handler = cdcOrderEventHandler.getIfAvailable();
+        if (handler == null) {
+            throw new IllegalStateException("CDC rows can only be redriven with app.event-publishing.strategy=debezium");
+        }
+        handler.handle(payloadMapper.parse(ORDERS_CDC_TOPIC, payload));
+    }
+
+    private static GenericRecord decode(Schema schema, String payload) throws IOException {
+        SpecificDatumReader<GenericRecord> reader = new SpecificDatumReader<>(schema);
+        return reader.read(null, DecoderFactory.get().jsonDecoder(schema, payload));
+    }
+
+    private static UUID orderKey(String orderId) {
+        try {
+            return orderId != null ? UUID.fromString(orderId) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
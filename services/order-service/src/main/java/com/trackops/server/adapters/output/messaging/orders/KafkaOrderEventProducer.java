@@ -1,6 +1,7 @@
 package com.trackops.server.adapters.output.messaging.orders;
 
 import com.trackops.server.config.AvroEventConverter;
+import com.trackops.server.config.OrderEventsTopic;
 import com.trackops.server.config.SchemaRegistryService;
 import com.trackops.server.domain.model.OperationResult;
 import com.trackops.server.domain.events.orders.OrderCancelledEvent;
@@ -21,12 +22,15 @@ public class KafkaOrderEventProducer implements OrderEventProducer {
 
     private final KafkaTemplate<UUID, GenericRecord> kafkaTemplate;
     private final AvroEventConverter avroEventConverter;
+    private final OrderEventsTopic orderEventsTopic;
 
     public KafkaOrderEventProducer(
             KafkaTemplate<UUID, GenericRecord> kafkaTemplate,
-            AvroEventConverter avroEventConverter) {
+            AvroEventConverter avroEventConverter,
+            OrderEventsTopic orderEventsTopic) {
         this.kafkaTemplate = kafkaTemplate;
         this.avroEventConverter = avroEventConverter;
+        this.orderEventsTopic = orderEventsTopic;
     }
 
     @Override
@@ -51,15 +55,15 @@ public class KafkaOrderEventProducer implements OrderEventProducer {
 
     private OperationResult publishEvent(OrderEvent event) {
         try {
-            String topic = event.getEventType();
             UUID key = event.getOrderId();
             
             // Convert event to Avro GenericRecord
             GenericRecord avroRecord = convertToAvro(event);
             
             // The Confluent Avro serializer will automatically register the schema
-            // if it doesn't exist and validate compatibility
-            kafkaTemplate.send(topic, key, avroRecord);
+            // if it doesn't exist and validate compatibility.
+            // Topic per event type, or the consolidated order events topic with the type in a header
+            kafkaTemplate.send(orderEventsTopic.record(event.getEventType(), key, avroRecord));
             log.debug("Successfully published Avro event {} for order {}", event.getEventType(), event.getOrderId());
             return OperationResult.success();
 
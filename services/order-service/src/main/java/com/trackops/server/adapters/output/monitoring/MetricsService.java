@@ -1,21 +1,27 @@
 package com.trackops.server.adapters.output.monitoring;
 
+import com.trackops.events.kafka.KeyOrderedRecordProcessor;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer.Sample;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
 
 /**
  * Service for recording custom metrics in TrackOps application.
  * Provides a centralized way to record business and technical metrics.
  */
 @Service
-public class MetricsService {
+public class MetricsService implements KeyOrderedRecordProcessor.Metrics {
     
     private final MeterRegistry meterRegistry;
     private final Counter ordersCreatedCounter;
@@ -47,6 +53,12 @@ public class MetricsService {
     private final AtomicLong totalRevenueGauge;
     private final AtomicLong averageOrderValueGauge;
     
+    private final AtomicLong sagaRecoveryBacklog = new AtomicLong(0);
+    private final AtomicLong dlqRedriveBacklog = new AtomicLong(0);
+    
+    // endpoint -> method -> timer; endpoints are route patterns, so the map stays small
+    private final Map<String, Map<String, Timer>> apiResponseTimers = new ConcurrentHashMap<>();
+    
     @Autowired
     public MetricsService(
             MeterRegistry meterRegistry,
@@ -98,6 +110,15 @@ public class MetricsService {
         this.activeOrdersGauge = activeOrdersGauge;
         this.totalRevenueGauge = totalRevenueGauge;
         this.averageOrderValueGauge = averageOrderValueGauge;
+        
+        Gauge.builder("saga_recovery_backlog", sagaRecoveryBacklog, AtomicLong::get)
+                .description("Unfinished SAGAs with no live lease, waiting for recovery")
+                .tag("application", "trackops-server")
+                .register(meterRegistry);
+        Gauge.builder("dlq_redrive_backlog", dlqRedriveBacklog, AtomicLong::get)
+                .description("dlq_orders rows due for redrive at the start of the last redrive page")
+                .tag("application", "trackops-server")
+                .register(meterRegistry);
     }
     
     // ==================== ORDER METRICS ====================
@@ -171,6 +192,50 @@ public class MetricsService {
                 .register(meterRegistry));
     }
     
+    /**
+     * Records handed to the key-ordered workers and not finished yet (queued or running).
+     */
+    @Override
+    public void registerKeyOrderedPendingGauge(IntSupplier pending) {
+        Gauge.builder("kafka_key_ordered_pending_records", pending, IntSupplier::getAsInt)
+                .description("Records handed to the key-ordered workers and not finished yet")
+                .tag("application", "trackops-server")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    public void recordKeyOrderedRetry(String topic) {
+        meterRegistry.counter("kafka_key_ordered_retries_total", "application", "trackops-server",
+                "topic", topic).increment();
+    }
+    
+    @Override
+    public void recordKeyOrderedFailure(String topic) {
+        meterRegistry.counter("kafka_key_ordered_failures_total", "application", "trackops-server",
+                "topic", topic).increment();
+    }
+
+    /**
+     * Retry tier traffic: scheduled (published to the tier), consumed (taken by the tier consumer) or
+     * exhausted (failed on the last tier, written to dlq_orders).
+     */
+    public void recordRetryTierRecord(int tier, String outcome) {
+        meterRegistry.counter("kafka_retry_tier_records_total", "application", "trackops-server",
+                "tier", String.valueOf(tier), "outcome", outcome).increment();
+    }
+
+    /**
+     * How late a retry tier consumer runs a record compared to its due time; grows when a tier falls behind.
+     */
+    public void recordRetryTierLag(int tier, long lagMs) {
+        Timer.builder("kafka_retry_tier_lag_seconds")
+                .description("Time between a retried record becoming due and its tier consumer running it")
+                .tag("application", "trackops-server")
+                .tag("tier", String.valueOf(tier))
+                .register(meterRegistry)
+                .record(Math.max(0, lagMs), TimeUnit.MILLISECONDS);
+    }
+
     // ==================== SAGA METRICS ====================
     
     public void recordSagaInstanceCreated(String sagaType) {
@@ -195,6 +260,128 @@ public class MetricsService {
                 .register(meterRegistry));
     }
     
+    public void recordSagaStepsTimedOut(int steps) {
+        meterRegistry.counter("saga_step_timeouts_total", "application", "trackops-server").increment(steps);
+    }
+    
+    public void setSagaRecoveryBacklog(long backlog) {
+        sagaRecoveryBacklog.set(backlog);
+    }
+    
+    public void recordSagasRecovered(int count) {
+        meterRegistry.counter("saga_recovery_resumed_total", "application", "trackops-server").increment(count);
+    }
+    
+    public Timer.Sample startSagaRecoveryTimer() {
+        return Timer.start(meterRegistry);
+    }
+    
+    public void recordSagaRecoveryPass(Timer.Sample sample) {
+        sample.stop(Timer.builder("saga_recovery_pass_duration_seconds")
+                .description("Time taken by one SAGA recovery pass")
+                .tag("application", "trackops-server")
+                .register(meterRegistry));
+    }
+    
+    // ==================== CDC METRICS ====================
+    
+    /**
+     * Timer for one handler of the Debezium orders CDC consumer; its count is the number of changes handled
+     * with that outcome. Registered once per handler and outcome by the consumer.
+     */
+    public Timer cdcHandlerTimer(String handler, String outcome) {
+        return Timer.builder("debezium_cdc_handler_duration_seconds")
+                .description("Time a handler spent on one Debezium orders change")
+                .tag("application", "trackops-server")
+                .tag("handler", handler)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+    
+    public void recordCdcParseFailure() {
+        meterRegistry.counter("debezium_cdc_parse_failures_total", "application", "trackops-server").increment();
+    }
+    
+    /**
+     * Outcome of a version-guarded cache write from CDC: written, stale (an equal or newer state was cached)
+     * or invalidated (row incomplete, entries removed instead).
+     */
+    public void recordCdcCacheWrite(String outcome) {
+        meterRegistry.counter("debezium_cdc_cache_writes_total", "application", "trackops-server",
+                "outcome", outcome).increment();
+    }
+    
+    // ==================== DLQ METRICS ====================
+    
+    public void setDlqRedriveBacklog(long backlog) {
+        dlqRedriveBacklog.set(backlog);
+    }
+    
+    /**
+     * DLQ rows handled by the redrive worker: republished (row COMPLETED) or failed (backed off, or
+     * PERMANENT_FAILURE after max_retries).
+     */
+    public void recordDlqRedrive(String outcome, int count) {
+        meterRegistry.counter("dlq_redrive_records_total", "application", "trackops-server",
+                "outcome", outcome).increment(count);
+    }
+
+    public void registerDlqThrottleGauges(DoubleSupplier inflowRate, IntSupplier pausedPartitions,
+                                          DoubleSupplier pauseRatio) {
+        Gauge.builder("dlq_inflow_rate", inflowRate, DoubleSupplier::getAsDouble)
+                .description("Smoothed rate of rows written to dlq_orders by this replica, per second")
+                .tag("application", "trackops-server")
+                .register(meterRegistry);
+        Gauge.builder("dlq_throttle_paused_partitions", pausedPartitions, IntSupplier::getAsInt)
+                .description("Partitions of the Debezium orders consumer paused by the DLQ throttle")
+                .tag("application", "trackops-server")
+                .register(meterRegistry);
+        Gauge.builder("dlq_throttle_pause_ratio", pauseRatio, DoubleSupplier::getAsDouble)
+                .description("Share of Debezium orders consumer partitions the DLQ throttle pauses (0..1)")
+                .tag("application", "trackops-server")
+                .register(meterRegistry);
+    }
+    
+    // ==================== RATE LIMIT METRICS ====================
+    
+    public void recordRateLimitDecision(String family, String source, boolean allowed) {
+        meterRegistry.counter("rate_limit_decisions_total", "application", "trackops-server",
+                "family", family, "source", source, "outcome", allowed ? "allowed" : "rejected").increment();
+    }
+
+    public void recordRateLimitRemoteCall() {
+        meterRegistry.counter("rate_limit_remote_calls_total", "application", "trackops-server").increment();
+    }
+    
+    // ==================== LOAD SHEDDING METRICS ====================
+    
+    public void registerConcurrencyLimitGauges(IntSupplier limit, IntSupplier inFlight,
+                                               DoubleSupplier longRttSeconds, DoubleSupplier shortRttSeconds) {
+        Gauge.builder("concurrency_limit", limit, IntSupplier::getAsInt)
+                .description("Adaptive limit on requests processed concurrently")
+                .tag("application", "trackops-server")
+                .register(meterRegistry);
+        Gauge.builder("concurrency_limit_in_flight", inFlight, IntSupplier::getAsInt)
+                .description("Requests currently holding a concurrency slot")
+                .tag("application", "trackops-server")
+                .register(meterRegistry);
+        Gauge.builder("concurrency_limit_rtt_seconds", longRttSeconds, DoubleSupplier::getAsDouble)
+                .description("Request latency the concurrency limit is derived from")
+                .tag("application", "trackops-server")
+                .tag("window", "long")
+                .register(meterRegistry);
+        Gauge.builder("concurrency_limit_rtt_seconds", shortRttSeconds, DoubleSupplier::getAsDouble)
+                .description("Request latency the concurrency limit is derived from")
+                .tag("application", "trackops-server")
+                .tag("window", "short")
+                .register(meterRegistry);
+    }
+
+    public void recordConcurrencyLimitRejection(boolean priority) {
+        meterRegistry.counter("concurrency_limit_rejected_total", "application", "trackops-server",
+                "priority", String.valueOf(priority)).increment();
+    }
+    
     // ==================== API METRICS ====================
     
     public void recordApiRequest(String method, String endpoint) {
@@ -209,11 +396,23 @@ public class MetricsService {
         return Timer.start(meterRegistry);
     }
     
+    /**
+     * Stops the sample against the timer for {@code method} and {@code endpoint}. Timers are registered once
+     * and cached, so the per-request cost is two map lookups.
+     */
     public void recordApiResponseTime(Timer.Sample sample, String method, String endpoint) {
-        sample.stop(Timer.builder("api_response_duration_seconds")
-                .tag("method", method)
-                .tag("endpoint", endpoint)
-                .register(meterRegistry));
+        Map<String, Timer> byMethod = apiResponseTimers.get(endpoint);
+        if (byMethod == null) {
+            byMethod = apiResponseTimers.computeIfAbsent(endpoint, key -> new ConcurrentHashMap<>());
+        }
+        Timer timer = byMethod.get(method);
+        if (timer == null) {
+            timer = byMethod.computeIfAbsent(method, key -> Timer.builder("api_response_duration_seconds")
+                    .tag("method", method)
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry));
+        }
+        sample.stop(timer);
     }
     
     // ==================== BUSINESS METRICS ====================
@@ -2,11 +2,13 @@ package com.trackops.server.adapters.output.persistence.dlq;
 
 import com.trackops.server.domain.model.dlq.DlqOrder;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,4 +26,39 @@ public interface DlqOrderJpaRepository extends JpaRepository<DlqOrder, UUID> {
 
     @Query("SELECT COUNT(d) FROM DlqOrder d WHERE d.status = 'PENDING'")
     long countPending();
+
+    @Query(value = "SELECT id FROM dlq_orders " +
+                   "WHERE status IN ('PENDING', 'PROCESSING') " +
+                   "AND (next_retry_at IS NULL OR next_retry_at <= :now) " +
+                   "ORDER BY next_retry_at NULLS FIRST " +
+                   "LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<UUID> lockDueIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Query("SELECT COUNT(d) FROM DlqOrder d WHERE d.status IN ('PENDING', 'PROCESSING') " +
+           "AND (d.nextRetryAt IS NULL OR d.nextRetryAt <= :now)")
+    long countDue(@Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE DlqOrder d SET d.status = 'PROCESSING', d.lastRetryAt = :now, d.nextRetryAt = :until " +
+           "WHERE d.id IN :ids")
+    int markProcessing(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now,
+                       @Param("until") LocalDateTime until);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE DlqOrder d SET d.status = 'COMPLETED', d.nextRetryAt = NULL " +
+           "WHERE d.id IN :ids AND d.status = 'PROCESSING'")
+    int markCompleted(@Param("ids") Collection<UUID> ids);
+
+    // Exponential backoff from the current retry_count (SET expressions read the old row), capped at maxBackoff
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE dlq_orders SET retry_count = retry_count + 1, last_retry_at = :now, error_log = :error, " +
+                   "status = CASE WHEN retry_count + 1 >= max_retries THEN 'PERMANENT_FAILURE' ELSE 'PENDING' END, " +
+                   "next_retry_at = CASE WHEN retry_count + 1 >= max_retries THEN NULL ELSE " +
+                   ":now + make_interval(secs => LEAST(:maxBackoffSeconds, :baseBackoffSeconds * power(2, retry_count))) END " +
+                   "WHERE id IN (:ids) AND status = 'PROCESSING'",
+           nativeQuery = true)
+    int markRetryFailed(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now,
+                        @Param("error") String error, @Param("baseBackoffSeconds") double baseBackoffSeconds,
+                        @Param("maxBackoffSeconds") double maxBackoffSeconds);
 }
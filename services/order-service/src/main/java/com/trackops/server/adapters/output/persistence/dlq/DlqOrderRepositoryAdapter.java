@@ -3,8 +3,11 @@ package com.trackops.server.adapters.output.persistence.dlq;
 import com.trackops.server.domain.model.dlq.DlqOrder;
 import com.trackops.server.ports.output.persistence.dlq.DlqOrderRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -57,4 +60,34 @@ public class DlqOrderRepositoryAdapter implements DlqOrderRepository {
     public long count() {
         return jpaRepository.count();
     }
+
+    @Override
+    @Transactional
+    public List<DlqOrder> claimDue(LocalDateTime now, LocalDateTime claimUntil, int limit) {
+        List<UUID> ids = jpaRepository.lockDueIds(now, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        jpaRepository.markProcessing(ids, now, claimUntil);
+        return jpaRepository.findAllById(ids);
+    }
+
+    @Override
+    public long countDue(LocalDateTime now) {
+        return jpaRepository.countDue(now);
+    }
+
+    @Override
+    @Transactional
+    public int markCompleted(Collection<UUID> ids) {
+        return jpaRepository.markCompleted(ids);
+    }
+
+    @Override
+    @Transactional
+    public int markRetryFailed(Collection<UUID> ids, LocalDateTime now, String error, Duration baseBackoff,
+                               Duration maxBackoff) {
+        return jpaRepository.markRetryFailed(ids, now, error, baseBackoff.toMillis() / 1000.0,
+                maxBackoff.toMillis() / 1000.0);
+    }
 }
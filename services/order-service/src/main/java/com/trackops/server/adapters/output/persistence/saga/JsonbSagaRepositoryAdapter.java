@@ -0,0 +1,523 @@
+package com.trackops.server.adapters.output.persistence.saga;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trackops.server.domain.model.saga.SagaInstance;
+import com.trackops.server.domain.model.saga.SagaStatus;
+import com.trackops.server.domain.model.saga.SagaStepEntity;
+import com.trackops.server.domain.model.saga.SagaStepStatus;
+import com.trackops.server.domain.model.saga.SagaType;
+import com.trackops.server.ports.output.persistence.saga.SagaRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Compact saga storage: the saga and all of its step state live on one saga_instances row, with steps in the
+ * {@code steps_state} JSONB column. Every transition is a read of that row plus one UPDATE guarded by the
+ * row version (optimistic locking), so a transition writes one row instead of a saga row and step rows,
+ * and reads need no join with saga_steps. Enabled with {@code app.saga.storage=jsonb}.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.saga.storage", havingValue = "jsonb")
+public class JsonbSagaRepositoryAdapter implements SagaRepository {
+
+    /** Attempts before a transition that keeps losing version races gives up. */
+    private static final int MAX_ATTEMPTS = 5;
+
+    private static final String SELECT = "SELECT id, saga_type, status, aggregate_id, started_at, completed_at, " +
+        "current_step_index, error_message, retry_count, max_retries, version, lease_owner, lease_expires_at, " +
+        "steps_state FROM saga_instances ";
+
+    private static final String UNFINISHED = "('STARTED', 'IN_PROGRESS', 'COMPENSATING')";
+
+    private static final EnumSet<SagaStepStatus> CLAIMABLE_STEP = EnumSet.of(SagaStepStatus.PENDING, SagaStepStatus.FAILED);
+    private static final EnumSet<SagaStepStatus> UNCOMPENSATED_STEP =
+        EnumSet.of(SagaStepStatus.IN_PROGRESS, SagaStepStatus.COMPLETED, SagaStepStatus.COMPENSATING);
+    private static final EnumSet<SagaStatus> RUNNING = EnumSet.of(SagaStatus.STARTED, SagaStatus.IN_PROGRESS);
+    private static final EnumSet<SagaStatus> COMPENSABLE = EnumSet.of(SagaStatus.STARTED, SagaStatus.IN_PROGRESS, SagaStatus.FAILED);
+
+    private static final TypeReference<List<StepState>> STEPS_TYPE = new TypeReference<>() {};
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+    private final RowMapper<SagaInstance> rowMapper = this::mapRow;
+
+    public JsonbSagaRepositoryAdapter(NamedParameterJdbcTemplate jdbc, ObjectMapper objectMapper) {
+        this.jdbc = jdbc;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public SagaInstance save(SagaInstance sagaInstance) {
+        if (sagaInstance.getId() == null) {
+            sagaInstance.setId(UUID.randomUUID());
+            sagaInstance.setVersion(0L);
+            jdbc.update("INSERT INTO saga_instances (id, saga_type, status, aggregate_id, started_at, completed_at, " +
+                "current_step_index, error_message, retry_count, max_retries, version, lease_owner, lease_expires_at, " +
+                "steps_state, step_deadline_at) VALUES (:id, :sagaType, :status, :aggregateId, :startedAt, :completedAt, " +
+                ":currentStepIndex, :errorMessage, :retryCount, :maxRetries, :version, :leaseOwner, :leaseExpiresAt, " +
+                "CAST(:stepsState AS jsonb), :stepDeadlineAt)", params(sagaInstance));
+            return sagaInstance;
+        }
+        if (!update(sagaInstance)) {
+            throw new OptimisticLockingFailureException("SAGA " + sagaInstance.getId() + " was modified concurrently");
+        }
+        return sagaInstance;
+    }
+
+    @Override
+    public Optional<SagaInstance> findById(UUID id) {
+        return jdbc.query(SELECT + "WHERE id = :id", new MapSqlParameterSource("id", id), rowMapper)
+            .stream().findFirst();
+    }
+
+    @Override
+    public List<SagaInstance> findByAggregateId(String aggregateId) {
+        return jdbc.query(SELECT + "WHERE aggregate_id = :aggregateId",
+            new MapSqlParameterSource("aggregateId", aggregateId), rowMapper);
+    }
+
+    @Override
+    public List<SagaInstance> findBySagaType(SagaType sagaType) {
+        return jdbc.query(SELECT + "WHERE saga_type = :sagaType",
+            new MapSqlParameterSource("sagaType", sagaType.name()), rowMapper);
+    }
+
+    @Override
+    public List<SagaInstance> findByStatus(SagaStatus status) {
+        return jdbc.query(SELECT + "WHERE status = :status",
+            new MapSqlParameterSource("status", status.name()), rowMapper);
+    }
+
+    @Override
+    public List<SagaInstance> findIncompleteSagas() {
+        return jdbc.query(SELECT + "WHERE status IN " + UNFINISHED, rowMapper);
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        jdbc.update("DELETE FROM saga_instances WHERE id = :id", new MapSqlParameterSource("id", id));
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        Boolean exists = jdbc.queryForObject("SELECT EXISTS (SELECT 1 FROM saga_instances WHERE id = :id)",
+            new MapSqlParameterSource("id", id), Boolean.class);
+        return Boolean.TRUE.equals(exists);
+    }
+
+    // ==================== Transitions ====================
+
+    @Override
+    public boolean claimStep(UUID sagaId, UUID stepId, Instant deadline) {
+        // The saga status is checked in the same version-guarded write, so a claim cannot race startCompensation
+        return transition(sagaId, saga -> {
+            if (!RUNNING.contains(saga.getStatus())) {
+                return false;
+            }
+            SagaStepEntity step = saga.getSteps().stream()
+                .filter(s -> s.getId().equals(stepId))
+                .findFirst()
+                .orElse(null);
+            if (step == null || !CLAIMABLE_STEP.contains(step.getStatus())) {
+                return false;
+            }
+            step.setStatus(SagaStepStatus.IN_PROGRESS);
+            step.setStartedAt(Instant.now());
+            step.setDeadlineAt(deadline);
+            return true;
+        });
+    }
+
+    @Override
+    public boolean completeStep(UUID sagaId, UUID stepId) {
+        return transitionStep(sagaId, stepId, step -> {
+            if (step.getStatus() != SagaStepStatus.IN_PROGRESS) {
+                return false;
+            }
+            step.setStatus(SagaStepStatus.COMPLETED);
+            step.setCompletedAt(Instant.now());
+            step.setDeadlineAt(null);
+            return true;
+        });
+    }
+
+    @Override
+    public boolean failStep(UUID sagaId, UUID stepId, String errorMessage) {
+        return transitionStep(sagaId, stepId, step -> {
+            if (step.getStatus() != SagaStepStatus.IN_PROGRESS) {
+                return false;
+            }
+            fail(step, errorMessage);
+            return true;
+        });
+    }
+
+    @Override
+    public boolean claimCompensation(UUID sagaId, UUID stepId, Instant deadline) {
+        // As with claimStep, the saga status is checked in the same version-guarded write as the step claim
+        return transition(sagaId, saga -> {
+            if (saga.getStatus() != SagaStatus.COMPENSATING) {
+                return false;
+            }
+            SagaStepEntity step = saga.getSteps().stream()
+                .filter(s -> s.getId().equals(stepId))
+                .findFirst()
+                .orElse(null);
+            if (step == null || !(step.getStatus() == SagaStepStatus.COMPLETED
+                    || step.getStatus() == SagaStepStatus.COMPENSATING && step.getDeadlineAt().isBefore(Instant.now()))) {
+                return false;
+            }
+            step.setStatus(SagaStepStatus.COMPENSATING);
+            step.setDeadlineAt(deadline);
+            return true;
+        });
+    }
+
+    @Override
+    public boolean markStepCompensated(UUID sagaId, UUID stepId) {
+        return transitionStep(sagaId, stepId, step -> {
+            if (step.getStatus() != SagaStepStatus.COMPENSATING) {
+                return false;
+            }
+            step.setStatus(SagaStepStatus.COMPENSATED);
+            step.setCompletedAt(Instant.now());
+            step.setDeadlineAt(null);
+            return true;
+        });
+    }
+
+    @Override
+    public boolean releaseCompensation(UUID sagaId, UUID stepId) {
+        return transitionStep(sagaId, stepId, step -> {
+            if (step.getStatus() != SagaStepStatus.COMPENSATING) {
+                return false;
+            }
+            step.setStatus(SagaStepStatus.COMPLETED);
+            step.setDeadlineAt(null);
+            return true;
+        });
+    }
+
+    @Override
+    public boolean advanceSaga(UUID sagaId, Instant leaseUntil) {
+        return transition(sagaId, saga -> {
+            if (!RUNNING.contains(saga.getStatus())) {
+                return false;
+            }
+            saga.setCurrentStepIndex((int) saga.getSteps().stream()
+                .filter(step -> step.getStatus() == SagaStepStatus.COMPLETED)
+                .count());
+            saga.setStatus(SagaStatus.IN_PROGRESS);
+            saga.setLeaseExpiresAt(leaseUntil);
+            return true;
+        });
+    }
+
+    @Override
+    public boolean completeSaga(UUID sagaId) {
+        return transition(sagaId, saga -> {
+            if (!RUNNING.contains(saga.getStatus())) {
+                return false;
+            }
+            saga.markCompleted();
+            return true;
+        });
+    }
+
+    @Override
+    public boolean startCompensation(UUID sagaId, String errorMessage) {
+        return transition(sagaId, saga -> {
+            if (!COMPENSABLE.contains(saga.getStatus())) {
+                return false;
+            }
+            saga.startCompensation();
+            saga.setErrorMessage(errorMessage);
+            return true;
+        });
+    }
+
+    @Override
+    public boolean markSagaCompensated(UUID sagaId) {
+        return transition(sagaId, saga -> {
+            if (saga.getStatus() != SagaStatus.COMPENSATING || saga.getSteps().stream().anyMatch(step ->
+                    UNCOMPENSATED_STEP.contains(step.getStatus()))) {
+                return false;
+            }
+            saga.markCompensated();
+            return true;
+        });
+    }
+
+    @Override
+    public boolean failSaga(UUID sagaId, String errorMessage) {
+        return transition(sagaId, saga -> {
+            if (saga.getStatus() != SagaStatus.COMPENSATING) {
+                return false;
+            }
+            saga.setStatus(SagaStatus.FAILED);
+            saga.setErrorMessage(errorMessage);
+            return true;
+        });
+    }
+
+    @Override
+    public boolean retryCompensation(UUID sagaId) {
+        return transition(sagaId, saga -> {
+            if (saga.getStatus() != SagaStatus.FAILED || !saga.canRetry()) {
+                return false;
+            }
+            saga.incrementRetry();
+            saga.startCompensation();
+            saga.setErrorMessage(null);
+            return true;
+        });
+    }
+
+    // ==================== Recovery leases ====================
+
+    @Override
+    public List<UUID> claimRecoverableSagas(String owner, Instant leaseUntil, int limit) {
+        return jdbc.queryForList(
+            "UPDATE saga_instances SET lease_owner = :owner, lease_expires_at = :leaseUntil, version = version + 1 " +
+            "WHERE id IN (SELECT id FROM saga_instances WHERE status IN " + UNFINISHED + " " +
+            "  AND (lease_expires_at IS NULL OR lease_expires_at < :now) " +
+            "  ORDER BY lease_expires_at NULLS FIRST LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id",
+            new MapSqlParameterSource()
+                .addValue("owner", owner)
+                .addValue("leaseUntil", timestamp(leaseUntil))
+                .addValue("now", timestamp(Instant.now()))
+                .addValue("limit", limit),
+            UUID.class);
+    }
+
+    @Override
+    public boolean renewLease(UUID sagaId, String owner, Instant leaseUntil) {
+        return jdbc.update("UPDATE saga_instances SET lease_owner = :owner, lease_expires_at = :leaseUntil, " +
+                "version = version + 1 WHERE id = :id " +
+                "AND (lease_owner = :owner OR lease_expires_at IS NULL OR lease_expires_at < :now)",
+            new MapSqlParameterSource()
+                .addValue("id", sagaId)
+                .addValue("owner", owner)
+                .addValue("leaseUntil", timestamp(leaseUntil))
+                .addValue("now", timestamp(Instant.now()))) == 1;
+    }
+
+    @Override
+    public void releaseLeases(Collection<UUID> sagaIds, String owner) {
+        if (sagaIds.isEmpty()) {
+            return;
+        }
+        jdbc.update("UPDATE saga_instances SET lease_owner = NULL, lease_expires_at = NULL, version = version + 1 " +
+                "WHERE id IN (:ids) AND lease_owner = :owner",
+            new MapSqlParameterSource().addValue("ids", sagaIds).addValue("owner", owner));
+    }
+
+    @Override
+    public long countRecoverableSagas() {
+        Long count = jdbc.queryForObject("SELECT COUNT(*) FROM saga_instances WHERE status IN " + UNFINISHED + " " +
+                "AND (lease_expires_at IS NULL OR lease_expires_at < :now)",
+            new MapSqlParameterSource("now", timestamp(Instant.now())), Long.class);
+        return count != null ? count : 0L;
+    }
+
+    // ==================== Step deadlines ====================
+
+    @Override
+    @Transactional
+    public TimedOutSteps failTimedOutSteps(Instant now, int limit) {
+        // Lock due sagas so dispatchers on other replicas skip them, then fail their overdue steps
+        List<UUID> due = jdbc.queryForList(
+            "SELECT id FROM saga_instances WHERE step_deadline_at <= :now " +
+            "ORDER BY step_deadline_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+            new MapSqlParameterSource().addValue("now", timestamp(now)).addValue("limit", limit),
+            UUID.class);
+        List<UUID> timedOut = new ArrayList<>(due.size());
+        int stepCount = 0;
+        for (UUID sagaId : due) {
+            // Steps failed by the attempt that was written; a lost version race re-counts on the re-read row
+            int[] steps = new int[1];
+            boolean failed = transition(sagaId, saga -> {
+                steps[0] = 0;
+                for (SagaStepEntity step : saga.getSteps()) {
+                    if (step.getStatus() == SagaStepStatus.IN_PROGRESS
+                            && step.getDeadlineAt() != null && !step.getDeadlineAt().isAfter(now)) {
+                        fail(step, "Step timed out");
+                        steps[0]++;
+                    }
+                }
+                return steps[0] > 0;
+            });
+            if (failed) {
+                timedOut.add(sagaId);
+                stepCount += steps[0];
+            }
+        }
+        return new TimedOutSteps(stepCount, timedOut);
+    }
+
+    // ==================== Internals ====================
+
+    private boolean transitionStep(UUID sagaId, UUID stepId, Predicate<SagaStepEntity> change) {
+        return transition(sagaId, saga -> saga.getSteps().stream()
+            .filter(step -> step.getId().equals(stepId))
+            .findFirst()
+            .map(change::test)
+            .orElse(false));
+    }
+
+    /**
+     * Read the saga row, apply {@code change} and write it back if the version is unchanged.
+     * {@code change} returns false when the saga is not in the expected state; a lost version race re-reads
+     * the row and re-checks, so concurrent transitions on different steps of the same saga both land.
+     */
+    private boolean transition(UUID sagaId, Predicate<SagaInstance> change) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Optional<SagaInstance> current = findById(sagaId);
+            if (current.isEmpty() || !change.test(current.get())) {
+                return false;
+            }
+            if (update(current.get())) {
+                return true;
+            }
+        }
+        throw new OptimisticLockingFailureException(
+            "SAGA " + sagaId + " kept changing concurrently, gave up after " + MAX_ATTEMPTS + " attempts");
+    }
+
+    private boolean update(SagaInstance saga) {
+        int updated = jdbc.update("UPDATE saga_instances SET status = :status, completed_at = :completedAt, " +
+            "current_step_index = :currentStepIndex, error_message = :errorMessage, retry_count = :retryCount, " +
+            "lease_owner = :leaseOwner, lease_expires_at = :leaseExpiresAt, steps_state = CAST(:stepsState AS jsonb), " +
+            "step_deadline_at = :stepDeadlineAt, version = version + 1 " +
+            "WHERE id = :id AND version = :version", params(saga));
+        if (updated == 1) {
+            saga.setVersion(saga.getVersion() + 1);
+            return true;
+        }
+        return false;
+    }
+
+    private static void fail(SagaStepEntity step, String errorMessage) {
+        step.setStatus(SagaStepStatus.FAILED);
+        step.setErrorMessage(errorMessage);
+        step.setRetryCount(step.getRetryCount() + 1);
+        step.setDeadlineAt(null);
+    }
+
+    private MapSqlParameterSource params(SagaInstance saga) {
+        Instant stepDeadline = saga.getSteps().stream()
+            .filter(step -> step.getStatus() == SagaStepStatus.IN_PROGRESS && step.getDeadlineAt() != null)
+            .map(SagaStepEntity::getDeadlineAt)
+            .min(Instant::compareTo)
+            .orElse(null);
+        return new MapSqlParameterSource()
+            .addValue("id", saga.getId())
+            .addValue("sagaType", saga.getSagaType().name())
+            .addValue("status", saga.getStatus().name())
+            .addValue("aggregateId", saga.getAggregateId())
+            .addValue("startedAt", timestamp(saga.getStartedAt()))
+            .addValue("completedAt", timestamp(saga.getCompletedAt()))
+            .addValue("currentStepIndex", saga.getCurrentStepIndex())
+            .addValue("errorMessage", saga.getErrorMessage())
+            .addValue("retryCount", saga.getRetryCount())
+            .addValue("maxRetries", saga.getMaxRetries())
+            .addValue("version", saga.getVersion())
+            .addValue("leaseOwner", saga.getLeaseOwner())
+            .addValue("leaseExpiresAt", timestamp(saga.getLeaseExpiresAt()))
+            .addValue("stepsState", writeSteps(saga.getSteps()))
+            .addValue("stepDeadlineAt", timestamp(stepDeadline));
+    }
+
+    private SagaInstance mapRow(ResultSet rs, int rowNum) throws SQLException {
+        SagaInstance saga = new SagaInstance();
+        saga.setId(rs.getObject("id", UUID.class));
+        saga.setSagaType(SagaType.valueOf(rs.getString("saga_type")));
+        saga.setStatus(SagaStatus.valueOf(rs.getString("status")));
+        saga.setAggregateId(rs.getString("aggregate_id"));
+        saga.setStartedAt(instant(rs.getTimestamp("started_at")));
+        saga.setCompletedAt(instant(rs.getTimestamp("completed_at")));
+        saga.setCurrentStepIndex(rs.getInt("current_step_index"));
+        saga.setErrorMessage(rs.getString("error_message"));
+        saga.setRetryCount(rs.getInt("retry_count"));
+        saga.setMaxRetries(rs.getInt("max_retries"));
+        saga.setVersion(rs.getLong("version"));
+        saga.setLeaseOwner(rs.getString("lease_owner"));
+        saga.setLeaseExpiresAt(instant(rs.getTimestamp("lease_expires_at")));
+        saga.setSteps(readSteps(rs.getString("steps_state"), saga));
+        return saga;
+    }
+
+    private String writeSteps(List<SagaStepEntity> steps) {
+        List<StepState> state = new ArrayList<>(steps.size());
+        for (SagaStepEntity step : steps) {
+            state.add(new StepState(step.getId(), step.getStepName(), step.getServiceName(), step.getAction(),
+                step.getCompensationAction(), step.getStatus(), step.getStartedAt(), step.getCompletedAt(),
+                step.getDeadlineAt(), step.getErrorMessage(), step.getRetryCount(), step.getStepData(),
+                step.getDependsOn()));
+        }
+        try {
+            return objectMapper.writeValueAsString(state);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize SAGA step state", e);
+        }
+    }
+
+    private List<SagaStepEntity> readSteps(String json, SagaInstance saga) {
+        if (json == null) {
+            return new ArrayList<>();
+        }
+        try {
+            List<StepState> state = objectMapper.readValue(json, STEPS_TYPE);
+            List<SagaStepEntity> steps = new ArrayList<>(state.size());
+            for (StepState s : state) {
+                SagaStepEntity step = new SagaStepEntity(s.id(), s.stepName(), s.serviceName(), s.action(),
+                    s.compensationAction(), s.status(), s.startedAt(), s.completedAt(), s.errorMessage(),
+                    s.retryCount(), s.stepData(), saga);
+                step.setDeadlineAt(s.deadlineAt());
+                // The array is kept in step order; documents written before dependencies ran in sequence
+                int index = steps.size();
+                step.setStepIndex(index);
+                step.setDependsOn(s.dependsOn() != null ? s.dependsOn() : index == 0 ? "" : String.valueOf(index - 1));
+                steps.add(step);
+            }
+            return steps;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt SAGA step state for SAGA " + saga.getId(), e);
+        }
+    }
+
+    private static Timestamp timestamp(Instant instant) {
+        return instant != null ? Timestamp.from(instant) : null;
+    }
+
+    private static Instant instant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+
+    /**
+     * JSON shape of one step inside {@code steps_state}.
+     */
+    record StepState(UUID id, String stepName, String serviceName, String action, String compensationAction,
+                     SagaStepStatus status, Instant startedAt, Instant completedAt, Instant deadlineAt,
+                     String errorMessage, int retryCount, String stepData, String dependsOn) {}
+}
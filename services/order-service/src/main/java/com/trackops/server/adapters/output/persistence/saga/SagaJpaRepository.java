@@ -2,12 +2,18 @@ package com.trackops.server.adapters.output.persistence.saga;
 
 import com.trackops.server.domain.model.saga.SagaInstance;
 import com.trackops.server.domain.model.saga.SagaStatus;
+import com.trackops.server.domain.model.saga.SagaStepStatus;
 import com.trackops.server.domain.model.saga.SagaType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -21,4 +27,133 @@ public interface SagaJpaRepository extends JpaRepository<SagaInstance, UUID> {
     
     @Query("SELECT s FROM SagaInstance s WHERE s.status IN ('STARTED', 'IN_PROGRESS', 'COMPENSATING')")
     List<SagaInstance> findIncompleteSagas();
+
+    @Query("SELECT s FROM SagaInstance s LEFT JOIN FETCH s.steps WHERE s.id = :id")
+    Optional<SagaInstance> findWithStepsById(@Param("id") UUID id);
+
+    // Recovery leases
+
+    /**
+     * Lock up to {@code limit} unfinished sagas whose lease is missing or expired. Rows locked by another
+     * replica's recovery are skipped, so concurrent recoveries partition the backlog instead of colliding.
+     */
+    @Query(value = "SELECT id FROM saga_instances " +
+                   "WHERE status IN ('STARTED', 'IN_PROGRESS', 'COMPENSATING') " +
+                   "AND (lease_expires_at IS NULL OR lease_expires_at < :now) " +
+                   "ORDER BY lease_expires_at NULLS FIRST " +
+                   "LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<UUID> lockRecoverableIds(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Query("SELECT COUNT(s) FROM SagaInstance s WHERE s.status IN ('STARTED', 'IN_PROGRESS', 'COMPENSATING') " +
+           "AND (s.leaseExpiresAt IS NULL OR s.leaseExpiresAt < :now)")
+    long countRecoverable(@Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SagaInstance s SET s.leaseOwner = :owner, s.leaseExpiresAt = :until, s.version = s.version + 1 " +
+           "WHERE s.id IN :ids")
+    int assignLease(@Param("ids") Collection<UUID> ids, @Param("owner") String owner, @Param("until") Instant until);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SagaInstance s SET s.leaseOwner = :owner, s.leaseExpiresAt = :until, s.version = s.version + 1 " +
+           "WHERE s.id = :id AND (s.leaseOwner = :owner OR s.leaseExpiresAt IS NULL OR s.leaseExpiresAt < :now)")
+    int renewLease(@Param("id") UUID id, @Param("owner") String owner, @Param("until") Instant until,
+                   @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SagaInstance s SET s.leaseOwner = NULL, s.leaseExpiresAt = NULL, s.version = s.version + 1 " +
+           "WHERE s.id IN :ids AND s.leaseOwner = :owner")
+    int clearLease(@Param("ids") Collection<UUID> ids, @Param("owner") String owner);
+
+    // Conditional single-row transitions: each returns 1 if the row was in the expected state, 0 otherwise
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SagaStepEntity st SET st.status = :to, st.startedAt = :now, st.deadlineAt = :deadline " +
+           "WHERE st.id = :stepId AND st.status IN :from")
+    int startStep(@Param("stepId") UUID stepId, @Param("from") Collection<SagaStepStatus> from,
+                  @Param("to") SagaStepStatus to, @Param("now") Instant now, @Param("deadline") Instant deadline);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SagaStepEntity st SET st.status = :to, st.completedAt = :now " +
+           "WHERE st.id = :stepId AND st.status = :from")
+    int finishStep(@Param("stepId") UUID stepId, @Param("from") SagaStepStatus from,
+                   @Param("to") SagaStepStatus to, @Param("now") Instant now);
+
+    // A COMPENSATING step whose deadline passed belongs to a worker that died mid-compensation
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SagaStepEntity st SET st.status = :to, st.deadlineAt = :deadline " +
+           "WHERE st.id = :stepId AND (st.status = :from OR (st.status = :to AND st.deadlineAt < :now))")
+    int startCompensationStep(@Param("stepId") UUID stepId, @Param("from") SagaStepStatus from,
+                              @Param("to") SagaStepStatus to, @Param("now") Instant now, @Param("deadline") Instant deadline);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SagaStepEntity st SET st.status = :to, st.deadlineAt = NULL " +
+           "WHERE st.id = :stepId AND st.status = :from")
+    int releaseStep(@Param("stepId") UUID stepId, @Param("from") SagaStepStatus from, @Param("to") SagaStepStatus to);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SagaStepEntity st SET st.status = :to, st.errorMessage = :error, " +
+           "st.retryCount = st.retryCount + 1 WHERE st.id = :stepId AND st.status = :from")
+    int failStep(@Param("stepId") UUID stepId, @Param("from") SagaStepStatus from,
+                 @Param("to") SagaStepStatus to, @Param("error") String error);
+
+    // current_step_index is the number of completed steps: steps may complete in any order, so recount
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE saga_instances SET current_step_index = " +
+                   "(SELECT COUNT(*) FROM saga_steps WHERE saga_instance_id = :sagaId AND status = 'COMPLETED'), " +
+                   "status = 'IN_PROGRESS', lease_expires_at = :leaseUntil, version = version + 1 " +
+                   "WHERE id = :sagaId AND status IN ('STARTED', 'IN_PROGRESS')", nativeQuery = true)
+    int recordProgress(@Param("sagaId") UUID sagaId, @Param("leaseUntil") Instant leaseUntil);
+
+    // Share lock: a concurrent startCompensation waits for the step claim to commit, or the claim sees it
+    @Query(value = "SELECT 1 FROM saga_instances WHERE id = :sagaId AND status IN ('STARTED', 'IN_PROGRESS') " +
+                   "FOR SHARE", nativeQuery = true)
+    List<Integer> lockIfRunning(@Param("sagaId") UUID sagaId);
+
+    // Share lock: a concurrent failSaga waits for the compensation claim to commit, or the claim sees it
+    @Query(value = "SELECT 1 FROM saga_instances WHERE id = :sagaId AND status = 'COMPENSATING' FOR SHARE",
+           nativeQuery = true)
+    List<Integer> lockIfCompensating(@Param("sagaId") UUID sagaId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE saga_instances SET status = 'COMPENSATED', completed_at = :now, version = version + 1 " +
+                   "WHERE id = :sagaId AND status = 'COMPENSATING' AND NOT EXISTS (SELECT 1 FROM saga_steps " +
+                   "WHERE saga_instance_id = :sagaId AND status IN ('IN_PROGRESS', 'COMPLETED', 'COMPENSATING'))",
+           nativeQuery = true)
+    int finishCompensation(@Param("sagaId") UUID sagaId, @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SagaInstance s SET s.status = :to, s.completedAt = :now, s.version = s.version + 1 " +
+           "WHERE s.id = :sagaId AND s.status IN :from")
+    int finishSaga(@Param("sagaId") UUID sagaId, @Param("from") Collection<SagaStatus> from,
+                   @Param("to") SagaStatus to, @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SagaInstance s SET s.status = :to, s.errorMessage = :error, s.version = s.version + 1 " +
+           "WHERE s.id = :sagaId AND s.status IN :from")
+    int transitionWithError(@Param("sagaId") UUID sagaId, @Param("from") Collection<SagaStatus> from,
+                            @Param("to") SagaStatus to, @Param("error") String error);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SagaInstance s SET s.status = :to, s.errorMessage = NULL, s.retryCount = s.retryCount + 1, " +
+           "s.version = s.version + 1 WHERE s.id = :sagaId AND s.status = :from AND s.retryCount < s.maxRetries")
+    int retry(@Param("sagaId") UUID sagaId, @Param("from") SagaStatus from, @Param("to") SagaStatus to);
+
+    // Step deadlines
+
+    @Query(value = "SELECT id FROM saga_steps " +
+                   "WHERE status = 'IN_PROGRESS' AND deadline_at <= :now " +
+                   "ORDER BY deadline_at " +
+                   "LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<UUID> lockTimedOutStepIds(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SagaStepEntity st SET st.status = :to, st.errorMessage = :error, " +
+           "st.retryCount = st.retryCount + 1 WHERE st.id IN :stepIds AND st.status = :from")
+    int failSteps(@Param("stepIds") Collection<UUID> stepIds, @Param("from") SagaStepStatus from,
+                  @Param("to") SagaStepStatus to, @Param("error") String error);
+
+    @Query("SELECT DISTINCT st.sagaInstance.id FROM SagaStepEntity st WHERE st.id IN :stepIds")
+    List<UUID> findSagaIdsByStepIds(@Param("stepIds") Collection<UUID> stepIds);
 }
@@ -2,16 +2,30 @@ package com.trackops.server.adapters.output.persistence.saga;
 
 import com.trackops.server.domain.model.saga.SagaInstance;
 import com.trackops.server.domain.model.saga.SagaStatus;
+import com.trackops.server.domain.model.saga.SagaStepStatus;
 import com.trackops.server.domain.model.saga.SagaType;
 import com.trackops.server.ports.output.persistence.saga.SagaRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Default saga storage: one saga_instances row plus one saga_steps row per step.
+ */
 @Repository
+@ConditionalOnProperty(name = "app.saga.storage", havingValue = "rows", matchIfMissing = true)
 public class SagaRepositoryAdapter implements SagaRepository {
+
+    private static final EnumSet<SagaStepStatus> CLAIMABLE_STEP = EnumSet.of(SagaStepStatus.PENDING, SagaStepStatus.FAILED);
+    private static final EnumSet<SagaStatus> RUNNING = EnumSet.of(SagaStatus.STARTED, SagaStatus.IN_PROGRESS);
+    private static final EnumSet<SagaStatus> COMPENSABLE = EnumSet.of(SagaStatus.STARTED, SagaStatus.IN_PROGRESS, SagaStatus.FAILED);
     
     private final SagaJpaRepository sagaJpaRepository;
 
@@ -26,7 +40,7 @@ public class SagaRepositoryAdapter implements SagaRepository {
 
     @Override
     public Optional<SagaInstance> findById(UUID id) {
-        return sagaJpaRepository.findById(id);
+        return sagaJpaRepository.findWithStepsById(id);
     }
 
     @Override
@@ -58,4 +72,123 @@ public class SagaRepositoryAdapter implements SagaRepository {
     public boolean existsById(UUID id) {
         return sagaJpaRepository.existsById(id);
     }
+
+    @Override
+    @Transactional
+    public boolean claimStep(UUID sagaId, UUID stepId, Instant deadline) {
+        if (sagaJpaRepository.lockIfRunning(sagaId).isEmpty()) {
+            return false;
+        }
+        return sagaJpaRepository.startStep(stepId, CLAIMABLE_STEP, SagaStepStatus.IN_PROGRESS, Instant.now(), deadline) == 1;
+    }
+
+    @Override
+    @Transactional
+    public boolean completeStep(UUID sagaId, UUID stepId) {
+        return sagaJpaRepository.finishStep(stepId, SagaStepStatus.IN_PROGRESS, SagaStepStatus.COMPLETED, Instant.now()) == 1;
+    }
+
+    @Override
+    @Transactional
+    public boolean failStep(UUID sagaId, UUID stepId, String errorMessage) {
+        return sagaJpaRepository.failStep(stepId, SagaStepStatus.IN_PROGRESS, SagaStepStatus.FAILED, errorMessage) == 1;
+    }
+
+    @Override
+    @Transactional
+    public boolean claimCompensation(UUID sagaId, UUID stepId, Instant deadline) {
+        if (sagaJpaRepository.lockIfCompensating(sagaId).isEmpty()) {
+            return false;
+        }
+        return sagaJpaRepository.startCompensationStep(stepId, SagaStepStatus.COMPLETED, SagaStepStatus.COMPENSATING,
+            Instant.now(), deadline) == 1;
+    }
+
+    @Override
+    @Transactional
+    public boolean markStepCompensated(UUID sagaId, UUID stepId) {
+        return sagaJpaRepository.finishStep(stepId, SagaStepStatus.COMPENSATING, SagaStepStatus.COMPENSATED, Instant.now()) == 1;
+    }
+
+    @Override
+    @Transactional
+    public boolean releaseCompensation(UUID sagaId, UUID stepId) {
+        return sagaJpaRepository.releaseStep(stepId, SagaStepStatus.COMPENSATING, SagaStepStatus.COMPLETED) == 1;
+    }
+
+    @Override
+    @Transactional
+    public boolean advanceSaga(UUID sagaId, Instant leaseUntil) {
+        return sagaJpaRepository.recordProgress(sagaId, leaseUntil) == 1;
+    }
+
+    @Override
+    @Transactional
+    public boolean completeSaga(UUID sagaId) {
+        return sagaJpaRepository.finishSaga(sagaId, RUNNING, SagaStatus.COMPLETED, Instant.now()) == 1;
+    }
+
+    @Override
+    @Transactional
+    public boolean startCompensation(UUID sagaId, String errorMessage) {
+        return sagaJpaRepository.transitionWithError(sagaId, COMPENSABLE, SagaStatus.COMPENSATING, errorMessage) == 1;
+    }
+
+    @Override
+    @Transactional
+    public boolean markSagaCompensated(UUID sagaId) {
+        return sagaJpaRepository.finishCompensation(sagaId, Instant.now()) == 1;
+    }
+
+    @Override
+    @Transactional
+    public boolean failSaga(UUID sagaId, String errorMessage) {
+        return sagaJpaRepository.transitionWithError(sagaId, EnumSet.of(SagaStatus.COMPENSATING), SagaStatus.FAILED, errorMessage) == 1;
+    }
+
+    @Override
+    @Transactional
+    public boolean retryCompensation(UUID sagaId) {
+        return sagaJpaRepository.retry(sagaId, SagaStatus.FAILED, SagaStatus.COMPENSATING) == 1;
+    }
+
+    @Override
+    @Transactional
+    public List<UUID> claimRecoverableSagas(String owner, Instant leaseUntil, int limit) {
+        List<UUID> ids = sagaJpaRepository.lockRecoverableIds(Instant.now(), limit);
+        if (!ids.isEmpty()) {
+            sagaJpaRepository.assignLease(ids, owner, leaseUntil);
+        }
+        return ids;
+    }
+
+    @Override
+    @Transactional
+    public boolean renewLease(UUID sagaId, String owner, Instant leaseUntil) {
+        return sagaJpaRepository.renewLease(sagaId, owner, leaseUntil, Instant.now()) == 1;
+    }
+
+    @Override
+    @Transactional
+    public void releaseLeases(Collection<UUID> sagaIds, String owner) {
+        if (!sagaIds.isEmpty()) {
+            sagaJpaRepository.clearLease(sagaIds, owner);
+        }
+    }
+
+    @Override
+    public long countRecoverableSagas() {
+        return sagaJpaRepository.countRecoverable(Instant.now());
+    }
+
+    @Override
+    @Transactional
+    public TimedOutSteps failTimedOutSteps(Instant now, int limit) {
+        List<UUID> stepIds = sagaJpaRepository.lockTimedOutStepIds(now, limit);
+        if (stepIds.isEmpty()) {
+            return TimedOutSteps.NONE;
+        }
+        int failed = sagaJpaRepository.failSteps(stepIds, SagaStepStatus.IN_PROGRESS, SagaStepStatus.FAILED, "Step timed out");
+        return new TimedOutSteps(failed, sagaJpaRepository.findSagaIdsByStepIds(stepIds));
+    }
 }
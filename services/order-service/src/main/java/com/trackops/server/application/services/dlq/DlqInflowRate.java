@@ -0,0 +1,56 @@
+package com.trackops.server.application.services.dlq;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rate at which this replica writes rows to dlq_orders, maintained incrementally instead of counting the table.
+ * <p>
+ * {@link DlqOrderService} records every insert; each {@link #sample()} turns the inserts since the previous sample
+ * into rows per second and folds them into an exponentially weighted average with a half-life of
+ * {@code app.dlq.throttle.rate-half-life-ms}, so a burst raises the rate quickly and it decays once inflow stops.
+ */
+@Component
+public class DlqInflowRate {
+
+    private final LongAdder inserts = new LongAdder();
+    private final double halfLifeNanos;
+
+    // Guarded by this; rate is volatile for readers outside sample()
+    private long lastSampleNanos = System.nanoTime();
+    private volatile double ratePerSecond;
+
+    public DlqInflowRate(@Value("${app.dlq.throttle.rate-half-life-ms:60000}") long halfLifeMs) {
+        this.halfLifeNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, halfLifeMs));
+    }
+
+    /** Count one row written to dlq_orders. */
+    public void record() {
+        inserts.increment();
+    }
+
+    /** Smoothed inflow in rows per second as of the last sample. */
+    public double ratePerSecond() {
+        return ratePerSecond;
+    }
+
+    /** Fold the inserts since the previous sample into the rate and return it. */
+    public double sample() {
+        return sample(System.nanoTime());
+    }
+
+    synchronized double sample(long nowNanos) {
+        long elapsed = nowNanos - lastSampleNanos;
+        if (elapsed <= 0) {
+            return ratePerSecond;
+        }
+        lastSampleNanos = nowNanos;
+        double current = inserts.sumThenReset() * 1e9 / elapsed;
+        double weight = 1 - Math.pow(2, -elapsed / halfLifeNanos);
+        ratePerSecond += weight * (current - ratePerSecond);
+        return ratePerSecond;
+    }
+}
@@ -24,6 +24,7 @@ public class DlqOrderService {
 
     private final DlqOrderRepository dlqOrderRepository;
     private final ObjectMapper objectMapper;
+    private final DlqInflowRate inflowRate;
 
     @Value("${app.dlq.max-retries:3}")
     private int defaultMaxRetries;
@@ -37,7 +38,20 @@ public class DlqOrderService {
     @Transactional
     public DlqOrder saveFailedOrderEvent(String topic, Object rawPayload, String messageType, Throwable cause) {
         String payloadJson = serializePayload(rawPayload);
-        String orderId = extractOrderIdFromPayload(payloadJson);
+        return save(topic, extractOrderIdFromPayload(payloadJson), payloadJson, messageType, cause);
+    }
+
+    /**
+     * Persist a failed order event whose order ID is already known (e.g. the Kafka record key).
+     * Call this when an order event has failed on every retry tier.
+     */
+    @Transactional
+    public DlqOrder saveFailedOrderEvent(String topic, String orderId, Object rawPayload, String messageType,
+                                         Throwable cause) {
+        return save(topic, orderId, serializePayload(rawPayload), messageType, cause);
+    }
+
+    private DlqOrder save(String topic, String orderId, String payloadJson, String messageType, Throwable cause) {
         String errorLog = cause != null ? cause.getMessage() : "Unknown error";
         if (cause != null && cause.getCause() != null) {
             errorLog += "; " + cause.getCause().getMessage();
@@ -56,6 +70,7 @@ public class DlqOrderService {
                 .build();
 
         DlqOrder saved = dlqOrderRepository.save(dlq);
+        inflowRate.record();
         log.warn("Saved failed order event to DLQ: id={}, orderId={}, topic={}", saved.getId(), orderId, topic);
         return saved;
     }
@@ -84,7 +99,7 @@ public class DlqOrderService {
         return dlqOrderRepository.countByStatus(status);
     }
 
-    /** Total rows in dlq_orders (used for consumer throttling). */
+    /** Total rows in dlq_orders. */
     public long countTotal() {
         return dlqOrderRepository.count();
     }
@@ -0,0 +1,30 @@
+package com.trackops.server.application.services.dlq;
+
+import java.time.Instant;
+
+/**
+ * Progress of the current (or last) DLQ redrive pass on this replica.
+ *
+ * @param running      whether a pass is in progress
+ * @param startedAt    start of the pass; null before the first pass
+ * @param finishedAt   end of the pass; null while it runs
+ * @param dueAtStart   rows due for redrive when the pass started (all replicas)
+ * @param claimed      rows claimed by this replica in the pass
+ * @param republished  rows republished and marked COMPLETED
+ * @param failed       rows whose republish failed (backed off, or PERMANENT_FAILURE)
+ * @param remainingDue rows still due after the last page (all replicas)
+ */
+public record DlqRedriveProgress(
+        boolean running,
+        Instant startedAt,
+        Instant finishedAt,
+        long dueAtStart,
+        long claimed,
+        long republished,
+        long failed,
+        long remainingDue) {
+
+    static DlqRedriveProgress idle() {
+        return new DlqRedriveProgress(false, null, null, 0, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,173 @@
+package com.trackops.server.application.services.dlq;
+
+import com.trackops.server.adapters.output.monitoring.MetricsService;
+import com.trackops.server.domain.model.dlq.DlqOrder;
+import com.trackops.server.ports.output.events.dlq.DlqEventRepublisher;
+import com.trackops.server.ports.output.persistence.dlq.DlqOrderRepository;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Redrives dlq_orders rows back to Kafka in bulk.
+ * <p>
+ * Each pass claims due rows a page at a time (SKIP LOCKED, earliest next_retry_at first), so replicas split the
+ * backlog; claimed rows are PROCESSING until the claim expires and become due again if this replica dies. Rows
+ * are republished at no more than {@code rate-per-second} so a large backlog does not flood the consumers, the
+ * sends of a page are awaited together, and the outcome is written back with one UPDATE per outcome: COMPLETED,
+ * or a retry with exponential backoff (PERMANENT_FAILURE after max_retries).
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.dlq.redrive.enabled", havingValue = "true")
+public class DlqRedriveService {
+
+    private final DlqOrderRepository dlqOrderRepository;
+    private final DlqEventRepublisher republisher;
+    private final MetricsService metricsService;
+    private final int pageSize;
+    private final int maxPerPass;
+    private final Duration claimTimeout;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final Duration sendTimeout;
+    private final Bucket rateLimit;
+
+    private volatile DlqRedriveProgress progress = DlqRedriveProgress.idle();
+
+    public DlqRedriveService(DlqOrderRepository dlqOrderRepository,
+                             DlqEventRepublisher republisher,
+                             MetricsService metricsService,
+                             @Value("${app.dlq.redrive.page-size:500}") int pageSize,
+                             @Value("${app.dlq.redrive.max-per-pass:100000}") int maxPerPass,
+                             @Value("${app.dlq.redrive.rate-per-second:500}") long ratePerSecond,
+                             @Value("${app.dlq.redrive.claim-timeout-ms:300000}") long claimTimeoutMs,
+                             @Value("${app.dlq.redrive.base-backoff-ms:60000}") long baseBackoffMs,
+                             @Value("${app.dlq.redrive.max-backoff-ms:3600000}") long maxBackoffMs,
+                             @Value("${app.dlq.redrive.send-timeout-ms:30000}") long sendTimeoutMs) {
+        this.dlqOrderRepository = dlqOrderRepository;
+        this.republisher = republisher;
+        this.metricsService = metricsService;
+        this.pageSize = pageSize;
+        this.maxPerPass = maxPerPass;
+        this.claimTimeout = Duration.ofMillis(claimTimeoutMs);
+        this.baseBackoff = Duration.ofMillis(baseBackoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+        this.sendTimeout = Duration.ofMillis(sendTimeoutMs);
+        this.rateLimit = Bucket.builder()
+                .addLimit(Bandwidth.classic(ratePerSecond, Refill.greedy(ratePerSecond, Duration.ofSeconds(1))))
+                .build();
+    }
+
+    /**
+     * One redrive pass: pages until nothing is due, a page comes back short, or {@code max-per-pass} rows
+     * were claimed.
+     */
+    @Scheduled(fixedDelayString = "${app.dlq.redrive.interval-ms:30000}")
+    public void redrive() {
+        long due = dlqOrderRepository.countDue(LocalDateTime.now());
+        metricsService.setDlqRedriveBacklog(due);
+        if (due == 0) {
+            return;
+        }
+        Instant startedAt = Instant.now();
+        progress = new DlqRedriveProgress(true, startedAt, null, due, 0, 0, 0, due);
+        log.info("DLQ redrive started: {} rows due", due);
+        try {
+            int claimed;
+            do {
+                claimed = redrivePage();
+            } while (claimed == pageSize && progress.claimed() < maxPerPass);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("DLQ redrive interrupted; claimed rows become due again when their claim expires");
+        } catch (Exception e) {
+            log.error("DLQ redrive pass failed: {}", e.getMessage(), e);
+        } finally {
+            long remaining = dlqOrderRepository.countDue(LocalDateTime.now());
+            metricsService.setDlqRedriveBacklog(remaining);
+            DlqRedriveProgress last = progress;
+            progress = new DlqRedriveProgress(false, startedAt, Instant.now(), last.dueAtStart(), last.claimed(),
+                    last.republished(), last.failed(), remaining);
+            log.info("DLQ redrive finished in {} s: {} republished, {} failed, {} still due",
+                    Duration.between(startedAt, Instant.now()).toSeconds(), last.republished(), last.failed(),
+                    remaining);
+        }
+    }
+
+    public DlqRedriveProgress progress() {
+        return progress;
+    }
+
+    /**
+     * Claim, republish and settle one page. Returns the number of rows claimed.
+     */
+    int redrivePage() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        List<DlqOrder> page = dlqOrderRepository.claimDue(now, now.plus(claimTimeout), pageSize);
+        if (page.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<Void>> sends = new ArrayList<>(page.size());
+        for (DlqOrder row : page) {
+            rateLimit.asBlocking().consume(1);
+            sends.add(republisher.republish(row));
+        }
+
+        List<UUID> republished = new ArrayList<>(page.size());
+        Map<String, List<UUID>> failedByError = new LinkedHashMap<>();
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        for (int i = 0; i < page.size(); i++) {
+            UUID id = page.get(i).getId();
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                republished.add(id);
+            } catch (ExecutionException e) {
+                failedByError.computeIfAbsent(errorOf(e.getCause()), k -> new ArrayList<>()).add(id);
+            } catch (TimeoutException e) {
+                failedByError.computeIfAbsent("Redrive send timed out", k -> new ArrayList<>()).add(id);
+            }
+        }
+
+        if (!republished.isEmpty()) {
+            dlqOrderRepository.markCompleted(republished);
+        }
+        LocalDateTime settledAt = LocalDateTime.now();
+        failedByError.forEach((error, ids) ->
+                dlqOrderRepository.markRetryFailed(ids, settledAt, error, baseBackoff, maxBackoff));
+
+        int failed = page.size() - republished.size();
+        metricsService.recordDlqRedrive("republished", republished.size());
+        metricsService.recordDlqRedrive("failed", failed);
+        DlqRedriveProgress current = progress;
+        progress = new DlqRedriveProgress(true, current.startedAt(), null, current.dueAtStart(),
+                current.claimed() + page.size(), current.republished() + republished.size(),
+                current.failed() + failed, Math.max(0, current.remainingDue() - page.size()));
+        log.debug("DLQ redrive page: {} claimed, {} republished, {} failed", page.size(), republished.size(), failed);
+        return page.size();
+    }
+
+    private static String errorOf(Throwable cause) {
+        String message = cause != null ? cause.getClass().getSimpleName() + ": " + cause.getMessage() : "Unknown error";
+        return "Redrive failed: " + message;
+    }
+}
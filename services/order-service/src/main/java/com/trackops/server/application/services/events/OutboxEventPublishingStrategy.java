@@ -1,30 +1,62 @@
 package com.trackops.server.application.services.events;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trackops.server.application.services.outbox.OutboxPayloadEncoder;
+import com.trackops.server.domain.events.orders.OrderCancelledEvent;
+import com.trackops.server.domain.events.orders.OrderCreatedEvent;
+import com.trackops.server.domain.events.orders.OrderEvent;
+import com.trackops.server.domain.events.orders.OrderStatusUpdatedEvent;
+import com.trackops.server.domain.model.enums.OrderStatus;
 import com.trackops.server.domain.model.orders.Order;
 import com.trackops.server.domain.model.outbox.OutboxEvent;
 import com.trackops.server.ports.output.persistence.OutboxEventRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
 /**
  * Outbox Pattern implementation for event publishing.
  * Publishes events to outbox table for reliable delivery.
+ * <p>
+ * Each method builds one domain event; its JSON and (with {@code app.outbox.payload-format=avro}) binary
+ * payloads are both written from it by {@link OutboxPayloadEncoder}.
+ * <p>
+ * The event relay sends every row to the topic named after its event type; it does not publish to the
+ * consolidated order events topic. Startup therefore fails if that topic is enabled with its per-type listeners
+ * turned off, which would leave the outbox events unconsumed.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class OutboxEventPublishingStrategy implements EventPublishingStrategy {
     
+    // Order has no record of who created or cancelled it; same default as the Debezium path
+    private static final String SYSTEM_ACTOR = "system";
+    
     private final OutboxEventRepository outboxEventRepository;
-    private final ObjectMapper objectMapper;
+    private final OutboxPayloadEncoder outboxPayloadEncoder;
     
     @Value("${app.event-publishing.strategy:outbox}")
     private String eventPublishingStrategy;
     
+    @Value("${app.kafka.order-events-topic.enabled:false}")
+    private boolean orderEventsTopicEnabled;
+    
+    @Value("${app.kafka.order-events-topic.per-type-listeners:true}")
+    private boolean perTypeListeners;
+    
+    @PostConstruct
+    void checkOrderEventsTopic() {
+        if (isEnabled() && orderEventsTopicEnabled && !perTypeListeners) {
+            throw new IllegalStateException("app.event-publishing.strategy=outbox publishes to the per-type topics only: "
+                + "keep app.kafka.order-events-topic.per-type-listeners=true or use strategy=debezium");
+        }
+    }
+    
     @Override
     public void publishOrderCreated(Order order) {
         if (!isEnabled()) {
@@ -32,21 +64,8 @@ public class OutboxEventPublishingStrategy implements EventPublishingStrategy {
             return;
         }
         
-        try {
-            String payload = objectMapper.writeValueAsString(order);
-            OutboxEvent event = OutboxEvent.builder()
-                .aggregateId(order.getId().toString())
-                .eventType("ORDER_CREATED")
-                .payload(payload)
-                .partitionKey(order.getId().toString())
-                .build();
-            
-            outboxEventRepository.save(event);
-            log.info("Published ORDER_CREATED event for order: {}", order.getId());
-        } catch (JsonProcessingException e) {
-            log.error("Failed to serialize order for event publishing", e);
-            throw new RuntimeException("Failed to publish order created event", e);
-        }
+        save(order, new OrderCreatedEvent(order.getId(), SYSTEM_ACTOR));
+        log.info("Published ORDER_CREATED event for order: {}", order.getId());
     }
     
     @Override
@@ -56,27 +75,9 @@ public class OutboxEventPublishingStrategy implements EventPublishingStrategy {
             return;
         }
         
-        try {
-            String payload = objectMapper.writeValueAsString(new OrderStatusUpdateEvent(
-                order.getId().toString(),
-                order.getStatus().toString(),
-                previousStatus,
-                order.getUpdatedAt().atZone(java.time.ZoneId.systemDefault()).toLocalDateTime()
-            ));
-            
-            OutboxEvent event = OutboxEvent.builder()
-                .aggregateId(order.getId().toString())
-                .eventType("ORDER_STATUS_UPDATED")
-                .payload(payload)
-                .partitionKey(order.getId().toString())
-                .build();
-            
-            outboxEventRepository.save(event);
-            log.info("Published ORDER_STATUS_UPDATED event for order: {}", order.getId());
-        } catch (JsonProcessingException e) {
-            log.error("Failed to serialize order status update for event publishing", e);
-            throw new RuntimeException("Failed to publish order status updated event", e);
-        }
+        save(order, new OrderStatusUpdatedEvent(order.getId(), OrderStatus.valueOf(previousStatus), order.getStatus(),
+            order.getVersion()));
+        log.info("Published ORDER_STATUS_UPDATED event for order: {}", order.getId());
     }
     
     @Override
@@ -86,21 +87,11 @@ public class OutboxEventPublishingStrategy implements EventPublishingStrategy {
             return;
         }
         
-        try {
-            String payload = objectMapper.writeValueAsString(order);
-            OutboxEvent event = OutboxEvent.builder()
-                .aggregateId(order.getId().toString())
-                .eventType("ORDER_CANCELLED")
-                .payload(payload)
-                .partitionKey(order.getId().toString())
-                .build();
-            
-            outboxEventRepository.save(event);
-            log.info("Published ORDER_CANCELLED event for order: {}", order.getId());
-        } catch (JsonProcessingException e) {
-            log.error("Failed to serialize order for cancellation event publishing", e);
-            throw new RuntimeException("Failed to publish order cancelled event", e);
-        }
+        LocalDateTime cancelledAt = order.getUpdatedAt() != null
+            ? order.getUpdatedAt().atZone(ZoneId.systemDefault()).toLocalDateTime()
+            : LocalDateTime.now();
+        save(order, new OrderCancelledEvent(order.getId(), SYSTEM_ACTOR, "Order cancelled", cancelledAt));
+        log.info("Published ORDER_CANCELLED event for order: {}", order.getId());
     }
     
     @Override
@@ -108,11 +99,13 @@ public class OutboxEventPublishingStrategy implements EventPublishingStrategy {
         return "outbox".equalsIgnoreCase(eventPublishingStrategy);
     }
     
-    // Inner class for order status update event
-    private record OrderStatusUpdateEvent(
-        String orderId,
-        String newStatus,
-        String previousStatus,
-        java.time.LocalDateTime updatedAt
-    ) {}
+    private void save(Order order, OrderEvent orderEvent) {
+        OutboxEvent event = outboxPayloadEncoder.encode(OutboxEvent.builder()
+            .aggregateId(order.getId().toString())
+            .eventType(orderEvent.getEventType())
+            .partitionKey(order.getId().toString()),
+            orderEvent)
+            .build();
+        outboxEventRepository.save(event);
+    }
 }
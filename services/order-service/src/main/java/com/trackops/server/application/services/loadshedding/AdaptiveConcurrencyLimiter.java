@@ -0,0 +1,207 @@
+package com.trackops.server.application.services.loadshedding;
+
+import com.trackops.server.adapters.output.monitoring.MetricsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive limit on the number of requests the service processes at once.
+ * <p>
+ * The limit follows the gradient between the long-term (baseline) and short-term request latency. Latency is
+ * sampled in windows of at least {@code app.load-shedding.window-ms} and {@code window-min-samples} requests;
+ * at the end of each window:
+ * <pre>
+ *   gradient = clamp(tolerance * longRtt / shortRtt, 0.5, 1.0)
+ *   limit    = smooth(limit * gradient + sqrt(limit))
+ * </pre>
+ * While latency stays within {@code tolerance} of the baseline the limit grows by its square root per window;
+ * when Postgres or Redis slows down the gradient drops and so does the limit, before Tomcat threads and the
+ * Hikari pool are exhausted. A window containing failed requests (5xx or exceptions) cuts the limit by
+ * {@code backoff-ratio} instead (AIMD decrease), because fast failures would otherwise look like good latency.
+ * The limit does not grow while fewer than half of it is in use, so an idle service does not inflate it.
+ * <p>
+ * Priority requests (health and actuator) may use {@code priority-reserve} slots above the limit and are not
+ * sampled, so probes keep answering while regular traffic is shed.
+ */
+@Service
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double MAX_GRADIENT = 1.0;
+    private static final double SMOOTHING = 0.2;
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int priorityReserve;
+    private final double tolerance;
+    private final double backoffRatio;
+    private final long windowNanos;
+    private final int windowMinSamples;
+    private final double longRttAlpha;
+    private final MetricsService metricsService;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Window state, guarded by this (the RTT fields are volatile for the gauges)
+    private double estimatedLimit;
+    private volatile double longRttNanos;
+    private volatile double shortRttNanos;
+    private long windowStartNanos = System.nanoTime();
+    private long windowRttSumNanos;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private boolean windowDropped;
+
+    public AdaptiveConcurrencyLimiter(
+            MetricsService metricsService,
+            @Value("${app.load-shedding.enabled:true}") boolean enabled,
+            @Value("${app.load-shedding.initial-limit:20}") int initialLimit,
+            @Value("${app.load-shedding.min-limit:4}") int minLimit,
+            @Value("${app.load-shedding.max-limit:200}") int maxLimit,
+            @Value("${app.load-shedding.priority-reserve:10}") int priorityReserve,
+            @Value("${app.load-shedding.tolerance:1.5}") double tolerance,
+            @Value("${app.load-shedding.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${app.load-shedding.window-ms:100}") long windowMs,
+            @Value("${app.load-shedding.window-min-samples:10}") int windowMinSamples,
+            @Value("${app.load-shedding.long-window:100}") int longWindow) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException(
+                "app.load-shedding limits must satisfy 1 <= min-limit <= max-limit, got " + minLimit + ".." + maxLimit);
+        }
+        this.metricsService = metricsService;
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.priorityReserve = Math.max(0, priorityReserve);
+        this.tolerance = Math.max(1.0, tolerance);
+        this.backoffRatio = Math.min(Math.max(backoffRatio, 0.5), 1.0);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.windowMinSamples = Math.max(1, windowMinSamples);
+        this.longRttAlpha = 2.0 / (Math.max(1, longWindow) + 1);
+        this.estimatedLimit = Math.min(Math.max(initialLimit, minLimit), maxLimit);
+        this.limit = (int) estimatedLimit;
+
+        metricsService.registerConcurrencyLimitGauges(
+            () -> limit, inFlight::get, () -> longRttNanos / 1e9, () -> shortRttNanos / 1e9);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Takes a slot if the number of requests in flight is below the limit ({@code limit + priority-reserve}
+     * for priority requests). The returned permit must be released when the request completes.
+     */
+    public Optional<Permit> tryAcquire(boolean priority) {
+        int cap = priority ? limit + priorityReserve : limit;
+        while (true) {
+            int current = inFlight.get();
+            if (current >= cap) {
+                metricsService.recordConcurrencyLimitRejection(priority);
+                return Optional.empty();
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return Optional.of(new Permit(priority, current + 1, System.nanoTime()));
+            }
+        }
+    }
+
+    synchronized void onSample(long now, long rttNanos, int inFlightAtStart, boolean dropped) {
+        windowRttSumNanos += rttNanos;
+        windowSamples++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtStart);
+        windowDropped |= dropped;
+        if (windowSamples < windowMinSamples || now - windowStartNanos < windowNanos) {
+            return;
+        }
+        double sampleRtt = (double) windowRttSumNanos / windowSamples;
+        int maxInFlight = windowMaxInFlight;
+        boolean anyDropped = windowDropped;
+        windowStartNanos = now;
+        windowRttSumNanos = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+        windowDropped = false;
+        updateLimit(sampleRtt, maxInFlight, anyDropped);
+    }
+
+    private void updateLimit(double sampleRtt, int maxInFlight, boolean dropped) {
+        double previous = estimatedLimit;
+        shortRttNanos = sampleRtt;
+        if (dropped) {
+            estimatedLimit = Math.max(minLimit, estimatedLimit * backoffRatio);
+        } else {
+            if (longRttNanos == 0) {
+                longRttNanos = sampleRtt;
+            } else {
+                longRttNanos += longRttAlpha * (sampleRtt - longRttNanos);
+            }
+            // Latency recovered well below the baseline (e.g. after an incident): let the baseline catch up
+            if (longRttNanos / sampleRtt > 2) {
+                longRttNanos *= 0.95;
+            }
+            if (maxInFlight < estimatedLimit / 2) {
+                return;
+            }
+            double gradient = Math.max(MIN_GRADIENT, Math.min(MAX_GRADIENT, tolerance * longRttNanos / sampleRtt));
+            double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            estimatedLimit = estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING;
+            estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit));
+        }
+        int newLimit = (int) estimatedLimit;
+        if (newLimit != limit) {
+            logger.debug("Concurrency limit {} -> {} (short rtt {} ms, long rtt {} ms, dropped {})",
+                (int) previous, newLimit, sampleRtt / 1e6, longRttNanos / 1e6, dropped);
+            limit = newLimit;
+        }
+    }
+
+    /**
+     * A slot held by one in-flight request.
+     */
+    public final class Permit {
+        private final boolean priority;
+        private final int inFlightAtStart;
+        private final long startNanos;
+        private boolean released;
+
+        private Permit(boolean priority, int inFlightAtStart, long startNanos) {
+            this.priority = priority;
+            this.inFlightAtStart = inFlightAtStart;
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Frees the slot and feeds the request's latency into the limit; {@code dropped} marks a failed request.
+         */
+        public void release(boolean dropped) {
+            if (released) {
+                return;
+            }
+            released = true;
+            inFlight.decrementAndGet();
+            if (!priority) {
+                long now = System.nanoTime();
+                onSample(now, now - startNanos, inFlightAtStart, dropped);
+            }
+        }
+    }
+}
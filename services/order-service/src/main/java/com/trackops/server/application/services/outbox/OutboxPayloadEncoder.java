@@ -0,0 +1,123 @@
+package com.trackops.server.application.services.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trackops.server.config.AvroEventConverter;
+import com.trackops.server.domain.events.orders.OrderCancelledEvent;
+import com.trackops.server.domain.events.orders.OrderCreatedEvent;
+import com.trackops.server.domain.events.orders.OrderDeliveredEvent;
+import com.trackops.server.domain.events.orders.OrderEvent;
+import com.trackops.server.domain.events.orders.OrderStatusUpdatedEvent;
+import com.trackops.server.domain.model.outbox.OutboxEvent;
+import com.trackops.server.domain.model.outbox.OutboxPayloadFormat;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.common.serialization.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes outbox payloads in the format selected by {@code app.outbox.payload-format}.
+ * <p>
+ * With {@code avro} the event is serialized once, when it is written, into the exact Kafka record value
+ * (Confluent wire format: magic byte, 4-byte schema ID, Avro binary). The event relay then sends those bytes
+ * without parsing anything, so its cost per event no longer depends on the schema. The JSON payload is written
+ * in both formats, for inspection and as the fallback the relay converts when there are no bytes. Both payloads
+ * are built from the same Avro record, so whichever one the relay sends carries the same field values.
+ */
+@Component
+public class OutboxPayloadEncoder {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxPayloadEncoder.class);
+
+    private static final byte MAGIC_BYTE = 0x0;
+
+    private final OutboxPayloadFormat format;
+    private final Serializer<GenericRecord> serializer;
+    private final AvroEventConverter avroEventConverter;
+    private final ObjectMapper objectMapper;
+
+    public OutboxPayloadEncoder(@Value("${app.outbox.payload-format:json}") String format,
+                                @Qualifier("outboxPayloadSerializer") Serializer<GenericRecord> serializer,
+                                AvroEventConverter avroEventConverter,
+                                ObjectMapper objectMapper) {
+        this.format = OutboxPayloadFormat.valueOf(format.trim().toUpperCase());
+        this.serializer = serializer;
+        this.avroEventConverter = avroEventConverter;
+        this.objectMapper = objectMapper;
+    }
+
+    public OutboxPayloadFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Sets the JSON payload and the payload format of {@code event}, and with {@code avro} the serialized record
+     * value and its schema ID, serialized for the topic named by its event type.
+     * If the event cannot be serialized (e.g. the registry is unreachable and the schema ID is not cached yet),
+     * the row is written as JSON only and the relay converts it as before; the business transaction never fails
+     * because of the binary payload.
+     */
+    public OutboxEvent.OutboxEventBuilder encode(OutboxEvent.OutboxEventBuilder builder, OrderEvent event) {
+        GenericRecord record = toAvro(event);
+        builder.payload(toJson(record));
+        if (format == OutboxPayloadFormat.JSON) {
+            return builder.payloadFormat(OutboxPayloadFormat.JSON);
+        }
+        try {
+            byte[] value = serializer.serialize(event.getEventType(), record);
+            return builder.payloadFormat(OutboxPayloadFormat.AVRO)
+                .payloadBytes(value)
+                .schemaId(schemaId(value));
+        } catch (RuntimeException e) {
+            log.warn("Could not pre-serialize outbox payload, writing JSON payload only: {}", e.getMessage());
+            return builder.payloadFormat(OutboxPayloadFormat.JSON);
+        }
+    }
+
+    /**
+     * Schema ID of a value in Confluent wire format.
+     */
+    static int schemaId(byte[] value) {
+        if (value == null || value.length < 5 || value[0] != MAGIC_BYTE) {
+            throw new IllegalArgumentException("Not a Confluent wire-format value");
+        }
+        return ByteBuffer.wrap(value, 1, 4).getInt();
+    }
+
+    /**
+     * The record's fields as a flat JSON object, the shape the relay's JSON-to-Avro converter reads back.
+     */
+    private String toJson(GenericRecord record) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (Schema.Field field : record.getSchema().getFields()) {
+            Object value = record.get(field.pos());
+            fields.put(field.name(), value instanceof CharSequence text ? text.toString() : value);
+        }
+        try {
+            return objectMapper.writeValueAsString(fields);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to write outbox JSON payload", e);
+        }
+    }
+
+    private GenericRecord toAvro(OrderEvent event) {
+        if (event instanceof OrderCreatedEvent created) {
+            return avroEventConverter.toAvro(created);
+        } else if (event instanceof OrderStatusUpdatedEvent updated) {
+            return avroEventConverter.toAvro(updated);
+        } else if (event instanceof OrderDeliveredEvent delivered) {
+            return avroEventConverter.toAvro(delivered);
+        } else if (event instanceof OrderCancelledEvent cancelled) {
+            return avroEventConverter.toAvro(cancelled);
+        }
+        throw new IllegalArgumentException("Unknown event type: " + event.getClass().getName());
+    }
+}
@@ -1,92 +1,231 @@
 package com.trackops.server.application.services.ratelimit;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
 import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
 import io.github.bucket4j.Refill;
 import io.github.bucket4j.distributed.proxy.ProxyManager;
+import com.trackops.server.adapters.output.monitoring.MetricsService;
+import com.trackops.server.config.RateLimitConfig.BucketFamily;
 import com.trackops.server.config.RateLimitConfig.RateLimitProperties;
+import com.trackops.server.config.RateLimitConfig.RouteCost;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.server.PathContainer;
 import org.springframework.stereotype.Service;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service for managing rate limiting using Bucket4j with Redis.
  * Provides distributed rate limiting across multiple service instances.
+ * <p>
+ * Each replica leases tokens from the shared Redis bucket in chunks of {@code app.rate-limit.lease.chunk-size}
+ * with a single {@code tryConsumeAndReturnRemaining} call and serves the following requests of that client
+ * from local memory, so a client costs one Redis round trip per chunk instead of two per request.
+ * Leased tokens are taken from the shared bucket up front, so the limit is never exceeded; a replica can
+ * hold back at most {@code chunk-size - 1} unused tokens per client, which is the accuracy bound. A rejection
+ * is answered locally until the bucket refills (at most one second) before Redis is asked again. Leases live in
+ * a local cache bounded by {@code app.rate-limit.lease.max-clients} and {@code app.rate-limit.lease.idle-timeout-ms}.
+ * <p>
+ * Requests cost tokens per route ({@code app.rate-limit.routes}), and a route can draw from its own bucket
+ * family ({@code app.rate-limit.families}) so expensive queries are throttled separately from cheap reads.
+ * Route patterns and the bucket configuration of every family are compiled once at startup.
  */
 @Service
 public class RateLimitService {
 
     private static final Logger logger = LoggerFactory.getLogger(RateLimitService.class);
     private static final String RATE_LIMIT_KEY_PREFIX = "rate_limit:";
+    private static final long MAX_LOCAL_REJECTION_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final String DEFAULT_FAMILY = "default";
+    private static final Route DEFAULT_ROUTE = new Route(null, null, DEFAULT_FAMILY, 1);
 
     private final ProxyManager<String> proxyManager;
     private final RateLimitProperties properties;
+    private final MetricsService metricsService;
+    private final Map<String, Family> families = new HashMap<>();
+    private final List<Route> routes;
+    private final Cache<String, TokenLease> leases;
 
     public RateLimitService(
             ProxyManager<String> proxyManager,
-            RateLimitProperties properties) {
+            RateLimitProperties properties,
+            MetricsService metricsService) {
         this.proxyManager = proxyManager;
         this.properties = properties;
+        this.metricsService = metricsService;
+        // Keyed by client: bounded, so a flood of distinct client IDs cannot grow it without limit. A dropped
+        // lease's unused tokens (fewer than one chunk) stay consumed in the shared bucket until it refills.
+        this.leases = Caffeine.newBuilder()
+                .maximumSize(properties.getLeaseMaxClients())
+                .expireAfterAccess(Duration.ofMillis(properties.getLeaseIdleTimeoutMs()))
+                .build();
+        families.put(DEFAULT_FAMILY, new Family(DEFAULT_FAMILY, properties.getDefaultRequestsPerHour(),
+                createBucketConfiguration(properties.getDefaultRequestsPerHour(), properties.getBurstCapacity())));
+        for (BucketFamily family : properties.getFamilies().values()) {
+            families.put(family.name(), new Family(family.name(), family.tokensPerHour(),
+                    createBucketConfiguration(family.tokensPerHour(), family.burstCapacity())));
+        }
+        PathPatternParser parser = new PathPatternParser();
+        this.routes = properties.getRoutes().stream().map(route -> compile(route, parser)).toList();
     }
 
     /**
-     * Checks if a request is allowed based on the client identifier.
+     * Checks if a request is allowed based on the client identifier, at a cost of one token from the
+     * default bucket.
      * 
      * @param clientId The client identifier (IP address, API key, etc.)
      * @return RateLimitResult containing whether the request is allowed and rate limit info
      */
     public RateLimitResult checkRateLimit(String clientId) {
+        return checkRateLimit(clientId, DEFAULT_ROUTE);
+    }
+
+    /**
+     * Checks if a request is allowed, charging the token cost of the first route that matches
+     * {@code method} and {@code path} against the client's bucket of that route's family.
+     * Unmatched requests cost one token from the default bucket.
+     */
+    public RateLimitResult checkRateLimit(String clientId, String method, String path) {
+        return checkRateLimit(clientId, resolveRoute(method, path));
+    }
+
+    private RateLimitResult checkRateLimit(String clientId, Route route) {
+        Family family = families.get(route.family());
+        long capacity = family.tokensPerHour();
+        long resetTime = System.currentTimeMillis() / 1000 + 3600; // Reset in 1 hour
         if (!properties.isEnabled()) {
-            return RateLimitResult.allowed(properties.getDefaultRequestsPerHour(), 
-                    properties.getDefaultRequestsPerHour(), 
-                    System.currentTimeMillis() / 1000 + 3600);
+            return RateLimitResult.allowed(capacity, capacity, resetTime, route.cost());
         }
 
         try {
-            String key = RATE_LIMIT_KEY_PREFIX + clientId;
-            BucketConfiguration configuration = createBucketConfiguration();
-            Bucket bucket = proxyManager.getProxy(key, () -> configuration);
-
-            boolean allowed = bucket.tryConsume(1);
-            long availableTokens = bucket.getAvailableTokens();
-            long capacity = properties.getDefaultRequestsPerHour();
-            long resetTime = System.currentTimeMillis() / 1000 + 3600; // Reset in 1 hour
-
-            if (allowed) {
-                logger.debug("Rate limit check passed for client: {}, remaining: {}", 
-                        clientId, availableTokens);
-                return RateLimitResult.allowed(capacity, availableTokens, resetTime);
+            TokenLease lease = leases.get(leaseKey(family, clientId), key ->
+                    new TokenLease(proxyManager.getProxy(RATE_LIMIT_KEY_PREFIX + key, family::configuration)));
+            Decision decision = lease.tryConsume(route.cost());
+            metricsService.recordRateLimitDecision(family.name(), decision.remote() ? "remote" : "local",
+                    decision.allowed());
+
+            if (decision.allowed()) {
+                logger.debug("Rate limit check passed for client: {}, family: {}, cost: {}, remaining: {}", 
+                        clientId, family.name(), route.cost(), decision.remaining());
+                return RateLimitResult.allowed(capacity, decision.remaining(), resetTime, route.cost());
             } else {
-                logger.warn("Rate limit exceeded for client: {}, capacity: {}", 
-                        clientId, capacity);
-                return RateLimitResult.exceeded(capacity, 0, resetTime);
+                logger.warn("Rate limit exceeded for client: {}, family: {}, capacity: {}", 
+                        clientId, family.name(), capacity);
+                return RateLimitResult.exceeded(capacity, 0, resetTime, route.cost());
             }
         } catch (Exception e) {
             logger.error("Error checking rate limit for client: {}", clientId, e);
             // Fail open - allow request if rate limit check fails
-            return RateLimitResult.allowed(properties.getDefaultRequestsPerHour(), 
-                    properties.getDefaultRequestsPerHour(), 
-                    System.currentTimeMillis() / 1000 + 3600);
+            return RateLimitResult.allowed(capacity, capacity, resetTime, route.cost());
+        }
+    }
+
+    private Route resolveRoute(String method, String path) {
+        if (routes.isEmpty()) {
+            return DEFAULT_ROUTE;
+        }
+        PathContainer container = PathContainer.parsePath(path);
+        for (Route route : routes) {
+            if ((route.method() == null || route.method().equalsIgnoreCase(method))
+                    && route.pattern().matches(container)) {
+                return route;
+            }
+        }
+        return DEFAULT_ROUTE;
+    }
+
+    private Route compile(RouteCost route, PathPatternParser parser) {
+        if (!families.containsKey(route.family())) {
+            throw new IllegalStateException("Rate limit route " + route.method() + " " + route.pattern()
+                    + " uses unknown bucket family '" + route.family() + "'");
         }
+        String method = "*".equals(route.method()) ? null : route.method();
+        return new Route(method, parser.parse(route.pattern()), route.family(), Math.max(1, route.cost()));
+    }
+
+    // The default family keeps the original key layout, so existing buckets carry over
+    private static String leaseKey(Family family, String clientId) {
+        return DEFAULT_FAMILY.equals(family.name()) ? clientId : family.name() + ":" + clientId;
     }
 
     /**
-     * Creates the bucket configuration with the default rate limit settings.
+     * Creates the bucket configuration for a family. Built once per family; every client bucket shares it.
      */
-    private BucketConfiguration createBucketConfiguration() {
+    private static BucketConfiguration createBucketConfiguration(long tokensPerHour, long burstCapacity) {
         Bandwidth bandwidth = Bandwidth.classic(
-                properties.getDefaultRequestsPerHour(),
-                Refill.intervally(properties.getDefaultRequestsPerHour(), Duration.ofHours(1))
-        ).withInitialTokens(properties.getBurstCapacity());
+                tokensPerHour,
+                Refill.intervally(tokensPerHour, Duration.ofHours(1))
+        ).withInitialTokens(burstCapacity);
         
         return BucketConfiguration.builder()
                 .addLimit(bandwidth)
                 .build();
     }
 
+    /**
+     * One client's view of its shared bucket on this replica.
+     */
+    private final class TokenLease {
+        private final Bucket bucket;
+        private long localTokens;       // taken from the shared bucket, not used yet
+        private long remoteRemaining;   // shared bucket's remaining tokens at the last remote call
+        private long rejectUntilNanos;
+
+        private TokenLease(Bucket bucket) {
+            this.bucket = bucket;
+        }
+
+        synchronized Decision tryConsume(long tokens) {
+            long now = System.nanoTime();
+            if (localTokens >= tokens) {
+                localTokens -= tokens;
+                return new Decision(true, false, remoteRemaining + localTokens);
+            }
+            if (now - rejectUntilNanos < 0) {
+                return new Decision(false, false, remoteRemaining + localTokens);
+            }
+
+            // One remote call takes what this request still needs plus a chunk for the next requests
+            long needed = tokens - localTokens;
+            long lease = needed + properties.getLeaseChunkSize() - 1;
+            ConsumptionProbe probe = consumeRemote(lease);
+            if (!probe.isConsumed() && lease > needed && probe.getRemainingTokens() >= needed) {
+                // Bucket is almost empty: take only what this request needs
+                lease = needed;
+                probe = consumeRemote(lease);
+            }
+            remoteRemaining = probe.getRemainingTokens();
+            if (!probe.isConsumed()) {
+                rejectUntilNanos = now + Math.min(probe.getNanosToWaitForRefill(), MAX_LOCAL_REJECTION_NANOS);
+                return new Decision(false, true, remoteRemaining + localTokens);
+            }
+            localTokens += lease - tokens;
+            return new Decision(true, true, remoteRemaining + localTokens);
+        }
+
+        private ConsumptionProbe consumeRemote(long tokens) {
+            metricsService.recordRateLimitRemoteCall();
+            return bucket.tryConsumeAndReturnRemaining(tokens);
+        }
+    }
+
+    private record Decision(boolean allowed, boolean remote, long remaining) {}
+
+    private record Family(String name, long tokensPerHour, BucketConfiguration configuration) {}
+
+    private record Route(String method, PathPattern pattern, String family, long cost) {}
+
     /**
      * Result of a rate limit check.
      */
@@ -95,20 +234,30 @@ public class RateLimitService {
         private final long limit;
         private final long remaining;
         private final long resetTime;
+        private final long cost;
 
-        private RateLimitResult(boolean allowed, long limit, long remaining, long resetTime) {
+        private RateLimitResult(boolean allowed, long limit, long remaining, long resetTime, long cost) {
             this.allowed = allowed;
             this.limit = limit;
             this.remaining = remaining;
             this.resetTime = resetTime;
+            this.cost = cost;
         }
 
         public static RateLimitResult allowed(long limit, long remaining, long resetTime) {
-            return new RateLimitResult(true, limit, remaining, resetTime);
+            return allowed(limit, remaining, resetTime, 1);
+        }
+
+        public static RateLimitResult allowed(long limit, long remaining, long resetTime, long cost) {
+            return new RateLimitResult(true, limit, remaining, resetTime, cost);
         }
 
         public static RateLimitResult exceeded(long limit, long remaining, long resetTime) {
-            return new RateLimitResult(false, limit, remaining, resetTime);
+            return exceeded(limit, remaining, resetTime, 1);
+        }
+
+        public static RateLimitResult exceeded(long limit, long remaining, long resetTime, long cost) {
+            return new RateLimitResult(false, limit, remaining, resetTime, cost);
         }
 
         public boolean isAllowed() {
@@ -126,5 +275,9 @@ public class RateLimitService {
         public long getResetTime() {
             return resetTime;
         }
+
+        public long getCost() {
+            return cost;
+        }
     }
 }
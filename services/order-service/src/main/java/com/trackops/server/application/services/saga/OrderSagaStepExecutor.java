@@ -11,7 +11,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 
 @Service
 public class OrderSagaStepExecutor {
@@ -20,50 +23,24 @@ public class OrderSagaStepExecutor {
     
     private final OrderRepository orderRepository;
     private final OrderEventProducer orderEventProducer;
+    private final Map<String, StepHandler> handlers;
 
     public OrderSagaStepExecutor(OrderRepository orderRepository, OrderEventProducer orderEventProducer) {
         this.orderRepository = orderRepository;
         this.orderEventProducer = orderEventProducer;
+        this.handlers = buildHandlers();
     }
 
     public boolean executeStep(SagaStepEntity step, SagaInstance sagaInstance) {
         try {
             log.info("Executing step: {} for order: {}", step.getStepName(), sagaInstance.getAggregateId());
             
-            UUID orderId = UUID.fromString(sagaInstance.getAggregateId());
-            
-            switch (step.getStepName()) {
-                case "Validate Order":
-                    return validateOrder(orderId);
-                    
-                case "Reserve Inventory":
-                    return reserveInventory(orderId);
-                    
-                case "Process Payment":
-                    return processPayment(orderId);
-                    
-                case "Update Order Status":
-                    return updateOrderStatus(orderId, OrderStatus.CONFIRMED);
-                    
-                case "Send Notification":
-                    return sendNotification(orderId, "Order confirmed successfully");
-                    
-                case "Cancel Order":
-                    return updateOrderStatus(orderId, OrderStatus.CANCELLED);
-                    
-                case "Release Inventory":
-                    return releaseInventory(orderId);
-                    
-                case "Process Refund":
-                    return processRefund(orderId);
-                    
-                case "Send Cancellation Notification":
-                    return sendNotification(orderId, "Order cancelled successfully");
-                    
-                default:
-                    log.warn("Unknown step: {}", step.getStepName());
-                    return false;
+            StepHandler handler = handlers.get(step.getStepName());
+            if (handler == null) {
+                log.warn("Unknown step: {}", step.getStepName());
+                return false;
             }
+            return handler.action().apply(UUID.fromString(sagaInstance.getAggregateId()));
         } catch (Exception e) {
             log.error("Error executing step {}: {}", step.getStepName(), e.getMessage(), e);
             return false;
@@ -74,46 +51,45 @@ public class OrderSagaStepExecutor {
         try {
             log.info("Executing compensation for step: {} for order: {}", step.getStepName(), sagaInstance.getAggregateId());
             
-            UUID orderId = UUID.fromString(sagaInstance.getAggregateId());
-            
-            switch (step.getStepName()) {
-                case "Validate Order":
-                    return cancelOrder(orderId);
-                    
-                case "Reserve Inventory":
-                    return releaseInventory(orderId);
-                    
-                case "Process Payment":
-                    return processRefund(orderId);
-                    
-                case "Update Order Status":
-                    return revertOrderStatus(orderId);
-                    
-                case "Send Notification":
-                    return sendNotification(orderId, "Order processing failed");
-                    
-                case "Cancel Order":
-                    return restoreOrder(orderId);
-                    
-                case "Release Inventory":
-                    return reserveInventory(orderId);
-                    
-                case "Process Refund":
-                    return processPayment(orderId);
-                    
-                case "Send Cancellation Notification":
-                    return sendNotification(orderId, "Order cancellation failed");
-                    
-                default:
-                    log.warn("Unknown compensation step: {}", step.getStepName());
-                    return false;
+            StepHandler handler = handlers.get(step.getStepName());
+            if (handler == null) {
+                log.warn("Unknown compensation step: {}", step.getStepName());
+                return false;
             }
+            return handler.compensation().apply(UUID.fromString(sagaInstance.getAggregateId()));
         } catch (Exception e) {
             log.error("Error executing compensation for step {}: {}", step.getStepName(), e.getMessage(), e);
             return false;
         }
     }
 
+    /**
+     * Action and compensation for each step, keyed by step name. Built once so dispatch is a map lookup.
+     */
+    private Map<String, StepHandler> buildHandlers() {
+        Map<String, StepHandler> map = new HashMap<>();
+        // Order processing
+        map.put("Validate Order", new StepHandler(this::validateOrder, this::cancelOrder));
+        map.put("Reserve Inventory", new StepHandler(this::reserveInventory, this::releaseInventory));
+        map.put("Process Payment", new StepHandler(this::processPayment, this::processRefund));
+        map.put("Update Order Status", new StepHandler(
+            orderId -> updateOrderStatus(orderId, OrderStatus.CONFIRMED), this::revertOrderStatus));
+        map.put("Send Notification", new StepHandler(
+            orderId -> sendNotification(orderId, "Order confirmed successfully"),
+            orderId -> sendNotification(orderId, "Order processing failed")));
+        // Order cancellation
+        map.put("Cancel Order", new StepHandler(
+            orderId -> updateOrderStatus(orderId, OrderStatus.CANCELLED), this::restoreOrder));
+        map.put("Release Inventory", new StepHandler(this::releaseInventory, this::reserveInventory));
+        map.put("Process Refund", new StepHandler(this::processRefund, this::processPayment));
+        map.put("Send Cancellation Notification", new StepHandler(
+            orderId -> sendNotification(orderId, "Order cancelled successfully"),
+            orderId -> sendNotification(orderId, "Order cancellation failed")));
+        return Map.copyOf(map);
+    }
+
+    private record StepHandler(Function<UUID, Boolean> action, Function<UUID, Boolean> compensation) {}
+
     // Step implementations
     private boolean validateOrder(UUID orderId) {
         try {
@@ -1,10 +1,13 @@
 package com.trackops.server.application.services.saga;
 
+import com.trackops.server.adapters.output.monitoring.MetricsService;
 import com.trackops.server.domain.model.saga.SagaInstance;
 import com.trackops.server.domain.model.saga.SagaStatus;
 import com.trackops.server.ports.output.persistence.saga.SagaRepository;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
@@ -17,48 +20,51 @@ public class SagaManagementService {
     
     private final SagaRepository sagaRepository;
     private final SagaOrchestratorService sagaOrchestratorService;
+    private final MetricsService metricsService;
 
-    public SagaManagementService(SagaRepository sagaRepository, SagaOrchestratorService sagaOrchestratorService) {
+    @Value("${app.saga.recovery.page-size:100}")
+    private int recoveryPageSize;
+
+    @Value("${app.saga.recovery.max-per-pass:1000}")
+    private int recoveryMaxPerPass;
+
+    public SagaManagementService(SagaRepository sagaRepository, SagaOrchestratorService sagaOrchestratorService,
+                                 MetricsService metricsService) {
         this.sagaRepository = sagaRepository;
         this.sagaOrchestratorService = sagaOrchestratorService;
+        this.metricsService = metricsService;
     }
 
     /**
-     * Scheduled task to recover incomplete SAGAs
-     * Runs every 30 seconds
+     * Resume unfinished SAGAs whose driving replica died or could not dispatch them.
+     * Claims leases a page at a time (SKIP LOCKED), so replicas recovering at the same time split the
+     * backlog instead of resuming the same SAGAs, and a pass stops as soon as the worker pool is full.
      */
-    @Scheduled(fixedDelay = 30000)
+    @Scheduled(fixedDelayString = "${app.saga.recovery.interval-ms:5000}")
     public void recoverIncompleteSagas() {
+        Timer.Sample sample = metricsService.startSagaRecoveryTimer();
         try {
-            List<SagaInstance> incompleteSagas = sagaRepository.findIncompleteSagas();
+            long backlog = sagaRepository.countRecoverableSagas();
+            metricsService.setSagaRecoveryBacklog(backlog);
+            if (backlog == 0) {
+                return;
+            }
             
-            if (!incompleteSagas.isEmpty()) {
-                log.info("Found {} incomplete SAGAs, attempting recovery", incompleteSagas.size());
-                
-                for (SagaInstance saga : incompleteSagas) {
-                    try {
-                        log.info("Recovering SAGA: {} with status: {}", saga.getId(), saga.getStatus());
-                        
-                        if (saga.getStatus() == SagaStatus.FAILED && saga.canRetry()) {
-                            saga.incrementRetry();
-                            saga.setStatus(SagaStatus.STARTED);
-                            saga.setCurrentStepIndex(0);
-                            saga.setErrorMessage(null);
-                            sagaRepository.save(saga);
-                            
-                            // Retry the SAGA
-                            sagaOrchestratorService.executeSaga(saga.getId());
-                        } else if (saga.getStatus() == SagaStatus.IN_PROGRESS) {
-                            // Continue execution
-                            sagaOrchestratorService.executeSaga(saga.getId());
-                        }
-                    } catch (Exception e) {
-                        log.error("Error recovering SAGA {}: {}", saga.getId(), e.getMessage(), e);
-                    }
-                }
+            int resumed = 0;
+            int dispatched;
+            do {
+                dispatched = sagaOrchestratorService.resumeRecoverableSagas(recoveryPageSize);
+                resumed += dispatched;
+            } while (dispatched == recoveryPageSize && resumed < recoveryMaxPerPass);
+            
+            metricsService.recordSagasRecovered(resumed);
+            if (resumed > 0) {
+                log.info("Resumed {} of {} recoverable SAGAs", resumed, backlog);
             }
         } catch (Exception e) {
             log.error("Error during SAGA recovery: {}", e.getMessage(), e);
+        } finally {
+            metricsService.recordSagaRecoveryPass(sample);
         }
     }
 
@@ -84,7 +90,8 @@ public class SagaManagementService {
     }
 
     /**
-     * Manually retry a failed SAGA
+     * Manually retry a failed SAGA: a SAGA is FAILED when some of its steps could not be compensated, so
+     * the retry resumes compensation of the steps still COMPLETED
      */
     public boolean retrySaga(String sagaId) {
         try {
@@ -101,11 +108,10 @@ public class SagaManagementService {
                 return false;
             }
             
-            saga.incrementRetry();
-            saga.setStatus(SagaStatus.STARTED);
-            saga.setCurrentStepIndex(0);
-            saga.setErrorMessage(null);
-            sagaRepository.save(saga);
+            if (!sagaRepository.retryCompensation(saga.getId())) {
+                log.warn("SAGA {} changed concurrently, not retried", sagaId);
+                return false;
+            }
             
             sagaOrchestratorService.executeSaga(saga.getId());
             return true;
@@ -1,15 +1,43 @@
 package com.trackops.server.application.services.saga;
 
+import com.trackops.server.adapters.output.monitoring.MetricsService;
 import com.trackops.server.domain.model.saga.*;
 import com.trackops.server.ports.output.persistence.saga.SagaRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
+/**
+ * Persisted, asynchronous saga engine.
+ * <p>
+ * Starting a saga only inserts it; once that transaction commits, its first steps are handed to the bounded
+ * {@code sagaExecutor} pool and the caller returns. Steps declare their dependencies (see
+ * {@link SagaStep#dependsOn}); every step whose dependencies have completed is ready, and ready steps run
+ * in parallel, one worker task each. A worker records the outcome with single-row conditional updates
+ * (see {@link SagaRepository}) and dispatches a continuation that starts whatever became ready. A
+ * transition that finds the row in an unexpected state is a lost race, and the worker backs off, so two
+ * workers never run or overwrite the same step. Compensations are claimed the same way (COMPLETED ->
+ * COMPENSATING), and a claim is only taken over once it outlived the step timeout. A failed step is retried up to the saga's {@code maxRetries}
+ * before the saga is compensated.
+ * <p>
+ * The replica driving a saga holds a lease on it, renewed each time the saga advances and before each
+ * compensation call; the lease must outlast the step timeout, so it cannot lapse mid-call. If the pool is
+ * saturated the lease is dropped straight away; otherwise it lapses when the replica dies. Either way
+ * {@link SagaManagementService} claims the saga on a later recovery pass.
+ */
 @Service
 public class SagaOrchestratorService {
     
@@ -17,11 +45,32 @@ public class SagaOrchestratorService {
     
     private final SagaRepository sagaRepository;
     private final OrderSagaStepExecutor orderSagaStepExecutor;
+    private final TaskExecutor sagaExecutor;
+    private final MetricsService metricsService;
+    private final String leaseOwner;
+    private final Duration leaseDuration;
+    private final Duration stepTimeout;
 
     public SagaOrchestratorService(SagaRepository sagaRepository, 
-                                 OrderSagaStepExecutor orderSagaStepExecutor) {
+                                 OrderSagaStepExecutor orderSagaStepExecutor,
+                                 @Qualifier("sagaExecutor") TaskExecutor sagaExecutor,
+                                 MetricsService metricsService,
+                                 @Value("${app.saga.lease.owner:${HOSTNAME:${random.uuid}}}") String leaseOwner,
+                                 @Value("${app.saga.lease.duration-seconds:90}") long leaseSeconds,
+                                 @Value("${app.saga.step-timeout-seconds:60}") long stepTimeoutSeconds) {
+        if (leaseSeconds <= stepTimeoutSeconds) {
+            // A step or compensation call may legitimately run for the whole step timeout; a shorter lease
+            // would hand the saga to recovery while it is still being driven
+            throw new IllegalArgumentException("app.saga.lease.duration-seconds (" + leaseSeconds
+                + ") must be longer than app.saga.step-timeout-seconds (" + stepTimeoutSeconds + ")");
+        }
         this.sagaRepository = sagaRepository;
         this.orderSagaStepExecutor = orderSagaStepExecutor;
+        this.sagaExecutor = sagaExecutor;
+        this.metricsService = metricsService;
+        this.leaseOwner = leaseOwner;
+        this.leaseDuration = Duration.ofSeconds(leaseSeconds);
+        this.stepTimeout = Duration.ofSeconds(stepTimeoutSeconds);
     }
 
     @Transactional
@@ -38,13 +87,7 @@ public class SagaOrchestratorService {
         // Define SAGA steps
         addOrderProcessingSteps(sagaInstance, orderId);
         
-        // Save SAGA instance
-        sagaInstance = sagaRepository.save(sagaInstance);
-        
-        // Start executing the SAGA
-        executeSaga(sagaInstance.getId());
-        
-        return sagaInstance.getId();
+        return accept(sagaInstance);
     }
 
     @Transactional
@@ -58,102 +101,253 @@ public class SagaOrchestratorService {
         );
         
         addOrderCancellationSteps(sagaInstance, orderId);
-        sagaInstance = sagaRepository.save(sagaInstance);
         
-        executeSaga(sagaInstance.getId());
-        
-        return sagaInstance.getId();
+        return accept(sagaInstance);
     }
 
-    @Transactional
-    public void executeSaga(UUID sagaId) {
-        SagaInstance sagaInstance = sagaRepository.findById(sagaId)
-            .orElseThrow(() -> new RuntimeException("SAGA instance not found: " + sagaId));
+    /**
+     * Schedule the saga's ready steps (or its compensation) on the worker pool. Returns immediately.
+     * Safe to call for a saga that is already running: step claims fail and the extra task is a no-op.
+     *
+     * @return false if the pool rejected the task (the saga's lease is released for recovery)
+     */
+    public boolean executeSaga(UUID sagaId) {
+        return dispatch(sagaId, () -> continueSaga(sagaId));
+    }
+
+    /**
+     * Claim one page of sagas whose lease is missing or expired and dispatch them.
+     *
+     * @return number of sagas dispatched; fewer than {@code pageSize} means the backlog is drained or the
+     *         pool is full, and the caller should stop
+     */
+    public int resumeRecoverableSagas(int pageSize) {
+        List<UUID> claimed = sagaRepository.claimRecoverableSagas(leaseOwner, leaseExpiry(), pageSize);
+        for (int i = 0; i < claimed.size(); i++) {
+            if (!executeSaga(claimed.get(i))) {
+                sagaRepository.releaseLeases(claimed.subList(i + 1, claimed.size()), leaseOwner);
+                return i;
+            }
+        }
+        return claimed.size();
+    }
+
+    /**
+     * Move a saga to COMPENSATING and schedule compensation of its completed steps. Returns immediately.
+     */
+    public void compensateSaga(UUID sagaId) {
+        compensateSaga(sagaId, "Compensation requested");
+    }
+
+    /**
+     * Same as {@link #compensateSaga(UUID)}, recording {@code reason} as the saga's error message.
+     */
+    public void compensateSaga(UUID sagaId, String reason) {
+        if (sagaRepository.startCompensation(sagaId, reason)) {
+            executeSaga(sagaId);
+        } else {
+            log.info("SAGA {} is not in a compensable state, skipping compensation request", sagaId);
+        }
+    }
+
+    /**
+     * Persist a new saga and dispatch its first step once the surrounding transaction commits.
+     */
+    private UUID accept(SagaInstance sagaInstance) {
+        sagaInstance.acquireLease(leaseOwner, leaseExpiry());
+        SagaInstance saved = sagaRepository.save(sagaInstance);
+        UUID sagaId = saved.getId();
+        metricsService.recordSagaInstanceCreated(saved.getSagaType().name());
         
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    executeSaga(sagaId);
+                }
+            });
+        } else {
+            executeSaga(sagaId);
+        }
+        return sagaId;
+    }
+
+    private boolean dispatch(UUID sagaId, Runnable task) {
+        try {
+            sagaExecutor.execute(task);
+            return true;
+        } catch (TaskRejectedException e) {
+            // Saga is persisted; drop our lease so the next recovery pass on any replica resumes it
+            log.warn("SAGA worker pool saturated, SAGA {} left for recovery", sagaId);
+            sagaRepository.releaseLeases(List.of(sagaId), leaseOwner);
+            return false;
+        }
+    }
+
+    private Instant leaseExpiry() {
+        return Instant.now().plus(leaseDuration);
+    }
+
+    /**
+     * Worker task: finish the saga if every step completed, otherwise start its ready steps. The first ready
+     * step runs on this worker; the others are dispatched so independent steps run in parallel.
+     */
+    private void continueSaga(UUID sagaId) {
+        SagaInstance sagaInstance = sagaRepository.findById(sagaId).orElse(null);
+        if (sagaInstance == null) {
+            log.warn("SAGA instance not found: {}", sagaId);
+            return;
+        }
         if (sagaInstance.isCompleted()) {
-            log.info("SAGA {} is already completed", sagaId);
+            log.debug("SAGA {} is already completed", sagaId);
+            return;
+        }
+        if (sagaInstance.isCompensating()) {
+            runCompensation(sagaInstance);
+            return;
+        }
+        if (sagaInstance.allStepsCompleted()) {
+            finishSaga(sagaInstance);
             return;
         }
         
-        try {
-            // Execute current step
-            if (sagaInstance.getCurrentStepIndex() < sagaInstance.getSteps().size()) {
-                SagaStepEntity currentStep = sagaInstance.getSteps().get(sagaInstance.getCurrentStepIndex());
-                
-                log.info("Executing SAGA step: {} for SAGA: {}", currentStep.getStepName(), sagaId);
-                
-                // Mark step as in progress
-                sagaInstance.markStepInProgress(sagaInstance.getCurrentStepIndex());
-                sagaRepository.save(sagaInstance);
-                
-                // Execute the step
-                boolean stepSuccess = orderSagaStepExecutor.executeStep(currentStep, sagaInstance);
-                
-                if (stepSuccess) {
-                    // Mark step as completed
-                    sagaInstance.markStepCompleted(sagaInstance.getCurrentStepIndex());
-                    sagaRepository.save(sagaInstance);
-                    
-                    // Check if SAGA is complete
-                    if (sagaInstance.getCurrentStepIndex() >= sagaInstance.getSteps().size()) {
-                        sagaInstance.markCompleted();
-                        sagaRepository.save(sagaInstance);
-                        log.info("SAGA {} completed successfully", sagaId);
-                    } else {
-                        // Continue with next step
-                        executeSaga(sagaId);
-                    }
-                } else {
-                    // Step failed, start compensation
-                    sagaInstance.markStepFailed(sagaInstance.getCurrentStepIndex(), "Step execution failed");
-                    sagaRepository.save(sagaInstance);
-                    compensateSaga(sagaId);
-                }
+        List<SagaStepEntity> ready = sagaInstance.readySteps();
+        if (ready.isEmpty()) {
+            log.debug("SAGA {} is waiting for {} running step(s)", sagaId, sagaInstance.stepsInProgress());
+            return;
+        }
+        for (int i = 1; i < ready.size(); i++) {
+            SagaStepEntity step = ready.get(i);
+            if (!dispatch(sagaId, () -> runStep(sagaInstance, step))) {
+                break;
             }
+        }
+        runStep(sagaInstance, ready.get(0));
+    }
+
+    /**
+     * Claim one ready step, run it and record the outcome, then dispatch a continuation of the saga.
+     */
+    private void runStep(SagaInstance sagaInstance, SagaStepEntity step) {
+        UUID sagaId = sagaInstance.getId();
+        if (!sagaRepository.claimStep(sagaId, step.getId(), Instant.now().plus(stepTimeout))) {
+            log.debug("Step {} of SAGA {} is already claimed or the saga stopped running", step.getStepName(), sagaId);
+            return;
+        }
+        
+        log.info("Executing SAGA step: {} for SAGA: {}", step.getStepName(), sagaId);
+        boolean stepSuccess;
+        String error = "Step execution failed";
+        try {
+            stepSuccess = orderSagaStepExecutor.executeStep(step, sagaInstance);
         } catch (Exception e) {
             log.error("Error executing SAGA {}: {}", sagaId, e.getMessage(), e);
-            sagaInstance.markStepFailed(sagaInstance.getCurrentStepIndex(), e.getMessage());
-            sagaRepository.save(sagaInstance);
-            compensateSaga(sagaId);
+            stepSuccess = false;
+            error = e.getMessage();
+        }
+        
+        if (stepSuccess) {
+            if (!sagaRepository.completeStep(sagaId, step.getId())) {
+                // The step passed its deadline and was failed by the timeout dispatcher while we were running it.
+                // The saga is being compensated without this step, so undo its late effect here.
+                log.warn("Step {} of SAGA {} finished after its deadline, compensating it", step.getStepName(), sagaId);
+                orderSagaStepExecutor.executeCompensation(step, sagaInstance);
+                return;
+            }
+            sagaRepository.advanceSaga(sagaId, leaseExpiry());
+        } else if (sagaRepository.failStep(sagaId, step.getId(), error)
+                && step.getRetryCount() < sagaInstance.getMaxRetries()) {
+            // FAILED steps are claimable again, so the continuation below retries this one
+            log.warn("Step {} of SAGA {} failed (attempt {} of {}), retrying: {}", step.getStepName(), sagaId,
+                step.getRetryCount() + 1, sagaInstance.getMaxRetries() + 1, error);
+        } else {
+            metricsService.recordSagaInstanceFailed(sagaInstance.getSagaType().name(), error);
+            sagaRepository.startCompensation(sagaId, error);
         }
+        // Start the steps this one unblocked, or resume a compensation that was waiting for this step
+        executeSaga(sagaId);
     }
 
-    @Transactional
-    public void compensateSaga(UUID sagaId) {
-        SagaInstance sagaInstance = sagaRepository.findById(sagaId)
-            .orElseThrow(() -> new RuntimeException("SAGA instance not found: " + sagaId));
+    private void finishSaga(SagaInstance sagaInstance) {
+        if (sagaRepository.completeSaga(sagaInstance.getId())) {
+            metricsService.recordSagaInstanceCompleted(sagaInstance.getSagaType().name());
+            log.info("SAGA {} completed successfully", sagaInstance.getId());
+        }
+    }
+
+    /**
+     * Compensate completed steps in reverse step order, then mark the saga COMPENSATED. If any compensation
+     * fails the saga is left FAILED instead, with the steps that were not undone back to COMPLETED;
+     * {@link SagaManagementService#retrySaga} resumes the compensation from there.
+     * <p>
+     * Dependencies always point to earlier steps, so reverse step order undoes every step after all the
+     * steps that depend on it. Steps still running (siblings of the one that failed) are waited for: no
+     * new step can be claimed once compensation started, and whichever running step finishes last
+     * dispatches the compensation again.
+     * <p>
+     * Each step is claimed (COMPLETED -> COMPENSATING) before its compensation runs. A worker that loses a
+     * claim stops: the winner is working down the same reverse order and compensates the remaining steps. So does
+     * a worker that cannot renew the saga's lease because another replica recovered the saga.
+     */
+    private void runCompensation(SagaInstance sagaInstance) {
+        UUID sagaId = sagaInstance.getId();
+        long running = sagaInstance.stepsInProgress();
+        if (running > 0) {
+            log.info("SAGA {} compensation waits for {} running step(s)", sagaId, running);
+            return;
+        }
         
         log.info("Starting compensation for SAGA: {}", sagaId);
         
-        sagaInstance.startCompensation();
-        sagaRepository.save(sagaInstance);
-        
-        // Execute compensation steps in reverse order
-        for (int i = sagaInstance.getCurrentStepIndex() - 1; i >= 0; i--) {
-            SagaStepEntity step = sagaInstance.getSteps().get(i);
+        List<SagaStepEntity> notCompensated = new ArrayList<>();
+        List<SagaStepEntity> steps = sagaInstance.getSteps();
+        for (int i = steps.size() - 1; i >= 0; i--) {
+            SagaStepEntity step = steps.get(i);
             
-            if (step.getStatus() == SagaStepStatus.COMPLETED) {
+            if (step.getStatus() == SagaStepStatus.COMPLETED || step.getStatus() == SagaStepStatus.COMPENSATING) {
+                // Keep recovery and the timeout dispatcher from re-entering the compensation while it runs
+                if (!sagaRepository.renewLease(sagaId, leaseOwner, leaseExpiry())) {
+                    log.info("SAGA {} is leased to another replica, leaving its compensation to it", sagaId);
+                    break;
+                }
+                if (!sagaRepository.claimCompensation(sagaId, step.getId(), Instant.now().plus(stepTimeout))) {
+                    log.info("Step {} of SAGA {} is being compensated by another worker", step.getStepName(), sagaId);
+                    break;
+                }
                 log.info("Compensating step: {} for SAGA: {}", step.getStepName(), sagaId);
                 
+                boolean compensationSuccess;
                 try {
-                    boolean compensationSuccess = orderSagaStepExecutor.executeCompensation(step, sagaInstance);
-                    
-                    if (compensationSuccess) {
-                        step.setStatus(SagaStepStatus.COMPENSATED);
-                        step.setCompletedAt(Instant.now());
-                        sagaRepository.save(sagaInstance);
-                    } else {
-                        log.error("Compensation failed for step: {} in SAGA: {}", step.getStepName(), sagaId);
-                    }
+                    compensationSuccess = orderSagaStepExecutor.executeCompensation(step, sagaInstance);
                 } catch (Exception e) {
                     log.error("Error compensating step {} in SAGA {}: {}", step.getStepName(), sagaId, e.getMessage(), e);
+                    compensationSuccess = false;
+                }
+                
+                if (compensationSuccess) {
+                    sagaRepository.markStepCompensated(sagaId, step.getId());
+                } else {
+                    log.error("Compensation failed for step: {} in SAGA: {}", step.getStepName(), sagaId);
+                    notCompensated.add(step);
                 }
             }
         }
         
-        sagaInstance.markCompensated();
-        sagaRepository.save(sagaInstance);
-        log.info("SAGA {} compensation completed", sagaId);
+        if (!notCompensated.isEmpty()) {
+            String error = "Compensation failed for step(s): " + String.join(", ",
+                notCompensated.stream().map(SagaStepEntity::getStepName).toList());
+            if (sagaRepository.failSaga(sagaId, error)) {
+                metricsService.recordSagaInstanceFailed(sagaInstance.getSagaType().name(), error);
+                log.error("SAGA {} left FAILED, retry it to resume compensation: {}", sagaId, error);
+            }
+            // Only after failSaga: nothing can claim these steps again until the saga is retried
+            notCompensated.forEach(step -> sagaRepository.releaseCompensation(sagaId, step.getId()));
+            return;
+        }
+        
+        if (sagaRepository.markSagaCompensated(sagaId)) {
+            log.info("SAGA {} compensation completed", sagaId);
+        }
     }
 
     private void addOrderProcessingSteps(SagaInstance sagaInstance, UUID orderId) {
@@ -175,23 +369,23 @@ public class SagaOrchestratorService {
             orderId
         ));
         
-        // Step 3: Process Payment (simulated)
+        // Step 3: Process Payment (simulated), in parallel with the reservation
         sagaInstance.addStep(SagaStep.create(
             "Process Payment",
             "PaymentService",
             "processPayment",
             "refundPayment",
             orderId
-        ));
+        ).dependsOn("Validate Order"));
         
-        // Step 4: Update Order Status
+        // Step 4: Update Order Status once stock and payment are secured
         sagaInstance.addStep(SagaStep.create(
             "Update Order Status",
             "OrderService",
             "confirmOrder",
             "revertOrderStatus",
             orderId
-        ));
+        ).dependsOn("Reserve Inventory", "Process Payment"));
         
         // Step 5: Send Notification
         sagaInstance.addStep(SagaStep.create(
@@ -222,22 +416,22 @@ public class SagaOrchestratorService {
             orderId
         ));
         
-        // Step 3: Process Refund
+        // Step 3: Process Refund, in parallel with the inventory release
         sagaInstance.addStep(SagaStep.create(
             "Process Refund",
             "PaymentService",
             "refundPayment",
             "chargePayment",
             orderId
-        ));
+        ).dependsOn("Cancel Order"));
         
-        // Step 4: Send Cancellation Notification
+        // Step 4: Send Cancellation Notification (needs only the cancelled order)
         sagaInstance.addStep(SagaStep.create(
             "Send Cancellation Notification",
             "NotificationService",
             "sendOrderCancellation",
             "sendOrderConfirmation",
             orderId
-        ));
+        ).dependsOn("Cancel Order"));
     }
 }
@@ -0,0 +1,56 @@
+package com.trackops.server.application.services.saga;
+
+import com.trackops.server.adapters.output.monitoring.MetricsService;
+import com.trackops.server.ports.output.persistence.saga.SagaRepository;
+import com.trackops.server.ports.output.persistence.saga.SagaRepository.TimedOutSteps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Fails SAGA steps that stay IN_PROGRESS past their deadline and starts compensation of their SAGAs.
+ * Deadlines live in the indexed {@code saga_steps.deadline_at} column (partial index over running steps),
+ * so each tick only touches the steps that are actually due.
+ */
+@Service
+public class SagaTimeoutDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(SagaTimeoutDispatcher.class);
+
+    private final SagaRepository sagaRepository;
+    private final SagaOrchestratorService sagaOrchestratorService;
+    private final MetricsService metricsService;
+
+    @Value("${app.saga.timeout.batch-size:100}")
+    private int batchSize;
+
+    public SagaTimeoutDispatcher(SagaRepository sagaRepository,
+                                 SagaOrchestratorService sagaOrchestratorService,
+                                 MetricsService metricsService) {
+        this.sagaRepository = sagaRepository;
+        this.sagaOrchestratorService = sagaOrchestratorService;
+        this.metricsService = metricsService;
+    }
+
+    @Scheduled(fixedDelayString = "${app.saga.timeout.poll-interval-ms:1000}")
+    public void dispatchTimeouts() {
+        try {
+            TimedOutSteps timedOut;
+            do {
+                timedOut = sagaRepository.failTimedOutSteps(Instant.now(), batchSize);
+                metricsService.recordSagaStepsTimedOut(timedOut.stepCount());
+                for (UUID sagaId : timedOut.sagaIds()) {
+                    log.warn("SAGA {} step timed out, starting compensation", sagaId);
+                    sagaOrchestratorService.compensateSaga(sagaId, "Step timed out");
+                }
+            } while (!timedOut.sagaIds().isEmpty());
+        } catch (Exception e) {
+            log.error("Error dispatching SAGA step timeouts: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.trackops.server.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -24,4 +25,41 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Bounded worker pool for saga steps. When the queue is full, submissions are rejected rather than
+     * run on the caller's thread; the saga is already persisted and the recovery job resumes it.
+     */
+    @Bean(name = "sagaExecutor")
+    public ThreadPoolTaskExecutor sagaExecutor(
+            @Value("${app.saga.executor.core-pool-size:8}") int corePoolSize,
+            @Value("${app.saga.executor.max-pool-size:16}") int maxPoolSize,
+            @Value("${app.saga.executor.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("saga-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool for background health checks. Each indicator runs at most one check at a time, so the pool only
+     * needs one thread per indicator; a hanging dependency cannot take more than its own thread.
+     */
+    @Bean(name = "healthCheckExecutor")
+    public ThreadPoolTaskExecutor healthCheckExecutor(
+            @Value("${app.health.executor.pool-size:4}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(poolSize);
+        executor.setThreadNamePrefix("health-check-");
+        executor.setDaemon(true);
+        executor.initialize();
+        return executor;
+    }
 }
@@ -1,160 +1,130 @@
 package com.trackops.server.config;
 
 import com.trackops.server.domain.events.orders.*;
-import lombok.extern.slf4j.Slf4j;
-import org.apache.avro.Schema;
-import org.apache.avro.generic.GenericData;
+import com.trackops.server.domain.model.enums.OrderStatus;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.specific.SpecificRecord;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Utility class to convert domain event POJOs to Avro GenericRecord.
- * This allows us to use Avro serialization with Schema Registry while keeping
- * our domain models as simple POJOs.
+ * Converts domain event POJOs to and from the Avro SpecificRecord classes generated from
+ * {@code /schemas/avro} (module {@code avro-events}, package {@code com.trackops.events.orders}).
+ * Field access is through generated accessors, so a schema change that breaks a converter fails the build
+ * instead of a record at runtime. Consumers get the generated classes because the Avro deserializer runs with
+ * {@code specific.avro.reader=true}.
  */
-@Slf4j
 @Component
 public class AvroEventConverter {
 
-    private final SchemaRegistryService schemaRegistryService;
-    private final Map<String, Schema> schemaCache = new ConcurrentHashMap<>();
     private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
-    public AvroEventConverter(SchemaRegistryService schemaRegistryService) {
-        this.schemaRegistryService = schemaRegistryService;
-    }
-
     /**
-     * Converts an OrderCreatedEvent to Avro GenericRecord.
+     * Converts an OrderCreatedEvent to its Avro record.
      */
-    public GenericRecord toAvro(OrderCreatedEvent event) {
-        String subject = "ORDER_CREATED-value";
-        Schema schema = getSchema(subject);
-        
-        GenericRecord record = new GenericData.Record(schema);
-        record.put("orderId", event.getOrderId().toString());
-        record.put("eventType", "ORDER_CREATED");
-        record.put("createdBy", event.getCreatedBy());
-        
-        return record;
+    public com.trackops.events.orders.OrderCreatedEvent toAvro(OrderCreatedEvent event) {
+        return com.trackops.events.orders.OrderCreatedEvent.newBuilder()
+            .setOrderId(event.getOrderId().toString())
+            .setEventType("ORDER_CREATED")
+            .setCreatedBy(event.getCreatedBy())
+            .build();
     }
 
     /**
-     * Converts an OrderStatusUpdatedEvent to Avro GenericRecord.
+     * Converts an OrderStatusUpdatedEvent to its Avro record.
      */
-    public GenericRecord toAvro(OrderStatusUpdatedEvent event) {
-        String subject = "ORDER_STATUS_UPDATED-value";
-        Schema schema = getSchema(subject);
-        
-        GenericRecord record = new GenericData.Record(schema);
-        record.put("orderId", event.getOrderId().toString());
-        record.put("eventType", "ORDER_STATUS_UPDATED");
-        record.put("previousStatus", event.getPreviousStatus().toString());
-        record.put("newStatus", event.getNewStatus().toString());
-        record.put("expectedVersion", event.getExpectedVersion());
-        
-        return record;
+    public com.trackops.events.orders.OrderStatusUpdatedEvent toAvro(OrderStatusUpdatedEvent event) {
+        return com.trackops.events.orders.OrderStatusUpdatedEvent.newBuilder()
+            .setOrderId(event.getOrderId().toString())
+            .setEventType("ORDER_STATUS_UPDATED")
+            .setPreviousStatus(event.getPreviousStatus().toString())
+            .setNewStatus(event.getNewStatus().toString())
+            .setExpectedVersion(event.getExpectedVersion())
+            .build();
     }
 
     /**
-     * Converts an OrderDeliveredEvent to Avro GenericRecord.
+     * Converts an OrderDeliveredEvent to its Avro record.
      */
-    public GenericRecord toAvro(OrderDeliveredEvent event) {
-        String subject = "ORDER_DELIVERED-value";
-        Schema schema = getSchema(subject);
-        
-        GenericRecord record = new GenericData.Record(schema);
-        record.put("orderId", event.getOrderId().toString());
-        record.put("eventType", "ORDER_DELIVERED");
-        record.put("deliveredAt", event.getDeliveredAt() != null 
-            ? event.getDeliveredAt().format(ISO_FORMATTER) : null);
-        
-        return record;
+    public com.trackops.events.orders.OrderDeliveredEvent toAvro(OrderDeliveredEvent event) {
+        return com.trackops.events.orders.OrderDeliveredEvent.newBuilder()
+            .setOrderId(event.getOrderId().toString())
+            .setEventType("ORDER_DELIVERED")
+            .setDeliveredAt(event.getDeliveredAt() != null ? event.getDeliveredAt().format(ISO_FORMATTER) : null)
+            .build();
     }
 
     /**
-     * Converts an OrderCancelledEvent to Avro GenericRecord.
+     * Converts an OrderCancelledEvent to its Avro record.
      */
-    public GenericRecord toAvro(OrderCancelledEvent event) {
-        String subject = "ORDER_CANCELLED-value";
-        Schema schema = getSchema(subject);
-        
-        GenericRecord record = new GenericData.Record(schema);
-        record.put("orderId", event.getOrderId().toString());
-        record.put("eventType", "ORDER_CANCELLED");
-        record.put("cancelledBy", event.getCancelledBy());
-        record.put("cancellationReason", event.getCancellationReason());
-        record.put("cancelledAt", event.getCancelledAt() != null 
-            ? event.getCancelledAt().format(ISO_FORMATTER) : null);
-        
-        return record;
+    public com.trackops.events.orders.OrderCancelledEvent toAvro(OrderCancelledEvent event) {
+        return com.trackops.events.orders.OrderCancelledEvent.newBuilder()
+            .setOrderId(event.getOrderId().toString())
+            .setEventType("ORDER_CANCELLED")
+            .setCancelledBy(event.getCancelledBy())
+            .setCancellationReason(event.getCancellationReason())
+            .setCancelledAt(event.getCancelledAt() != null ? event.getCancelledAt().format(ISO_FORMATTER) : null)
+            .build();
     }
 
     /**
-     * Converts an Avro GenericRecord to OrderCreatedEvent.
+     * Converts an Avro record to OrderCreatedEvent.
      */
     public OrderCreatedEvent fromAvro(GenericRecord record) {
+        var avro = specific(record, com.trackops.events.orders.OrderCreatedEvent.class);
         return new OrderCreatedEvent(
-            UUID.fromString(record.get("orderId").toString()),
-            record.get("createdBy").toString()
+            UUID.fromString(avro.getOrderId().toString()),
+            avro.getCreatedBy().toString()
         );
     }
 
     /**
-     * Converts an Avro GenericRecord to OrderStatusUpdatedEvent.
+     * Converts an Avro record to OrderStatusUpdatedEvent.
      */
     public OrderStatusUpdatedEvent fromAvroStatusUpdated(GenericRecord record) {
+        var avro = specific(record, com.trackops.events.orders.OrderStatusUpdatedEvent.class);
         return new OrderStatusUpdatedEvent(
-            UUID.fromString(record.get("orderId").toString()),
-            com.trackops.server.domain.model.enums.OrderStatus.valueOf(record.get("previousStatus").toString()),
-            com.trackops.server.domain.model.enums.OrderStatus.valueOf(record.get("newStatus").toString()),
-            record.get("expectedVersion") != null ? (Long) record.get("expectedVersion") : null
+            UUID.fromString(avro.getOrderId().toString()),
+            OrderStatus.valueOf(avro.getPreviousStatus().toString()),
+            OrderStatus.valueOf(avro.getNewStatus().toString()),
+            avro.getExpectedVersion()
         );
     }
 
     /**
-     * Converts an Avro GenericRecord to OrderDeliveredEvent.
+     * Converts an Avro record to OrderDeliveredEvent.
      */
     public OrderDeliveredEvent fromAvroDelivered(GenericRecord record) {
-        LocalDateTime deliveredAt = null;
-        if (record.get("deliveredAt") != null) {
-            deliveredAt = LocalDateTime.parse(record.get("deliveredAt").toString(), ISO_FORMATTER);
-        }
+        var avro = specific(record, com.trackops.events.orders.OrderDeliveredEvent.class);
+        LocalDateTime deliveredAt = avro.getDeliveredAt() != null
+            ? LocalDateTime.parse(avro.getDeliveredAt(), ISO_FORMATTER) : null;
         return new OrderDeliveredEvent(
-            UUID.fromString(record.get("orderId").toString()),
+            UUID.fromString(avro.getOrderId().toString()),
             deliveredAt
         );
     }
 
     /**
-     * Converts an Avro GenericRecord to OrderCancelledEvent.
+     * Converts an Avro record to OrderCancelledEvent.
      * Note: cancelledAt is set automatically in the constructor to LocalDateTime.now()
      */
     public OrderCancelledEvent fromAvroCancelled(GenericRecord record) {
+        var avro = specific(record, com.trackops.events.orders.OrderCancelledEvent.class);
         return new OrderCancelledEvent(
-            UUID.fromString(record.get("orderId").toString()),
-            record.get("cancelledBy").toString(),
-            record.get("cancellationReason").toString()
+            UUID.fromString(avro.getOrderId().toString()),
+            avro.getCancelledBy().toString(),
+            avro.getCancellationReason().toString()
         );
     }
 
-    /**
-     * Gets the schema for a subject, with caching.
-     */
-    private Schema getSchema(String subject) {
-        return schemaCache.computeIfAbsent(subject, s -> {
-            try {
-                return schemaRegistryService.getLatestSchema(s);
-            } catch (Exception e) {
-                log.error("Failed to get schema for subject: {}", subject, e);
-                throw new RuntimeException("Failed to get schema for subject: " + subject, e);
-            }
-        });
+    private static <T extends SpecificRecord> T specific(GenericRecord record, Class<T> type) {
+        if (!type.isInstance(record)) {
+            throw new IllegalArgumentException("Expected " + type.getName() + " but got "
+                + (record == null ? "null" : record.getClass().getName()) + " (is specific.avro.reader enabled?)");
+        }
+        return type.cast(record);
     }
 }
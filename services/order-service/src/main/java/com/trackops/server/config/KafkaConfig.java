@@ -1,5 +1,12 @@
 package com.trackops.server.config;
 
+import com.trackops.events.kafka.KeyOrderedRecordProcessor;
+import com.trackops.events.schema.OrderEventsSubjectNameStrategy;
+import com.trackops.events.schema.SchemaRegistryInitializer;
+import com.trackops.server.adapters.input.messaging.orders.OrderEventRetryTopics;
+import com.trackops.server.adapters.output.monitoring.MetricsService;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.AbstractKafkaSchemaSerDeConfig;
 import io.confluent.kafka.serializers.KafkaAvroDeserializer;
 import io.confluent.kafka.serializers.KafkaAvroDeserializerConfig;
 import io.confluent.kafka.serializers.KafkaAvroSerializer;
@@ -8,17 +15,22 @@ import org.apache.avro.generic.GenericRecord;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.apache.kafka.common.serialization.UUIDDeserializer;
 import org.apache.kafka.common.serialization.UUIDSerializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -38,6 +50,40 @@ public class KafkaConfig {
     @Value("${schema.registry.basic.auth.user.info:}")
     private String basicAuthUserInfo;
 
+    @Value("${schema.registry.mode:register}")
+    private String schemaRegistryMode;
+
+    @Value("${app.kafka.key-ordered.enabled:false}")
+    private boolean keyOrderedEnabled;
+
+    @Value("${app.kafka.key-ordered.max-poll-records:500}")
+    private int keyOrderedMaxPollRecords;
+
+    @Value("${app.kafka.key-ordered.workers:16}")
+    private int keyOrderedWorkers;
+
+    @Value("${app.kafka.key-ordered.max-attempts:10}")
+    private int keyOrderedMaxAttempts;
+
+    @Value("${app.kafka.key-ordered.retry-backoff-ms:100}")
+    private long keyOrderedRetryBackoffMs;
+
+    @Value("${app.kafka.order-events-topic.enabled:false}")
+    private boolean orderEventsTopicEnabled;
+
+    @Value("${app.kafka.order-events-topic.name:ORDER_EVENTS}")
+    private String orderEventsTopicName;
+
+    @Value("${app.kafka.order-events-topic.partitions:6}")
+    private int orderEventsTopicPartitions;
+
+    // Shared with SchemaRegistryService: its cache already holds the IDs resolved at startup
+    private final SchemaRegistryClient schemaRegistryClient;
+
+    public KafkaConfig(SchemaRegistryClient schemaRegistryClient) {
+        this.schemaRegistryClient = schemaRegistryClient;
+    }
+
     // Producer Configuration with Avro Serializer
     @Bean
     public ProducerFactory<UUID, GenericRecord> producerFactory() {
@@ -48,15 +94,44 @@ public class KafkaConfig {
         configProps.put(ProducerConfig.ACKS_CONFIG, "all");
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
         configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.putAll(avroSerializerConfig());
         
-        // Schema Registry configuration
+        return new DefaultKafkaProducerFactory<>(configProps, new UUIDSerializer(), avroSerializer(configProps));
+    }
+
+    // Serializes outbox payloads when they are written (app.outbox.payload-format=avro), exactly as the producer would
+    @Bean
+    public Serializer<GenericRecord> outboxPayloadSerializer() {
+        return avroSerializer(avroSerializerConfig());
+    }
+
+    // Schema Registry configuration
+    private Map<String, Object> avroSerializerConfig() {
+        Map<String, Object> configProps = new HashMap<>();
         configProps.put("schema.registry.url", schemaRegistryUrl);
         if (basicAuthUserInfo != null && !basicAuthUserInfo.isEmpty()) {
             configProps.put("basic.auth.credentials.source", "USER_INFO");
             configProps.put("basic.auth.user.info", basicAuthUserInfo);
         }
-        
-        return new DefaultKafkaProducerFactory<>(configProps);
+        if (SchemaRegistryInitializer.isVerifyOnly(schemaRegistryMode)) {
+            configProps.put(AbstractKafkaSchemaSerDeConfig.AUTO_REGISTER_SCHEMAS, false);
+        }
+        // Also maps retry tier topics to the subject of their main topic
+        configProps.put(AbstractKafkaSchemaSerDeConfig.VALUE_SUBJECT_NAME_STRATEGY, OrderEventsSubjectNameStrategy.class);
+        if (orderEventsTopicEnabled) {
+            configProps.put(OrderEventsSubjectNameStrategy.TOPIC_CONFIG, orderEventsTopicName);
+        }
+        return configProps;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Serializer<GenericRecord> avroSerializer(Map<String, Object> configProps) {
+        return (Serializer<GenericRecord>) (Serializer<?>) new KafkaAvroSerializer(schemaRegistryClient, configProps);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Deserializer<GenericRecord> avroDeserializer(Map<String, Object> configProps) {
+        return (Deserializer<GenericRecord>) (Deserializer<?>) new KafkaAvroDeserializer(schemaRegistryClient, configProps);
     }
 
     @Bean
@@ -109,13 +184,13 @@ public class KafkaConfig {
         
         // Schema Registry configuration
         configProps.put("schema.registry.url", schemaRegistryUrl);
-        configProps.put(KafkaAvroDeserializerConfig.SPECIFIC_AVRO_READER_CONFIG, false); // Use GenericRecord
+        configProps.put(KafkaAvroDeserializerConfig.SPECIFIC_AVRO_READER_CONFIG, true); // Generated classes from avro-events
         if (basicAuthUserInfo != null && !basicAuthUserInfo.isEmpty()) {
             configProps.put("basic.auth.credentials.source", "USER_INFO");
             configProps.put("basic.auth.user.info", basicAuthUserInfo);
         }
         
-        return new DefaultKafkaConsumerFactory<>(configProps);
+        return new DefaultKafkaConsumerFactory<>(configProps, UUIDDeserializer::new, () -> avroDeserializer(configProps));
     }
 
     @Bean
@@ -129,6 +204,39 @@ public class KafkaConfig {
         return factory;
     }
 
+    /**
+     * Container factory of the order event listeners. With app.kafka.key-ordered.enabled the listeners hand records
+     * to {@code KeyOrderedRecordProcessor} and acknowledge them out of order from its workers: async acks make the
+     * container commit only the highest contiguous acknowledged offset per partition, and larger polls give the
+     * workers enough records to run in parallel. Otherwise identical to kafkaListenerContainerFactory.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<UUID, GenericRecord> keyOrderedListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<UUID, GenericRecord> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(3); // Number of consumer threads
+        if (keyOrderedEnabled) {
+            factory.getContainerProperties().setAckMode(
+                org.springframework.kafka.listener.ContainerProperties.AckMode.MANUAL);
+            factory.getContainerProperties().setAsyncAcks(true);
+            factory.getContainerProperties().getKafkaConsumerProperties().setProperty(
+                ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(keyOrderedMaxPollRecords));
+        } else {
+            factory.getContainerProperties().setAckMode(
+                org.springframework.kafka.listener.ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        }
+        return factory;
+    }
+
+    /** Workers of the order event listeners (app.kafka.key-ordered.*); failing records go to the retry tiers. */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public KeyOrderedRecordProcessor keyOrderedRecordProcessor(MetricsService metricsService,
+                                                               OrderEventRetryTopics retryTopics) {
+        return new KeyOrderedRecordProcessor(metricsService, retryTopics, keyOrderedEnabled, keyOrderedWorkers,
+            keyOrderedMaxAttempts, keyOrderedRetryBackoffMs);
+    }
+
     /** Consumer for CDC topics (Debezium JSON payload). */
     @Bean
     public ConsumerFactory<String, String> cdcStringConsumerFactory() {
@@ -194,4 +302,23 @@ public class KafkaConfig {
         return new NewTopic("INVENTORY_RELEASED", 3, (short) 1);
     }
 
+    // Consolidated order events topic (app.kafka.order-events-topic.enabled), keyed by order ID
+    @Bean
+    @ConditionalOnProperty(name = "app.kafka.order-events-topic.enabled", havingValue = "true")
+    public NewTopic orderEventsTopic() {
+        return new NewTopic(orderEventsTopicName, orderEventsTopicPartitions, (short) 1);
+    }
+
+    // Retry tiers of the order event topics (app.kafka.retry-topics.enabled)
+    @Bean
+    public KafkaAdmin.NewTopics orderEventRetryTierTopics(OrderEventRetryTopics retryTopics) {
+        List<NewTopic> topics = new ArrayList<>();
+        if (retryTopics.isEnabled()) {
+            for (int tier = 1; tier <= retryTopics.tierCount(); tier++) {
+                retryTopics.tierTopics(tier).forEach(topic -> topics.add(new NewTopic(topic, 3, (short) 1)));
+            }
+        }
+        return new KafkaAdmin.NewTopics(topics.toArray(NewTopic[]::new));
+    }
+
 }
\ No newline at end of file
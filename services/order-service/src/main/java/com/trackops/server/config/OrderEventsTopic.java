@@ -0,0 +1,62 @@
+package com.trackops.server.config;
+
+import com.trackops.events.schema.OrderEventsSubjectNameStrategy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * The optional consolidated order events topic ({@code app.kafka.order-events-topic.*}).
+ * <p>
+ * When enabled, every order lifecycle event (order and inventory events alike) is published to one topic keyed
+ * by order ID, with its type in the {@value #EVENT_TYPE_HEADER} header, instead of to a topic per event type.
+ * One consumer dispatches on the header, so the events of an order are consumed strictly in order whatever
+ * their type, and polls fill from a single topic. Each event keeps its own Avro schema, registered under
+ * {@code <topic>-<record name>} (see {@link OrderEventsSubjectNameStrategy}).
+ */
+@Component
+public class OrderEventsTopic {
+
+    public static final String EVENT_TYPE_HEADER = "event-type";
+
+    private final boolean enabled;
+    private final String name;
+
+    public OrderEventsTopic(@Value("${app.kafka.order-events-topic.enabled:false}") boolean enabled,
+                            @Value("${app.kafka.order-events-topic.name:ORDER_EVENTS}") String name) {
+        this.enabled = enabled;
+        this.name = name;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Record for an event of the given type: on the consolidated topic with the type header when enabled,
+     * otherwise on the topic named after the type.
+     */
+    public <V> ProducerRecord<UUID, V> record(String eventType, UUID orderId, V value) {
+        if (!enabled) {
+            return new ProducerRecord<>(eventType, orderId, value);
+        }
+        ProducerRecord<UUID, V> record = new ProducerRecord<>(name, orderId, value);
+        record.headers().add(EVENT_TYPE_HEADER, eventType.getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+
+    /** Event type of a record from the consolidated topic (or a retry tier of it); null for per-type topics. */
+    public static String eventType(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(EVENT_TYPE_HEADER);
+        return header != null && header.value() != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+}
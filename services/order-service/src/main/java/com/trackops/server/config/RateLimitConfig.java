@@ -13,6 +13,10 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Configuration for rate limiting using Bucket4j with Redis.
@@ -30,6 +34,21 @@ public class RateLimitConfig {
     @Value("${app.rate-limit.burst-capacity:100}")
     private long burstCapacity;
 
+    @Value("${app.rate-limit.lease.chunk-size:10}")
+    private long leaseChunkSize;
+
+    @Value("${app.rate-limit.lease.idle-timeout-ms:300000}")
+    private long leaseIdleTimeoutMs;
+
+    @Value("${app.rate-limit.lease.max-clients:100000}")
+    private long leaseMaxClients;
+
+    @Value("${app.rate-limit.families:}")
+    private String families;
+
+    @Value("${app.rate-limit.routes:}")
+    private String routes;
+
     @Value("${spring.redis.host:localhost}")
     private String redisHost;
 
@@ -110,9 +129,67 @@ public class RateLimitConfig {
                 .enabled(rateLimitEnabled)
                 .defaultRequestsPerHour(defaultRequestsPerHour)
                 .burstCapacity(burstCapacity)
+                .leaseChunkSize(leaseChunkSize)
+                .leaseIdleTimeoutMs(leaseIdleTimeoutMs)
+                .leaseMaxClients(leaseMaxClients)
+                .families(parseFamilies(families))
+                .routes(parseRoutes(routes))
                 .build();
     }
 
+    /**
+     * Parses {@code <family>=<tokens per hour>/<burst>, ...}.
+     */
+    static Map<String, BucketFamily> parseFamilies(String spec) {
+        Map<String, BucketFamily> parsed = new LinkedHashMap<>();
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] nameAndLimit = entry.split("=");
+            String[] limit = nameAndLimit.length == 2 ? nameAndLimit[1].split("/") : new String[0];
+            if (limit.length != 2) {
+                throw new IllegalArgumentException("Invalid rate limit family '" + entry.trim()
+                        + "', expected <family>=<tokens per hour>/<burst>");
+            }
+            String name = nameAndLimit[0].trim();
+            parsed.put(name, new BucketFamily(name, Long.parseLong(limit[0].trim()), Long.parseLong(limit[1].trim())));
+        }
+        return parsed;
+    }
+
+    /**
+     * Parses {@code <METHOD|*> <path pattern> -> <family>:<cost>; ...}.
+     */
+    static List<RouteCost> parseRoutes(String spec) {
+        List<RouteCost> parsed = new ArrayList<>();
+        for (String entry : spec.split(";")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] routeAndCost = entry.split("->");
+            String[] route = routeAndCost[0].trim().split("\\s+");
+            String[] cost = routeAndCost.length == 2 ? routeAndCost[1].split(":") : new String[0];
+            if (route.length != 2 || cost.length != 2) {
+                throw new IllegalArgumentException("Invalid rate limit route '" + entry.trim()
+                        + "', expected <METHOD|*> <path pattern> -> <family>:<cost>");
+            }
+            parsed.add(new RouteCost(route[0], route[1], cost[0].trim(), Long.parseLong(cost[1].trim())));
+        }
+        return parsed;
+    }
+
+    /**
+     * A separately limited bucket per client, e.g. for expensive queries.
+     */
+    public record BucketFamily(String name, long tokensPerHour, long burstCapacity) {}
+
+    /**
+     * Requests matching {@code method} ({@code *} for any) and {@code pattern} take {@code cost} tokens from
+     * the client's bucket of {@code family}.
+     */
+    public record RouteCost(String method, String pattern, String family, long cost) {}
+
     /**
      * Configuration properties for rate limiting.
      */
@@ -120,6 +197,11 @@ public class RateLimitConfig {
         private boolean enabled;
         private long defaultRequestsPerHour;
         private long burstCapacity;
+        private long leaseChunkSize = 1;
+        private long leaseIdleTimeoutMs = 300_000;
+        private long leaseMaxClients = 100_000;
+        private Map<String, BucketFamily> families = Map.of();
+        private List<RouteCost> routes = List.of();
 
         public static RateLimitProperties builder() {
             return new RateLimitProperties();
@@ -140,6 +222,38 @@ public class RateLimitConfig {
             return this;
         }
 
+        /**
+         * Tokens taken from the shared bucket per remote call and then served from local memory.
+         * 1 disables leasing (one remote call per request).
+         */
+        public RateLimitProperties leaseChunkSize(long leaseChunkSize) {
+            this.leaseChunkSize = Math.max(1, leaseChunkSize);
+            return this;
+        }
+
+        public RateLimitProperties leaseIdleTimeoutMs(long leaseIdleTimeoutMs) {
+            this.leaseIdleTimeoutMs = leaseIdleTimeoutMs;
+            return this;
+        }
+
+        /**
+         * Most client leases a replica keeps; the least recently used are dropped beyond it.
+         */
+        public RateLimitProperties leaseMaxClients(long leaseMaxClients) {
+            this.leaseMaxClients = leaseMaxClients;
+            return this;
+        }
+
+        public RateLimitProperties families(Map<String, BucketFamily> families) {
+            this.families = families;
+            return this;
+        }
+
+        public RateLimitProperties routes(List<RouteCost> routes) {
+            this.routes = routes;
+            return this;
+        }
+
         public RateLimitProperties build() {
             return this;
         }
@@ -155,5 +269,25 @@ public class RateLimitConfig {
         public long getBurstCapacity() {
             return burstCapacity;
         }
+
+        public long getLeaseChunkSize() {
+            return leaseChunkSize;
+        }
+
+        public long getLeaseIdleTimeoutMs() {
+            return leaseIdleTimeoutMs;
+        }
+
+        public long getLeaseMaxClients() {
+            return leaseMaxClients;
+        }
+
+        public Map<String, BucketFamily> getFamilies() {
+            return families;
+        }
+
+        public List<RouteCost> getRoutes() {
+            return routes;
+        }
     }
 }
@@ -10,10 +10,14 @@ public class OrderCancelledEvent extends OrderEvent {
     private final LocalDateTime cancelledAt; // When it was cancelled
 
     public OrderCancelledEvent(UUID orderId, String cancelledBy, String cancellationReason) {
+        this(orderId, cancelledBy, cancellationReason, LocalDateTime.now());
+    }
+
+    public OrderCancelledEvent(UUID orderId, String cancelledBy, String cancellationReason, LocalDateTime cancelledAt) {
         super(orderId, "ORDER_CANCELLED");
         this.cancelledBy = cancelledBy;
         this.cancellationReason = cancellationReason;
-        this.cancelledAt = LocalDateTime.now();
+        this.cancelledAt = cancelledAt;
     }
 
     public String getCancelledBy() {
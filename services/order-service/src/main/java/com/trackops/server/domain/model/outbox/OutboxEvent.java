@@ -30,6 +30,17 @@ public class OutboxEvent {
     @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
     private String payload;
     
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payload_format", nullable = false, length = 16)
+    private OutboxPayloadFormat payloadFormat;
+    
+    // Kafka record value in Confluent wire format when payloadFormat is AVRO
+    @Column(name = "payload_bytes", columnDefinition = "BYTEA")
+    private byte[] payloadBytes;
+    
+    @Column(name = "schema_id")
+    private Integer schemaId;
+    
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
@@ -59,6 +70,9 @@ public class OutboxEvent {
         if (createdAt == null) {
             createdAt = LocalDateTime.now();
         }
+        if (payloadFormat == null) {
+            payloadFormat = OutboxPayloadFormat.JSON;
+        }
     }
     
     // Business methods
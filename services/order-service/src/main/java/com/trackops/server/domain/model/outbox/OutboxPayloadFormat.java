@@ -0,0 +1,11 @@
+package com.trackops.server.domain.model.outbox;
+
+/**
+ * How an outbox event's payload is stored for the event relay.
+ */
+public enum OutboxPayloadFormat {
+    /** Only the JSON payload; the relay converts it to Avro before sending. */
+    JSON,
+    /** The serialized Kafka record value (with schema ID) in {@code payload_bytes}; the relay sends it as is. */
+    AVRO
+}
@@ -5,6 +5,7 @@ import jakarta.persistence.*;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.StringJoiner;
 import java.util.UUID;
 
 @Entity
@@ -45,9 +46,16 @@ public class SagaInstance {
     @Column(name = "max_retries")
     private int maxRetries;
     
-    @OneToMany(mappedBy = "sagaInstance", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "sagaInstance", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @OrderBy("stepIndex")
     private List<SagaStepEntity> steps = new ArrayList<>();
     
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner; // replica currently driving the saga
+    
+    @Column(name = "lease_expires_at")
+    private Instant leaseExpiresAt;
+    
     @Version
     private Long version;
 
@@ -80,9 +88,51 @@ public class SagaInstance {
             step.getStepData(),
             this
         );
+        stepEntity.setStepIndex(steps.size());
+        stepEntity.setDependsOn(resolveDependencies(step));
         this.steps.add(stepEntity);
     }
 
+    /**
+     * Steps that can be claimed now: not yet run (or failed) and every dependency COMPLETED.
+     */
+    public List<SagaStepEntity> readySteps() {
+        List<SagaStepEntity> ready = new ArrayList<>();
+        for (SagaStepEntity step : steps) {
+            if ((step.getStatus() == SagaStepStatus.PENDING || step.getStatus() == SagaStepStatus.FAILED)
+                    && step.dependencyIndexes().stream()
+                        .allMatch(i -> steps.get(i).getStatus() == SagaStepStatus.COMPLETED)) {
+                ready.add(step);
+            }
+        }
+        return ready;
+    }
+
+    public boolean allStepsCompleted() {
+        return steps.stream().allMatch(step -> step.getStatus() == SagaStepStatus.COMPLETED);
+    }
+
+    public long stepsInProgress() {
+        return steps.stream().filter(step -> step.getStatus() == SagaStepStatus.IN_PROGRESS).count();
+    }
+
+    private String resolveDependencies(SagaStep step) {
+        if (step.getDependsOn() == null) {
+            return steps.isEmpty() ? "" : String.valueOf(steps.size() - 1);
+        }
+        // Dependencies must already be defined, so step indexes are a topological order of the graph
+        StringJoiner indexes = new StringJoiner(",");
+        for (String name : step.getDependsOn()) {
+            SagaStepEntity dependency = steps.stream()
+                .filter(s -> s.getStepName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                    "Step '" + step.getStepName() + "' depends on '" + name + "', which is not defined before it"));
+            indexes.add(String.valueOf(dependency.getStepIndex()));
+        }
+        return indexes.toString();
+    }
+
     public void markStepInProgress(int stepIndex) {
         if (stepIndex < steps.size()) {
             SagaStepEntity step = steps.get(stepIndex);
@@ -111,6 +161,11 @@ public class SagaInstance {
         }
     }
 
+    public void acquireLease(String owner, Instant expiresAt) {
+        this.leaseOwner = owner;
+        this.leaseExpiresAt = expiresAt;
+    }
+
     public void startCompensation() {
         this.status = SagaStatus.COMPENSATING;
     }
@@ -179,6 +234,12 @@ public class SagaInstance {
     public List<SagaStepEntity> getSteps() { return steps; }
     public void setSteps(List<SagaStepEntity> steps) { this.steps = steps; }
     
+    public String getLeaseOwner() { return leaseOwner; }
+    public void setLeaseOwner(String leaseOwner) { this.leaseOwner = leaseOwner; }
+    
+    public Instant getLeaseExpiresAt() { return leaseExpiresAt; }
+    public void setLeaseExpiresAt(Instant leaseExpiresAt) { this.leaseExpiresAt = leaseExpiresAt; }
+    
     public Long getVersion() { return version; }
     public void setVersion(Long version) { this.version = version; }
 }
@@ -1,6 +1,7 @@
 package com.trackops.server.domain.model.saga;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 public class SagaStep {
@@ -15,10 +16,19 @@ public class SagaStep {
     private final String errorMessage;
     private final int retryCount;
     private final Object stepData;
+    private final List<String> dependsOn; // step names; null means "after the previous step"
 
     public SagaStep(UUID id, String stepName, String serviceName, String action, 
                    String compensationAction, SagaStepStatus status, Instant startedAt, 
                    Instant completedAt, String errorMessage, int retryCount, Object stepData) {
+        this(id, stepName, serviceName, action, compensationAction, status, startedAt, completedAt,
+            errorMessage, retryCount, stepData, null);
+    }
+
+    private SagaStep(UUID id, String stepName, String serviceName, String action,
+                     String compensationAction, SagaStepStatus status, Instant startedAt,
+                     Instant completedAt, String errorMessage, int retryCount, Object stepData,
+                     List<String> dependsOn) {
         this.id = id;
         this.stepName = stepName;
         this.serviceName = serviceName;
@@ -30,6 +40,7 @@ public class SagaStep {
         this.errorMessage = errorMessage;
         this.retryCount = retryCount;
         this.stepData = stepData;
+        this.dependsOn = dependsOn;
     }
 
     public static SagaStep create(String stepName, String serviceName, String action, 
@@ -49,6 +60,28 @@ public class SagaStep {
         );
     }
 
+    /**
+     * Declare the steps this one needs. A step runs once all of them completed, in parallel with any other
+     * step whose dependencies are met. With no names the step can start right away. Steps that declare
+     * nothing run after the step added before them.
+     */
+    public SagaStep dependsOn(String... stepNames) {
+        return new SagaStep(
+            this.id,
+            this.stepName,
+            this.serviceName,
+            this.action,
+            this.compensationAction,
+            this.status,
+            this.startedAt,
+            this.completedAt,
+            this.errorMessage,
+            this.retryCount,
+            this.stepData,
+            List.of(stepNames)
+        );
+    }
+
     public SagaStep markInProgress() {
         return new SagaStep(
             this.id,
@@ -61,7 +94,8 @@ public class SagaStep {
             this.completedAt,
             this.errorMessage,
             this.retryCount,
-            this.stepData
+            this.stepData,
+            this.dependsOn
         );
     }
 
@@ -77,7 +111,8 @@ public class SagaStep {
             Instant.now(),
             this.errorMessage,
             this.retryCount,
-            this.stepData
+            this.stepData,
+            this.dependsOn
         );
     }
 
@@ -93,7 +128,8 @@ public class SagaStep {
             this.completedAt,
             errorMessage,
             this.retryCount + 1,
-            this.stepData
+            this.stepData,
+            this.dependsOn
         );
     }
 
@@ -109,7 +145,8 @@ public class SagaStep {
             Instant.now(),
             this.errorMessage,
             this.retryCount,
-            this.stepData
+            this.stepData,
+            this.dependsOn
         );
     }
 
@@ -125,4 +162,5 @@ public class SagaStep {
     public String getErrorMessage() { return errorMessage; }
     public int getRetryCount() { return retryCount; }
     public Object getStepData() { return stepData; }
+    public List<String> getDependsOn() { return dependsOn; }
 }
@@ -3,6 +3,8 @@ package com.trackops.server.domain.model.saga;
 import jakarta.persistence.*;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 @Entity
@@ -14,6 +16,12 @@ public class SagaStepEntity {
     @Column(columnDefinition = "UUID")
     private UUID id;
     
+    @Column(name = "step_index", nullable = false)
+    private int stepIndex; // position in the saga definition
+    
+    @Column(name = "depends_on", nullable = false)
+    private String dependsOn = ""; // comma-separated indexes of the steps this one waits for
+    
     @Column(name = "step_name", nullable = false)
     private String stepName;
     
@@ -36,6 +44,9 @@ public class SagaStepEntity {
     @Column(name = "completed_at")
     private Instant completedAt;
     
+    @Column(name = "deadline_at")
+    private Instant deadlineAt; // set while IN_PROGRESS; the step times out after this
+    
     @Column(name = "error_message", length = 1000)
     private String errorMessage;
     
@@ -70,9 +81,28 @@ public class SagaStepEntity {
         this.sagaInstance = sagaInstance;
     }
 
+    /**
+     * Indexes of the steps that must be COMPLETED before this one can run.
+     */
+    public List<Integer> dependencyIndexes() {
+        List<Integer> indexes = new ArrayList<>();
+        if (dependsOn != null && !dependsOn.isEmpty()) {
+            for (String index : dependsOn.split(",")) {
+                indexes.add(Integer.parseInt(index));
+            }
+        }
+        return indexes;
+    }
+
     // Getters and Setters
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
+
+    public int getStepIndex() { return stepIndex; }
+    public void setStepIndex(int stepIndex) { this.stepIndex = stepIndex; }
+
+    public String getDependsOn() { return dependsOn; }
+    public void setDependsOn(String dependsOn) { this.dependsOn = dependsOn; }
     
     public String getStepName() { return stepName; }
     public void setStepName(String stepName) { this.stepName = stepName; }
@@ -95,6 +125,9 @@ public class SagaStepEntity {
     public Instant getCompletedAt() { return completedAt; }
     public void setCompletedAt(Instant completedAt) { this.completedAt = completedAt; }
     
+    public Instant getDeadlineAt() { return deadlineAt; }
+    public void setDeadlineAt(Instant deadlineAt) { this.deadlineAt = deadlineAt; }
+    
     public String getErrorMessage() { return errorMessage; }
     public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
     
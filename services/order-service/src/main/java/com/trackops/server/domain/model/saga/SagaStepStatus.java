@@ -5,5 +5,6 @@ public enum SagaStepStatus {
     IN_PROGRESS,
     COMPLETED,
     FAILED,
+    COMPENSATING,
     COMPENSATED
 }
@@ -0,0 +1,31 @@
+package com.trackops.server.ports.output.cache;
+
+import com.trackops.server.adapters.input.web.dto.OrderResponse;
+import com.trackops.server.domain.model.orders.Order;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Port for compare-and-set writes of an order's cache entries (entity, response and status), for writers that can
+ * see a change late or more than once, such as CDC replays and rebalances.
+ * A write only lands if its state is strictly newer than the cached one, by order {@code version} then
+ * {@code updatedAt}. The last written state is kept under {@link #VERSION_KEY_PREFIX}.
+ */
+public interface OrderVersionedCachePort {
+
+    String VERSION_KEY_PREFIX = "order:cache-version:";
+
+    /**
+     * Write the entity, response and status of the order if its state is strictly newer than the cached one.
+     *
+     * @return true if written, false if skipped because an equal or newer state (or a deletion) is cached
+     */
+    boolean cacheOrderIfNewer(Order order, OrderResponse response, Duration orderTtl, Duration statusTtl);
+
+    /**
+     * Remove the order's entries and remember the deletion for {@code ttl}, so replayed older changes of the
+     * order are not written back.
+     */
+    void removeDeletedOrder(UUID orderId, Duration ttl);
+}
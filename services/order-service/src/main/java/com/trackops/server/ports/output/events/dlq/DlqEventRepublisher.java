@@ -0,0 +1,16 @@
+package com.trackops.server.ports.output.events.dlq;
+
+import com.trackops.server.domain.model.dlq.DlqOrder;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface DlqEventRepublisher {
+
+    /**
+     * Publish the failed event of a DLQ row again: to the topic it was consumed from, or for a CDC change by
+     * running its handler again.
+     * The future completes when the broker acknowledged it (or the handler finished), or exceptionally if it could
+     * not be published (including a payload that cannot be rebuilt).
+     */
+    CompletableFuture<Void> republish(DlqOrder dlqOrder);
+}
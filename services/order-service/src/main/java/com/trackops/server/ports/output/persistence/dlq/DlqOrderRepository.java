@@ -2,7 +2,9 @@ package com.trackops.server.ports.output.persistence.dlq;
 
 import com.trackops.server.domain.model.dlq.DlqOrder;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -28,4 +30,23 @@ public interface DlqOrderRepository {
 
     /** Total row count in dlq_orders (for throttle / disk protection). */
     long count();
+
+    /**
+     * Claim up to {@code limit} rows due for redrive (PENDING, or PROCESSING with an expired claim), earliest
+     * next_retry_at first: they become PROCESSING until {@code claimUntil}, after which they are due again.
+     * Rows locked by another replica's claim are skipped.
+     */
+    List<DlqOrder> claimDue(LocalDateTime now, LocalDateTime claimUntil, int limit);
+
+    /** Rows due for redrive at {@code now}. */
+    long countDue(LocalDateTime now);
+
+    int markCompleted(Collection<UUID> ids);
+
+    /**
+     * Count a failed redrive attempt: PENDING with exponential backoff ({@code baseBackoff * 2^retry_count},
+     * capped), or PERMANENT_FAILURE once max_retries is reached.
+     */
+    int markRetryFailed(Collection<UUID> ids, LocalDateTime now, String error, Duration baseBackoff,
+                        Duration maxBackoff);
 }
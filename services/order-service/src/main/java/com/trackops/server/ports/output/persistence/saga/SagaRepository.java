@@ -4,6 +4,8 @@ import com.trackops.server.domain.model.saga.SagaInstance;
 import com.trackops.server.domain.model.saga.SagaStatus;
 import com.trackops.server.domain.model.saga.SagaType;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -12,6 +14,7 @@ public interface SagaRepository {
     
     SagaInstance save(SagaInstance sagaInstance);
     
+    /** Load a saga together with its steps. */
     Optional<SagaInstance> findById(UUID id);
     
     List<SagaInstance> findByAggregateId(String aggregateId);
@@ -25,4 +28,88 @@ public interface SagaRepository {
     void deleteById(UUID id);
     
     boolean existsById(UUID id);
+
+    // State transitions. Each is a single conditional UPDATE and returns false if the row was not in the
+    // expected state (another worker got there first, or the saga moved on), so callers never overwrite
+    // a concurrent transition.
+
+    /**
+     * PENDING or FAILED step -> IN_PROGRESS, timing out at {@code deadline}. Only while the saga is STARTED or
+     * IN_PROGRESS, and atomically with respect to {@link #startCompensation}: once compensation has started no
+     * new step can be claimed, and a step claimed before it is visible to the compensation as IN_PROGRESS.
+     */
+    boolean claimStep(UUID sagaId, UUID stepId, Instant deadline);
+
+    /** IN_PROGRESS step -> COMPLETED. */
+    boolean completeStep(UUID sagaId, UUID stepId);
+
+    /** IN_PROGRESS step -> FAILED. */
+    boolean failStep(UUID sagaId, UUID stepId, String errorMessage);
+
+    /**
+     * COMPLETED step -> COMPENSATING, timing out at {@code deadline}; also re-claims a COMPENSATING step whose
+     * deadline has passed (its worker died). Only while the saga is COMPENSATING, and atomically with respect
+     * to {@link #failSaga}, so each compensation is run by one worker at a time.
+     */
+    boolean claimCompensation(UUID sagaId, UUID stepId, Instant deadline);
+
+    /** COMPENSATING step -> COMPENSATED. */
+    boolean markStepCompensated(UUID sagaId, UUID stepId);
+
+    /** COMPENSATING step -> COMPLETED, after its compensation failed, so a retry can claim it again. */
+    boolean releaseCompensation(UUID sagaId, UUID stepId);
+
+    /** Record progress of a running saga after a step completed (completed-step count) and extend its lease. */
+    boolean advanceSaga(UUID sagaId, Instant leaseUntil);
+
+    /** STARTED or IN_PROGRESS saga -> COMPLETED. */
+    boolean completeSaga(UUID sagaId);
+
+    /** STARTED, IN_PROGRESS or FAILED saga -> COMPENSATING. */
+    boolean startCompensation(UUID sagaId, String errorMessage);
+
+    /** COMPENSATING saga -> COMPENSATED, once none of its steps is still IN_PROGRESS, COMPLETED or COMPENSATING. */
+    boolean markSagaCompensated(UUID sagaId);
+
+    /** COMPENSATING saga -> FAILED, when some of its steps could not be compensated. */
+    boolean failSaga(UUID sagaId, String errorMessage);
+
+    /** FAILED saga -> COMPENSATING, counting a retry; only while its retry count is below its max retries. */
+    boolean retryCompensation(UUID sagaId);
+
+    // Recovery leases
+
+    /**
+     * Claim up to {@code limit} unfinished sagas whose lease is missing or expired, leasing them to
+     * {@code owner} until {@code leaseUntil}. Returns only the IDs; no saga or step rows are loaded.
+     */
+    List<UUID> claimRecoverableSagas(String owner, Instant leaseUntil, int limit);
+
+    /**
+     * Lease a saga to {@code owner} until {@code leaseUntil}, e.g. while compensating it. Only if the lease is
+     * already {@code owner}'s, missing or expired; false if another replica holds it.
+     */
+    boolean renewLease(UUID sagaId, String owner, Instant leaseUntil);
+
+    /** Give back leases held by {@code owner}, making the sagas immediately recoverable by any replica. */
+    void releaseLeases(Collection<UUID> sagaIds, String owner);
+
+    /** Number of unfinished sagas waiting for recovery (no lease, or lease expired). */
+    long countRecoverableSagas();
+
+    // Step deadlines
+
+    /**
+     * Fail up to {@code limit} IN_PROGRESS steps whose deadline has passed. Rows locked by another
+     * replica's dispatcher are skipped.
+     *
+     * @return how many steps were failed, and the IDs of the sagas they belong to
+     */
+    TimedOutSteps failTimedOutSteps(Instant now, int limit);
+
+    /** Result of {@link #failTimedOutSteps}: a saga with several overdue steps counts once in {@code sagaIds}. */
+    record TimedOutSteps(int stepCount, List<UUID> sagaIds) {
+
+        public static final TimedOutSteps NONE = new TimedOutSteps(0, List.of());
+    }
 }
@@ -0,0 +1,7 @@
+-- Recovery lease: the replica driving a saga holds a lease; recovery only claims sagas whose lease is missing or expired
+ALTER TABLE saga_instances ADD COLUMN lease_owner VARCHAR(100);
+ALTER TABLE saga_instances ADD COLUMN lease_expires_at TIMESTAMP;
+
+-- Recovery scans only unfinished sagas, oldest lease first
+CREATE INDEX idx_saga_instances_recoverable ON saga_instances(lease_expires_at NULLS FIRST)
+    WHERE status IN ('STARTED', 'IN_PROGRESS', 'COMPENSATING');
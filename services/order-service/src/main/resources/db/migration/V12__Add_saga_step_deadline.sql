@@ -0,0 +1,10 @@
+-- Per-step deadline: set when a step starts; the timeout dispatcher fails steps still IN_PROGRESS past it
+ALTER TABLE saga_steps ADD COLUMN deadline_at TIMESTAMP;
+
+-- Only running steps are indexed, so the dispatcher's probe touches just the steps that can time out
+CREATE INDEX idx_saga_steps_deadline ON saga_steps(deadline_at) WHERE status = 'IN_PROGRESS';
+
+-- Steps already stuck IN_PROGRESS get a deadline so they are picked up once deployed
+UPDATE saga_steps
+SET deadline_at = COALESCE(started_at, CURRENT_TIMESTAMP) + INTERVAL '60 seconds'
+WHERE status = 'IN_PROGRESS';
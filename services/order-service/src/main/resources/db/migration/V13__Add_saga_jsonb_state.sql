@@ -0,0 +1,9 @@
+-- Compact saga storage (app.saga.storage=jsonb): step state lives in one JSONB document on the saga row,
+-- so every transition is a single-row, version-checked UPDATE and reads need no join with saga_steps
+ALTER TABLE saga_instances ADD COLUMN steps_state JSONB;
+
+-- Earliest deadline among the saga's running steps (JSONB storage only); drives the step timeout dispatcher
+ALTER TABLE saga_instances ADD COLUMN step_deadline_at TIMESTAMP;
+
+CREATE INDEX idx_saga_instances_step_deadline ON saga_instances(step_deadline_at)
+    WHERE step_deadline_at IS NOT NULL;
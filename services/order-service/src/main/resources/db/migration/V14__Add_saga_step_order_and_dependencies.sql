@@ -0,0 +1,39 @@
+-- Persisted step order and dependencies: steps whose dependencies are all COMPLETED run in parallel
+ALTER TABLE saga_steps ADD COLUMN step_index INT;
+ALTER TABLE saga_steps ADD COLUMN depends_on VARCHAR(255);
+
+-- Existing sagas ran strictly in sequence: number their steps in definition order and chain each one to the
+-- step before it. saga_steps has no creation timestamp and physical row order (ctid) is not insertion order,
+-- so order by each step's position in its saga definition (names are unique per saga type), then by when it
+-- started (steps ran in sequence) and id as a deterministic tie-break
+WITH ordered AS (
+    SELECT id, ROW_NUMBER() OVER (
+        PARTITION BY saga_instance_id
+        ORDER BY CASE step_name
+                     WHEN 'Validate Order' THEN 0
+                     WHEN 'Reserve Inventory' THEN 1
+                     WHEN 'Process Payment' THEN 2
+                     WHEN 'Update Order Status' THEN 3
+                     WHEN 'Send Notification' THEN 4
+                     WHEN 'Cancel Order' THEN 0
+                     WHEN 'Release Inventory' THEN 1
+                     WHEN 'Process Refund' THEN 2
+                     WHEN 'Send Cancellation Notification' THEN 3
+                 END NULLS LAST,
+                 started_at NULLS LAST,
+                 id
+    ) - 1 AS idx
+    FROM saga_steps
+)
+UPDATE saga_steps s
+SET step_index = o.idx,
+    depends_on = CASE WHEN o.idx = 0 THEN '' ELSE (o.idx - 1)::text END
+FROM ordered o
+WHERE s.id = o.id;
+
+ALTER TABLE saga_steps ALTER COLUMN step_index SET NOT NULL;
+ALTER TABLE saga_steps ALTER COLUMN depends_on SET NOT NULL;
+
+-- Steps are loaded ordered by index; the unique index replaces the plain saga_instance_id index
+DROP INDEX idx_saga_steps_instance_id;
+CREATE UNIQUE INDEX idx_saga_steps_instance_index ON saga_steps(saga_instance_id, step_index);
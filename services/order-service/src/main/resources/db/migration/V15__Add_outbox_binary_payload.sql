@@ -0,0 +1,10 @@
+-- Pre-encoded outbox payloads (app.outbox.payload-format=avro): the writer stores the final Kafka record value
+-- (Confluent wire format: magic byte, 4-byte schema ID, Avro binary) and the relay sends it without parsing.
+-- The JSON payload is still written, for inspection and as the fallback the relay converts when bytes are absent.
+ALTER TABLE outbox_events ADD COLUMN payload_format VARCHAR(16) NOT NULL DEFAULT 'JSON';
+ALTER TABLE outbox_events ADD COLUMN payload_bytes BYTEA;
+ALTER TABLE outbox_events ADD COLUMN schema_id INTEGER;
+
+COMMENT ON COLUMN outbox_events.payload_format IS 'JSON (relay converts payload) or AVRO (relay sends payload_bytes as is)';
+COMMENT ON COLUMN outbox_events.payload_bytes IS 'Serialized Kafka record value in Confluent wire format when payload_format = AVRO';
+COMMENT ON COLUMN outbox_events.schema_id IS 'Schema Registry ID embedded in payload_bytes';
@@ -0,0 +1,6 @@
+-- DLQ redrive claims due rows a page at a time, earliest next_retry_at first; rows being redriven stay claimable
+-- (status PROCESSING, next_retry_at = claim expiry) so a crashed worker's page is picked up again
+DROP INDEX IF EXISTS idx_dlq_pending;
+
+CREATE INDEX idx_dlq_orders_due ON dlq_orders (next_retry_at NULLS FIRST)
+    WHERE status IN ('PENDING', 'PROCESSING');
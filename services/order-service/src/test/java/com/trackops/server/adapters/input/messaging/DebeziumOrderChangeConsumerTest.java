@@ -0,0 +1,125 @@
+package com.trackops.server.adapters.input.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trackops.server.adapters.output.monitoring.MetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("DebeziumOrderChangeConsumer")
+class DebeziumOrderChangeConsumerTest {
+
+    private static final String TOPIC = "trackops_orders.public.orders";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MetricsService metricsService = mock(MetricsService.class);
+    private final List<String> calls = new ArrayList<>();
+    private final List<DebeziumOrderChange> received = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(metricsService.cdcHandlerTimer(anyString(), anyString())).thenAnswer(invocation ->
+            meterRegistry.timer("cdc", "handler", invocation.getArgument(0), "outcome", invocation.getArgument(1)));
+    }
+
+    @Test
+    @DisplayName("parses a record once and hands the same change to every handler in order")
+    void dispatchesOneParsedChange() {
+        DebeziumOrderChangeConsumer consumer = consumer(handler("order-events"), handler("cache-invalidation"),
+            handler("cache-warming"));
+        UUID orderId = UUID.randomUUID();
+        UUID customerId = UUID.randomUUID();
+
+        consumer.handleOrderChange(TOPIC, 0, 42L, """
+            {"payload": {"op": "u",
+              "before": {"id": "%s", "customer_id": "%s", "status": "PENDING"},
+              "after": {"id": "%s", "customer_id": "%s", "status": "CONFIRMED", "total_amount": "19.90",
+                        "updated_at": "2024-05-01T12:00:00Z", "version": 3, "city": "Lisbon"}}}
+            """.formatted(orderId, customerId, orderId, customerId));
+
+        assertThat(calls).containsExactly("order-events", "cache-invalidation", "cache-warming");
+        assertThat(received).hasSize(3).allSatisfy(change -> assertThat(change).isSameAs(received.get(0)));
+        DebeziumOrderChange change = received.get(0);
+        assertThat(change.operation()).isEqualTo(DebeziumOrderChange.Operation.UPDATE);
+        assertThat(change.topic()).isEqualTo(TOPIC);
+        assertThat(change.before().status()).isEqualTo("PENDING");
+        assertThat(change.after().id()).isEqualTo(orderId);
+        assertThat(change.after().totalAmount()).isEqualByComparingTo(new BigDecimal("19.90"));
+        assertThat(change.after().version()).isEqualTo(3L);
+        assertThat(change.after().address().getCity()).isEqualTo("Lisbon");
+    }
+
+    @Test
+    @DisplayName("a failing handler is counted as an error and does not stop the others")
+    void isolatesHandlerFailures() {
+        DebeziumOrderChangeHandler failing = new DebeziumOrderChangeHandler() {
+            @Override
+            public String name() {
+                return "order-events";
+            }
+
+            @Override
+            public void handle(DebeziumOrderChange change) {
+                calls.add(name());
+                throw new IllegalStateException("Kafka unavailable");
+            }
+        };
+        DebeziumOrderChangeConsumer consumer = consumer(failing, handler("cache-invalidation"));
+
+        consumer.handleOrderChange(TOPIC, 0, 7L,
+            "{\"payload\": {\"op\": \"c\", \"before\": null, \"after\": {\"id\": \"" + UUID.randomUUID() + "\"}}}");
+
+        assertThat(calls).containsExactly("order-events", "cache-invalidation");
+        assertThat(meterRegistry.timer("cdc", "handler", "order-events", "outcome", "error").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("cdc", "handler", "cache-invalidation", "outcome", "success").count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("an unparseable record reaches no handler and is counted")
+    void skipsUnparseableRecord() {
+        DebeziumOrderChangeConsumer consumer = consumer(handler("order-events"));
+
+        consumer.handleOrderChange(TOPIC, 0, 9L, "not json");
+        consumer.handleOrderChange(TOPIC, 0, 10L, "{\"schema\": {}}");
+
+        assertThat(calls).isEmpty();
+        verify(metricsService, times(2)).recordCdcParseFailure();
+    }
+
+    private DebeziumOrderChangeConsumer consumer(DebeziumOrderChangeHandler... handlers) {
+        DebeziumOrderChangeConsumer consumer = new DebeziumOrderChangeConsumer(
+            new DebeziumOrderPayloadMapper(new ObjectMapper()), List.of(handlers), metricsService);
+        ReflectionTestUtils.setField(consumer, "eventPublishingStrategy", "debezium");
+        return consumer;
+    }
+
+    private DebeziumOrderChangeHandler handler(String name) {
+        return new DebeziumOrderChangeHandler() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public void handle(DebeziumOrderChange change) {
+                calls.add(name);
+                received.add(change);
+            }
+        };
+    }
+}
@@ -0,0 +1,170 @@
+package com.trackops.server.adapters.input.messaging;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trackops.server.domain.model.orders.Address;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Per-record cost of parsing orders CDC events: CPU time and allocated bytes per record for the previous
+ * {@code readTree} parse (full Jackson tree, then the fields read from it) and for the streaming
+ * {@link DebeziumOrderPayloadMapper#parse}. Measured on an update envelope with the JSON converter's schema
+ * section, the same envelope without it, and the unwrapped record of {@code trackops-orders-connector}, with
+ * timestamps as epoch milliseconds ({@code time.precision.mode=connect}).
+ * Run with {@code ./gradlew benchmark --tests '*DebeziumOrderPayloadMapperBenchmark'}.
+ */
+@Tag("benchmark")
+@DisplayName("Debezium order payload parsing benchmark")
+class DebeziumOrderPayloadMapperBenchmark {
+
+    private static final int WARMUP = 100_000;
+    private static final int RECORDS = 500_000;
+
+    private static final List<String> COLUMNS = List.of("id", "customer_id", "status", "total_amount",
+        "street_address", "city", "state", "postal_code", "country", "phone_number", "delivery_instructions",
+        "created_at", "updated_at", "version", "created_by", "updated_by", "cancellation_reason");
+    private static final List<String> SOURCE = List.of("version", "connector", "name", "ts_ms", "snapshot", "db",
+        "sequence", "schema", "table", "txId", "lsn", "xmin");
+
+    @Test
+    @DisplayName("Jackson tree vs streaming extraction")
+    void compareParsers() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        LegacyParser legacy = new LegacyParser(objectMapper);
+        DebeziumOrderPayloadMapper mapper = new DebeziumOrderPayloadMapper(objectMapper);
+        String before = row("PENDING", 2);
+        String after = row("CONFIRMED", 3);
+        String envelope = """
+            {"before": %s, "after": %s, "source": {"version": "2.5.0.Final", "connector": "postgresql",
+             "name": "trackops_orders", "ts_ms": 1714564800000, "snapshot": "false", "db": "trackops_orders",
+             "sequence": "[\\"24023928\\",\\"24023928\\"]", "schema": "public", "table": "orders", "txId": 7521,
+             "lsn": 24023928, "xmin": null}, "op": "u", "ts_ms": 1714564800123, "transaction": null}
+            """.formatted(before, after);
+        String withSchema = "{\"schema\": " + schema() + ", \"payload\": " + envelope + "}";
+        String unwrapped = after.substring(0, after.length() - 1)
+            + ", \"sourceSystem\": \"trackops-orders\", \"__op\": \"u\", \"__source_ts_ms\": 1714564800000,"
+            + " \"__db\": \"trackops_orders\", \"__table\": \"orders\"}";
+
+        System.out.printf("%n%-36s %8s %14s %14s%n", "scenario", "bytes", "CPU ns/record", "alloc B/record");
+        measure("tree, envelope with schema", withSchema, raw -> legacy.parse(raw));
+        measure("streaming, envelope with schema", withSchema, raw -> mapper.parse("orders", raw));
+        measure("tree, schemaless envelope", envelope, raw -> legacy.parse(raw));
+        measure("streaming, schemaless envelope", envelope, raw -> mapper.parse("orders", raw));
+        measure("streaming, unwrapped record", unwrapped, raw -> mapper.parse("orders", raw));
+    }
+
+    private static void measure(String scenario, String raw, Parser parser) throws Exception {
+        Object sink = null;
+        for (int i = 0; i < WARMUP; i++) {
+            sink = parser.parse(raw);
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long cpuBefore = threads.getCurrentThreadCpuTime();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < RECORDS; i++) {
+            sink = parser.parse(raw);
+        }
+        long cpu = threads.getCurrentThreadCpuTime() - cpuBefore;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        System.out.printf("%-36s %8d %14d %14d%n", scenario, raw.length(), cpu / RECORDS, allocated / RECORDS);
+        if (sink == null) {
+            throw new IllegalStateException("no result");
+        }
+    }
+
+    private static String row(String status, int version) {
+        return """
+            {"id": "%s", "customer_id": "%s", "status": "%s", "total_amount": "129.90",
+             "street_address": "Rua Augusta 100", "city": "Lisbon", "state": "Lisboa", "postal_code": "1100-053",
+             "country": "PT", "phone_number": "+351210000000", "delivery_instructions": "Leave at the door",
+             "created_at": 1714561200000, "updated_at": 1714564800000,
+             "version": %d, "created_by": "alice", "updated_by": "ops", "cancellation_reason": null}
+            """.formatted(UUID.randomUUID(), UUID.randomUUID(), status, version);
+    }
+
+    private static String schema() {
+        String row = COLUMNS.stream()
+            .map(column -> "{\"type\": \"" + (column.equals("version") || column.endsWith("_at") ? "int64" : "string")
+                + "\", \"optional\": true, \"field\": \"" + column + "\"}")
+            .collect(Collectors.joining(", "));
+        String source = SOURCE.stream()
+            .map(field -> "{\"type\": \"string\", \"optional\": false, \"field\": \"" + field + "\"}")
+            .collect(Collectors.joining(", "));
+        return """
+            {"type": "struct", "optional": false, "name": "trackops_orders.public.orders.Envelope", "version": 1,
+             "fields": [
+              {"type": "struct", "optional": true, "name": "trackops_orders.public.orders.Value", "field": "before",
+               "fields": [%s]},
+              {"type": "struct", "optional": true, "name": "trackops_orders.public.orders.Value", "field": "after",
+               "fields": [%s]},
+              {"type": "struct", "optional": false, "name": "io.debezium.connector.postgresql.Source",
+               "field": "source", "fields": [%s]},
+              {"type": "string", "optional": false, "field": "op"},
+              {"type": "int64", "optional": true, "field": "ts_ms"}]}
+            """.formatted(row, row, source);
+    }
+
+    @FunctionalInterface
+    private interface Parser {
+        Object parse(String raw) throws Exception;
+    }
+
+    /**
+     * The parse before streaming extraction, kept as the baseline: whole payload read into a tree, then the
+     * row columns read from it.
+     */
+    private static final class LegacyParser {
+
+        private final ObjectMapper objectMapper;
+
+        LegacyParser(ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+        }
+
+        DebeziumOrderChange parse(String raw) throws Exception {
+            JsonNode event = objectMapper.readTree(raw);
+            JsonNode payload = event.has("payload") ? event.get("payload") : event;
+            return new DebeziumOrderChange("orders", DebeziumOrderChange.Operation.fromCode(text(payload, "op")),
+                row(payload.get("before")), row(payload.get("after")), raw);
+        }
+
+        private static DebeziumOrderChange.Row row(JsonNode n) {
+            if (n == null || !n.isObject()) {
+                return null;
+            }
+            String id = text(n, "id");
+            String amount = text(n, "total_amount");
+            return new DebeziumOrderChange.Row(
+                id != null ? UUID.fromString(id) : null,
+                text(n, "customer_id"),
+                text(n, "status"),
+                amount != null ? new BigDecimal(amount) : null,
+                new Address(text(n, "street_address"), text(n, "city"), text(n, "state"), text(n, "postal_code"),
+                    text(n, "country"), text(n, "phone_number")),
+                text(n, "delivery_instructions"),
+                instant(n, "created_at"),
+                instant(n, "updated_at"),
+                n.has("version") ? n.get("version").asLong() : null,
+                text(n, "created_by"),
+                text(n, "updated_by"),
+                text(n, "cancellation_reason"));
+        }
+
+        private static String text(JsonNode n, String field) {
+            return n.has(field) && !n.get(field).isNull() ? n.get(field).asText() : null;
+        }
+
+        private static Instant instant(JsonNode n, String field) {
+            return n.has(field) && !n.get(field).isNull() ? Instant.ofEpochMilli(n.get(field).asLong()) : null;
+        }
+    }
+}
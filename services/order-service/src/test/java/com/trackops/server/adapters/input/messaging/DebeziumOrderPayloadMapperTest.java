@@ -0,0 +1,118 @@
+package com.trackops.server.adapters.input.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("DebeziumOrderPayloadMapper")
+class DebeziumOrderPayloadMapperTest {
+
+    private static final String TOPIC = "trackops_orders.public.orders";
+
+    private final DebeziumOrderPayloadMapper mapper = new DebeziumOrderPayloadMapper(new ObjectMapper());
+    private final UUID orderId = UUID.randomUUID();
+    private final UUID customerId = UUID.randomUUID();
+
+    @Test
+    @DisplayName("reads the envelope inside the JSON converter's payload and skips the schema and source")
+    void parsesEnvelopeWithSchema() {
+        String raw = """
+            {"schema": {"type": "struct", "fields": [{"type": "struct", "field": "before",
+                         "fields": [{"type": "string", "field": "id"}, {"type": "string", "field": "status"}]}]},
+             "payload": {
+               "before": {"id": "%s", "customer_id": "%s", "status": "PENDING", "version": 2},
+               "after": {"id": "%s", "customer_id": "%s", "status": "CONFIRMED", "total_amount": 19.9,
+                         "street_address": "Rua Augusta 1", "city": "Lisbon", "postal_code": "1100-053",
+                         "created_at": "2024-05-01T11:00:00Z", "updated_at": 1714564800000, "version": 3,
+                         "updated_by": "ops", "unknown_column": {"nested": [1, 2]}},
+               "source": {"version": "2.5.0.Final", "connector": "postgresql", "lsn": 123},
+               "op": "u", "ts_ms": 1714564800123, "transaction": null}}
+            """.formatted(orderId, customerId, orderId, customerId);
+
+        DebeziumOrderChange change = mapper.parse(TOPIC, raw);
+
+        assertThat(change.operation()).isEqualTo(DebeziumOrderChange.Operation.UPDATE);
+        assertThat(change.topic()).isEqualTo(TOPIC);
+        assertThat(change.rawPayload()).isSameAs(raw);
+        assertThat(change.before().status()).isEqualTo("PENDING");
+        assertThat(change.before().version()).isEqualTo(2L);
+        DebeziumOrderChange.Row after = change.after();
+        assertThat(after.id()).isEqualTo(orderId);
+        assertThat(after.customerId()).isEqualTo(customerId.toString());
+        assertThat(after.status()).isEqualTo("CONFIRMED");
+        assertThat(after.totalAmount()).isEqualByComparingTo(new BigDecimal("19.9"));
+        assertThat(after.address().getStreetAddress()).isEqualTo("Rua Augusta 1");
+        assertThat(after.address().getCity()).isEqualTo("Lisbon");
+        assertThat(after.address().getPostalCode()).isEqualTo("1100-053");
+        assertThat(after.createdAt()).isEqualTo(Instant.parse("2024-05-01T11:00:00Z"));
+        assertThat(after.updatedAt()).isEqualTo(Instant.ofEpochMilli(1714564800000L));
+        assertThat(after.version()).isEqualTo(3L);
+        assertThat(after.updatedBy()).isEqualTo("ops");
+        assertThat(mapper.orderFromRow(after)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("reads a schemaless envelope")
+    void parsesSchemalessEnvelope() {
+        DebeziumOrderChange change = mapper.parse(TOPIC, """
+            {"before": null,
+             "after": {"id": "%s", "customer_id": "%s", "status": "PENDING", "created_by": "alice"},
+             "source": {"table": "orders"}, "op": "c", "ts_ms": 1714564800123}
+            """.formatted(orderId, customerId));
+
+        assertThat(change.operation()).isEqualTo(DebeziumOrderChange.Operation.CREATE);
+        assertThat(change.before()).isNull();
+        assertThat(change.after().id()).isEqualTo(orderId);
+        assertThat(change.after().createdBy()).isEqualTo("alice");
+    }
+
+    @Test
+    @DisplayName("reads an unwrapped record with camelCase columns as the after row")
+    void parsesUnwrappedRecord() {
+        DebeziumOrderChange change = mapper.parse(TOPIC, """
+            {"schema": {"type": "struct", "fields": []},
+             "payload": {"id": "%s", "customerId": "%s", "status": "SHIPPED", "totalAmount": "42.50",
+                         "phoneNumber": "****", "updatedAt": "2024-05-01T12:00:00Z", "version": 7,
+                         "sourceSystem": "trackops-orders", "__op": "u", "__source_ts_ms": 1714564800123,
+                         "__db": "trackops_orders", "__table": "orders", "__deleted": "false"}}
+            """.formatted(orderId, customerId));
+
+        assertThat(change.operation()).isEqualTo(DebeziumOrderChange.Operation.UPDATE);
+        assertThat(change.before()).isNull();
+        assertThat(change.after().id()).isEqualTo(orderId);
+        assertThat(change.after().customerId()).isEqualTo(customerId.toString());
+        assertThat(change.after().totalAmount()).isEqualByComparingTo(new BigDecimal("42.50"));
+        assertThat(change.after().address().getPhoneNumber()).isEqualTo("****");
+        assertThat(change.after().version()).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("reads a rewritten unwrapped delete as the before row")
+    void parsesUnwrappedDelete() {
+        DebeziumOrderChange change = mapper.parse(TOPIC, """
+            {"id": "%s", "customer_id": "%s", "status": "CANCELLED", "__deleted": "true"}
+            """.formatted(orderId, customerId));
+
+        assertThat(change.operation()).isEqualTo(DebeziumOrderChange.Operation.DELETE);
+        assertThat(change.after()).isNull();
+        assertThat(change.before().id()).isEqualTo(orderId);
+        assertThat(change.before().status()).isEqualTo("CANCELLED");
+    }
+
+    @Test
+    @DisplayName("rejects tombstones, invalid JSON and records without an operation or row")
+    void rejectsUnusablePayloads() {
+        assertThatThrownBy(() -> mapper.parse(TOPIC, null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> mapper.parse(TOPIC, "{\"payload\": {\"op\": ")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> mapper.parse(TOPIC, "[1, 2]")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> mapper.parse(TOPIC, "{\"schema\": {}, \"payload\": null}"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,106 @@
+package com.trackops.server.adapters.input.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trackops.server.adapters.input.web.dto.OrderResponse;
+import com.trackops.server.adapters.output.monitoring.MetricsService;
+import com.trackops.server.domain.model.orders.Order;
+import com.trackops.server.ports.output.cache.OrderCachePort;
+import com.trackops.server.ports.output.cache.OrderStatusCachePort;
+import com.trackops.server.ports.output.cache.OrderVersionedCachePort;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("DebeziumRedisCacheWarmer")
+class DebeziumRedisCacheWarmerTest {
+
+    private static final String TOPIC = "trackops_orders.public.orders";
+
+    private final OrderVersionedCachePort versionedCachePort = mock(OrderVersionedCachePort.class);
+    private final OrderCachePort orderCachePort = mock(OrderCachePort.class);
+    private final OrderStatusCachePort orderStatusCachePort = mock(OrderStatusCachePort.class);
+    private final MetricsService metricsService = mock(MetricsService.class);
+    private final DebeziumOrderPayloadMapper mapper = new DebeziumOrderPayloadMapper(new ObjectMapper());
+    private final DebeziumRedisCacheWarmer warmer = warmer();
+    private final UUID orderId = UUID.randomUUID();
+
+    @Test
+    @DisplayName("writes the after row through the version-guarded port with its version and updated_at")
+    void writesThroughVersionGuard() {
+        when(versionedCachePort.cacheOrderIfNewer(any(), any(), any(), any())).thenReturn(true);
+
+        warmer.handle(change("u", 4, 1714564800000L));
+
+        ArgumentCaptor<Order> order = ArgumentCaptor.forClass(Order.class);
+        ArgumentCaptor<OrderResponse> response = ArgumentCaptor.forClass(OrderResponse.class);
+        verify(versionedCachePort).cacheOrderIfNewer(order.capture(), response.capture(),
+            eq(Duration.ofSeconds(3600)), eq(Duration.ofSeconds(1800)));
+        assertThat(order.getValue().getId()).isEqualTo(orderId);
+        assertThat(order.getValue().getVersion()).isEqualTo(4L);
+        assertThat(order.getValue().getUpdatedAt()).isEqualTo(Instant.ofEpochMilli(1714564800000L));
+        assertThat(response.getValue().getId()).isEqualTo(orderId);
+        verify(metricsService).recordCdcCacheWrite("written");
+    }
+
+    @Test
+    @DisplayName("counts a change whose cached state is as new or newer as stale and writes nothing else")
+    void countsStaleChange() {
+        when(versionedCachePort.cacheOrderIfNewer(any(), any(), any(), any())).thenReturn(false);
+
+        warmer.handle(change("u", 2, 1714564700000L));
+
+        verify(metricsService).recordCdcCacheWrite("stale");
+        verify(orderCachePort, never()).invalidateAllOrderCaches(any());
+        verify(orderStatusCachePort, never()).removeOrderStatus(any());
+    }
+
+    @Test
+    @DisplayName("removes the entries when the row is too incomplete to compare")
+    void invalidatesIncompleteRow() {
+        warmer.handle(mapper.parse(TOPIC,
+            "{\"op\": \"u\", \"after\": {\"id\": \"" + orderId + "\", \"status\": \"SHIPPED\"}}"));
+
+        verify(versionedCachePort, never()).cacheOrderIfNewer(any(), any(), any(), any());
+        verify(orderCachePort).invalidateAllOrderCaches(orderId);
+        verify(orderStatusCachePort).removeOrderStatus(orderId);
+        verify(metricsService).recordCdcCacheWrite("invalidated");
+    }
+
+    @Test
+    @DisplayName("marks a deleted order so replayed older changes are not cached again")
+    void marksDeletedOrder() {
+        warmer.handle(mapper.parse(TOPIC,
+            "{\"op\": \"d\", \"before\": {\"id\": \"" + orderId + "\"}, \"after\": null}"));
+
+        verify(versionedCachePort).removeDeletedOrder(orderId, Duration.ofSeconds(3600));
+    }
+
+    private DebeziumOrderChange change(String op, long version, long updatedAt) {
+        return mapper.parse(TOPIC, """
+            {"op": "%s", "after": {"id": "%s", "customer_id": "%s", "status": "CONFIRMED", "total_amount": "19.90",
+             "street_address": "Rua Augusta 1", "city": "Lisbon", "state": "Lisboa", "postal_code": "1100-053",
+             "country": "PT", "created_at": 1714561200000, "updated_at": %d, "version": %d}}
+            """.formatted(op, orderId, UUID.randomUUID(), updatedAt, version));
+    }
+
+    private DebeziumRedisCacheWarmer warmer() {
+        DebeziumRedisCacheWarmer warmer = new DebeziumRedisCacheWarmer(versionedCachePort, orderCachePort,
+            orderStatusCachePort, mapper, metricsService);
+        ReflectionTestUtils.setField(warmer, "orderCacheTtlSeconds", 3600L);
+        ReflectionTestUtils.setField(warmer, "statusCacheTtlSeconds", 1800L);
+        return warmer;
+    }
+}
@@ -0,0 +1,139 @@
+package com.trackops.server.adapters.input.messaging;
+
+import com.trackops.events.kafka.KeyOrderedRecordProcessor;
+import com.trackops.server.adapters.input.messaging.orders.OrderEventRetryTopics;
+import com.trackops.server.adapters.output.monitoring.MetricsService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("KeyOrderedRecordProcessor")
+class KeyOrderedRecordProcessorTest {
+
+    private final MetricsService metricsService = mock(MetricsService.class);
+    private final OrderEventRetryTopics retryTopics = mock(OrderEventRetryTopics.class);
+    private KeyOrderedRecordProcessor processor;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (processor != null) {
+            processor.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("keeps offset order per key while different keys run in parallel")
+    void ordersPerKeyAndParallelizesAcrossKeys() throws Exception {
+        processor = start(true, 8, 1);
+        List<UUID> keys = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        Map<UUID, List<Long>> seen = new ConcurrentHashMap<>();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(200);
+
+        for (long offset = 0; offset < 200; offset++) {
+            UUID key = keys.get((int) (offset % keys.size()));
+            long recordOffset = offset;
+            processor.process(record(key, recordOffset), mock(Acknowledgment.class), () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(1);
+                seen.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(recordOffset);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        seen.values().forEach(offsets -> assertThat(offsets).isSorted().hasSize(50));
+        assertThat(maxRunning.get()).isGreaterThan(1);
+    }
+
+    @Test
+    @DisplayName("retries a failing record on its lane and acknowledges it after the last attempt")
+    void retriesThenSkips() throws Exception {
+        processor = start(true, 2, 3);
+        Acknowledgment failingAck = mock(Acknowledgment.class);
+        Acknowledgment nextAck = mock(Acknowledgment.class);
+        UUID key = UUID.randomUUID();
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch next = new CountDownLatch(1);
+
+        processor.process(record(key, 0), failingAck, () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("database down");
+        });
+        processor.process(record(key, 1), nextAck, () -> {
+            nextAck.acknowledge();
+            next.countDown();
+        });
+
+        assertThat(next.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(attempts.get()).isEqualTo(3);
+        verify(failingAck).acknowledge();
+        verify(metricsService, times(2)).recordKeyOrderedRetry("ORDER_CREATED");
+        verify(metricsService).recordKeyOrderedFailure("ORDER_CREATED");
+    }
+
+    @Test
+    @DisplayName("runs on the listener thread and lets failures reach the container when disabled")
+    void runsInlineWhenDisabled() throws Exception {
+        processor = start(false, 4, 3);
+        Thread listener = Thread.currentThread();
+        Acknowledgment ack = mock(Acknowledgment.class);
+
+        processor.process(record(UUID.randomUUID(), 0), ack, () -> assertThat(Thread.currentThread()).isSameAs(listener));
+
+        assertThatThrownBy(() -> processor.process(record(UUID.randomUUID(), 1), ack, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+        verify(ack, never()).acknowledge();
+    }
+
+    @Test
+    @DisplayName("hands a failing record to the retry tiers and acknowledges it instead of retrying in place")
+    void handsFailuresToRetryTopics() throws Exception {
+        when(retryTopics.isEnabled()).thenReturn(true);
+        processor = start(true, 2, 3);
+        ConsumerRecord<UUID, String> failing = record(UUID.randomUUID(), 0);
+        IllegalStateException cause = new IllegalStateException("database down");
+        CountDownLatch acked = new CountDownLatch(1);
+        Acknowledgment ack = acked::countDown;
+
+        processor.process(failing, ack, () -> {
+            throw cause;
+        });
+
+        assertThat(acked.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(retryTopics).scheduleRetry(failing, cause);
+        verify(metricsService, never()).recordKeyOrderedRetry("ORDER_CREATED");
+    }
+
+    private KeyOrderedRecordProcessor start(boolean enabled, int workers, int maxAttempts) {
+        KeyOrderedRecordProcessor processor = new KeyOrderedRecordProcessor(metricsService, retryTopics, enabled, workers, maxAttempts, 0);
+        processor.start();
+        return processor;
+    }
+
+    private static ConsumerRecord<UUID, String> record(UUID key, long offset) {
+        return new ConsumerRecord<>("ORDER_CREATED", 0, offset, key, "value");
+    }
+}
@@ -0,0 +1,219 @@
+package com.trackops.server.adapters.input.messaging.orders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trackops.events.inventory.InventoryReleasedEvent;
+import com.trackops.events.orders.OrderCreatedEvent;
+import com.trackops.server.adapters.input.messaging.DebeziumOrderChange;
+import com.trackops.server.adapters.input.messaging.DebeziumOrderEventConsumer;
+import com.trackops.server.adapters.input.messaging.DebeziumOrderPayloadMapper;
+import com.trackops.server.adapters.output.messaging.dlq.KafkaDlqEventRepublisher;
+import com.trackops.server.adapters.output.monitoring.MetricsService;
+import com.trackops.server.application.services.dlq.DlqOrderService;
+import com.trackops.server.config.OrderEventsTopic;
+import com.trackops.server.domain.model.dlq.DlqOrder;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@DisplayName("OrderEventRetryTopics")
+class OrderEventRetryTopicsTest {
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<UUID, GenericRecord> kafkaTemplate = mock(KafkaTemplate.class);
+    private final DlqOrderService dlqOrderService = mock(DlqOrderService.class);
+    private final MetricsService metricsService = mock(MetricsService.class);
+    private final OrderEventsTopic consolidatedTopic = new OrderEventsTopic(true, "ORDER_EVENTS");
+    private final OrderEventRetryTopics retryTopics = new OrderEventRetryTopics(kafkaTemplate, dlqOrderService,
+        metricsService, new OrderEventsTopic(false, "ORDER_EVENTS"), true, 3, 1000, 10);
+    private final UUID orderId = UUID.randomUUID();
+    private final GenericRecord value = mock(GenericRecord.class);
+
+    @Test
+    @DisplayName("grows the tier delays exponentially and names one topic per order event topic and delay")
+    void tierDelaysAndTopics() {
+        assertThat(retryTopics.tierCount()).isEqualTo(3);
+        assertThat(retryTopics.delayMs(1)).isEqualTo(1_000);
+        assertThat(retryTopics.delayMs(2)).isEqualTo(10_000);
+        assertThat(retryTopics.delayMs(3)).isEqualTo(100_000);
+        assertThat(retryTopics.tierTopics(2)).contains("ORDER_CREATED-retry-10000", "INVENTORY_RELEASED-retry-10000")
+            .hasSize(OrderEventRetryTopics.ORDER_EVENT_TOPICS.size());
+    }
+
+    @Test
+    @DisplayName("moves a record failing on its main topic to the first tier with its origin and due time")
+    @SuppressWarnings("unchecked")
+    void schedulesFirstTier() throws Exception {
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+        ConsumerRecord<UUID, GenericRecord> record = new ConsumerRecord<>("ORDER_CREATED", 1, 42, orderId, value);
+        long before = System.currentTimeMillis();
+
+        retryTopics.scheduleRetry(record, new IllegalStateException("database down"));
+
+        ArgumentCaptor<ProducerRecord<UUID, GenericRecord>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(sent.capture());
+        ProducerRecord<UUID, GenericRecord> retry = sent.getValue();
+        assertThat(retry.topic()).isEqualTo("ORDER_CREATED-retry-1000");
+        assertThat(retry.key()).isEqualTo(orderId);
+        assertThat(retry.value()).isSameAs(value);
+        ConsumerRecord<UUID, GenericRecord> onTier = new ConsumerRecord<>(retry.topic(), 0, 0, orderId, value);
+        retry.headers().forEach(header -> onTier.headers().add(header));
+        assertThat(OrderEventRetryTopics.isRetryRecord(onTier)).isTrue();
+        assertThat(OrderEventRetryTopics.tierOf(onTier)).isEqualTo(1);
+        assertThat(OrderEventRetryTopics.originalTopic(onTier)).isEqualTo("ORDER_CREATED");
+        assertThat(OrderEventRetryTopics.dueAt(onTier)).isBetween(before + 1_000, System.currentTimeMillis() + 1_000);
+        verify(metricsService).recordRetryTierRecord(1, "scheduled");
+    }
+
+    @Test
+    @DisplayName("writes a record failing on the last tier to dlq_orders under its original topic")
+    void exhaustsToDlq() throws Exception {
+        ConsumerRecord<UUID, String> record =
+            new ConsumerRecord<>("INVENTORY_RELEASED-retry-100000", 0, 7, orderId, "{\"orderId\": \"" + orderId + "\"}");
+        record.headers()
+            .add(new RecordHeader(OrderEventRetryTopics.ORIGINAL_TOPIC_HEADER, bytes("INVENTORY_RELEASED")))
+            .add(new RecordHeader(OrderEventRetryTopics.TIER_HEADER, bytes("3")));
+        IllegalStateException cause = new IllegalStateException("still failing");
+
+        retryTopics.scheduleRetry(record, cause);
+
+        verify(dlqOrderService).saveFailedOrderEvent("INVENTORY_RELEASED", orderId.toString(), record.value(),
+            "INVENTORY_RELEASED", cause);
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+        verify(metricsService).recordRetryTierRecord(3, "exhausted");
+    }
+
+    @Test
+    @DisplayName("retries consolidated topic records on its own tiers and stores them in dlq_orders by event type")
+    @SuppressWarnings("unchecked")
+    void retriesConsolidatedTopic() throws Exception {
+        OrderEventRetryTopics consolidatedRetries = new OrderEventRetryTopics(kafkaTemplate, dlqOrderService,
+            metricsService, consolidatedTopic, true, 3, 1000, 10);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+        ConsumerRecord<UUID, GenericRecord> record = new ConsumerRecord<>("ORDER_EVENTS", 4, 9, orderId, value);
+        record.headers().add(new RecordHeader(OrderEventsTopic.EVENT_TYPE_HEADER, bytes("ORDER_CANCELLED")));
+        IllegalStateException cause = new IllegalStateException("database down");
+
+        assertThat(consolidatedRetries.tierTopics(1)).contains("ORDER_EVENTS-retry-1000")
+            .hasSize(OrderEventRetryTopics.ORDER_EVENT_TOPICS.size() + 1);
+        consolidatedRetries.scheduleRetry(record, cause);
+
+        ArgumentCaptor<ProducerRecord<UUID, GenericRecord>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(sent.capture());
+        assertThat(sent.getValue().topic()).isEqualTo("ORDER_EVENTS-retry-1000");
+        ConsumerRecord<UUID, String> onLastTier =
+            new ConsumerRecord<>("ORDER_EVENTS-retry-100000", 0, 0, orderId, "{}");
+        sent.getValue().headers().forEach(header -> onLastTier.headers().add(header));
+        onLastTier.headers().remove(OrderEventRetryTopics.TIER_HEADER);
+        onLastTier.headers().add(new RecordHeader(OrderEventRetryTopics.TIER_HEADER, bytes("3")));
+        assertThat(OrderEventsTopic.eventType(onLastTier)).isEqualTo("ORDER_CANCELLED");
+
+        consolidatedRetries.scheduleRetry(onLastTier, cause);
+
+        verify(dlqOrderService).saveFailedOrderEvent("ORDER_EVENTS", orderId.toString(), "{}", "ORDER_CANCELLED", cause);
+    }
+
+    @Test
+    @DisplayName("stores Avro values in Avro's JSON encoding so the DLQ redrive can rebuild them")
+    @SuppressWarnings("unchecked")
+    void avroPayloadRoundTrips() throws Exception {
+        OrderCreatedEvent event = OrderCreatedEvent.newBuilder()
+            .setOrderId(orderId.toString())
+            .setEventType("ORDER_CREATED")
+            .setCreatedBy("alice")
+            .build();
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+        DlqOrder row = DlqOrder.builder()
+            .orderId(orderId.toString())
+            .messageType("ORDER_CREATED")
+            .payload(OrderEventRetryTopics.payloadJson(event))
+            .build();
+
+        republisher(mock(ObjectProvider.class)).republish(row).get();
+
+        ArgumentCaptor<ProducerRecord<UUID, GenericRecord>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(sent.capture());
+        assertThat(sent.getValue().topic()).isEqualTo("ORDER_EVENTS");
+        assertThat(sent.getValue().key()).isEqualTo(orderId);
+        assertThat(sent.getValue().value()).isEqualTo(event);
+        assertThat(sent.getValue().headers().lastHeader(OrderEventsTopic.EVENT_TYPE_HEADER).value())
+            .isEqualTo(bytes("ORDER_CREATED"));
+    }
+
+    @Test
+    @DisplayName("redrives inventory events as Avro to the consolidated topic, with their type header")
+    @SuppressWarnings("unchecked")
+    void inventoryRowGoesToConsolidatedTopic() throws Exception {
+        InventoryReleasedEvent event = InventoryReleasedEvent.newBuilder()
+            .setOrderId(orderId.toString())
+            .setEventId(UUID.randomUUID().toString())
+            .setEventType("INVENTORY_RELEASED")
+            .setReservationId("res-1")
+            .setReleasedItems(List.of())
+            .setReason("Order cancelled")
+            .build();
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+        DlqOrder row = DlqOrder.builder()
+            .orderId(orderId.toString())
+            .messageType("INVENTORY_RELEASED")
+            .payload(OrderEventRetryTopics.payloadJson(event))
+            .build();
+
+        republisher(mock(ObjectProvider.class)).republish(row).get();
+
+        ArgumentCaptor<ProducerRecord<UUID, GenericRecord>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(sent.capture());
+        assertThat(sent.getValue().topic()).isEqualTo("ORDER_EVENTS");
+        assertThat(sent.getValue().value()).isEqualTo(event);
+        assertThat(sent.getValue().headers().lastHeader(OrderEventsTopic.EVENT_TYPE_HEADER).value())
+            .isEqualTo(bytes("INVENTORY_RELEASED"));
+    }
+
+    @Test
+    @DisplayName("redrives CDC rows through the order-events handler, not back onto the Debezium topic")
+    @SuppressWarnings("unchecked")
+    void cdcRowIsHandledDirectly() throws Exception {
+        DebeziumOrderEventConsumer handler = mock(DebeziumOrderEventConsumer.class);
+        ObjectProvider<DebeziumOrderEventConsumer> handlers = mock(ObjectProvider.class);
+        when(handlers.getIfAvailable()).thenReturn(handler);
+        DlqOrder row = DlqOrder.builder()
+            .orderId(orderId.toString())
+            .messageType("ORDER_CREATED_circuit_open")
+            .payload("{\"op\":\"c\",\"after\":{\"id\":\"" + orderId + "\",\"status\":\"PENDING\"}}")
+            .build();
+
+        republisher(handlers).republish(row).get();
+
+        ArgumentCaptor<DebeziumOrderChange> change = ArgumentCaptor.forClass(DebeziumOrderChange.class);
+        verify(handler).handle(change.capture());
+        assertThat(change.getValue().topic()).isEqualTo("trackops_orders.public.orders");
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    private KafkaDlqEventRepublisher republisher(ObjectProvider<DebeziumOrderEventConsumer> handlers) {
+        return new KafkaDlqEventRepublisher(kafkaTemplate, consolidatedTopic,
+            new DebeziumOrderPayloadMapper(new ObjectMapper()), handlers);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,78 @@
+package com.trackops.server.adapters.input.web.interceptors;
+
+import com.trackops.server.adapters.output.logging.StructuredLoggingService;
+import com.trackops.server.adapters.output.monitoring.MetricsService;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MetricsInterceptor")
+class MetricsInterceptorTest {
+
+    @Mock
+    private MetricsService metricsService;
+
+    @Mock
+    private StructuredLoggingService loggingService;
+
+    @Test
+    @DisplayName("the endpoint tag is the matched route pattern, not the raw URI")
+    void tagsWithRoutePattern() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders/3f2504e0-4f89-11d3-9a0c-0305e82c3301");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/orders/{id}");
+        when(loggingService.isAccessLogEnabled()).thenReturn(true);
+
+        handle(new MetricsInterceptor(metricsService, loggingService, 1.0), request, new MockHttpServletResponse());
+
+        verify(metricsService).recordApiRequest("GET", "/api/orders/{id}");
+        verify(metricsService).recordApiResponseTime(any(), eq("GET"), eq("/api/orders/{id}"));
+        verify(loggingService).logApiAccess(eq("GET"), eq("/api/orders/{id}"), eq(200), anyLong(), any(), any());
+    }
+
+    @Test
+    @DisplayName("requests no handler matched share one endpoint tag")
+    void unmatchedRequestsShareTag() {
+        handle(new MetricsInterceptor(metricsService, loggingService, 0.0),
+            new MockHttpServletRequest("GET", "/api/unknown/123"), new MockHttpServletResponse());
+
+        verify(metricsService).recordApiRequest("GET", MetricsInterceptor.UNMATCHED_ENDPOINT);
+    }
+
+    @Test
+    @DisplayName("successful requests outside the sample are not access-logged, errors always are")
+    void samplingSkipsSuccessesOnly() {
+        MetricsInterceptor interceptor = new MetricsInterceptor(metricsService, loggingService, 0.0);
+        MockHttpServletResponse error = new MockHttpServletResponse();
+        error.setStatus(500);
+
+        handle(interceptor, new MockHttpServletRequest("GET", "/api/orders"), new MockHttpServletResponse());
+        handle(interceptor, new MockHttpServletRequest("GET", "/api/orders"), error);
+
+        verify(loggingService, never()).logApiAccess(anyString(), anyString(), anyInt(), anyLong(), any(), any());
+        verify(loggingService).logApiError(eq("GET"), anyString(), eq(500), anyString(), any(), any());
+    }
+
+    private void handle(MetricsInterceptor interceptor, MockHttpServletRequest request,
+                        MockHttpServletResponse response) {
+        when(metricsService.startApiResponseTimer()).thenReturn(mock(Timer.Sample.class));
+        interceptor.preHandle(request, response, null);
+        interceptor.afterCompletion(request, response, null, null);
+    }
+}
@@ -0,0 +1,241 @@
+package com.trackops.server.adapters.input.web.interceptors;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.trackops.server.adapters.output.logging.StructuredLoggingService;
+import com.trackops.server.adapters.output.monitoring.MetricsConfig;
+import com.trackops.server.adapters.output.monitoring.MetricsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+/**
+ * Per-request cost of the API instrumentation on the request thread: CPU time and allocated bytes per request
+ * for the previous implementation (URI regexes, a timer registered per request, MDC with a formatted
+ * timestamp, synchronous JSON access log) and for {@link MetricsInterceptor} (route pattern tag, cached timers,
+ * async access log, sampling, no MDC work when the access logger is off). Log output goes to a JSON encoder
+ * writing to a null stream, so only formatting cost is measured, not disk I/O.
+ * Run with {@code ./gradlew benchmark --tests '*RequestInstrumentationBenchmark'}.
+ */
+@Tag("benchmark")
+@DisplayName("Request instrumentation benchmark")
+class RequestInstrumentationBenchmark {
+
+    private static final int WARMUP = 100_000;
+    private static final int REQUESTS = 500_000;
+    private static final String ACCESS_LOGGER = "com.trackops.server.adapters.input.web";
+
+    @Test
+    @DisplayName("previous vs current interceptor, with and without access logging")
+    void compareInstrumentationCost() throws Exception {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        ch.qos.logback.classic.Logger accessLogger = context.getLogger(ACCESS_LOGGER);
+        accessLogger.setAdditive(false);
+        MeterRegistry registry = new SimpleMeterRegistry();
+        MetricsService metricsService = metricsService(registry);
+        StructuredLoggingService loggingService = new StructuredLoggingService();
+        LegacyInstrumentation legacy = new LegacyInstrumentation(metricsService, registry);
+        MockHttpServletRequest[] requests = requests();
+
+        System.out.printf("%n%-34s %14s %14s%n", "scenario", "CPU ns/req", "bytes/req");
+
+        route(accessLogger, Level.INFO, syncAppender(context));
+        measure("before, access log on", requests, legacy::handle);
+        route(accessLogger, Level.OFF, syncAppender(context));
+        measure("before, access log off", requests, legacy::handle);
+
+        MetricsInterceptor everyRequest = new MetricsInterceptor(metricsService, loggingService, 1.0);
+        MetricsInterceptor sampled = new MetricsInterceptor(metricsService, loggingService, 0.1);
+        route(accessLogger, Level.INFO, asyncAppender(context));
+        measure("after, async, every request", requests, (request, response) -> handle(everyRequest, request, response));
+        measure("after, async, 10% sampled", requests, (request, response) -> handle(sampled, request, response));
+        route(accessLogger, Level.OFF, asyncAppender(context));
+        measure("after, access log off", requests, (request, response) -> handle(everyRequest, request, response));
+
+        accessLogger.detachAndStopAllAppenders();
+    }
+
+    private static void handle(MetricsInterceptor interceptor, MockHttpServletRequest request,
+                               MockHttpServletResponse response) {
+        interceptor.preHandle(request, response, null);
+        interceptor.afterCompletion(request, response, null, null);
+    }
+
+    private static void measure(String scenario, MockHttpServletRequest[] requests, Handler handler) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        for (int i = 0; i < WARMUP; i++) {
+            handler.handle(requests[i % requests.length], response);
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long cpuBefore = threads.getCurrentThreadCpuTime();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < REQUESTS; i++) {
+            handler.handle(requests[i % requests.length], response);
+        }
+        long cpu = threads.getCurrentThreadCpuTime() - cpuBefore;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        System.out.printf("%-34s %14d %14d%n", scenario, cpu / REQUESTS, allocated / REQUESTS);
+    }
+
+    private static MockHttpServletRequest[] requests() {
+        MockHttpServletRequest[] requests = new MockHttpServletRequest[64];
+        for (int i = 0; i < requests.length; i++) {
+            MockHttpServletRequest request;
+            if (i % 2 == 0) {
+                request = new MockHttpServletRequest("GET", "/api/orders/" + UUID.randomUUID());
+                request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/orders/{id}");
+            } else {
+                request = new MockHttpServletRequest("GET", "/api/orders/status/PENDING");
+                request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/orders/status/{status}");
+            }
+            request.addHeader("User-Agent", "benchmark/1.0");
+            request.addHeader("X-Forwarded-For", "10.0.0." + i + ", 10.1.0.1");
+            requests[i] = request;
+        }
+        return requests;
+    }
+
+    private static void route(ch.qos.logback.classic.Logger logger, Level level, Appender<ILoggingEvent> appender) {
+        logger.detachAndStopAllAppenders();
+        logger.setLevel(level);
+        logger.addAppender(appender);
+    }
+
+    private static OutputStreamAppender<ILoggingEvent> fileLikeAppender(LoggerContext context, boolean immediateFlush) {
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setImmediateFlush(immediateFlush);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        return appender;
+    }
+
+    private static Appender<ILoggingEvent> syncAppender(LoggerContext context) {
+        return fileLikeAppender(context, true);
+    }
+
+    // Same settings as ASYNC_ACCESS_FILE in logback-spring.xml
+    private static Appender<ILoggingEvent> asyncAppender(LoggerContext context) {
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(8192);
+        async.setNeverBlock(true);
+        async.addAppender(fileLikeAppender(context, false));
+        async.start();
+        return async;
+    }
+
+    private static MetricsService metricsService(MeterRegistry registry) {
+        MetricsConfig config = new MetricsConfig(registry);
+        return new MetricsService(registry,
+            config.ordersCreatedCounter(), config.ordersStatusUpdatedCounter(), config.ordersCancelledCounter(),
+            config.orderProcessingTimer(), config.ordersByStatusCounter(),
+            config.cacheHitsCounter(), config.cacheMissesCounter(), config.cacheEvictionsCounter(),
+            config.cacheOperationTimer(),
+            config.kafkaMessagesPublishedCounter(), config.kafkaMessagesConsumedCounter(),
+            config.kafkaPublishErrorsCounter(), config.kafkaPublishTimer(),
+            config.sagaInstancesCreatedCounter(), config.sagaInstancesCompletedCounter(),
+            config.sagaInstancesFailedCounter(), config.sagaExecutionTimer(),
+            config.apiRequestsCounter(), config.apiErrorsCounter(), config.apiResponseTimer(),
+            config.activeOrdersGauge(), config.totalRevenueGauge(), config.averageOrderValueGauge());
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        void handle(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception;
+    }
+
+    /**
+     * The per-request work of the interceptor and access logging before they were reworked, kept as the baseline.
+     */
+    private static final class LegacyInstrumentation {
+
+        private static final Logger accessLogger = LoggerFactory.getLogger(ACCESS_LOGGER);
+        private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+
+        private final MetricsService metricsService;
+        private final MeterRegistry registry;
+
+        LegacyInstrumentation(MetricsService metricsService, MeterRegistry registry) {
+            this.metricsService = metricsService;
+            this.registry = registry;
+        }
+
+        void handle(MockHttpServletRequest request, MockHttpServletResponse response) {
+            Timer.Sample sample = metricsService.startApiResponseTimer();
+            request.setAttribute("metrics.timer.sample", sample);
+            request.setAttribute("metrics.start.time", System.currentTimeMillis());
+            metricsService.recordApiRequest(request.getMethod(), endpoint(request));
+
+            Long startTime = (Long) request.getAttribute("metrics.start.time");
+            String method = request.getMethod();
+            String endpoint = endpoint(request);
+            int statusCode = response.getStatus();
+            long durationMs = System.currentTimeMillis() - startTime;
+            sample.stop(Timer.builder("api_response_duration_seconds")
+                .tag("method", method)
+                .tag("endpoint", endpoint)
+                .register(registry));
+            String userAgent = request.getHeader("User-Agent");
+            String clientIp = request.getHeader("X-Forwarded-For").split(",")[0].trim();
+            logApiAccess(method, endpoint, statusCode, durationMs, userAgent, clientIp);
+        }
+
+        private static String endpoint(MockHttpServletRequest request) {
+            String path = request.getRequestURI();
+            if (path.contains("?")) {
+                path = path.substring(0, path.indexOf("?"));
+            }
+            path = path.replaceAll("/[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}", "/{id}");
+            path = path.replaceAll("/[0-9]+", "/{id}");
+            path = path.replaceAll("/[A-Z_]+", "/{status}");
+            return path;
+        }
+
+        private static void logApiAccess(String method, String endpoint, int statusCode, long durationMs,
+                                         String userAgent, String clientIp) {
+            try {
+                MDC.put("httpMethod", method);
+                MDC.put("endpoint", endpoint);
+                MDC.put("statusCode", String.valueOf(statusCode));
+                MDC.put("durationMs", String.valueOf(durationMs));
+                MDC.put("userAgent", userAgent);
+                MDC.put("clientIp", clientIp);
+                MDC.put("timestamp", LocalDateTime.now().format(TIMESTAMP_FORMATTER));
+                accessLogger.info("API access: {} {} -> {} ({}ms)", method, endpoint, statusCode, durationMs);
+            } finally {
+                MDC.remove("httpMethod");
+                MDC.remove("endpoint");
+                MDC.remove("statusCode");
+                MDC.remove("durationMs");
+                MDC.remove("userAgent");
+                MDC.remove("clientIp");
+                MDC.remove("timestamp");
+            }
+        }
+    }
+}
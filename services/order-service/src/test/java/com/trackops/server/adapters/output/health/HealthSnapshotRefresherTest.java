@@ -0,0 +1,125 @@
+package com.trackops.server.adapters.output.health;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("HealthSnapshotRefresher")
+class HealthSnapshotRefresherTest {
+
+    private final ExecutorService pool = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("an indicator reports UNKNOWN until its first check completes")
+    void unknownBeforeFirstCheck() {
+        assertThat(new TestIndicator(() -> Health.up().build()).health().getStatus()).isEqualTo(Status.UNKNOWN);
+    }
+
+    @Test
+    @DisplayName("health() returns the recorded snapshot without running the check again")
+    void probesReadSnapshot() {
+        AtomicInteger checks = new AtomicInteger();
+        TestIndicator indicator = new TestIndicator(() -> {
+            checks.incrementAndGet();
+            return Health.up().withDetail("queryTime", "3ms").build();
+        });
+        new HealthSnapshotRefresher(List.of(indicator), Runnable::run, 1_000).refresh();
+
+        Health first = indicator.health();
+        indicator.health();
+
+        assertThat(first.getStatus()).isEqualTo(Status.UP);
+        assertThat(first.getDetails()).containsEntry("queryTime", "3ms").containsKey("checkedAt");
+        assertThat(checks).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("a snapshot older than the maximum staleness is reported DOWN")
+    void staleSnapshotIsDown() throws InterruptedException {
+        TestIndicator indicator = new TestIndicator(() -> Health.up().build());
+        indicator.setMaxStalenessMs(0);
+        new HealthSnapshotRefresher(List.of(indicator), Runnable::run, 1_000).refresh();
+        Thread.sleep(5);
+
+        Health health = indicator.health();
+
+        assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+        assertThat(health.getDetails()).containsEntry("lastStatus", "UP");
+    }
+
+    @Test
+    @DisplayName("a hanging check is reported DOWN after the timeout and not started again while it runs")
+    void hangingCheckTimesOut() throws InterruptedException {
+        AtomicInteger started = new AtomicInteger();
+        TestIndicator slow = new TestIndicator(() -> {
+            started.incrementAndGet();
+            awaitRelease();
+            return Health.up().build();
+        });
+        TestIndicator fast = new TestIndicator(() -> Health.up().build());
+        TaskExecutor executor = pool::execute;
+        HealthSnapshotRefresher refresher = new HealthSnapshotRefresher(List.of(slow, fast), executor, 50);
+
+        refresher.refresh();
+        refresher.refresh();
+        assertThat(awaitStatus(fast, Status.UP)).isTrue();
+        assertThat(awaitStatus(slow, Status.DOWN)).isTrue();
+        assertThat(slow.health().getDetails().get("error").toString()).contains("timed out");
+        assertThat(started).hasValue(1);
+
+        release.countDown();
+        assertThat(awaitStatus(slow, Status.UP)).isTrue();
+    }
+
+    private static boolean awaitStatus(TestIndicator indicator, Status status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            if (status.equals(indicator.health().getStatus())) {
+                return true;
+            }
+            Thread.sleep(5);
+        }
+        return false;
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class TestIndicator extends SnapshotHealthIndicator {
+        private final Supplier<Health> check;
+
+        TestIndicator(Supplier<Health> check) {
+            this.check = check;
+        }
+
+        @Override
+        protected Health check() {
+            return check.get();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.trackops.server.adapters.output.messaging;
+
+import com.trackops.server.adapters.output.monitoring.MetricsService;
+import com.trackops.server.application.services.dlq.DlqInflowRate;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("DlqThrottleMonitor")
+class DlqThrottleMonitorTest {
+
+    private final DlqInflowRate inflowRate = mock(DlqInflowRate.class);
+    private final KafkaListenerEndpointRegistry registry = mock(KafkaListenerEndpointRegistry.class);
+    private final MessageListenerContainer container = mock(MessageListenerContainer.class);
+    private final List<TopicPartition> partitions = IntStream.range(0, 4)
+            .mapToObj(p -> new TopicPartition("trackops_orders.public.orders", p))
+            .toList();
+
+    private DlqThrottleMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        when(registry.getListenerContainer(DlqThrottleMonitor.DEBEZIUM_ORDER_CONSUMER_ID)).thenReturn(container);
+        when(container.getAssignedPartitions()).thenReturn(partitions);
+        monitor = new DlqThrottleMonitor(inflowRate, registry, mock(MetricsService.class), 10, 50);
+    }
+
+    @Test
+    @DisplayName("leaves every partition running below the start rate")
+    void belowStartRate() {
+        when(inflowRate.sample()).thenReturn(8.0);
+
+        monitor.adjustThrottle();
+
+        verify(container, never()).pausePartition(any());
+        assertThat(monitor.isConsumerPausedByThrottle()).isFalse();
+    }
+
+    @Test
+    @DisplayName("pauses a share of partitions proportional to the inflow rate without stopping the container")
+    void pausesProportionally() {
+        when(inflowRate.sample()).thenReturn(30.0);
+
+        monitor.adjustThrottle();
+
+        verify(container, times(2)).pausePartition(any());
+        verify(container, never()).stop();
+        assertThat(monitor.getPausedPartitionCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("rotates the paused partitions between checks and resumes them all once the rate drops")
+    void rotatesAndResumes() {
+        when(inflowRate.sample()).thenReturn(20.0, 20.0, 0.0);
+
+        monitor.adjustThrottle();
+        monitor.adjustThrottle();
+
+        ArgumentCaptor<TopicPartition> paused = ArgumentCaptor.forClass(TopicPartition.class);
+        verify(container, times(2)).pausePartition(paused.capture());
+        assertThat(paused.getAllValues()).containsExactly(partitions.get(0), partitions.get(1));
+        verify(container).resumePartition(partitions.get(0));
+
+        monitor.adjustThrottle();
+
+        verify(container).resumePartition(partitions.get(1));
+        assertThat(monitor.isConsumerPausedByThrottle()).isFalse();
+    }
+}
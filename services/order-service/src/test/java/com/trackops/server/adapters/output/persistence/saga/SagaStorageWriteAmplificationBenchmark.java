@@ -0,0 +1,140 @@
+package com.trackops.server.adapters.output.persistence.saga;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.trackops.server.adapters.output.monitoring.MetricsService;
+import com.trackops.server.application.services.saga.OrderSagaStepExecutor;
+import com.trackops.server.application.services.saga.SagaOrchestratorService;
+import com.trackops.server.domain.model.saga.SagaStatus;
+import com.trackops.server.ports.output.persistence.saga.SagaRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Write-amplification benchmark for the two saga storage modes: runs the same saga-heavy load through
+ * {@link SagaOrchestratorService} on top of {@link SagaRepositoryAdapter} (rows) and
+ * {@link JsonbSagaRepositoryAdapter} (jsonb) and reports row writes, HOT updates and WAL bytes per saga.
+ * Uses a single pooled connection so the backend's table statistics can be flushed before reading them.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@Testcontainers
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Saga storage write-amplification benchmark")
+class SagaStorageWriteAmplificationBenchmark {
+
+    private static final int SAGAS = 2_000;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> 1);
+    }
+
+    @Autowired
+    private SagaJpaRepository sagaJpaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("rows vs jsonb storage for five-step order sagas")
+    void compareWriteAmplification() {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        Result rows = run(jdbc, transactional(new SagaRepositoryAdapter(sagaJpaRepository)));
+        Result jsonb = run(jdbc, transactional(new JsonbSagaRepositoryAdapter(
+            new NamedParameterJdbcTemplate(dataSource), JsonMapper.builder().findAndAddModules().build())));
+
+        System.out.printf("%n%-8s %8s %12s %14s %14s %14s %14s%n", "mode", "sagas", "sagas/s",
+            "rows written", "writes/saga", "hot updates", "WAL B/saga");
+        rows.print("rows");
+        jsonb.print("jsonb");
+    }
+
+    private Result run(JdbcTemplate jdbc, SagaRepository repository) {
+        jdbc.execute("TRUNCATE saga_steps, saga_instances");
+        OrderSagaStepExecutor stepExecutor = mock(OrderSagaStepExecutor.class);
+        when(stepExecutor.executeStep(any(), any())).thenReturn(true);
+        // Synchronous executor: every step runs to completion before the next saga starts
+        SagaOrchestratorService orchestrator = new SagaOrchestratorService(
+            repository, stepExecutor, Runnable::run, mock(MetricsService.class), "benchmark", 90, 60);
+
+        TableWrites before = tableWrites(jdbc);
+        String walBefore = jdbc.queryForObject("SELECT pg_current_wal_lsn()::text", String.class);
+        long start = System.nanoTime();
+        for (int i = 0; i < SAGAS; i++) {
+            UUID sagaId = orchestrator.startOrderProcessingSaga(UUID.randomUUID());
+            assertThat(repository.findById(sagaId).orElseThrow().getStatus()).isEqualTo(SagaStatus.COMPLETED);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        Long walBytes = jdbc.queryForObject("SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), ?::pg_lsn)::bigint",
+            Long.class, walBefore);
+        TableWrites after = tableWrites(jdbc);
+        return new Result(elapsedNanos, after.rows() - before.rows(), after.hot() - before.hot(), walBytes);
+    }
+
+    private TableWrites tableWrites(JdbcTemplate jdbc) {
+        // Same (only) pooled connection as the workload, so its pending statistics are flushed first
+        jdbc.execute("SELECT pg_stat_force_next_flush()");
+        jdbc.execute("SELECT pg_stat_clear_snapshot()");
+        Map<String, Object> row = jdbc.queryForMap(
+            "SELECT COALESCE(SUM(n_tup_ins + n_tup_upd + n_tup_del), 0)::bigint AS written, " +
+            "COALESCE(SUM(n_tup_hot_upd), 0)::bigint AS hot " +
+            "FROM pg_stat_user_tables WHERE relname IN ('saga_instances', 'saga_steps')");
+        return new TableWrites(((Number) row.get("written")).longValue(), ((Number) row.get("hot")).longValue());
+    }
+
+    private SagaRepository transactional(SagaRepository target) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.addAdvice(new TransactionInterceptor(
+            (TransactionManager) transactionManager, new AnnotationTransactionAttributeSource()));
+        return (SagaRepository) factory.getProxy();
+    }
+
+    private record TableWrites(long rows, long hot) {}
+
+    private record Result(long elapsedNanos, long rowsWritten, long hotUpdates, long walBytes) {
+        void print(String mode) {
+            double seconds = elapsedNanos / 1_000_000_000.0;
+            System.out.printf("%-8s %8d %12.0f %14d %14.1f %14d %14d%n", mode, SAGAS, SAGAS / seconds,
+                rowsWritten, (double) rowsWritten / SAGAS, hotUpdates, walBytes / SAGAS);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.trackops.server.application.services.dlq;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("DlqInflowRate")
+class DlqInflowRateTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("converges on a steady inflow and decays by half per half-life once it stops")
+    void tracksInflow() {
+        DlqInflowRate rate = new DlqInflowRate(10_000);
+        long now = System.nanoTime();
+        for (int second = 0; second < 200; second++) {
+            IntStream.range(0, 20).forEach(i -> rate.record());
+            now += SECOND;
+            rate.sample(now);
+        }
+        assertThat(rate.ratePerSecond()).isCloseTo(20.0, within(0.01));
+
+        now += TimeUnit.SECONDS.toNanos(10);
+        assertThat(rate.sample(now)).isCloseTo(10.0, within(0.01));
+    }
+
+    @Test
+    @DisplayName("weights a sample by how long it covers")
+    void weightsByElapsedTime() {
+        DlqInflowRate rate = new DlqInflowRate(10_000);
+        long now = System.nanoTime();
+        rate.sample(now);
+        IntStream.range(0, 100).forEach(i -> rate.record());
+
+        // 100 rows over 10 s is 10 rows/s; one half-life moves the rate half of the way there
+        assertThat(rate.sample(now + TimeUnit.SECONDS.toNanos(10))).isCloseTo(5.0, within(0.01));
+    }
+}
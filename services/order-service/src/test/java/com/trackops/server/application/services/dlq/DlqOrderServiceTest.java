@@ -32,7 +32,7 @@ class DlqOrderServiceTest {
 
     @BeforeEach
     void setUp() {
-        service = new DlqOrderService(dlqOrderRepository, objectMapper);
+        service = new DlqOrderService(dlqOrderRepository, objectMapper, new DlqInflowRate(60_000));
         ReflectionTestUtils.setField(service, "defaultMaxRetries", 3);
     }
 
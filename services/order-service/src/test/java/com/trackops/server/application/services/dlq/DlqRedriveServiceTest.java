@@ -0,0 +1,106 @@
+package com.trackops.server.application.services.dlq;
+
+import com.trackops.server.adapters.output.monitoring.MetricsService;
+import com.trackops.server.domain.model.dlq.DlqOrder;
+import com.trackops.server.ports.output.events.dlq.DlqEventRepublisher;
+import com.trackops.server.ports.output.persistence.dlq.DlqOrderRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("DlqRedriveService")
+class DlqRedriveServiceTest {
+
+    private final DlqOrderRepository repository = mock(DlqOrderRepository.class);
+    private final DlqEventRepublisher republisher = mock(DlqEventRepublisher.class);
+    private final MetricsService metricsService = mock(MetricsService.class);
+
+    @Test
+    @DisplayName("republishes a claimed page and settles it with one update per outcome")
+    void settlesPageInBulk() throws Exception {
+        DlqRedriveService service = service(10, 1000);
+        List<DlqOrder> page = rows(4);
+        when(repository.claimDue(any(), any(), eq(10))).thenReturn(page);
+        when(republisher.republish(page.get(0))).thenReturn(CompletableFuture.completedFuture(null));
+        when(republisher.republish(page.get(1))).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        when(republisher.republish(page.get(2))).thenReturn(CompletableFuture.completedFuture(null));
+        when(republisher.republish(page.get(3))).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        assertThat(service.redrivePage()).isEqualTo(4);
+
+        verify(repository).markCompleted(List.of(page.get(0).getId(), page.get(2).getId()));
+        verify(repository).markRetryFailed(eq(List.of(page.get(1).getId(), page.get(3).getId())), any(LocalDateTime.class),
+            eq("Redrive failed: IllegalStateException: broker down"), eq(Duration.ofMinutes(1)), eq(Duration.ofHours(1)));
+        verify(metricsService).recordDlqRedrive("republished", 2);
+        verify(metricsService).recordDlqRedrive("failed", 2);
+    }
+
+    @Test
+    @DisplayName("claims pages until one comes back short and reports the progress of the pass")
+    void pagesThroughBacklog() {
+        DlqRedriveService service = service(3, 1000);
+        when(repository.countDue(any())).thenReturn(7L, 0L);
+        when(repository.claimDue(any(), any(), anyInt())).thenReturn(rows(3), rows(3), rows(1));
+        when(republisher.republish(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        service.redrive();
+
+        verify(repository, times(3)).claimDue(any(), any(), eq(3));
+        verify(repository, never()).markRetryFailed(any(), any(), any(), any(), any());
+        DlqRedriveProgress progress = service.progress();
+        assertThat(progress.running()).isFalse();
+        assertThat(progress.dueAtStart()).isEqualTo(7);
+        assertThat(progress.claimed()).isEqualTo(7);
+        assertThat(progress.republished()).isEqualTo(7);
+        assertThat(progress.remainingDue()).isZero();
+        assertThat(progress.finishedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("does not republish faster than the configured rate")
+    void limitsRate() throws Exception {
+        DlqRedriveService service = service(30, 20);
+        when(repository.claimDue(any(), any(), anyInt())).thenReturn(rows(30));
+        when(republisher.republish(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        long start = System.nanoTime();
+        service.redrivePage();
+
+        // 20 tokens available at once, the other 10 refill at 20/s
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(400));
+    }
+
+    private DlqRedriveService service(int pageSize, long ratePerSecond) {
+        return new DlqRedriveService(repository, republisher, metricsService, pageSize, 100_000, ratePerSecond,
+            300_000, 60_000, 3_600_000, 5_000);
+    }
+
+    private static List<DlqOrder> rows(int count) {
+        List<DlqOrder> rows = new ArrayList<>();
+        IntStream.range(0, count).forEach(i -> rows.add(DlqOrder.builder()
+            .id(UUID.randomUUID())
+            .orderId(UUID.randomUUID().toString())
+            .payload("{}")
+            .messageType("ORDER_CREATED")
+            .status("PROCESSING")
+            .build()));
+        return rows;
+    }
+}
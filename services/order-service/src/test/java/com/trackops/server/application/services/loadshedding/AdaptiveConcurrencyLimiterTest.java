@@ -0,0 +1,109 @@
+package com.trackops.server.application.services.loadshedding;
+
+import com.trackops.server.adapters.output.monitoring.MetricsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AdaptiveConcurrencyLimiter")
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long BASELINE = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Mock
+    private MetricsService metricsService;
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        // Every sample closes a window, so each call below is one limit update
+        limiter = new AdaptiveConcurrencyLimiter(metricsService, true, 20, 4, 200, 2, 1.5, 0.9, 0, 1, 100);
+    }
+
+    @Test
+    @DisplayName("requests over the limit are rejected while priority requests use the reserve")
+    void rejectsOverLimitAndReservesPriority() {
+        List<AdaptiveConcurrencyLimiter.Permit> held = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            held.add(limiter.tryAcquire(false).orElseThrow());
+        }
+
+        assertThat(limiter.tryAcquire(false)).isEmpty();
+        assertThat(limiter.tryAcquire(true)).isPresent();
+        assertThat(limiter.tryAcquire(true)).isPresent();
+        assertThat(limiter.tryAcquire(true)).isEmpty();
+        verify(metricsService).recordConcurrencyLimitRejection(false);
+        verify(metricsService).recordConcurrencyLimitRejection(true);
+
+        held.get(0).release(false);
+        assertThat(limiter.getInFlight()).isEqualTo(21);
+    }
+
+    @Test
+    @DisplayName("the limit grows while latency stays at its baseline under load")
+    void growsAtBaselineLatency() {
+        for (int i = 0; i < 20; i++) {
+            limiter.onSample(System.nanoTime(), BASELINE, limiter.getLimit(), false);
+        }
+
+        assertThat(limiter.getLimit()).isGreaterThan(20);
+    }
+
+    @Test
+    @DisplayName("the limit shrinks when latency rises above the baseline")
+    void shrinksWhenLatencyRises() {
+        for (int i = 0; i < 20; i++) {
+            limiter.onSample(System.nanoTime(), BASELINE, limiter.getLimit(), false);
+        }
+        int before = limiter.getLimit();
+
+        for (int i = 0; i < 10; i++) {
+            limiter.onSample(System.nanoTime(), BASELINE * 5, limiter.getLimit(), false);
+        }
+
+        assertThat(limiter.getLimit()).isLessThan(before);
+    }
+
+    @Test
+    @DisplayName("a window with failed requests cuts the limit multiplicatively")
+    void failuresBackOff() {
+        limiter.onSample(System.nanoTime(), BASELINE, 20, true);
+
+        assertThat(limiter.getLimit()).isEqualTo(18);
+    }
+
+    @Test
+    @DisplayName("the limit does not grow while less than half of it is used")
+    void idleServiceDoesNotInflateLimit() {
+        for (int i = 0; i < 20; i++) {
+            limiter.onSample(System.nanoTime(), BASELINE, 2, false);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("the limit never drops below its minimum")
+    void respectsMinimum() {
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(System.nanoTime(), BASELINE, limiter.getLimit(), true);
+        }
+
+        Optional<AdaptiveConcurrencyLimiter.Permit> permit = limiter.tryAcquire(false);
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        assertThat(permit).isPresent();
+    }
+}
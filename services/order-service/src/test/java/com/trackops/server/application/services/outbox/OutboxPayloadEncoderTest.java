@@ -0,0 +1,111 @@
+package com.trackops.server.application.services.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trackops.server.config.AvroEventConverter;
+import com.trackops.server.domain.events.orders.OrderCancelledEvent;
+import com.trackops.server.domain.events.orders.OrderCreatedEvent;
+import com.trackops.server.domain.events.orders.OrderStatusUpdatedEvent;
+import com.trackops.server.domain.model.enums.OrderStatus;
+import com.trackops.server.domain.model.outbox.OutboxEvent;
+import com.trackops.server.domain.model.outbox.OutboxPayloadFormat;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@DisplayName("OutboxPayloadEncoder")
+class OutboxPayloadEncoderTest {
+
+    // Magic byte, schema ID 42, then the Avro body
+    private static final byte[] WIRE_VALUE = {0, 0, 0, 0, 42, 72, 1, 2, 3};
+
+    @SuppressWarnings("unchecked")
+    private final Serializer<GenericRecord> serializer = mock(Serializer.class);
+    private final UUID orderId = UUID.randomUUID();
+
+    @Test
+    @DisplayName("avro format stores the serialized value and the schema ID from its header")
+    void storesWireFormatValue() {
+        when(serializer.serialize(eq("ORDER_CREATED"), any(GenericRecord.class))).thenReturn(WIRE_VALUE);
+
+        OutboxEvent event = encoder("avro")
+            .encode(builder(), new OrderCreatedEvent(orderId, "alice"))
+            .build();
+
+        assertThat(event.getPayloadFormat()).isEqualTo(OutboxPayloadFormat.AVRO);
+        assertThat(event.getPayloadBytes()).isEqualTo(WIRE_VALUE);
+        assertThat(event.getSchemaId()).isEqualTo(42);
+        assertThat(event.getPayload())
+            .isEqualTo("{\"orderId\":\"" + orderId + "\",\"eventType\":\"ORDER_CREATED\",\"createdBy\":\"alice\"}");
+    }
+
+    @Test
+    @DisplayName("json format writes the event as JSON and no bytes")
+    void jsonFormatSkipsSerialization() {
+        OutboxEvent event = encoder("json")
+            .encode(builder(), new OrderStatusUpdatedEvent(orderId, OrderStatus.PENDING, OrderStatus.CONFIRMED, 3L))
+            .build();
+
+        assertThat(event.getPayloadFormat()).isEqualTo(OutboxPayloadFormat.JSON);
+        assertThat(event.getPayloadBytes()).isNull();
+        assertThat(event.getPayload()).isEqualTo("{\"orderId\":\"" + orderId + "\",\"eventType\":\"ORDER_STATUS_UPDATED\","
+            + "\"previousStatus\":\"PENDING\",\"newStatus\":\"CONFIRMED\",\"expectedVersion\":3}");
+        verifyNoInteractions(serializer);
+    }
+
+    @Test
+    @DisplayName("the JSON payload carries the same values as the Avro record")
+    void jsonPayloadMatchesAvroRecord() {
+        ArgumentCaptor<GenericRecord> record = ArgumentCaptor.forClass(GenericRecord.class);
+        when(serializer.serialize(eq("ORDER_CANCELLED"), record.capture())).thenReturn(WIRE_VALUE);
+        LocalDateTime cancelledAt = LocalDateTime.of(2024, 5, 1, 12, 30);
+
+        OutboxEvent event = encoder("avro")
+            .encode(builder(), new OrderCancelledEvent(orderId, "bob", "Customer request", cancelledAt))
+            .build();
+
+        assertThat(event.getPayload()).isEqualTo("{\"orderId\":\"" + orderId + "\",\"eventType\":\"ORDER_CANCELLED\","
+            + "\"cancelledBy\":\"bob\",\"cancellationReason\":\"Customer request\","
+            + "\"cancelledAt\":\"" + record.getValue().get("cancelledAt") + "\"}");
+        assertThat(record.getValue().get("cancelledAt").toString()).startsWith("2024-05-01T12:30");
+    }
+
+    @Test
+    @DisplayName("a serialization failure falls back to the JSON payload instead of failing the write")
+    void fallsBackToJson() {
+        when(serializer.serialize(eq("ORDER_CREATED"), any(GenericRecord.class)))
+            .thenThrow(new SerializationException("Schema Registry unreachable"));
+
+        OutboxEvent event = encoder("avro")
+            .encode(builder(), new OrderCreatedEvent(orderId, "system"))
+            .build();
+
+        assertThat(event.getPayloadFormat()).isEqualTo(OutboxPayloadFormat.JSON);
+        assertThat(event.getPayloadBytes()).isNull();
+        assertThat(event.getSchemaId()).isNull();
+        assertThat(event.getPayload()).contains("\"createdBy\":\"system\"");
+    }
+
+    private OutboxPayloadEncoder encoder(String format) {
+        return new OutboxPayloadEncoder(format, serializer, new AvroEventConverter(), new ObjectMapper());
+    }
+
+    private OutboxEvent.OutboxEventBuilder builder() {
+        return OutboxEvent.builder()
+            .aggregateId(orderId.toString())
+            .eventType("ORDER_CREATED")
+            .partitionKey(orderId.toString());
+    }
+}
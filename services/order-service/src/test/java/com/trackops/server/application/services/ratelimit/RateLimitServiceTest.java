@@ -0,0 +1,155 @@
+package com.trackops.server.application.services.ratelimit;
+
+import com.trackops.server.adapters.output.monitoring.MetricsService;
+import com.trackops.server.config.RateLimitConfig.BucketFamily;
+import com.trackops.server.config.RateLimitConfig.RateLimitProperties;
+import com.trackops.server.config.RateLimitConfig.RouteCost;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.BucketProxy;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RateLimitService")
+class RateLimitServiceTest {
+
+    private static final String CLIENT = "ip:10.0.0.1";
+
+    @Mock
+    private ProxyManager<String> proxyManager;
+
+    @Mock
+    private BucketProxy bucket;
+
+    @Mock
+    private MetricsService metricsService;
+
+    private RateLimitService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new RateLimitService(proxyManager, properties(true, 10), metricsService);
+    }
+
+    @Test
+    @DisplayName("a leased chunk serves the next requests without remote calls")
+    void chunkServedLocally() {
+        when(proxyManager.getProxy(eq("rate_limit:" + CLIENT), any())).thenReturn(bucket);
+        when(bucket.tryConsumeAndReturnRemaining(10)).thenReturn(ConsumptionProbe.consumed(90, 0));
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(service.checkRateLimit(CLIENT).isAllowed()).isTrue();
+        }
+
+        verify(bucket, times(1)).tryConsumeAndReturnRemaining(anyLong());
+        assertThat(service.checkRateLimit(CLIENT).getRemaining()).isEqualTo(99);
+        verify(bucket, times(2)).tryConsumeAndReturnRemaining(10);
+    }
+
+    @Test
+    @DisplayName("when fewer tokens than a chunk are left only the request's own token is taken")
+    void nearlyEmptyBucketTakesSingleToken() {
+        when(proxyManager.getProxy(eq("rate_limit:" + CLIENT), any())).thenReturn(bucket);
+        when(bucket.tryConsumeAndReturnRemaining(10)).thenReturn(ConsumptionProbe.rejected(3, 1_000, 1_000));
+        when(bucket.tryConsumeAndReturnRemaining(1)).thenReturn(ConsumptionProbe.consumed(2, 0));
+
+        RateLimitService.RateLimitResult result = service.checkRateLimit(CLIENT);
+
+        assertThat(result.isAllowed()).isTrue();
+        assertThat(result.getRemaining()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("a rejection is answered locally until the bucket can refill")
+    void rejectionCachedLocally() {
+        when(proxyManager.getProxy(eq("rate_limit:" + CLIENT), any())).thenReturn(bucket);
+        when(bucket.tryConsumeAndReturnRemaining(10))
+            .thenReturn(ConsumptionProbe.rejected(0, TimeUnit.MINUTES.toNanos(5), TimeUnit.MINUTES.toNanos(5)));
+
+        assertThat(service.checkRateLimit(CLIENT).isAllowed()).isFalse();
+        assertThat(service.checkRateLimit(CLIENT).isAllowed()).isFalse();
+
+        verify(bucket, times(1)).tryConsumeAndReturnRemaining(anyLong());
+    }
+
+    @Test
+    @DisplayName("a matching route charges its cost against the client's bucket of the route's family")
+    void routeCostChargedToFamily() {
+        service = new RateLimitService(proxyManager, withRoutes(properties(true, 1)), metricsService);
+        when(proxyManager.getProxy(eq("rate_limit:order-queries:" + CLIENT), any())).thenReturn(bucket);
+        when(bucket.tryConsumeAndReturnRemaining(10)).thenReturn(ConsumptionProbe.consumed(90, 0));
+
+        RateLimitService.RateLimitResult result = service.checkRateLimit(CLIENT, "GET", "/api/orders/status/PENDING");
+
+        assertThat(result.isAllowed()).isTrue();
+        assertThat(result.getCost()).isEqualTo(10);
+        assertThat(result.getLimit()).isEqualTo(600);
+    }
+
+    @Test
+    @DisplayName("requests matching no route cost one token from the default bucket")
+    void unmatchedRouteUsesDefaultBucket() {
+        service = new RateLimitService(proxyManager, withRoutes(properties(true, 1)), metricsService);
+        when(proxyManager.getProxy(eq("rate_limit:" + CLIENT), any())).thenReturn(bucket);
+        when(bucket.tryConsumeAndReturnRemaining(1)).thenReturn(ConsumptionProbe.consumed(99, 0));
+
+        RateLimitService.RateLimitResult result = service.checkRateLimit(CLIENT, "POST", "/api/orders/status/PENDING");
+
+        assertThat(result.getCost()).isEqualTo(1);
+        assertThat(result.getLimit()).isEqualTo(1000);
+    }
+
+    @Test
+    @DisplayName("a route referring to an undefined bucket family fails at startup")
+    void unknownFamilyRejected() {
+        RateLimitProperties properties = properties(true, 1)
+            .routes(List.of(new RouteCost("GET", "/api/orders", "missing", 2)));
+
+        assertThatThrownBy(() -> new RateLimitService(proxyManager, properties, metricsService))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("missing");
+    }
+
+    @Test
+    @DisplayName("disabled rate limiting never touches Redis")
+    void disabledSkipsRedis() {
+        service = new RateLimitService(proxyManager, properties(false, 10), metricsService);
+
+        assertThat(service.checkRateLimit(CLIENT).isAllowed()).isTrue();
+        verify(proxyManager, never()).getProxy(any(), any());
+    }
+
+    private static RateLimitProperties withRoutes(RateLimitProperties properties) {
+        return properties
+            .families(Map.of("order-queries", new BucketFamily("order-queries", 600, 100)))
+            .routes(List.of(new RouteCost("GET", "/api/orders/status/{status}", "order-queries", 10)));
+    }
+
+    private static RateLimitProperties properties(boolean enabled, long chunkSize) {
+        return RateLimitProperties.builder()
+            .enabled(enabled)
+            .defaultRequestsPerHour(1000)
+            .burstCapacity(100)
+            .leaseChunkSize(chunkSize)
+            .build();
+    }
+}
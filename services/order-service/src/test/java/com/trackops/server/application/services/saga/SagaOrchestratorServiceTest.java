@@ -0,0 +1,434 @@
+package com.trackops.server.application.services.saga;
+
+import com.trackops.server.adapters.output.monitoring.MetricsService;
+import com.trackops.server.domain.model.saga.SagaInstance;
+import com.trackops.server.domain.model.saga.SagaStatus;
+import com.trackops.server.domain.model.saga.SagaStepEntity;
+import com.trackops.server.domain.model.saga.SagaStepStatus;
+import com.trackops.server.ports.output.persistence.saga.SagaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SagaOrchestratorService")
+class SagaOrchestratorServiceTest {
+
+    @Mock
+    private SagaRepository sagaRepository;
+
+    @Mock
+    private OrderSagaStepExecutor stepExecutor;
+
+    @Mock
+    private MetricsService metricsService;
+
+    private static final String OWNER = "replica-1";
+
+    private final List<Runnable> submitted = new ArrayList<>();
+    private final UUID sagaId = UUID.randomUUID();
+    private final UUID orderId = UUID.randomUUID();
+    private SagaOrchestratorService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SagaOrchestratorService(sagaRepository, stepExecutor, submitted::add, metricsService, OWNER, 90, 60);
+    }
+
+    @Test
+    @DisplayName("start persists the saga and returns without running any step on the caller thread")
+    void startReturnsOnAcceptance() {
+        SagaInstance saga = startProcessingSaga();
+
+        assertThat(saga.getSteps()).hasSize(5);
+        assertThat(submitted).hasSize(1);
+        verify(stepExecutor, never()).executeStep(any(), any());
+    }
+
+    @Test
+    @DisplayName("start still returns the saga id when the worker pool rejects the task")
+    void startSurvivesSaturatedPool() {
+        service = new SagaOrchestratorService(sagaRepository, stepExecutor,
+            task -> { throw new TaskRejectedException("full"); }, metricsService, OWNER, 90, 60);
+        when(sagaRepository.save(any(SagaInstance.class))).thenAnswer(inv -> withId(inv.getArgument(0)));
+
+        assertThat(service.startOrderCancellationSaga(orderId)).isEqualTo(sagaId);
+        verify(sagaRepository).releaseLeases(List.of(sagaId), OWNER);
+    }
+
+    @Test
+    @DisplayName("new sagas are leased to the accepting replica")
+    void startLeasesSaga() {
+        SagaInstance saga = startProcessingSaga();
+
+        assertThat(saga.getLeaseOwner()).isEqualTo(OWNER);
+        assertThat(saga.getLeaseExpiresAt()).isAfter(Instant.now());
+    }
+
+    @Test
+    @DisplayName("a lease that does not outlast the step timeout is rejected")
+    void leaseMustOutlastStepTimeout() {
+        assertThatThrownBy(() -> new SagaOrchestratorService(
+                sagaRepository, stepExecutor, submitted::add, metricsService, OWNER, 30, 60))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("recovery dispatches every claimed saga in the page")
+    void resumeDispatchesClaimedPage() {
+        List<UUID> claimed = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        when(sagaRepository.claimRecoverableSagas(eq(OWNER), any(Instant.class), eq(3))).thenReturn(claimed);
+
+        assertThat(service.resumeRecoverableSagas(3)).isEqualTo(3);
+        assertThat(submitted).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("recovery stops at a full pool and gives back the leases it cannot dispatch")
+    void resumeReleasesUndispatchedLeases() {
+        List<Runnable> accepted = new ArrayList<>();
+        service = new SagaOrchestratorService(sagaRepository, stepExecutor, task -> {
+            if (accepted.size() == 1) {
+                throw new TaskRejectedException("full");
+            }
+            accepted.add(task);
+        }, metricsService, OWNER, 90, 60);
+        UUID first = UUID.randomUUID();
+        UUID rejected = UUID.randomUUID();
+        UUID notTried = UUID.randomUUID();
+        when(sagaRepository.claimRecoverableSagas(eq(OWNER), any(Instant.class), eq(3)))
+            .thenReturn(List.of(first, rejected, notTried));
+
+        assertThat(service.resumeRecoverableSagas(3)).isEqualTo(1);
+        verify(sagaRepository).releaseLeases(List.of(rejected), OWNER);
+        verify(sagaRepository).releaseLeases(List.of(notTried), OWNER);
+    }
+
+    @Test
+    @DisplayName("worker claims the current step, completes it and dispatches the next one")
+    void runsStepAndAdvances() {
+        SagaInstance saga = startProcessingSaga();
+        SagaStepEntity first = saga.getSteps().get(0);
+        when(sagaRepository.findById(sagaId)).thenReturn(Optional.of(saga));
+        when(sagaRepository.claimStep(eq(sagaId), eq(first.getId()), any(Instant.class))).thenReturn(true);
+        when(stepExecutor.executeStep(first, saga)).thenReturn(true);
+        when(sagaRepository.completeStep(sagaId, first.getId())).thenReturn(true);
+        when(sagaRepository.advanceSaga(eq(sagaId), any(Instant.class))).thenReturn(true);
+
+        runNext();
+
+        assertThat(submitted).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("a step that finishes after the timeout dispatcher failed it is compensated, not advanced")
+    void lateCompletionIsCompensated() {
+        SagaInstance saga = startProcessingSaga();
+        SagaStepEntity first = saga.getSteps().get(0);
+        when(sagaRepository.findById(sagaId)).thenReturn(Optional.of(saga));
+        when(sagaRepository.claimStep(eq(sagaId), eq(first.getId()), any(Instant.class))).thenReturn(true);
+        when(stepExecutor.executeStep(first, saga)).thenReturn(true);
+        when(sagaRepository.completeStep(sagaId, first.getId())).thenReturn(false);
+
+        runNext();
+
+        verify(stepExecutor).executeCompensation(first, saga);
+        verify(sagaRepository, never()).advanceSaga(any(), any());
+        assertThat(submitted).isEmpty();
+    }
+
+    @Test
+    @DisplayName("a step claimed by another worker is not executed again")
+    void lostClaimIsNoOp() {
+        SagaInstance saga = startProcessingSaga();
+        when(sagaRepository.findById(sagaId)).thenReturn(Optional.of(saga));
+        when(sagaRepository.claimStep(eq(sagaId), eq(saga.getSteps().get(0).getId()), any(Instant.class))).thenReturn(false);
+
+        runNext();
+
+        verify(stepExecutor, never()).executeStep(any(), any());
+        assertThat(submitted).isEmpty();
+    }
+
+    @Test
+    @DisplayName("steps whose dependencies completed run in parallel, one worker task each")
+    void independentStepsRunInParallel() {
+        SagaInstance saga = startProcessingSaga();
+        SagaStepEntity reserve = saga.getSteps().get(1);
+        SagaStepEntity payment = saga.getSteps().get(2);
+        saga.getSteps().get(0).setStatus(SagaStepStatus.COMPLETED);
+        when(sagaRepository.findById(sagaId)).thenReturn(Optional.of(saga));
+        when(sagaRepository.claimStep(eq(sagaId), eq(reserve.getId()), any(Instant.class))).thenReturn(true);
+        when(stepExecutor.executeStep(reserve, saga)).thenReturn(true);
+        when(sagaRepository.completeStep(sagaId, reserve.getId())).thenReturn(true);
+
+        runNext();
+
+        // Reservation ran on this worker; payment was handed to another one, followed by the continuation
+        verify(stepExecutor).executeStep(reserve, saga);
+        verify(stepExecutor, never()).executeStep(payment, saga);
+        assertThat(submitted).hasSize(2);
+        when(sagaRepository.claimStep(eq(sagaId), eq(payment.getId()), any(Instant.class))).thenReturn(true);
+        runNext();
+        verify(stepExecutor).executeStep(payment, saga);
+    }
+
+    @Test
+    @DisplayName("a step runs only after all of its dependencies completed")
+    void joinWaitsForAllDependencies() {
+        SagaInstance saga = startProcessingSaga();
+        saga.getSteps().get(0).setStatus(SagaStepStatus.COMPLETED);
+        saga.getSteps().get(1).setStatus(SagaStepStatus.COMPLETED);
+        saga.getSteps().get(2).setStatus(SagaStepStatus.IN_PROGRESS);
+        when(sagaRepository.findById(sagaId)).thenReturn(Optional.of(saga));
+
+        runNext();
+
+        verify(sagaRepository, never()).claimStep(any(), any(), any());
+        assertThat(submitted).isEmpty();
+    }
+
+    @Test
+    @DisplayName("compensation waits while a sibling of the failed step is still running")
+    void compensationWaitsForRunningSiblings() {
+        SagaInstance saga = startProcessingSaga();
+        saga.getSteps().get(0).setStatus(SagaStepStatus.COMPLETED);
+        saga.getSteps().get(1).setStatus(SagaStepStatus.IN_PROGRESS);
+        saga.getSteps().get(2).setStatus(SagaStepStatus.FAILED);
+        saga.setStatus(SagaStatus.COMPENSATING);
+        when(sagaRepository.findById(sagaId)).thenReturn(Optional.of(saga));
+
+        runNext();
+
+        verify(stepExecutor, never()).executeCompensation(any(), any());
+        verify(sagaRepository, never()).markSagaCompensated(any());
+    }
+
+    @Test
+    @DisplayName("a failed step starts compensation of completed steps in reverse order")
+    void failureCompensatesInReverse() {
+        SagaInstance saga = startProcessingSaga();
+        SagaStepEntity validate = saga.getSteps().get(0);
+        SagaStepEntity reserve = saga.getSteps().get(1);
+        SagaStepEntity payment = saga.getSteps().get(2);
+        validate.setStatus(SagaStepStatus.COMPLETED);
+        reserve.setStatus(SagaStepStatus.COMPLETED);
+        payment.setRetryCount(saga.getMaxRetries());
+        saga.setStatus(SagaStatus.IN_PROGRESS);
+
+        when(sagaRepository.findById(sagaId)).thenReturn(Optional.of(saga));
+        when(sagaRepository.claimStep(eq(sagaId), eq(payment.getId()), any(Instant.class))).thenReturn(true);
+        when(stepExecutor.executeStep(payment, saga)).thenReturn(false);
+        when(sagaRepository.failStep(eq(sagaId), eq(payment.getId()), anyString())).thenReturn(true);
+        when(sagaRepository.startCompensation(eq(sagaId), anyString())).thenReturn(true);
+        when(sagaRepository.renewLease(eq(sagaId), eq(OWNER), any(Instant.class))).thenReturn(true);
+        when(sagaRepository.claimCompensation(eq(sagaId), any(), any(Instant.class))).thenReturn(true);
+        when(stepExecutor.executeCompensation(any(), eq(saga))).thenReturn(true);
+        when(sagaRepository.markSagaCompensated(sagaId)).thenReturn(true);
+
+        runNext();
+        verify(sagaRepository).failStep(eq(sagaId), eq(payment.getId()), anyString());
+
+        saga.setStatus(SagaStatus.COMPENSATING);
+        runNext();
+
+        InOrder order = inOrder(stepExecutor, sagaRepository);
+        order.verify(sagaRepository).renewLease(eq(sagaId), eq(OWNER), any(Instant.class));
+        order.verify(sagaRepository).claimCompensation(eq(sagaId), eq(reserve.getId()), any(Instant.class));
+        order.verify(stepExecutor).executeCompensation(reserve, saga);
+        order.verify(sagaRepository).markStepCompensated(sagaId, reserve.getId());
+        order.verify(sagaRepository).renewLease(eq(sagaId), eq(OWNER), any(Instant.class));
+        order.verify(sagaRepository).claimCompensation(eq(sagaId), eq(validate.getId()), any(Instant.class));
+        order.verify(stepExecutor).executeCompensation(validate, saga);
+        order.verify(sagaRepository).markStepCompensated(sagaId, validate.getId());
+        order.verify(sagaRepository).markSagaCompensated(sagaId);
+        verify(stepExecutor, never()).executeCompensation(payment, saga);
+    }
+
+    @Test
+    @DisplayName("a failed step with retries left is retried instead of compensating the saga")
+    void failedStepIsRetried() {
+        SagaInstance saga = startProcessingSaga();
+        SagaStepEntity first = saga.getSteps().get(0);
+        when(sagaRepository.findById(sagaId)).thenReturn(Optional.of(saga));
+        when(sagaRepository.claimStep(eq(sagaId), eq(first.getId()), any(Instant.class))).thenReturn(true);
+        when(stepExecutor.executeStep(first, saga)).thenReturn(false).thenReturn(true);
+        when(sagaRepository.failStep(eq(sagaId), eq(first.getId()), anyString())).thenAnswer(inv -> {
+            first.setStatus(SagaStepStatus.FAILED);
+            first.setRetryCount(first.getRetryCount() + 1);
+            return true;
+        });
+        when(sagaRepository.completeStep(sagaId, first.getId())).thenReturn(true);
+
+        runNext();
+        verify(sagaRepository, never()).startCompensation(any(), anyString());
+
+        runNext();
+        verify(stepExecutor, times(2)).executeStep(first, saga);
+        verify(sagaRepository).completeStep(sagaId, first.getId());
+        verify(sagaRepository, never()).startCompensation(any(), anyString());
+    }
+
+    @Test
+    @DisplayName("a failed compensation leaves the saga FAILED instead of COMPENSATED")
+    void failedCompensationFailsSaga() {
+        SagaInstance saga = startProcessingSaga();
+        SagaStepEntity validate = saga.getSteps().get(0);
+        SagaStepEntity reserve = saga.getSteps().get(1);
+        validate.setStatus(SagaStepStatus.COMPLETED);
+        reserve.setStatus(SagaStepStatus.COMPLETED);
+        saga.getSteps().get(2).setStatus(SagaStepStatus.FAILED);
+        saga.setStatus(SagaStatus.COMPENSATING);
+        when(sagaRepository.findById(sagaId)).thenReturn(Optional.of(saga));
+        when(sagaRepository.renewLease(eq(sagaId), eq(OWNER), any(Instant.class))).thenReturn(true);
+        when(sagaRepository.claimCompensation(eq(sagaId), any(), any(Instant.class))).thenReturn(true);
+        when(stepExecutor.executeCompensation(reserve, saga)).thenReturn(false);
+        when(stepExecutor.executeCompensation(validate, saga)).thenReturn(true);
+        when(sagaRepository.failSaga(eq(sagaId), anyString())).thenReturn(true);
+
+        runNext();
+
+        verify(sagaRepository, never()).markStepCompensated(sagaId, reserve.getId());
+        verify(sagaRepository).markStepCompensated(sagaId, validate.getId());
+        InOrder order = inOrder(sagaRepository);
+        order.verify(sagaRepository).failSaga(sagaId, "Compensation failed for step(s): Reserve Inventory");
+        order.verify(sagaRepository).releaseCompensation(sagaId, reserve.getId());
+        verify(sagaRepository, never()).releaseCompensation(sagaId, validate.getId());
+        verify(sagaRepository, never()).markSagaCompensated(any());
+    }
+
+    @Test
+    @DisplayName("a worker whose saga lease was taken over stops compensating and leaves the saga to the new owner")
+    void lostLeaseStopsCompensation() {
+        SagaInstance saga = startProcessingSaga();
+        SagaStepEntity validate = saga.getSteps().get(0);
+        SagaStepEntity reserve = saga.getSteps().get(1);
+        validate.setStatus(SagaStepStatus.COMPLETED);
+        reserve.setStatus(SagaStepStatus.COMPLETED);
+        saga.getSteps().get(2).setStatus(SagaStepStatus.FAILED);
+        saga.setStatus(SagaStatus.COMPENSATING);
+        when(sagaRepository.findById(sagaId)).thenReturn(Optional.of(saga));
+        when(sagaRepository.renewLease(eq(sagaId), eq(OWNER), any(Instant.class))).thenReturn(true).thenReturn(false);
+        when(sagaRepository.claimCompensation(eq(sagaId), any(), any(Instant.class))).thenReturn(true);
+        when(stepExecutor.executeCompensation(reserve, saga)).thenReturn(true);
+
+        runNext();
+
+        verify(sagaRepository).markStepCompensated(sagaId, reserve.getId());
+        verify(sagaRepository, never()).claimCompensation(eq(sagaId), eq(validate.getId()), any(Instant.class));
+        verify(stepExecutor, never()).executeCompensation(validate, saga);
+        verify(sagaRepository, never()).failSaga(any(), anyString());
+    }
+
+    @Test
+    @DisplayName("two workers compensating the same saga concurrently run each compensation exactly once")
+    void concurrentCompensationRunsEachStepOnce() throws Exception {
+        SagaInstance saga = startProcessingSaga();
+        SagaStepEntity validate = saga.getSteps().get(0);
+        SagaStepEntity reserve = saga.getSteps().get(1);
+        validate.setStatus(SagaStepStatus.COMPLETED);
+        reserve.setStatus(SagaStepStatus.COMPLETED);
+        saga.getSteps().get(2).setStatus(SagaStepStatus.FAILED);
+        saga.setStatus(SagaStatus.COMPENSATING);
+        when(sagaRepository.findById(sagaId)).thenReturn(Optional.of(saga));
+
+        // Stored step state, with the claim as a compare-and-set like the conditional UPDATE
+        Map<UUID, SagaStepStatus> stored = new ConcurrentHashMap<>();
+        saga.getSteps().forEach(step -> stored.put(step.getId(), step.getStatus()));
+        when(sagaRepository.renewLease(eq(sagaId), eq(OWNER), any(Instant.class))).thenReturn(true);
+        when(sagaRepository.claimCompensation(eq(sagaId), any(), any(Instant.class))).thenAnswer(inv ->
+            stored.replace(inv.getArgument(1), SagaStepStatus.COMPLETED, SagaStepStatus.COMPENSATING));
+        when(sagaRepository.markStepCompensated(eq(sagaId), any())).thenAnswer(inv ->
+            stored.replace(inv.getArgument(1), SagaStepStatus.COMPENSATING, SagaStepStatus.COMPENSATED));
+
+        // The first compensation stays open until the other worker is done, so the two always overlap
+        CountDownLatch otherWorkerDone = new CountDownLatch(1);
+        Map<UUID, AtomicInteger> runs = new ConcurrentHashMap<>();
+        when(stepExecutor.executeCompensation(any(), eq(saga))).thenAnswer(inv -> {
+            SagaStepEntity step = inv.getArgument(0);
+            if (runs.computeIfAbsent(step.getId(), id -> new AtomicInteger()).incrementAndGet() == 1
+                    && step == reserve) {
+                otherWorkerDone.await(5, TimeUnit.SECONDS);
+            }
+            return true;
+        });
+
+        submitted.clear();
+        service.executeSaga(sagaId);
+        service.executeSaga(sagaId);
+        ExecutorService workers = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (Runnable task : submitted) {
+                done.add(workers.submit(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        otherWorkerDone.countDown();
+                    }
+                }));
+            }
+            for (Future<?> future : done) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        assertThat(runs.get(reserve.getId())).hasValue(1);
+        assertThat(runs.get(validate.getId())).hasValue(1);
+        assertThat(stored.get(reserve.getId())).isEqualTo(SagaStepStatus.COMPENSATED);
+        assertThat(stored.get(validate.getId())).isEqualTo(SagaStepStatus.COMPENSATED);
+    }
+
+    private SagaInstance startProcessingSaga() {
+        List<SagaInstance> saved = new ArrayList<>();
+        when(sagaRepository.save(any(SagaInstance.class))).thenAnswer(inv -> {
+            SagaInstance saga = withId(inv.getArgument(0));
+            saved.add(saga);
+            return saga;
+        });
+        assertThat(service.startOrderProcessingSaga(orderId)).isEqualTo(sagaId);
+        return saved.get(0);
+    }
+
+    private SagaInstance withId(SagaInstance saga) {
+        saga.setId(sagaId);
+        return saga;
+    }
+
+    private void runNext() {
+        assertThat(submitted).isNotEmpty();
+        submitted.remove(0).run();
+    }
+}
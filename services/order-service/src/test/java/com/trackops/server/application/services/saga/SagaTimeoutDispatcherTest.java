@@ -0,0 +1,53 @@
+package com.trackops.server.application.services.saga;
+
+import com.trackops.server.adapters.output.monitoring.MetricsService;
+import com.trackops.server.ports.output.persistence.saga.SagaRepository;
+import com.trackops.server.ports.output.persistence.saga.SagaRepository.TimedOutSteps;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SagaTimeoutDispatcher")
+class SagaTimeoutDispatcherTest {
+
+    @Mock
+    private SagaRepository sagaRepository;
+
+    @Mock
+    private SagaOrchestratorService sagaOrchestratorService;
+
+    @Mock
+    private MetricsService metricsService;
+
+    @InjectMocks
+    private SagaTimeoutDispatcher dispatcher;
+
+    @Test
+    @DisplayName("counts every timed-out step but compensates each saga once")
+    void countsStepsAndCompensatesSagas() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(sagaRepository.failTimedOutSteps(any(Instant.class), anyInt()))
+            .thenReturn(new TimedOutSteps(3, List.of(first, second)))
+            .thenReturn(TimedOutSteps.NONE);
+
+        dispatcher.dispatchTimeouts();
+
+        verify(metricsService).recordSagaStepsTimedOut(3);
+        verify(sagaOrchestratorService).compensateSaga(first, "Step timed out");
+        verify(sagaOrchestratorService).compensateSaga(second, "Step timed out");
+    }
+}
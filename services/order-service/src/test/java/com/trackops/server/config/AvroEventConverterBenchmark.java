@@ -0,0 +1,224 @@
+package com.trackops.server.config;
+
+import com.trackops.server.domain.events.orders.OrderCancelledEvent;
+import com.trackops.server.domain.events.orders.OrderCreatedEvent;
+import com.trackops.server.domain.events.orders.OrderEvent;
+import com.trackops.server.domain.events.orders.OrderStatusUpdatedEvent;
+import com.trackops.server.domain.model.enums.OrderStatus;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-event cost of converting order events to Avro and back: CPU time and allocated bytes per event for the
+ * previous {@code GenericRecord} conversion (schema lookup per event, {@code put}/{@code get} by field name)
+ * and for {@link AvroEventConverter} with the generated SpecificRecord classes. Measured for the conversion
+ * alone and with binary serialization and deserialization, as the Kafka (de)serializers do it (without the
+ * registry lookup and the 5-byte header), with the generated classes' custom coders enabled as in the services.
+ * The event mix is created, status-updated and cancelled events.
+ * Run with {@code ./gradlew benchmark --tests '*AvroEventConverterBenchmark'}.
+ */
+@Tag("benchmark")
+@DisplayName("Avro event converter benchmark")
+class AvroEventConverterBenchmark {
+
+    static {
+        // As set by the services' main methods
+        System.setProperty("org.apache.avro.specific.use_custom_coders", "true");
+    }
+
+    private static final int WARMUP = 200_000;
+    private static final int EVENTS = 1_000_000;
+
+    @Test
+    @DisplayName("GenericRecord by field name vs generated SpecificRecord classes")
+    void compareConverters() throws Exception {
+        OrderEvent[] events = events();
+        LegacyConverter legacy = new LegacyConverter();
+        AvroEventConverter converter = new AvroEventConverter();
+        GenericCodec genericCodec = new GenericCodec();
+        SpecificCodec specificCodec = new SpecificCodec();
+
+        System.out.printf("%n%-40s %14s %14s%n", "scenario", "CPU ns/event", "bytes/event");
+        measure("generic, convert", events, event -> legacy.fromAvro(legacy.toAvro(event)));
+        measure("specific, convert", events, event -> fromSpecific(converter, toSpecific(converter, event)));
+        measure("generic, convert + serialize + read", events,
+            event -> legacy.fromAvro(genericCodec.roundTrip(legacy.toAvro(event))));
+        measure("specific, convert + serialize + read", events,
+            event -> fromSpecific(converter, specificCodec.roundTrip(toSpecific(converter, event))));
+    }
+
+    private static void measure(String scenario, OrderEvent[] events, Handler handler) throws Exception {
+        Object sink = null;
+        for (int i = 0; i < WARMUP; i++) {
+            sink = handler.handle(events[i % events.length]);
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long cpuBefore = threads.getCurrentThreadCpuTime();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < EVENTS; i++) {
+            sink = handler.handle(events[i % events.length]);
+        }
+        long cpu = threads.getCurrentThreadCpuTime() - cpuBefore;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        System.out.printf("%-40s %14d %14d%n", scenario, cpu / EVENTS, allocated / EVENTS);
+        if (sink == null) {
+            throw new IllegalStateException("no result");
+        }
+    }
+
+    private static OrderEvent[] events() {
+        OrderEvent[] events = new OrderEvent[60];
+        for (int i = 0; i < events.length; i++) {
+            UUID orderId = UUID.randomUUID();
+            events[i] = switch (i % 3) {
+                case 0 -> new OrderCreatedEvent(orderId, "user-" + i);
+                case 1 -> new OrderStatusUpdatedEvent(orderId, OrderStatus.PENDING, OrderStatus.CONFIRMED, (long) i);
+                default -> new OrderCancelledEvent(orderId, "user-" + i, "Customer changed their mind");
+            };
+        }
+        return events;
+    }
+
+    private static org.apache.avro.specific.SpecificRecordBase toSpecific(AvroEventConverter converter, OrderEvent event) {
+        if (event instanceof OrderCreatedEvent created) {
+            return converter.toAvro(created);
+        }
+        if (event instanceof OrderStatusUpdatedEvent updated) {
+            return converter.toAvro(updated);
+        }
+        return converter.toAvro((OrderCancelledEvent) event);
+    }
+
+    private static OrderEvent fromSpecific(AvroEventConverter converter, GenericRecord record) {
+        if (record instanceof com.trackops.events.orders.OrderCreatedEvent) {
+            return converter.fromAvro(record);
+        }
+        if (record instanceof com.trackops.events.orders.OrderStatusUpdatedEvent) {
+            return converter.fromAvroStatusUpdated(record);
+        }
+        return converter.fromAvroCancelled(record);
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(OrderEvent event) throws Exception;
+    }
+
+    private static final class GenericCodec {
+        private final Map<Schema, DatumWriter<GenericRecord>> writers = new ConcurrentHashMap<>();
+        private final Map<Schema, DatumReader<GenericRecord>> readers = new ConcurrentHashMap<>();
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private BinaryEncoder encoder;
+        private BinaryDecoder decoder;
+
+        GenericRecord roundTrip(GenericRecord record) throws IOException {
+            out.reset();
+            encoder = EncoderFactory.get().binaryEncoder(out, encoder);
+            writers.computeIfAbsent(record.getSchema(), GenericDatumWriter::new).write(record, encoder);
+            encoder.flush();
+            decoder = DecoderFactory.get().binaryDecoder(out.toByteArray(), decoder);
+            return readers.computeIfAbsent(record.getSchema(), GenericDatumReader::new).read(null, decoder);
+        }
+    }
+
+    private static final class SpecificCodec {
+        private final Map<Class<?>, DatumWriter<Object>> writers = new ConcurrentHashMap<>();
+        private final Map<Class<?>, DatumReader<Object>> readers = new ConcurrentHashMap<>();
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private BinaryEncoder encoder;
+        private BinaryDecoder decoder;
+
+        GenericRecord roundTrip(org.apache.avro.specific.SpecificRecordBase record) throws IOException {
+            out.reset();
+            encoder = EncoderFactory.get().binaryEncoder(out, encoder);
+            writers.computeIfAbsent(record.getClass(), type -> new SpecificDatumWriter<>(record.getSchema()))
+                .write(record, encoder);
+            encoder.flush();
+            decoder = DecoderFactory.get().binaryDecoder(out.toByteArray(), decoder);
+            return (GenericRecord) readers.computeIfAbsent(record.getClass(),
+                type -> new SpecificDatumReader<>(record.getSchema())).read(null, decoder);
+        }
+    }
+
+    /**
+     * The conversion before the generated classes, kept as the baseline: schema looked up per event,
+     * fields set and read by name.
+     */
+    private static final class LegacyConverter {
+
+        private final Map<String, Schema> bundled = Map.of(
+            "ORDER_CREATED-value", com.trackops.events.orders.OrderCreatedEvent.getClassSchema(),
+            "ORDER_STATUS_UPDATED-value", com.trackops.events.orders.OrderStatusUpdatedEvent.getClassSchema(),
+            "ORDER_CANCELLED-value", com.trackops.events.orders.OrderCancelledEvent.getClassSchema());
+        private final Map<String, Schema> schemaCache = new ConcurrentHashMap<>();
+
+        GenericRecord toAvro(OrderEvent event) {
+            if (event instanceof OrderCreatedEvent created) {
+                GenericRecord record = new GenericData.Record(getSchema("ORDER_CREATED-value"));
+                record.put("orderId", created.getOrderId().toString());
+                record.put("eventType", "ORDER_CREATED");
+                record.put("createdBy", created.getCreatedBy());
+                return record;
+            }
+            if (event instanceof OrderStatusUpdatedEvent updated) {
+                GenericRecord record = new GenericData.Record(getSchema("ORDER_STATUS_UPDATED-value"));
+                record.put("orderId", updated.getOrderId().toString());
+                record.put("eventType", "ORDER_STATUS_UPDATED");
+                record.put("previousStatus", updated.getPreviousStatus().toString());
+                record.put("newStatus", updated.getNewStatus().toString());
+                record.put("expectedVersion", updated.getExpectedVersion());
+                return record;
+            }
+            OrderCancelledEvent cancelled = (OrderCancelledEvent) event;
+            GenericRecord record = new GenericData.Record(getSchema("ORDER_CANCELLED-value"));
+            record.put("orderId", cancelled.getOrderId().toString());
+            record.put("eventType", "ORDER_CANCELLED");
+            record.put("cancelledBy", cancelled.getCancelledBy());
+            record.put("cancellationReason", cancelled.getCancellationReason());
+            record.put("cancelledAt", cancelled.getCancelledAt() != null ? cancelled.getCancelledAt().toString() : null);
+            return record;
+        }
+
+        OrderEvent fromAvro(GenericRecord record) {
+            return switch (record.getSchema().getName()) {
+                case "OrderCreatedEvent" -> new OrderCreatedEvent(
+                    UUID.fromString(record.get("orderId").toString()),
+                    record.get("createdBy").toString());
+                case "OrderStatusUpdatedEvent" -> new OrderStatusUpdatedEvent(
+                    UUID.fromString(record.get("orderId").toString()),
+                    OrderStatus.valueOf(record.get("previousStatus").toString()),
+                    OrderStatus.valueOf(record.get("newStatus").toString()),
+                    record.get("expectedVersion") != null ? (Long) record.get("expectedVersion") : null);
+                default -> new OrderCancelledEvent(
+                    UUID.fromString(record.get("orderId").toString()),
+                    record.get("cancelledBy").toString(),
+                    record.get("cancellationReason").toString());
+            };
+        }
+
+        private Schema getSchema(String subject) {
+            return schemaCache.computeIfAbsent(subject, bundled::get);
+        }
+    }
+}
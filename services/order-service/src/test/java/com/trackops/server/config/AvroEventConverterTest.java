@@ -0,0 +1,97 @@
+package com.trackops.server.config;
+
+import com.trackops.server.domain.events.orders.OrderCancelledEvent;
+import com.trackops.server.domain.events.orders.OrderCreatedEvent;
+import com.trackops.server.domain.events.orders.OrderDeliveredEvent;
+import com.trackops.server.domain.events.orders.OrderStatusUpdatedEvent;
+import com.trackops.server.domain.model.enums.OrderStatus;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.avro.specific.SpecificRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("AvroEventConverter")
+class AvroEventConverterTest {
+
+    private final AvroEventConverter converter = new AvroEventConverter();
+
+    @Test
+    @DisplayName("generated classes carry exactly the schemas in /schemas/avro")
+    void generatedSchemasMatchBundle() throws IOException {
+        assertThat(com.trackops.events.orders.OrderCreatedEvent.getClassSchema())
+            .isEqualTo(bundled("OrderCreatedEvent"));
+        assertThat(com.trackops.events.orders.OrderStatusUpdatedEvent.getClassSchema())
+            .isEqualTo(bundled("OrderStatusUpdatedEvent"));
+        assertThat(com.trackops.events.orders.OrderDeliveredEvent.getClassSchema())
+            .isEqualTo(bundled("OrderDeliveredEvent"));
+        assertThat(com.trackops.events.orders.OrderCancelledEvent.getClassSchema())
+            .isEqualTo(bundled("OrderCancelledEvent"));
+    }
+
+    @Test
+    @DisplayName("events survive a binary round trip through the generated classes")
+    void roundTrip() throws IOException {
+        UUID orderId = UUID.randomUUID();
+        LocalDateTime deliveredAt = LocalDateTime.of(2024, 5, 1, 12, 30, 15);
+
+        OrderCreatedEvent created = converter.fromAvro(
+            roundTrip(converter.toAvro(new OrderCreatedEvent(orderId, "alice"))));
+        OrderStatusUpdatedEvent updated = converter.fromAvroStatusUpdated(roundTrip(converter.toAvro(
+            new OrderStatusUpdatedEvent(orderId, OrderStatus.PENDING, OrderStatus.CONFIRMED, 3L))));
+        OrderDeliveredEvent delivered = converter.fromAvroDelivered(
+            roundTrip(converter.toAvro(new OrderDeliveredEvent(orderId, deliveredAt))));
+        OrderCancelledEvent cancelled = converter.fromAvroCancelled(
+            roundTrip(converter.toAvro(new OrderCancelledEvent(orderId, "bob", "changed mind"))));
+
+        assertThat(created.getOrderId()).isEqualTo(orderId);
+        assertThat(created.getCreatedBy()).isEqualTo("alice");
+        assertThat(updated.getPreviousStatus()).isEqualTo(OrderStatus.PENDING);
+        assertThat(updated.getNewStatus()).isEqualTo(OrderStatus.CONFIRMED);
+        assertThat(updated.getExpectedVersion()).isEqualTo(3L);
+        assertThat(delivered.getDeliveredAt()).isEqualTo(deliveredAt);
+        assertThat(cancelled.getCancelledBy()).isEqualTo("bob");
+        assertThat(cancelled.getCancellationReason()).isEqualTo("changed mind");
+    }
+
+    @Test
+    @DisplayName("a GenericRecord (specific reader disabled) is rejected with a clear message")
+    void rejectsGenericRecord() {
+        GenericData.Record generic = new GenericData.Record(com.trackops.events.orders.OrderCreatedEvent.getClassSchema());
+
+        assertThatThrownBy(() -> converter.fromAvro(generic))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("specific.avro.reader");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends SpecificRecord> T roundTrip(T record) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        new SpecificDatumWriter<T>(record.getSchema()).write(record, encoder);
+        encoder.flush();
+        BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(out.toByteArray(), null);
+        return new SpecificDatumReader<T>((Class<T>) record.getClass()).read(null, decoder);
+    }
+
+    private static Schema bundled(String name) throws IOException {
+        try (InputStream in = AvroEventConverterTest.class.getResourceAsStream("/schemas/avro/" + name + ".avsc")) {
+            return new Schema.Parser().parse(in);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.trackops.server.config;
+
+import com.trackops.events.schema.LocalSchemaBundle;
+import com.trackops.events.schema.OrderEventsSubjectNameStrategy;
+import com.trackops.server.adapters.input.messaging.orders.OrderEventRetryTopics;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("OrderEventsSubjectNameStrategy")
+class OrderEventsSubjectNameStrategyTest {
+
+    private static final Schema SCHEMA = SchemaBuilder.record("OrderCreatedEvent")
+        .namespace("com.trackops.events.orders")
+        .fields().requiredString("orderId").endRecord();
+
+    private final OrderEventsSubjectNameStrategy strategy = new OrderEventsSubjectNameStrategy();
+    private final ParsedSchema parsedSchema = mock(ParsedSchema.class);
+
+    @Test
+    @DisplayName("names subjects per record type on the consolidated topic and per topic everywhere else")
+    void subjectNames() {
+        strategy.configure(Map.of(OrderEventsSubjectNameStrategy.TOPIC_CONFIG, "ORDER_EVENTS"));
+        when(parsedSchema.name()).thenReturn(SCHEMA.getFullName());
+
+        assertThat(strategy.subjectName("ORDER_EVENTS", false, parsedSchema))
+            .isEqualTo("ORDER_EVENTS-com.trackops.events.orders.OrderCreatedEvent");
+        assertThat(strategy.subjectName("ORDER_CREATED", false, parsedSchema)).isEqualTo("ORDER_CREATED-value");
+        assertThat(strategy.subjectName("ORDER_EVENTS", true, parsedSchema)).isEqualTo("ORDER_EVENTS-key");
+    }
+
+    @Test
+    @DisplayName("retry tier topics use the subject of their main topic")
+    void retryTierSubjects() {
+        strategy.configure(Map.of());
+
+        assertThat(strategy.subjectName(OrderEventRetryTopics.tierTopic("ORDER_CREATED", 1000), false, parsedSchema))
+            .isEqualTo("ORDER_CREATED-value");
+        assertThat(strategy.subjectName("INVENTORY_RELEASED-retry-100000", false, parsedSchema))
+            .isEqualTo("INVENTORY_RELEASED-value");
+        assertThat(strategy.subjectName("ORDER_CREATED-retry-later", false, parsedSchema))
+            .isEqualTo("ORDER_CREATED-retry-later-value");
+    }
+
+    @Test
+    @DisplayName("retry tiers of the consolidated topic use its per record subjects, which the bundle lists")
+    void consolidatedRetryTierSubjects() {
+        strategy.configure(Map.of(OrderEventsSubjectNameStrategy.TOPIC_CONFIG, "ORDER_EVENTS"));
+        when(parsedSchema.name()).thenReturn(SCHEMA.getFullName());
+        LocalSchemaBundle bundle = LocalSchemaBundle.of(Map.of("ORDER_CREATED-value", SCHEMA))
+            .withRecordSubjects("ORDER_EVENTS");
+
+        String subject = strategy.subjectName(OrderEventRetryTopics.tierTopic("ORDER_EVENTS", 1000), false, parsedSchema);
+
+        assertThat(subject).isEqualTo("ORDER_EVENTS-com.trackops.events.orders.OrderCreatedEvent");
+        assertThat(bundle.getSchema(subject)).contains(SCHEMA);
+    }
+
+    @Test
+    @DisplayName("lists the bundled schemas under the consolidated topic subjects for startup resolution")
+    void bundleRecordSubjects() {
+        LocalSchemaBundle bundle = LocalSchemaBundle.of(Map.of("ORDER_CREATED-value", SCHEMA))
+            .withRecordSubjects("ORDER_EVENTS");
+
+        assertThat(bundle.getSchemas()).containsOnlyKeys(
+            "ORDER_CREATED-value", "ORDER_EVENTS-com.trackops.events.orders.OrderCreatedEvent");
+        assertThat(bundle.getSchema("ORDER_EVENTS-com.trackops.events.orders.OrderCreatedEvent")).contains(SCHEMA);
+    }
+}
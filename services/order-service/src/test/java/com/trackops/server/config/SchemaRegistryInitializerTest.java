@@ -0,0 +1,113 @@
+package com.trackops.server.config;
+
+import com.trackops.events.schema.LocalSchemaBundle;
+import com.trackops.events.schema.SchemaRegistryInitializer;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@DisplayName("SchemaRegistryInitializer")
+class SchemaRegistryInitializerTest {
+
+    private static final String SUBJECT = "ORDER_CREATED-value";
+    private static final Schema SCHEMA = SchemaBuilder.record("OrderCreatedEvent")
+        .namespace("com.trackops.events")
+        .fields().requiredString("orderId").endRecord();
+
+    private final SchemaRegistryClient client = mock(SchemaRegistryClient.class);
+    private final LocalSchemaBundle bundle = LocalSchemaBundle.of(Map.of(SUBJECT, SCHEMA));
+    private final SchemaRegistryService service = new SchemaRegistryService(client, bundle);
+
+    @Test
+    @DisplayName("register mode registers a bundled schema the registry does not know and caches its ID")
+    void registersMissingSchema() throws Exception {
+        when(client.getId(eq(SUBJECT), any(ParsedSchema.class))).thenThrow(notFound());
+        when(client.register(eq(SUBJECT), any(ParsedSchema.class))).thenReturn(7);
+
+        new SchemaRegistryInitializer(service, bundle, false, true).resolveAll(Duration.ofSeconds(5));
+
+        assertThat(service.getResolvedSchemaId(SUBJECT)).contains(7);
+        assertThat(service.getSchemaById(7)).isEqualTo(SCHEMA);
+        verify(client, never()).getSchemaById(7);
+    }
+
+    @Test
+    @DisplayName("verify mode only looks up IDs and never registers")
+    void verifyModeLooksUpOnly() throws Exception {
+        when(client.getId(eq(SUBJECT), any(ParsedSchema.class))).thenReturn(3);
+
+        new SchemaRegistryInitializer(service, bundle, true, true).resolveAll(Duration.ofSeconds(5));
+
+        assertThat(service.getResolvedSchemaId(SUBJECT)).contains(3);
+        verify(client, never()).register(anyString(), any(ParsedSchema.class));
+    }
+
+    @Test
+    @DisplayName("verify mode fails startup when a bundled schema is not registered")
+    void verifyModeFailsOnMissingSchema() throws Exception {
+        when(client.getId(eq(SUBJECT), any(ParsedSchema.class))).thenThrow(notFound());
+
+        SchemaRegistryInitializer initializer =
+            new SchemaRegistryInitializer(service, bundle, true, true);
+
+        assertThatThrownBy(() -> initializer.resolveAll(Duration.ofSeconds(5)))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining(SUBJECT);
+        verify(client, never()).register(anyString(), any(ParsedSchema.class));
+    }
+
+    @Test
+    @DisplayName("an unreachable registry does not fail startup; unresolved subjects are retried")
+    void retriesWhenRegistryUnreachable() throws Exception {
+        when(client.getId(eq(SUBJECT), any(ParsedSchema.class)))
+            .thenThrow(new IOException("Connection refused"))
+            .thenReturn(5);
+
+        SchemaRegistryInitializer initializer =
+            new SchemaRegistryInitializer(service, bundle, true, true);
+        initializer.resolveAll(Duration.ofSeconds(5));
+        assertThat(service.getResolvedSchemaId(SUBJECT)).isEmpty();
+
+        initializer.retryUnresolved();
+        assertThat(service.getResolvedSchemaId(SUBJECT)).contains(5);
+    }
+
+    @Test
+    @DisplayName("the latest schema of a bundled subject comes from the bundle, not the registry")
+    void latestSchemaFromBundle() {
+        assertThat(service.getLatestSchema(SUBJECT)).isEqualTo(SCHEMA);
+        verifyNoMoreInteractions(client);
+    }
+
+    @Test
+    @DisplayName("schema.registry.mode accepts register and verify only")
+    void parsesMode() {
+        assertThat(SchemaRegistryInitializer.isVerifyOnly("verify")).isTrue();
+        assertThat(SchemaRegistryInitializer.isVerifyOnly(" Register ")).isFalse();
+        assertThatThrownBy(() -> SchemaRegistryInitializer.isVerifyOnly("offline"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static RestClientException notFound() {
+        return new RestClientException("Subject not found", 404, 40401);
+    }
+}